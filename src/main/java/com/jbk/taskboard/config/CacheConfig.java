@@ -0,0 +1,16 @@
+package com.jbk.taskboard.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process response caches (see CacheProperties). The caches themselves
+ * live in the service layer, next to the write paths that evict them; their
+ * hit, miss and eviction counters are published as cache.* metrics on
+ * /actuator/metrics. So is the coalescing of identical concurrent reads (see
+ * CoalescingProperties).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({ CacheProperties.class, CoalescingProperties.class })
+public class CacheConfig {
+}
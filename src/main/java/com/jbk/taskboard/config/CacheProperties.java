@@ -0,0 +1,82 @@
+package com.jbk.taskboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the in-process response caches (taskboard.cache.*), of the
+ * encoded task responses (taskboard.cache.task-json.*), of the task listings
+ * of a project (taskboard.cache.task-lists.*), of the last pages of the
+ * other listings (taskboard.cache.last-pages.*), of the snapshot of
+ * these caches (taskboard.cache.snapshot.*) and of the Hibernate second-level
+ * cache regions (taskboard.cache.entities.*).
+ * Each cache holds at most maximumSize entries (least recently used ones are
+ * evicted first) and drops an entry timeToLive after it was loaded, which
+ * bounds how long another node can serve a value changed elsewhere.
+ */
+@ConfigurationProperties("taskboard.cache")
+public record CacheProperties(
+        @DefaultValue Spec users,
+        @DefaultValue Spec projects,
+        @DefaultValue Entities entities,
+        @DefaultValue TaskJson taskJson,
+        @DefaultValue Snapshot snapshot,
+        @DefaultValue TaskLists taskLists,
+        @DefaultValue LastPages lastPages) {
+
+    // Size and expiry of one cache.
+    public record Spec(
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("10m") Duration timeToLive) {
+    }
+
+    // Second-level cache: on/off and the size and expiry of each region
+    // (users, email to user ID resolutions, projects).
+    public record Entities(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue Spec users,
+            @DefaultValue Spec userEmails,
+            @DefaultValue Spec projects) {
+    }
+
+    // Encoded task responses: total size of the cached bytes (JSON and gzip),
+    // expiry, and whether a gzip form is kept for JSON of at least
+    // gzipMinSize.
+    public record TaskJson(
+            @DefaultValue("32MB") DataSize maximumWeight,
+            @DefaultValue("10m") Duration timeToLive,
+            @DefaultValue("false") boolean gzip,
+            @DefaultValue("1KB") DataSize gzipMinSize) {
+    }
+
+    // Snapshot of the user, project and encoded task caches on local disk:
+    // on/off, file, and delay between two writes (a last one is written on
+    // shutdown).
+    public record Snapshot(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("taskboard-cache.snapshot") Path file,
+            @DefaultValue("5m") Duration interval) {
+    }
+
+    // Task listings of a project: on/off, number of cached listings and task
+    // rows, and expiry of both.
+    public record TaskLists(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("100000") long maximumRows,
+            @DefaultValue("10m") Duration timeToLive) {
+    }
+
+    // Last pages of the user, project and cross-project task listings, only
+    // served while the database is unavailable: number of cached pages and
+    // how long one can be served after it was read.
+    public record LastPages(
+            @DefaultValue("1000") long maximumSize,
+            @DefaultValue("30m") Duration timeToLive) {
+    }
+}
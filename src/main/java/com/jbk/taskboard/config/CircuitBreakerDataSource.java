@@ -0,0 +1,83 @@
+package com.jbk.taskboard.config;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * DataSource that requests its connections through the database circuit
+ * breaker.
+ * Every connection request is recorded: failures (e.g. the pool timing out
+ * while the database fails over) and slow acquisitions count towards opening
+ * the breaker. While it is open, connections are refused right away with a
+ * SQLTransientConnectionException (SQL state 08001), which Hibernate and
+ * Spring report as a database access failure, instead of each request
+ * holding its thread until the pool times out. Statements failing on a
+ * broken connection are not recorded as such, but the pool then drops the
+ * connection and the next request for one is.
+ */
+public class CircuitBreakerDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final String CONNECTION_FAILURE = "08001";
+
+    private final CircuitBreaker breaker;
+
+    public CircuitBreakerDataSource(DataSource target, CircuitBreaker breaker) {
+        super(target);
+        this.breaker = breaker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermission();
+        long start = breaker.getCurrentTimestamp();
+        try {
+            Connection con = super.getConnection();
+            breaker.onSuccess(breaker.getCurrentTimestamp() - start, breaker.getTimestampUnit());
+            return con;
+        } catch (SQLException | RuntimeException ex) {
+            breaker.onError(breaker.getCurrentTimestamp() - start, breaker.getTimestampUnit(), ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermission();
+        long start = breaker.getCurrentTimestamp();
+        try {
+            Connection con = super.getConnection(username, password);
+            breaker.onSuccess(breaker.getCurrentTimestamp() - start, breaker.getTimestampUnit());
+            return con;
+        } catch (SQLException | RuntimeException ex) {
+            breaker.onError(breaker.getCurrentTimestamp() - start, breaker.getTimestampUnit(), ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Closes the wrapped pool (this DataSource replaces the pool bean, so it
+     * is the one closed on shutdown).
+     * 
+     * @throws Exception if the pool fails to close.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    // Refuses the connection request while the breaker does not permit it.
+    private void acquirePermission() throws SQLException {
+        if (!breaker.tryAcquirePermission()) {
+            throw new SQLTransientConnectionException("Database circuit breaker is " + breaker.getState(),
+                    CONNECTION_FAILURE, CallNotPermittedException.createCallNotPermittedException(breaker));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.jbk.taskboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the database circuit breaker (taskboard.circuit-breaker.*).
+ * The breaker opens when, over the last slidingWindowSize connection
+ * requests (at least minimumNumberOfCalls), failureRateThreshold percent
+ * failed or slowCallRateThreshold percent took longer than
+ * slowCallDurationThreshold. It stays open waitDurationInOpenState, then lets
+ * permittedCallsInHalfOpenState connection requests through to decide
+ * whether to close again.
+ */
+@ConfigurationProperties("taskboard.circuit-breaker")
+public record CircuitBreakerProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50") float failureRateThreshold,
+        @DefaultValue("80") float slowCallRateThreshold,
+        @DefaultValue("2s") Duration slowCallDurationThreshold,
+        @DefaultValue("20") int slidingWindowSize,
+        @DefaultValue("10") int minimumNumberOfCalls,
+        @DefaultValue("10s") Duration waitDurationInOpenState,
+        @DefaultValue("3") int permittedCallsInHalfOpenState,
+        @DefaultValue Probe probe) {
+
+    // Background check of the database while the breaker is not closed:
+    // delay between two checks, randomly shortened or lengthened by up to
+    // jitter (a fraction of the interval).
+    public record Probe(
+            @DefaultValue("5s") Duration interval,
+            @DefaultValue("0.5") double jitter) {
+    }
+}
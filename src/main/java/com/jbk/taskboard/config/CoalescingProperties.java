@@ -0,0 +1,18 @@
+package com.jbk.taskboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the coalescing of identical concurrent reads
+ * (taskboard.coalescing.*).
+ * A request that finds the same read already in flight waits for its result
+ * at most maxWait, then reads on its own.
+ */
+@ConfigurationProperties("taskboard.coalescing")
+public record CoalescingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2s") Duration maxWait) {
+}
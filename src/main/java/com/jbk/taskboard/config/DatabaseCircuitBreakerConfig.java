@@ -0,0 +1,93 @@
+package com.jbk.taskboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Circuit breaker around database access (on unless
+ * taskboard.circuit-breaker.enabled=false, see CircuitBreakerProperties).
+ * Connection pools (HikariDataSource beans) are wrapped in a
+ * CircuitBreakerDataSource, so that while the database is failing or too
+ * slow, requests fail fast instead of tying up a Tomcat thread and a
+ * connection request each until the pool times out: reads of cached
+ * resources are answered from the service caches (see StaleResponses), the
+ * other requests with 503.
+ * DatabaseProbe checks the database in the background until the breaker
+ * closes again. The breaker state and call counts are published as
+ * resilience4j.circuitbreaker.* metrics (name "database").
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "taskboard.circuit-breaker", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+@EnableConfigurationProperties(CircuitBreakerProperties.class)
+public class DatabaseCircuitBreakerConfig {
+
+    /**
+     * Wraps the connection pools in a CircuitBreakerDataSource (static: bean
+     * post-processors are created before the other beans).
+     * 
+     * @param breaker
+     * @return
+     */
+    @Bean
+    public static BeanPostProcessor circuitBreakerDataSourcePostProcessor(ObjectProvider<CircuitBreaker> breaker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource pool
+                        ? new CircuitBreakerDataSource(pool, breaker.getObject())
+                        : bean;
+            }
+        };
+    }
+
+    /**
+     * Database circuit breaker, with its metrics.
+     * 
+     * @param properties
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public CircuitBreaker databaseCircuitBreaker(CircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.failureRateThreshold())
+                .slowCallRateThreshold(properties.slowCallRateThreshold())
+                .slowCallDurationThreshold(properties.slowCallDurationThreshold())
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(properties.slidingWindowSize())
+                .minimumNumberOfCalls(properties.minimumNumberOfCalls())
+                .waitDurationInOpenState(properties.waitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.permittedCallsInHalfOpenState())
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker("database");
+    }
+
+    /**
+     * Background check of the database while the breaker is not closed.
+     * 
+     * @param dataSource
+     * @param breaker
+     * @param properties
+     * @return
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public DatabaseProbe databaseProbe(DataSource dataSource, CircuitBreaker breaker,
+            CircuitBreakerProperties properties) {
+        return new DatabaseProbe(dataSource, breaker, properties.probe().interval(), properties.probe().jitter());
+    }
+}
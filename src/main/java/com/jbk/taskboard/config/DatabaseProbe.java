@@ -0,0 +1,97 @@
+package com.jbk.taskboard.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background revalidation of the database while the circuit breaker is not
+ * closed.
+ * Every interval (randomly shortened or lengthened by up to the jitter, so
+ * that the instances of a cluster do not all probe at the same moment after
+ * a failover) it requests a connection through the breaker and validates it.
+ * Once the open state has lasted long enough the request is let through as a
+ * half-open trial, so the breaker closes again without waiting for client
+ * requests, which keep being served stale meanwhile.
+ */
+public class DatabaseProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseProbe.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private final CircuitBreaker breaker;
+    private final long intervalMillis;
+    private final double jitter;
+    private ScheduledExecutorService executor;
+
+    public DatabaseProbe(DataSource dataSource, CircuitBreaker breaker, Duration interval, double jitter) {
+        this.dataSource = dataSource;
+        this.breaker = breaker;
+        this.intervalMillis = interval.toMillis();
+        this.jitter = jitter;
+    }
+
+    /**
+     * Starts the periodic checks.
+     */
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "database-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        schedule();
+    }
+
+    /**
+     * Stops the periodic checks.
+     */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Probes the database if the breaker is not closed (never throws).
+    void probe() {
+        CircuitBreaker.State state = breaker.getState();
+        if (state == CircuitBreaker.State.CLOSED || state == CircuitBreaker.State.DISABLED) {
+            return;
+        }
+        try (Connection con = dataSource.getConnection()) {
+            boolean valid = con.isValid(VALIDATION_TIMEOUT_SECONDS);
+            log.info("Database probe while the circuit breaker was {}: connection {}", state,
+                    valid ? "valid" : "invalid");
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Database probe while the circuit breaker was {} failed: {}", state, ex.getMessage());
+        }
+    }
+
+    // Returns the delay before the next check: the interval, give or take up
+    // to the jitter.
+    long nextDelayMillis() {
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(1, Math.round(intervalMillis * factor));
+    }
+
+    // Schedules the next check (each run schedules the following one, with a
+    // new random delay).
+    private void schedule() {
+        executor.schedule(() -> {
+            probe();
+            if (!executor.isShutdown()) {
+                schedule();
+            }
+        }, nextDelayMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,95 @@
+package com.jbk.taskboard.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache (enabled by default, off with
+ * taskboard.cache.entities.enabled=false; the base configuration keeps it off
+ * for contexts without this class, such as the JPA test slices).
+ * The regions of AppUser and Project are JCache caches of the Caffeine
+ * provider, created here with the size and expiry of CacheProperties.Entities
+ * and handed to Hibernate, which fails to start if an entity names another
+ * region. Their hit, miss, eviction and size metrics are published as cache.*
+ * metrics tagged with the region name.
+ * The cache is local to each instance: a change made through another instance
+ * is seen once the entry expires (bulk statements and writes through this
+ * instance evict it right away).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "taskboard.cache.entities", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+@EnableConfigurationProperties(CacheProperties.class)
+public class EntityCacheConfig {
+
+    /**
+     * Cache manager holding the regions, one per application context.
+     * 
+     * @param properties
+     * @param registry
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(CacheProperties properties, MeterRegistry registry) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("taskboard-entities-" + UUID.randomUUID()),
+                        EntityCacheConfig.class.getClassLoader());
+        CacheProperties.Entities entities = properties.entities();
+        Map.of(AppUser.CACHE_REGION, entities.users(),
+                AppUser.EMAIL_CACHE_REGION, entities.userEmails(),
+                Project.CACHE_REGION, entities.projects())
+                .forEach((region, spec) -> {
+                    Cache<Object, Object> cache = manager.createCache(region, configuration(spec));
+                    CaffeineCacheMetrics.monitor(registry,
+                            cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), region);
+                });
+        return manager;
+    }
+
+    /**
+     * Switches the second-level cache on over the regions of
+     * entityCacheManager.
+     * 
+     * @param entityCacheManager
+     * @return
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Region settings: bounded, expiring after write, storing the entries by
+    // reference (Hibernate caches immutable disassembled state, copying it on
+    // every read would be wasted) and recording the statistics of the metrics.
+    private static CaffeineConfiguration<Object, Object> configuration(CacheProperties.Spec spec) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(spec.maximumSize()))
+                .setExpireAfterWrite(OptionalLong.of(spec.timeToLive().toNanos()))
+                .setStoreByValue(false)
+                .setNativeStatisticsEnabled(true);
+    }
+}
@@ -0,0 +1,25 @@
+package com.jbk.taskboard.config;
+
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson settings on top of Spring Boot's defaults.
+ * Optional record components are read as null when the property is absent
+ * and as Optional.empty() when it is an explicit null, which is what the
+ * merge patch DTOs (e.g. TaskPatchRequestDTO) rely on.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    /**
+     * Replaces the Jdk8Module that Spring Boot registers by default.
+     * 
+     * @return
+     */
+    @Bean
+    public Jdk8Module jdk8Module() {
+        return new Jdk8Module().configureReadAbsentAsNull(true);
+    }
+}
@@ -0,0 +1,24 @@
+package com.jbk.taskboard.config;
+
+import java.util.List;
+
+/**
+ * Replica selector that picks the candidate with the fewest active
+ * connections (the first one on ties).
+ */
+public class LeastLoadedReplicaSelector implements ReplicaSelector {
+
+    @Override
+    public Replica select(List<Replica> candidates) {
+        Replica best = candidates.get(0);
+        int bestLoad = best.activeConnections();
+        for (int i = 1; i < candidates.size(); i++) {
+            int load = candidates.get(i).activeConnections();
+            if (load < bestLoad) {
+                best = candidates.get(i);
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,45 @@
+package com.jbk.taskboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * A read replica: its connection pool and whether it is currently in sync
+ * with the primary (as last seen by ReplicationLagMonitor).
+ * Replicas start out of sync, so reads stay on the primary until the first
+ * lag check succeeds.
+ */
+public class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean inSync;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isInSync() {
+        return inSync;
+    }
+
+    public void setInSync(boolean inSync) {
+        this.inSync = inSync;
+    }
+
+    // Number of connections of this replica currently in use (0 before the
+    // pool has started).
+    public int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+}
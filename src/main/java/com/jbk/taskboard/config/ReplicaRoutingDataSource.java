@@ -0,0 +1,75 @@
+package com.jbk.taskboard.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+/**
+ * DataSource used for read-only transactions.
+ * Each connection is taken from one of the replicas that are in sync, chosen
+ * by the configured ReplicaSelector; when no replica is in sync (lagging,
+ * unreachable or not checked yet) the connection comes from the primary.
+ * A replica that fails to hand out a connection is marked out of sync (until
+ * the next successful lag check) and the primary is used instead.
+ * Owns the replica pools and closes them on shutdown.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelector selector;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaSelector selector) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selector = selector;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = select();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getDataSource().getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica '{}' unavailable, reading from the primary: {}", replica.getName(), e.getMessage());
+            replica.setInSync(false);
+            return primary.getConnection();
+        }
+    }
+
+    // Like HikariCP, per-call credentials are not supported
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    // Picks an in-sync replica, or null when reads must go to the primary.
+    Replica select() {
+        List<Replica> inSync = replicas.stream().filter(Replica::isInSync).toList();
+        if (inSync.isEmpty()) {
+            log.debug("No replica in sync, reading from the primary");
+            return null;
+        }
+        return selector.select(inSync);
+    }
+}
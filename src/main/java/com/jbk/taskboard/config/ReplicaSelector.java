@@ -0,0 +1,21 @@
+package com.jbk.taskboard.config;
+
+import java.util.List;
+
+/**
+ * Strategy that picks the replica serving a read-only connection.
+ * Implementations must be thread-safe.
+ */
+public interface ReplicaSelector {
+
+    // Picks one of the candidates (never empty, all in sync).
+    Replica select(List<Replica> candidates);
+
+    // Returns the selector for the configured strategy.
+    static ReplicaSelector of(RoutingDataSourceProperties.Selection selection) {
+        return switch (selection) {
+            case ROUND_ROBIN -> new RoundRobinReplicaSelector();
+            case LEAST_LOADED -> new LeastLoadedReplicaSelector();
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.jbk.taskboard.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replication lag guard for the read replicas.
+ * Periodically reads the replication delay of each replica (SHOW REPLICA
+ * STATUS) and marks it in sync only when the delay is known and within the
+ * configured maximum. Replicas that lag, have replication stopped or cannot
+ * be checked are skipped by ReplicaRoutingDataSource until they recover.
+ * A server without replication configured (empty status) is out of sync as
+ * well, unless allowUnreplicated is set (see RoutingDataSourceProperties),
+ * so that two standalone local instances can be used for testing.
+ */
+public class ReplicationLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLagMonitor.class);
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration interval;
+    private final boolean allowUnreplicated;
+    private ScheduledExecutorService executor;
+
+    public ReplicationLagMonitor(List<Replica> replicas, Duration maxLag, Duration interval,
+            boolean allowUnreplicated) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        this.interval = interval;
+        this.allowUnreplicated = allowUnreplicated;
+    }
+
+    /**
+     * Starts the periodic checks. The first one runs right away in the
+     * background, so startup is not delayed by an unreachable replica.
+     */
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic checks.
+     */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Checks every replica (never throws, or the schedule would stop).
+    void checkAll() {
+        for (Replica replica : replicas) {
+            try {
+                check(replica);
+            } catch (RuntimeException e) {
+                log.warn("Replication lag check failed for replica '{}'", replica.getName(), e);
+                replica.setInSync(false);
+            }
+        }
+    }
+
+    // Updates the in-sync flag of a replica from its current lag.
+    void check(Replica replica) {
+        boolean inSync;
+        try (Connection con = replica.getDataSource().getConnection()) {
+            Long lagSeconds = lagSeconds(con);
+            inSync = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            if (!inSync) {
+                log.warn("Replica '{}' is lagging: secondsBehind={}, max={}", replica.getName(), lagSeconds, maxLag);
+            }
+        } catch (SQLException e) {
+            log.warn("Replication lag check failed for replica '{}': {}", replica.getName(), e.getMessage());
+            inSync = false;
+        }
+        if (inSync != replica.isInSync()) {
+            log.info("Replica '{}' is now {}", replica.getName(), inSync ? "in sync" : "out of sync");
+        }
+        replica.setInSync(inSync);
+    }
+
+    // Returns the replication delay in seconds, or null when replication is
+    // not running or not configured (0 for the latter when unreplicated
+    // servers are allowed).
+    private Long lagSeconds(Connection con) throws SQLException {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return allowUnreplicated ? 0L : null;
+            }
+            // MySQL 8 names the column Seconds_Behind_Source, MariaDB Seconds_Behind_Master
+            long lag = rs.getLong(lagColumn(rs.getMetaData()));
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData meta) throws SQLException {
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String label = meta.getColumnLabel(i);
+            if (label.equalsIgnoreCase("Seconds_Behind_Source") || label.equalsIgnoreCase("Seconds_Behind_Master")) {
+                return i;
+            }
+        }
+        throw new SQLException("Replication delay column not found in SHOW REPLICA STATUS");
+    }
+}
@@ -0,0 +1,17 @@
+package com.jbk.taskboard.config;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replica selector that cycles through the candidates in order.
+ */
+public class RoundRobinReplicaSelector implements ReplicaSelector {
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public Replica select(List<Replica> candidates) {
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.jbk.taskboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Read/write datasource routing (enabled with
+ * taskboard.datasource.routing.enabled=true, off by default).
+ * The application DataSource is a LazyConnectionDataSourceProxy over the
+ * primary pool: the physical connection is only fetched on first use, once
+ * the transaction is known to be read-only, and read-only transactions
+ * (@Transactional(readOnly = true)) get it from ReplicaRoutingDataSource.
+ * Everything else (writes, Flyway, non-transactional access) uses the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "taskboard.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    /**
+     * Primary pool, built from spring.datasource.* like the default one.
+     * 
+     * @param properties
+     * @return
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Replica pools behind the replica selection and the lag guard.
+     * 
+     * @param primary
+     * @param primaryProperties
+     * @param properties
+     * @return
+     * @throws IllegalStateException if no replica is configured.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primary,
+            DataSourceProperties primaryProperties, RoutingDataSourceProperties properties) {
+        List<RoutingDataSourceProperties.Replica> configured = properties.replicas();
+        if (configured.isEmpty()) {
+            throw new IllegalStateException("taskboard.datasource.routing.replicas must not be empty");
+        }
+        List<Replica> replicas = IntStream.range(0, configured.size())
+                .mapToObj(i -> replica(i, configured.get(i), primaryProperties))
+                .toList();
+        return new ReplicaRoutingDataSource(primary, replicas, ReplicaSelector.of(properties.selection()));
+    }
+
+    /**
+     * Replication lag guard of the replicas.
+     * 
+     * @param replicaDataSource
+     * @param properties
+     * @return
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicationLagMonitor replicationLagMonitor(ReplicaRoutingDataSource replicaDataSource,
+            RoutingDataSourceProperties properties) {
+        return new ReplicationLagMonitor(replicaDataSource.getReplicas(), properties.maxReplicationLag(),
+                properties.lagCheckInterval(), properties.allowUnreplicated());
+    }
+
+    /**
+     * Application DataSource: primary for writes, replicas for read-only
+     * transactions.
+     * 
+     * @param primary
+     * @param replicaDataSource
+     * @return
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    private static Replica replica(int index, RoutingDataSourceProperties.Replica settings,
+            DataSourceProperties primary) {
+        String name = settings.name() != null ? settings.name() : "replica-" + (index + 1);
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primary.determineDriverClassName())
+                .url(settings.url())
+                .username(settings.username() != null ? settings.username() : primary.determineUsername())
+                .password(settings.password() != null ? settings.password() : primary.determinePassword())
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(settings.maximumPoolSize());
+        dataSource.setConnectionTimeout(settings.connectionTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        return new Replica(name, dataSource);
+    }
+}
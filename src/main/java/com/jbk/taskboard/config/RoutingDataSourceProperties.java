@@ -0,0 +1,41 @@
+package com.jbk.taskboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the read/write datasource routing (taskboard.datasource.routing.*).
+ * When enabled, read-only transactions use one of the replicas and every other
+ * connection uses the primary datasource (spring.datasource.*).
+ * Replica username and password default to the primary ones. A server
+ * without replication configured only counts as an in-sync replica when
+ * allowUnreplicated is set (local testing with standalone instances).
+ */
+@ConfigurationProperties("taskboard.datasource.routing")
+public record RoutingDataSourceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("round-robin") Selection selection,
+        @DefaultValue("5s") Duration maxReplicationLag,
+        @DefaultValue("5s") Duration lagCheckInterval,
+        @DefaultValue("false") boolean allowUnreplicated) {
+
+    // How a replica is chosen among the ones in sync.
+    public enum Selection {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    // Connection settings of one replica. The connection timeout is short so
+    // that an unreachable replica is quickly replaced by the primary.
+    public record Replica(
+            String name,
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize,
+            @DefaultValue("2s") Duration connectionTimeout) {
+    }
+}
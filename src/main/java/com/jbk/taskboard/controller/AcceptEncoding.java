@@ -0,0 +1,50 @@
+package com.jbk.taskboard.controller;
+
+/**
+ * Support for the Accept-Encoding request header (RFC 9110).
+ * Only used to decide whether a pre-compressed (gzip) response body can be
+ * sent; other codings are never produced.
+ */
+final class AcceptEncoding {
+
+    static final String GZIP = "gzip";
+    private static final String ANY = "*";
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header accepts gzip.
+     * 
+     * @param acceptEncoding The Accept-Encoding header value (may be null).
+     * @return true if gzip (or "*") is listed without a zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String token = parts[0].trim();
+            if ((token.equalsIgnoreCase(GZIP) || token.equals(ANY)) && !zeroQuality(parts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Checks whether the parameters of a coding include q=0.
+    private static boolean zeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].replace(" ", "");
+            if (param.startsWith("q=") || param.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) == 0;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.jbk.taskboard.controller;
 
+import com.jbk.taskboard.dto.user.AppUserPatchRequestDTO;
 import com.jbk.taskboard.dto.user.AppUserRequestDTO;
 import com.jbk.taskboard.dto.user.AppUserResponseDTO;
 import com.jbk.taskboard.service.AppUserService;
@@ -9,7 +10,11 @@ import jakarta.validation.constraints.PositiveOrZero;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -27,6 +32,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class AppUserController {
 
     private static final Logger log = LoggerFactory.getLogger(AppUserController.class);
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
     private final AppUserService service;
 
     /**
@@ -58,66 +64,132 @@ public class AppUserController {
 
     /**
      * GET endpoint - Retrieves a user by ID.
-     * Returns 200 OK with the user data.
+     * Returns 200 OK with the user data and its ETag, or 304 Not Modified when
+     * If-None-Match matches the current version (only the version is read).
+     * While the database is unavailable, the last cached user is served
+     * instead, marked stale (see StaleResponses).
      * 
      * @param id
+     * @param ifNoneMatch
      * @return
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AppUserResponseDTO> get(@PathVariable long id) {
+    public ResponseEntity<AppUserResponseDTO> get(@PathVariable long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("[GET] /api/users/{} - Fetching user", id);
-        var res = service.getById(id);
-        log.debug("Fetched user: {}", res);
-        return ResponseEntity.ok(res);
+        try {
+            if (ifNoneMatch != null) {
+                String version = service.getVersion(id);
+                if (ETags.matches(ifNoneMatch, version)) {
+                    log.debug("User with id={} not modified (version {})", id, version);
+                    return ETags.notModified(version);
+                }
+            }
+            var res = service.getById(id);
+            log.debug("Fetched user: {}", res.value());
+            return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException ex) {
+            log.warn("[GET] /api/users/{} - Database unavailable, serving the cached user", id);
+            return StaleResponses.of(service.getCachedById(id), ifNoneMatch, ex);
+        }
     }
 
     /**
      * GET endpoint - Lists users with pagination.
      * Accepts page and size as query parameters and returns 200 OK with the user
      * list
+     * With withTotal=false a slice is returned instead: totalElements and
+     * totalPages are omitted and no COUNT query is executed.
+     * While the database is unavailable, the last page read with the same
+     * page, size and withTotal is served instead, marked stale (see
+     * StaleResponses).
      * 
      * @param page
      * @param size
+     * @param withTotal
      * @return
      */
     @GetMapping
     public ResponseEntity<?> list(
             @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Page must be >= 0") int page,
-            @RequestParam(defaultValue = "20") @Positive(message = "Size must be >= 1") int size) {
+            @RequestParam(defaultValue = "20") @Positive(message = "Size must be >= 1") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         log.info("[GET] /api/users - Listing users (page={}, size={})", page, size);
-        var res = service.list(page, size);
-        log.debug("User list fetched with {} elements", res.getContent().size());
-        return ResponseEntity.ok(res);
+        try {
+            if (!withTotal) {
+                var slice = service.listSlice(page, size);
+                log.debug("User slice fetched with {} elements", slice.getNumberOfElements());
+                return ResponseEntity.ok(slice);
+            }
+            var res = service.list(page, size);
+            log.debug("User list fetched with {} elements", res.getContent().size());
+            return ResponseEntity.ok(res);
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException ex) {
+            log.warn("[GET] /api/users - Database unavailable, serving the cached user list");
+            if (!withTotal) {
+                return StaleResponses.of(service.listSliceCached(page, size), ex);
+            }
+            return StaleResponses.of(service.listCached(page, size), ex);
+        }
     }
 
     /**
      * PUT endpoint - Updates an existing user by ID.
-     * Validates the request body and returns 200 OK with the updated user.
+     * Validates the request body and returns 200 OK with the updated user and
+     * its new ETag, or 412 Precondition Failed when If-Match does not match
+     * the current version.
      * 
      * @param id
      * @param req
+     * @param ifMatch
      * @return
      */
     @PutMapping("/{id}")
     public ResponseEntity<AppUserResponseDTO> update(@PathVariable long id,
-            @Valid @RequestBody AppUserRequestDTO req) {
+            @Valid @RequestBody AppUserRequestDTO req,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[PUT] /api/users/{} - Updating user", id);
-        var res = service.update(id, req);
+        var res = service.update(id, req, ETags.expectedVersions(ifMatch));
         log.info("User with id={} updated successfully", id);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
+    }
+
+    /**
+     * PATCH endpoint - Partially updates an existing user (JSON Merge Patch:
+     * absent fields are left unchanged).
+     * Only the supplied fields are validated and written. Returns 200 OK with
+     * the patched user and its new ETag, or 412 Precondition Failed when
+     * If-Match does not match the current version.
+     * 
+     * @param id
+     * @param req
+     * @param ifMatch
+     * @return
+     */
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<AppUserResponseDTO> patch(@PathVariable long id,
+            @Valid @RequestBody AppUserPatchRequestDTO req,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("[PATCH] /api/users/{} - Patching user", id);
+        var res = service.patch(id, req, ETags.expectedVersions(ifMatch));
+        log.info("User with id={} patched successfully", id);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
     }
 
     /**
      * DELETE endpoint - Deletes a user by ID.
-     * Returns 204 No Content on successful deletion.
+     * Returns 204 No Content on successful deletion, or 412 Precondition
+     * Failed when If-Match does not match the current version.
      * 
      * @param id
+     * @param ifMatch
      * @return
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable long id) {
+    public ResponseEntity<Void> delete(@PathVariable long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[DELETE] /api/users/{} - Deleting user", id);
-        service.delete(id);
+        service.delete(id, ETags.expectedVersions(ifMatch));
         log.info("User with id={} deleted successfully", id);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,106 @@
+package com.jbk.taskboard.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Support for entity tags and conditional requests (RFC 9110).
+ * The ETag of a task, project or user is its version (see VersionedDTO) as a
+ * strong tag. GET endpoints answer If-None-Match with 304 Not Modified from a
+ * version-only query, without reading or serializing the resource; PUT, PATCH
+ * and DELETE pass the If-Match tags to the service, which answers 412
+ * Precondition Failed when none matches the current version.
+ */
+final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * Formats a version as a strong entity tag.
+     * 
+     * @param version The resource version.
+     * @return The quoted tag.
+     */
+    static String of(String version) {
+        return '"' + version + '"';
+    }
+
+    /**
+     * Formats a version as a weak entity tag, for a representation that is
+     * not byte-for-byte the identity one (e.g. gzip encoded).
+     * 
+     * @param version The resource version.
+     * @return The weak tag.
+     */
+    static String weak(String version) {
+        return WEAK_PREFIX + of(version);
+    }
+
+    /**
+     * Reads the versions accepted by an If-Match header. Weak tags never match
+     * (strong comparison), so they are left out.
+     * 
+     * @param ifMatch The If-Match header value (may be null).
+     * @return The accepted versions, or null when the header is absent or "*"
+     *         (no precondition on the version).
+     */
+    static Set<String> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<String> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals(ANY)) {
+                return null;
+            }
+            if (isQuoted(tag)) {
+                versions.add(tag.substring(1, tag.length() - 1));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Checks whether an If-None-Match header matches the current version
+     * (weak comparison, as required for GET).
+     * 
+     * @param ifNoneMatch The If-None-Match header value.
+     * @param version     The current version.
+     * @return true if one of the tags (or "*") matches.
+     */
+    static boolean matches(String ifNoneMatch, String version) {
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(ANY) || tag.equals(of(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a 304 Not Modified response for the current version.
+     * 
+     * @param version The current version.
+     * @return The response, without body.
+     */
+    static <T> ResponseEntity<T> notModified(String version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(of(version)).build();
+    }
+
+    // Checks that a tag is a quoted string (and not a weak tag).
+    private static boolean isQuoted(String tag) {
+        return tag.length() >= 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"';
+    }
+}
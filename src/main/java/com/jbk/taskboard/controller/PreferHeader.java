@@ -0,0 +1,48 @@
+package com.jbk.taskboard.controller;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Support for the "Prefer: return=minimal" request header (RFC 7240).
+ * Create and update endpoints honour it by skipping the response body, so
+ * the service does not read the written row back: creates answer 201 with
+ * the Location header only, updates answer 204.
+ */
+final class PreferHeader {
+
+    static final String NAME = "Prefer";
+    static final String APPLIED = "Preference-Applied";
+    static final String RETURN_MINIMAL = "return=minimal";
+
+    private PreferHeader() {
+    }
+
+    /**
+     * Checks whether the Prefer header asks for a minimal response.
+     * 
+     * @param prefer The Prefer header value (may be null).
+     * @return true if one of the preferences is return=minimal.
+     */
+    static boolean returnMinimal(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            String token = preference.split(";", 2)[0].replace(" ", "");
+            if (token.equalsIgnoreCase(RETURN_MINIMAL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a response without body that reports the applied preference.
+     * 
+     * @param builder The response builder (status and other headers set).
+     * @return The response.
+     */
+    static <T> ResponseEntity<T> minimal(ResponseEntity.HeadersBuilder<?> builder) {
+        return builder.header(APPLIED, RETURN_MINIMAL).build();
+    }
+}
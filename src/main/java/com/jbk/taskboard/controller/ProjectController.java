@@ -1,5 +1,6 @@
 package com.jbk.taskboard.controller;
 
+import com.jbk.taskboard.dto.project.ProjectPatchRequestDTO;
 import com.jbk.taskboard.dto.project.ProjectRequestDTO;
 import com.jbk.taskboard.dto.project.ProjectResponseDTO;
 import com.jbk.taskboard.service.ProjectService;
@@ -10,7 +11,11 @@ import jakarta.validation.constraints.PositiveOrZero;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -28,6 +33,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class ProjectController {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectController.class);
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
     private final ProjectService service;
 
     /**
@@ -41,16 +47,24 @@ public class ProjectController {
 
     /**
      * POST endpoint - Creates a new project.
-     * Validates the request body and returns 201 Created with the new project.
+     * Validates the request body and returns 201 Created with the new project,
+     * or without body when the request prefers return=minimal.
      * 
      * @param req
+     * @param prefer
      * @param uriBuilder
      * @return
      */
     @PostMapping
     public ResponseEntity<ProjectResponseDTO> create(@Valid @RequestBody ProjectRequestDTO req,
+            @RequestHeader(name = PreferHeader.NAME, required = false) String prefer,
             UriComponentsBuilder uriBuilder) {
         log.info("[POST] /api/projects - Creating project with name={}", req.name());
+        if (PreferHeader.returnMinimal(prefer)) {
+            long id = service.createMinimal(req);
+            log.info("Project created successfully with id={}", id);
+            return PreferHeader.minimal(ResponseEntity.created(uriBuilder.path("/api/projects/{id}").build(id)));
+        }
         ProjectResponseDTO res = service.create(req);
         var location = uriBuilder.path("/api/projects/{id}").build(res.id());
         log.info("Project created successfully with id={}", res.id());
@@ -59,66 +73,148 @@ public class ProjectController {
 
     /**
      * GET endpoint - Retrieves a project by ID.
-     * Returns 200 OK with the project data.
+     * Returns 200 OK with the project data and its ETag, or 304 Not Modified
+     * when If-None-Match matches the current version (only the version is
+     * read). While the database is unavailable, the last cached project is
+     * served instead, marked stale (see StaleResponses).
      * 
      * @param id
+     * @param ifNoneMatch
      * @return
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponseDTO> get(@PathVariable long id) {
+    public ResponseEntity<ProjectResponseDTO> get(@PathVariable long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("[GET] /api/projects/{} - Fetching project", id);
-        var res = service.getById(id);
-        log.debug("Project with id={} fetched successfully", id);
-        return ResponseEntity.ok(res);
+        try {
+            if (ifNoneMatch != null) {
+                String version = service.getVersion(id);
+                if (ETags.matches(ifNoneMatch, version)) {
+                    log.debug("Project with id={} not modified (version {})", id, version);
+                    return ETags.notModified(version);
+                }
+            }
+            var res = service.getById(id);
+            log.debug("Project with id={} fetched successfully", id);
+            return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException ex) {
+            log.warn("[GET] /api/projects/{} - Database unavailable, serving the cached project", id);
+            return StaleResponses.of(service.getCachedById(id), ifNoneMatch, ex);
+        }
     }
 
     /**
      * GET endpoint - Lists projects with pagination.
      * Accepts page and size as query parameters and returns 200 OK with the project
      * list
+     * With withTotal=false a slice is returned instead: totalElements and
+     * totalPages are omitted and no COUNT query is executed.
+     * While the database is unavailable, the last page read with the same
+     * page, size and withTotal is served instead, marked stale (see
+     * StaleResponses).
      * 
      * @param page
      * @param size
+     * @param withTotal
      * @return
      */
     @GetMapping
     public ResponseEntity<?> list(
             @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Page must be >= 0") int page,
-            @RequestParam(defaultValue = "20") @Positive(message = "Size must be >= 1") int size) {
+            @RequestParam(defaultValue = "20") @Positive(message = "Size must be >= 1") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         log.info("[GET] /api/projects - Listing projects (page={}, size={})", page, size);
-        var res = service.list(page, size);
-        log.debug("Project list fetched with {} elements", res.getContent().size());
-        return ResponseEntity.ok(res);
+        try {
+            if (!withTotal) {
+                var slice = service.listSlice(page, size);
+                log.debug("Project slice fetched with {} elements", slice.getNumberOfElements());
+                return ResponseEntity.ok(slice);
+            }
+            var res = service.list(page, size);
+            log.debug("Project list fetched with {} elements", res.getContent().size());
+            return ResponseEntity.ok(res);
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException ex) {
+            log.warn("[GET] /api/projects - Database unavailable, serving the cached project list");
+            if (!withTotal) {
+                return StaleResponses.of(service.listSliceCached(page, size), ex);
+            }
+            return StaleResponses.of(service.listCached(page, size), ex);
+        }
     }
 
     /**
      * PUT endpoint - Updates an existing project by ID.
-     * Validates the request body and returns 200 OK with the updated project.
+     * Validates the request body and returns 200 OK with the updated project,
+     * or 204 No Content when the request prefers return=minimal; both carry
+     * the new ETag. Returns 412 Precondition Failed when If-Match does not
+     * match the current version.
      * 
      * @param id
      * @param req
+     * @param prefer
+     * @param ifMatch
      * @return
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProjectResponseDTO> update(@PathVariable long id,
-            @Valid @RequestBody ProjectRequestDTO req) {
+            @Valid @RequestBody ProjectRequestDTO req,
+            @RequestHeader(name = PreferHeader.NAME, required = false) String prefer,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[PUT] /api/projects/{} - Updating project", id);
-        var res = service.update(id, req);
+        if (PreferHeader.returnMinimal(prefer)) {
+            String version = service.updateMinimal(id, req, ETags.expectedVersions(ifMatch));
+            log.info("Project with id={} updated successfully", id);
+            return PreferHeader.minimal(ResponseEntity.noContent().eTag(ETags.of(version)));
+        }
+        var res = service.update(id, req, ETags.expectedVersions(ifMatch));
         log.info("Project with id={} updated successfully", id);
-        return ResponseEntity.ok(res);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
+    }
+
+    /**
+     * PATCH endpoint - Partially updates an existing project (JSON Merge
+     * Patch: absent fields are left unchanged, null ones are cleared).
+     * Only the supplied fields are validated and written. Returns 200 OK with
+     * the patched project, or 204 No Content when the request prefers
+     * return=minimal; both carry the new ETag. Returns 412 Precondition Failed
+     * when If-Match does not match the current version.
+     * 
+     * @param id
+     * @param req
+     * @param prefer
+     * @param ifMatch
+     * @return
+     */
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<ProjectResponseDTO> patch(@PathVariable long id,
+            @Valid @RequestBody ProjectPatchRequestDTO req,
+            @RequestHeader(name = PreferHeader.NAME, required = false) String prefer,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("[PATCH] /api/projects/{} - Patching project", id);
+        if (PreferHeader.returnMinimal(prefer)) {
+            String version = service.patchMinimal(id, req, ETags.expectedVersions(ifMatch));
+            log.info("Project with id={} patched successfully", id);
+            return PreferHeader.minimal(ResponseEntity.noContent().eTag(ETags.of(version)));
+        }
+        var res = service.patch(id, req, ETags.expectedVersions(ifMatch));
+        log.info("Project with id={} patched successfully", id);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
     }
 
     /**
      * DELETE endpoint - Deletes a project by ID.
-     * Returns 204 No Content on successful deletion.
+     * Returns 204 No Content on successful deletion, or 412 Precondition
+     * Failed when If-Match does not match the current version.
      * 
      * @param id
+     * @param ifMatch
      * @return
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable long id) {
+    public ResponseEntity<Void> delete(@PathVariable long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[DELETE] /api/projects/{} - Deleting project", id);
-        service.delete(id);
+        service.delete(id, ETags.expectedVersions(ifMatch));
         log.info("Project with id={} deleted successfully", id);
         return ResponseEntity.noContent().build();
     }
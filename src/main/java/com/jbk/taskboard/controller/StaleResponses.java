@@ -0,0 +1,81 @@
+package com.jbk.taskboard.controller;
+
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+/**
+ * Responses of the read endpoints served from the last cached value of the
+ * services while the database is unavailable (no connection could be
+ * obtained, e.g. while the database circuit breaker is open). The value is
+ * served whatever its version, with the version it was cached at as ETag (a
+ * client already holding it gets 304 Not Modified) and the header
+ * "Warning: 110 - "Response is Stale"" (RFC 7234). Values without version
+ * (the last pages of listings that have no ETag) are served without one.
+ * Without a cached value the failure is rethrown and answered with 503.
+ */
+final class StaleResponses {
+
+    static final String WARNING = "110 - \"Response is Stale\"";
+
+    private StaleResponses() {
+    }
+
+    /**
+     * Builds the response of a cached value: 304 when If-None-Match matches
+     * its version, 200 with the value otherwise (without ETag when the value
+     * has no version).
+     * 
+     * @param cached      The cached value with its version, if any.
+     * @param ifNoneMatch The If-None-Match header value (may be null).
+     * @param failure     The database failure, rethrown when nothing is
+     *                    cached.
+     * @return The stale response.
+     */
+    static <T> ResponseEntity<T> of(Optional<VersionedDTO<T>> cached, String ifNoneMatch, RuntimeException failure) {
+        VersionedDTO<T> value = cached.orElseThrow(() -> failure);
+        if (value.version() == null) {
+            return ok().body(value.value());
+        }
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, value.version())) {
+            return notModified(value.version());
+        }
+        return ok().eTag(ETags.of(value.version())).body(value.value());
+    }
+
+    /**
+     * Builds the response of a cached value that has no version (e.g. the
+     * last page of a user listing): 200 with the value.
+     * 
+     * @param cached  The cached value, if any.
+     * @param failure The database failure, rethrown when nothing is cached.
+     * @return The stale response.
+     */
+    static <T> ResponseEntity<T> of(Optional<T> cached, RuntimeException failure) {
+        return ok().body(cached.orElseThrow(() -> failure));
+    }
+
+    /**
+     * Starts a 200 OK response marked stale.
+     * 
+     * @return The response builder.
+     */
+    static ResponseEntity.BodyBuilder ok() {
+        return ResponseEntity.ok().header(HttpHeaders.WARNING, WARNING);
+    }
+
+    /**
+     * Builds a 304 Not Modified response, marked stale, for the cached
+     * version.
+     * 
+     * @param version The cached version.
+     * @return The response, without body.
+     */
+    static <T> ResponseEntity<T> notModified(String version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version))
+                .header(HttpHeaders.WARNING, WARNING).build();
+    }
+}
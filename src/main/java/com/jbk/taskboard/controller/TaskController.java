@@ -1,20 +1,45 @@
 package com.jbk.taskboard.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
 import com.jbk.taskboard.dto.task.*;
 import com.jbk.taskboard.entity.TaskPriority;
 import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.service.TaskImportService;
 import com.jbk.taskboard.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
 /**
  * REST controller that exposes CRUD endpoints for tasks.
  * Uses TaskService to handle business logic.
@@ -28,29 +53,51 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class TaskController {
 
     private static final Logger log = LoggerFactory.getLogger(TaskController.class);
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
     private final TaskService service;
+    private final TaskImportService importService;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter progressWriter;
 
     /**
-     * Constructor that injects the TaskService.
+     * Constructor that injects the TaskService, the TaskImportService and the
+     * ObjectMapper (used to write the NDJSON exports row by row and the import
+     * progress records).
      * 
      * @param service
+     * @param importService
+     * @param objectMapper
      */
-    public TaskController(TaskService service) {
+    public TaskController(TaskService service, TaskImportService importService, ObjectMapper objectMapper) {
         this.service = service;
+        this.importService = importService;
+        this.ndjsonWriter = objectMapper.writerFor(TaskResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.progressWriter = objectMapper.writer();
     }
 
     /**
      * POST endpoint - Creates a new task.
-     * Validates the request body and returns 201 Created with the new task.
+     * Validates the request body and returns 201 Created with the new task, or
+     * without body when the request prefers return=minimal.
      * 
      * @param req
+     * @param prefer
      * @param uriBuilder
      * @return
      */
     @PostMapping("/api/tasks")
     public ResponseEntity<TaskResponseDTO> create(@Valid @RequestBody TaskCreateRequestDTO req,
+            @RequestHeader(name = PreferHeader.NAME, required = false) String prefer,
             UriComponentsBuilder uriBuilder) {
         log.info("[POST] /api/tasks - Creating task with title={}", req.title());
+        if (PreferHeader.returnMinimal(prefer)) {
+            long id = service.createMinimal(req);
+            log.info("Task created successfully with id={}", id);
+            return PreferHeader.minimal(ResponseEntity.created(uriBuilder.path("/api/tasks/{id}").build(id)));
+        }
         TaskResponseDTO res = service.create(req);
         var location = uriBuilder.path("/api/tasks/{id}").build(res.id());
         log.info("Task created successfully with id={}", res.id());
@@ -59,49 +106,164 @@ public class TaskController {
 
     /**
      * POST endpoint - Creates a new task for a specific project.
-     * Validates the request body and returns 201 Created with the new task.
+     * Validates the request body and returns 201 Created with the new task, or
+     * without body when the request prefers return=minimal.
      * 
      * @param projectId
      * @param req
+     * @param prefer
      * @param uriBuilder
      * @return
      */
     @PostMapping("/api/projects/{projectId}/tasks")
     public ResponseEntity<TaskResponseDTO> createForProject(@PathVariable long projectId,
             @Valid @RequestBody TaskCreateForProjectRequestDTO req,
+            @RequestHeader(name = PreferHeader.NAME, required = false) String prefer,
             UriComponentsBuilder uriBuilder) {
         log.info("[POST] /api/projects/{}/tasks - Creating task with title={}", projectId, req.title());
+        if (PreferHeader.returnMinimal(prefer)) {
+            long id = service.createForProjectMinimal(projectId, req);
+            log.info("Task created successfully with id={}", id);
+            return PreferHeader.minimal(ResponseEntity.created(uriBuilder.path("/api/tasks/{id}").build(id)));
+        }
         TaskResponseDTO res = service.createForProject(projectId, req);
         var location = uriBuilder.path("/api/tasks/{id}").build(res.id());
         log.info("Task created successfully with id={}", res.id());
         return ResponseEntity.created(location).body(res);
     }
 
+    /**
+     * POST endpoint - Creates several tasks for a specific project.
+     * Items are validated one by one: invalid or duplicate items are reported
+     * as failed and do not prevent the others from being created.
+     * Returns 201 Created when every item was created, 207 Multi-Status
+     * otherwise, with one result per item.
+     * 
+     * @param projectId
+     * @param items
+     * @return
+     */
+    @PostMapping("/api/projects/{projectId}/tasks:batch")
+    public ResponseEntity<TaskBatchResponseDTO> createBatchForProject(@PathVariable long projectId,
+            @RequestBody @NotEmpty(message = "tasks must not be empty")
+            @Size(max = 1000, message = "tasks must be <= 1000 items") List<TaskCreateForProjectRequestDTO> items) {
+        log.info("[POST] /api/projects/{}/tasks:batch - Creating {} tasks", projectId, items.size());
+        TaskBatchResponseDTO res = service.createBatchForProject(projectId, items);
+        log.info("Batch for projectId={} processed: created={}, failed={}", projectId, res.created(), res.failed());
+        HttpStatus status = res.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(res);
+    }
+
+    /**
+     * POST endpoint - Imports tasks into a specific project from a CSV (with a
+     * header line) or NDJSON upload of any size.
+     * The body is read as a stream and persisted in batches; rows that are
+     * invalid or duplicated are reported without stopping the import.
+     * Returns 201 Created when every row was imported, 207 Multi-Status
+     * otherwise, with the counts and the errors of the failed rows.
+     * When the client accepts application/x-ndjson, the response is 200 OK
+     * and streams one progress line per committed batch, then the result as
+     * the last line (the only one with errors); a missing project is still
+     * reported with 404.
+     * 
+     * @param projectId
+     * @param accept
+     * @param request
+     * @param response
+     * @return
+     * @throws IOException
+     */
+    @PostMapping(value = "/api/projects/{projectId}/tasks:import", consumes = { NDJSON, CSV })
+    public ResponseEntity<TaskImportResponseDTO> importForProject(@PathVariable long projectId,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        TaskImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? TaskImportService.Format.CSV
+                : TaskImportService.Format.NDJSON;
+        log.info("[POST] /api/projects/{}/tasks:import - Importing tasks ({})", projectId, format);
+        InputStream in = request.getInputStream();
+        if (acceptsNdjson(accept)) {
+            TaskImportResponseDTO res = writeImportProgress(response,
+                    onBatch -> importService.importForProject(projectId, in, format, onBatch));
+            log.info("Import for projectId={} streamed: imported={}, failed={}", projectId, res.imported(),
+                    res.failed());
+            return null;
+        }
+        TaskImportResponseDTO res = importService.importForProject(projectId, in, format);
+        log.info("Import for projectId={} processed: imported={}, failed={}", projectId, res.imported(),
+                res.failed());
+        HttpStatus status = res.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(res);
+    }
+
     /**
      * GET endpoint - Retrieves a task by ID.
-     * Returns 200 OK with the task data.
+     * Returns 200 OK with the task data and its ETag, or 304 Not Modified when
+     * If-None-Match matches the current version (only the version is read).
+     * The task is written as the pre-encoded JSON bytes of the service (no
+     * serialization here); when the service keeps a gzip form and the client
+     * accepts gzip, that form is sent with a weak ETag. While the database is
+     * unavailable, the last cached task is served instead, marked stale (see
+     * StaleResponses).
      * 
      * @param id
+     * @param ifNoneMatch
+     * @param acceptEncoding
      * @return
      */
     @GetMapping("/api/tasks/{id}")
-    public ResponseEntity<TaskResponseDTO> get(@PathVariable long id) {
+    public ResponseEntity<byte[]> get(@PathVariable long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("[GET] /api/tasks/{} - Fetching task", id);
-        var res = service.getById(id);
-        log.debug("Task with id={} fetched successfully", id);
-        return ResponseEntity.ok(res);
+        try {
+            if (ifNoneMatch != null) {
+                String version = service.getVersion(id);
+                if (ETags.matches(ifNoneMatch, version)) {
+                    log.debug("Task with id={} not modified (version {})", id, version);
+                    return ETags.notModified(version);
+                }
+            }
+            var res = service.getJsonById(id);
+            log.debug("Task with id={} fetched successfully", id);
+            return encoded(ResponseEntity.ok(), res, acceptEncoding);
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException ex) {
+            log.warn("[GET] /api/tasks/{} - Database unavailable, serving the cached task", id);
+            var res = service.getCachedJsonById(id).orElseThrow(() -> ex);
+            if (ifNoneMatch != null && ETags.matches(ifNoneMatch, res.version())) {
+                return StaleResponses.notModified(res.version());
+            }
+            return encoded(StaleResponses.ok(), res, acceptEncoding);
+        }
     }
 
     /**
      * GET endpoint - Lists tasks with pagination and optional filtering.
      * Accepts page, size, status, priority, and projectId as query parameters and
      * returns 200 OK with the task list.
+     * When the "after" parameter is present (an empty value starts from the
+     * newest task) keyset pagination is used instead: page is ignored and the
+     * response carries the nextCursor to pass as "after" for the following page.
+     * With withTotal=false a slice is returned instead of a page: totalElements
+     * and totalPages are omitted and no COUNT query is executed.
+     * Listings of one project (projectId given) carry the version of the
+     * project's tasks as ETag; with a current If-None-Match they answer 304
+     * without running the list query. The version is read before the list, so
+     * a concurrent write can only make the ETag older than the body, and the
+     * next poll gets the change. While the database is unavailable, the last
+     * cached listing of a project (or, across projects, the last page read
+     * with the same filters, page and size) is served instead, marked stale
+     * (see StaleResponses).
      * 
      * @param page
      * @param size
      * @param status
      * @param priority
      * @param projectId
+     * @param after
+     * @param withTotal
+     * @param ifNoneMatch
      * @return
      */
     @GetMapping("/api/tasks")
@@ -110,43 +272,302 @@ public class TaskController {
             @RequestParam(defaultValue = "20") @Positive(message = "size must be >= 1") int size,
             @RequestParam(required = false) TaskStatus status,
             @RequestParam(required = false) TaskPriority priority,
-            @RequestParam(required = false) long projectId) {
-        log.info("[GET] /api/tasks - Listing tasks (page={}, size={}, status={}, priority={}, projectId={})", page,
-                size, status, priority, projectId);
-        var res = service.list(page, size, status, priority, projectId);
-        log.debug("Task list fetched with {} elements", res.getContent().size());
-        return ResponseEntity.ok(res);
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            String version = projectId == null ? null : service.getListVersion(projectId).orElse(null);
+            if (version != null && ifNoneMatch != null && ETags.matches(ifNoneMatch, version)) {
+                log.info("[GET] /api/tasks - Task list of projectId={} not modified (version={})", projectId,
+                        version);
+                return ETags.notModified(version);
+            }
+            var ok = version == null ? ResponseEntity.ok() : ResponseEntity.ok().eTag(ETags.of(version));
+            if (after != null) {
+                log.info("[GET] /api/tasks - Listing tasks after cursor (size={}, status={}, priority={}, "
+                        + "projectId={})", size, status, priority, projectId);
+                var res = service.listAfter(after, size, status, priority, projectId);
+                log.debug("Task list fetched with {} elements", res.content().size());
+                return ok.body(res);
+            }
+            log.info("[GET] /api/tasks - Listing tasks (page={}, size={}, status={}, priority={}, projectId={})",
+                    page, size, status, priority, projectId);
+            if (!withTotal) {
+                var slice = service.listSlice(page, size, status, priority, projectId);
+                log.debug("Task slice fetched with {} elements", slice.getNumberOfElements());
+                return ok.body(slice);
+            }
+            var res = service.list(page, size, status, priority, projectId);
+            log.debug("Task list fetched with {} elements", res.getContent().size());
+            return ok.body(res);
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException ex) {
+            log.warn("[GET] /api/tasks - Database unavailable, serving the cached task list of projectId={}",
+                    projectId);
+            if (after != null) {
+                return StaleResponses.of(service.listAfterCached(after, size, status, priority, projectId),
+                        ifNoneMatch, ex);
+            }
+            if (!withTotal) {
+                return StaleResponses.of(service.listSliceCached(page, size, status, priority, projectId),
+                        ifNoneMatch, ex);
+            }
+            return StaleResponses.of(service.listCached(page, size, status, priority, projectId), ifNoneMatch, ex);
+        }
+    }
+
+    // Builds the response of an encoded task: its gzip form with a weak ETag
+    // when there is one and the client accepts gzip, its JSON otherwise.
+    private static ResponseEntity<byte[]> encoded(ResponseEntity.BodyBuilder ok, VersionedDTO<EncodedJsonDTO> res,
+            String acceptEncoding) {
+        ok.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        byte[] gzip = res.value().gzip();
+        if (gzip != null && AcceptEncoding.acceptsGzip(acceptEncoding)) {
+            return ok.eTag(ETags.weak(res.version())).header(HttpHeaders.CONTENT_ENCODING, AcceptEncoding.GZIP)
+                    .body(gzip);
+        }
+        return ok.eTag(ETags.of(res.version())).body(res.value().json());
+    }
+
+    /**
+     * GET endpoint - Exports tasks as newline-delimited JSON (one task per
+     * line, in ascending ID order) with optional filtering by status,
+     * priority, and projectId.
+     * Tasks are written to the response as they are read from the database,
+     * without pagination, so the export uses constant memory.
+     * 
+     * @param status
+     * @param priority
+     * @param projectId
+     * @param response
+     * @throws IOException
+     */
+    @GetMapping("/api/tasks/export")
+    public void export(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) Long projectId,
+            HttpServletResponse response) throws IOException {
+        log.info("[GET] /api/tasks/export - Exporting tasks (status={}, priority={}, projectId={})", status,
+                priority, projectId);
+        long count = writeNdjson(response, sink -> service.export(status, priority, projectId, sink));
+        log.info("Tasks exported successfully: {} rows", count);
+    }
+
+    /**
+     * GET endpoint - Exports the tasks of a project as newline-delimited JSON
+     * with optional filtering by status and priority.
+     * Returns 404 Not Found if the project does not exist.
+     * 
+     * @param projectId
+     * @param status
+     * @param priority
+     * @param response
+     * @throws IOException
+     */
+    @GetMapping("/api/projects/{projectId}/tasks/export")
+    public void exportForProject(@PathVariable long projectId,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            HttpServletResponse response) throws IOException {
+        log.info("[GET] /api/projects/{}/tasks/export - Exporting tasks (status={}, priority={})", projectId,
+                status, priority);
+        long count = writeNdjson(response, sink -> service.exportForProject(projectId, status, priority, sink));
+        log.info("Tasks of projectId={} exported successfully: {} rows", projectId, count);
     }
 
     /**
      * PUT endpoint - Updates an existing task.
-     * Validates the request body and returns 200 OK with the updated task.
+     * Validates the request body and returns 200 OK with the updated task, or
+     * 204 No Content when the request prefers return=minimal; both carry the
+     * new ETag. Returns 412 Precondition Failed when If-Match does not match
+     * the current version.
      * 
      * @param id
      * @param req
+     * @param prefer
+     * @param ifMatch
      * @return
      */
     @PutMapping("/api/tasks/{id}")
     public ResponseEntity<TaskResponseDTO> update(@PathVariable long id,
-            @Valid @RequestBody TaskUpdateRequestDTO req) {
+            @Valid @RequestBody TaskUpdateRequestDTO req,
+            @RequestHeader(name = PreferHeader.NAME, required = false) String prefer,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[PUT] /api/tasks/{} - Updating task", id);
-        var res = service.update(id, req);
+        if (PreferHeader.returnMinimal(prefer)) {
+            String version = service.updateMinimal(id, req, ETags.expectedVersions(ifMatch));
+            log.info("Task with id={} updated successfully", id);
+            return PreferHeader.minimal(ResponseEntity.noContent().eTag(ETags.of(version)));
+        }
+        var res = service.update(id, req, ETags.expectedVersions(ifMatch));
         log.info("Task with id={} updated successfully", id);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
+    }
+
+    /**
+     * PATCH endpoint - Partially updates an existing task (JSON Merge Patch:
+     * absent fields are left unchanged, null ones are cleared).
+     * Only the supplied fields are validated and written. Returns 200 OK with
+     * the patched task, or 204 No Content when the request prefers
+     * return=minimal; both carry the new ETag. Returns 412 Precondition Failed
+     * when If-Match does not match the current version.
+     * 
+     * @param id
+     * @param req
+     * @param prefer
+     * @param ifMatch
+     * @return
+     */
+    @PatchMapping(value = "/api/tasks/{id}", consumes = { MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<TaskResponseDTO> patch(@PathVariable long id,
+            @Valid @RequestBody TaskPatchRequestDTO req,
+            @RequestHeader(name = PreferHeader.NAME, required = false) String prefer,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("[PATCH] /api/tasks/{} - Patching task", id);
+        if (PreferHeader.returnMinimal(prefer)) {
+            String version = service.patchMinimal(id, req, ETags.expectedVersions(ifMatch));
+            log.info("Task with id={} patched successfully", id);
+            return PreferHeader.minimal(ResponseEntity.noContent().eTag(ETags.of(version)));
+        }
+        var res = service.patch(id, req, ETags.expectedVersions(ifMatch));
+        log.info("Task with id={} patched successfully", id);
+        return ResponseEntity.ok().eTag(ETags.of(res.version())).body(res.value());
+    }
+
+    /**
+     * POST endpoint - Moves a task to another status (board drag and drop).
+     * Runs a single conditional UPDATE, guarded by expectedStatus when given.
+     * Returns 200 OK with the task ID and its new status, or 409 Conflict when
+     * the task no longer has the expected status.
+     * 
+     * @param id
+     * @param req
+     * @return
+     */
+    @PostMapping("/api/tasks/{id}/status")
+    public ResponseEntity<TaskStatusResponseDTO> changeStatus(@PathVariable long id,
+            @Valid @RequestBody TaskStatusChangeRequestDTO req) {
+        log.info("[POST] /api/tasks/{}/status - Changing task status to {}", id, req.status());
+        var res = service.changeStatus(id, req);
+        log.info("Task with id={} moved to status={}", id, res.status());
+        return ResponseEntity.ok(res);
+    }
+
+    /**
+     * POST endpoint - Updates the status and/or priority of several tasks.
+     * Tasks are selected by explicit IDs or by a filter (same criteria as the
+     * list endpoint) and updated with a single statement.
+     * Returns 200 OK with the number of tasks matched.
+     * 
+     * @param req
+     * @return
+     */
+    @PostMapping("/api/tasks:bulkUpdate")
+    public ResponseEntity<TaskBulkUpdateResponseDTO> bulkUpdate(@Valid @RequestBody TaskBulkUpdateRequestDTO req) {
+        log.info("[POST] /api/tasks:bulkUpdate - Updating tasks to status={}, priority={}", req.status(),
+                req.priority());
+        var res = service.bulkUpdate(req);
+        log.info("Tasks bulk updated successfully: updated={}", res.updated());
         return ResponseEntity.ok(res);
     }
 
     /**
      * DELETE endpoint - Deletes a task by ID.
-     * Returns 204 No Content on successful deletion.
+     * Returns 204 No Content on successful deletion, or 412 Precondition
+     * Failed when If-Match does not match the current version.
      * 
      * @param id
+     * @param ifMatch
      * @return
      */
     @DeleteMapping("/api/tasks/{id}")
-    public ResponseEntity<Void> delete(@PathVariable long id) {
+    public ResponseEntity<Void> delete(@PathVariable long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[DELETE] /api/tasks/{} - Deleting task", id);
-        service.delete(id);
+        service.delete(id, ETags.expectedVersions(ifMatch));
         log.info("Task with id={} deleted successfully", id);
         return ResponseEntity.noContent().build();
     }
+
+    // Checks whether the Accept header explicitly lists application/x-ndjson
+    // (wildcards keep the single JSON result).
+    private static boolean acceptsNdjson(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            MediaType ndjson = MediaType.parseMediaType(NDJSON);
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(ndjson::includes);
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    // Runs the import, writing each progress record as one JSON line to the
+    // response (flushed, so the client sees it when the batch is committed)
+    // and the result as the last line. If the import fails before anything
+    // was sent (e.g. project not found) the response is reset as for the
+    // export.
+    private TaskImportResponseDTO writeImportProgress(HttpServletResponse response,
+            Function<Consumer<TaskImportProgressDTO>, TaskImportResponseDTO> run) throws IOException {
+        response.setContentType(NDJSON);
+        JsonGenerator gen = progressWriter.createGenerator(response.getOutputStream());
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+        try {
+            TaskImportResponseDTO res = run.apply(progress -> writeLine(gen, progress));
+            writeLine(gen, res);
+            gen.close();
+            return res;
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            }
+            throw e;
+        }
+    }
+
+    // Writes one JSON line and flushes it to the client.
+    private void writeLine(JsonGenerator gen, Object value) {
+        try {
+            progressWriter.writeValue(gen, value);
+            gen.writeRaw('\n');
+            gen.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Runs the export, writing each task as one JSON line to the response.
+    // If the export fails before anything was sent (e.g. project not found)
+    // the response is reset so that ApiExceptionHandler can render the error;
+    // its content type is preset to JSON, so the error is written even when
+    // the client only accepts NDJSON.
+    private long writeNdjson(HttpServletResponse response, ToLongFunction<Consumer<TaskResponseDTO>> export)
+            throws IOException {
+        response.setContentType(NDJSON);
+        JsonGenerator gen = ndjsonWriter.createGenerator(response.getOutputStream());
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+        try {
+            long count = export.applyAsLong(task -> {
+                try {
+                    ndjsonWriter.writeValue(gen, task);
+                    gen.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            gen.close();
+            return count;
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            }
+            throw e;
+        }
+    }
 }
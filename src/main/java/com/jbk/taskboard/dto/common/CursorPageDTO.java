@@ -0,0 +1,22 @@
+package com.jbk.taskboard.dto.common;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * DTO used to return one page of a keyset (cursor) paginated listing.
+ * nextCursor is an opaque token to pass back as the "after" parameter to
+ * fetch the following page; it is omitted when there are no more elements.
+ */
+public record CursorPageDTO<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        @JsonInclude(Include.NON_NULL) String nextCursor) {
+
+    public static <T> CursorPageDTO<T> of(List<T> content, int size, boolean hasNext, String nextCursor) {
+        return new CursorPageDTO<>(content, size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,16 @@
+package com.jbk.taskboard.dto.common;
+
+/**
+ * DTO holding a response already encoded as JSON (UTF-8), and optionally its
+ * gzip form, so that controllers can write the bytes as they are instead of
+ * serializing a response DTO.
+ * The arrays are shared with the response cache and must not be modified.
+ */
+public record EncodedJsonDTO(
+        byte[] json,
+        byte[] gzip) {
+
+    public static EncodedJsonDTO of(byte[] json, byte[] gzip) {
+        return new EncodedJsonDTO(json, gzip);
+    }
+}
@@ -0,0 +1,15 @@
+package com.jbk.taskboard.dto.common;
+
+/**
+ * DTO pairing a response with the version of the resource it represents.
+ * The version is opaque to clients; controllers send it as a strong ETag and
+ * compare it with If-Match / If-None-Match.
+ */
+public record VersionedDTO<T>(
+        T value,
+        String version) {
+
+    public static <T> VersionedDTO<T> of(T value, String version) {
+        return new VersionedDTO<>(value, version);
+    }
+}
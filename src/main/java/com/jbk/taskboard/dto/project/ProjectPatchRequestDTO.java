@@ -0,0 +1,20 @@
+package com.jbk.taskboard.dto.project;
+
+import jakarta.validation.constraints.*;
+
+import java.util.Optional;
+
+/**
+ * DTO used for partially updating a project (JSON Merge Patch, RFC 7396).
+ * Each field is three-state: null when absent from the document (left
+ * unchanged), empty when sent as null (cleared) and present otherwise.
+ * Constraints apply to the supplied fields only; name and ownerId cannot be
+ * cleared.
+ */
+public record ProjectPatchRequestDTO(
+        Optional<@NotBlank(message = "Name cannot be blank") @Size(max = 120, message = "Name cannot exceed 120 characters") String> name,
+
+        Optional<@Size(max = 500, message = "Description cannot exceed 500 characters") String> description,
+
+        Optional<@NotNull(message = "OwnerId cannot be null") @Positive(message = "OwnerId must be > 0") Long> ownerId) {
+}
@@ -0,0 +1,25 @@
+package com.jbk.taskboard.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * DTO used to return the outcome of one item of a batch task creation.
+ * Index is the position of the item in the request; status is the HTTP status
+ * the item would have had on its own (201, 400 or 409).
+ * Created items carry the task, failed items carry the error message.
+ */
+public record TaskBatchItemResultDTO(
+        int index,
+        int status,
+        @JsonInclude(Include.NON_NULL) TaskResponseDTO task,
+        @JsonInclude(Include.NON_NULL) String error) {
+
+    public static TaskBatchItemResultDTO created(int index, TaskResponseDTO task) {
+        return new TaskBatchItemResultDTO(index, 201, task, null);
+    }
+
+    public static TaskBatchItemResultDTO failed(int index, int status, String error) {
+        return new TaskBatchItemResultDTO(index, status, null, error);
+    }
+}
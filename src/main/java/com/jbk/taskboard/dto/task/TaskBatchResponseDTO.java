@@ -0,0 +1,19 @@
+package com.jbk.taskboard.dto.task;
+
+import java.util.List;
+
+/**
+ * DTO used to return the result of a batch task creation.
+ * Contains one result per request item, in request order, plus the number of
+ * created and failed items.
+ */
+public record TaskBatchResponseDTO(
+        int created,
+        int failed,
+        List<TaskBatchItemResultDTO> results) {
+
+    public static TaskBatchResponseDTO of(List<TaskBatchItemResultDTO> results) {
+        int created = (int) results.stream().filter(r -> r.task() != null).count();
+        return new TaskBatchResponseDTO(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,25 @@
+package com.jbk.taskboard.dto.task;
+
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO used for updating the status and/or priority of several tasks at once.
+ * The tasks are selected either by explicit IDs or by a filter (exactly one
+ * of them must be given). Null status or priority are left unchanged, but at
+ * least one of them is required.
+ */
+public record TaskBulkUpdateRequestDTO(
+        @Size(min = 1, max = 1000, message = "ids must contain between 1 and 1000 items") List<@NotNull(message = "ids must not contain null") @Positive(message = "ids must be > 0") Long> ids,
+
+        @Valid TaskFilterDTO filter,
+
+        TaskStatus status,
+        TaskPriority priority) {
+}
@@ -0,0 +1,12 @@
+package com.jbk.taskboard.dto.task;
+
+/**
+ * DTO used to return the result of a bulk task update.
+ * Contains the number of tasks matched by the request.
+ */
+public record TaskBulkUpdateResponseDTO(int updated) {
+
+    public static TaskBulkUpdateResponseDTO of(int updated) {
+        return new TaskBulkUpdateResponseDTO(updated);
+    }
+}
@@ -0,0 +1,20 @@
+package com.jbk.taskboard.dto.task;
+
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * DTO used to select tasks in bulk operations.
+ * Same criteria as the GET /api/tasks filters; null fields are ignored.
+ */
+public record TaskFilterDTO(
+        TaskStatus status,
+        TaskPriority priority,
+        @Positive(message = "filter.projectId must be > 0") Long projectId) {
+
+    // True when no criterion is set (the filter would match every task).
+    public boolean isEmpty() {
+        return status == null && priority == null && projectId == null;
+    }
+}
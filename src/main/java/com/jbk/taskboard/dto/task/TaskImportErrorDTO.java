@@ -0,0 +1,17 @@
+package com.jbk.taskboard.dto.task;
+
+/**
+ * DTO used to report a row that could not be imported.
+ * Row is the 1-based position of the task in the upload (the CSV header is
+ * not counted); status is the HTTP status the row would have had on its own
+ * (400 or 409).
+ */
+public record TaskImportErrorDTO(
+        long row,
+        int status,
+        String error) {
+
+    public static TaskImportErrorDTO of(long row, int status, String error) {
+        return new TaskImportErrorDTO(row, status, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.jbk.taskboard.dto.task;
+
+/**
+ * DTO used to report the progress of a running task import.
+ * Sent after each committed batch with the number of rows read, imported and
+ * failed so far.
+ */
+public record TaskImportProgressDTO(
+        long rows,
+        long imported,
+        long failed) {
+
+    public static TaskImportProgressDTO of(long rows, long imported, long failed) {
+        return new TaskImportProgressDTO(rows, imported, failed);
+    }
+}
@@ -0,0 +1,19 @@
+package com.jbk.taskboard.dto.task;
+
+import java.util.List;
+
+/**
+ * DTO used to return the result of a task import.
+ * Contains the number of rows read, imported and failed, and the errors of
+ * the failed rows, sorted by row (at most 1000 errors are reported).
+ */
+public record TaskImportResponseDTO(
+        long rows,
+        long imported,
+        long failed,
+        List<TaskImportErrorDTO> errors) {
+
+    public static TaskImportResponseDTO of(long rows, long imported, long failed, List<TaskImportErrorDTO> errors) {
+        return new TaskImportResponseDTO(rows, imported, failed, errors);
+    }
+}
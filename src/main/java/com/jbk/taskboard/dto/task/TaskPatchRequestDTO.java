@@ -0,0 +1,29 @@
+package com.jbk.taskboard.dto.task;
+
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * DTO used for partially updating a task (JSON Merge Patch, RFC 7396).
+ * Each field is three-state: null when absent from the document (left
+ * unchanged), empty when sent as null (cleared) and present otherwise.
+ * Constraints apply to the supplied fields only; title, status, priority and
+ * projectId cannot be cleared.
+ */
+public record TaskPatchRequestDTO(
+        Optional<@NotBlank(message = "Title cannot be blank") @Size(max = 150, message = "Title cannot exceed 150 characters") String> title,
+
+        Optional<@Size(max = 1000, message = "Description cannot exceed 1000 characters") String> description,
+
+        Optional<@NotNull(message = "Status cannot be null") TaskStatus> status,
+
+        Optional<@NotNull(message = "Priority cannot be null") TaskPriority> priority,
+
+        Optional<LocalDate> dueDate,
+
+        Optional<@NotNull(message = "ProjectId cannot be null") @Positive(message = "ProjectId must be > 0") Long> projectId) {
+}
@@ -0,0 +1,15 @@
+package com.jbk.taskboard.dto.task;
+
+import com.jbk.taskboard.entity.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO used for moving a task to another status (e.g. a board card dragged
+ * between columns). When expectedStatus is given, the change only applies if
+ * the task still has that status.
+ */
+public record TaskStatusChangeRequestDTO(
+        @NotNull(message = "Status is required") TaskStatus status,
+
+        TaskStatus expectedStatus) {
+}
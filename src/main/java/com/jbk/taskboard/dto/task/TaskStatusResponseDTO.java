@@ -0,0 +1,14 @@
+package com.jbk.taskboard.dto.task;
+
+import com.jbk.taskboard.entity.TaskStatus;
+
+/**
+ * DTO used to return the result of a task status change.
+ * Contains only the task ID and its new status.
+ */
+public record TaskStatusResponseDTO(long id, TaskStatus status) {
+
+    public static TaskStatusResponseDTO of(long id, TaskStatus status) {
+        return new TaskStatusResponseDTO(id, status);
+    }
+}
@@ -0,0 +1,17 @@
+package com.jbk.taskboard.dto.user;
+
+import jakarta.validation.constraints.*;
+
+import java.util.Optional;
+
+/**
+ * DTO used for partially updating a user (JSON Merge Patch, RFC 7396).
+ * Each field is null when absent from the document (left unchanged) and
+ * present otherwise; neither can be cleared. Constraints apply to the
+ * supplied fields only.
+ */
+public record AppUserPatchRequestDTO(
+        Optional<@NotBlank(message = "Name cannot be blank") @Size(max = 100, message = "Name cannot exceed 100 characters") String> name,
+
+        Optional<@NotBlank(message = "Email cannot be blank") @Email(message = "Email is not valid") @Size(max = 120, message = "Email cannot exceed 120 characters") String> email) {
+}
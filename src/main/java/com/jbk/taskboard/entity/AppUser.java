@@ -1,28 +1,57 @@
 package com.jbk.taskboard.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.Instant;
+import java.util.Locale;
 
 /**
  * Entity class representing an application user.
  * Maps to the "app_user" table in the database.
  * Includes fields for ID, name, email, and creation timestamp.
  * Uses JPA annotations for ORM mapping.
+ * Updates write only the changed columns (@DynamicUpdate) and are guarded by
+ * the version column (@Version).
+ * Users are kept in the second-level cache (region CACHE_REGION, see
+ * EntityCacheConfig), and so are their email lookups (natural ID, region
+ * EMAIL_CACHE_REGION).
  */
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppUser.CACHE_REGION)
+@NaturalIdCache(region = AppUser.EMAIL_CACHE_REGION)
 @Table(name = "app_user")
 public class AppUser {
 
-    // Primary key (auto-incremented by the database).
+    // Unique key on email.
+    public static final String UK_EMAIL = "uk_app_user_email";
+
+    // Second-level cache region of the users.
+    public static final String CACHE_REGION = "entity.app_user";
+
+    // Second-level cache region of the email to ID resolutions.
+    public static final String EMAIL_CACHE_REGION = "entity.app_user.email";
+
+    // Primary key, allocated in blocks of 50 from the id_generator table so
+    // that inserts can be batched.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "app_user_id")
+    @TableGenerator(name = "app_user_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "app_user", allocationSize = 50)
     private Long id;
 
     // User's name (required, max length 100).
     @Column(name = "name", nullable = false, length = 100)
     private String name;
 
-    // User's email (required, unique, max length 120).
+    // User's email (required, unique, max length 120), stored in lower case
+    // so that natural ID lookups do not depend on the case; natural ID, which
+    // can change.
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, length = 120, unique = true)
     private String email;
 
@@ -30,6 +59,11 @@ public class AppUser {
     @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
     private Instant createdAt;
 
+    // Optimistic lock version, incremented by every update (see V6 migration).
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Getters and setters
     public Long getId() {
         return id;
@@ -52,7 +86,7 @@ public class AppUser {
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        this.email = email == null ? null : email.toLowerCase(Locale.ROOT);
     }
 
     public Instant getCreatedAt() {
@@ -62,4 +96,8 @@ public class AppUser {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
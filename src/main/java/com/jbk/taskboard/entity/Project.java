@@ -1,6 +1,9 @@
 package com.jbk.taskboard.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.Instant;
 
 /**
@@ -10,14 +13,44 @@ import java.time.Instant;
  * Uses JPA annotations for ORM mapping.
  * The owner field establishes a many-to-one relationship with the AppUser
  * entity.
+ * The "Project.withOwner" entity graph fetches the owner in the same
+ * statement, as required by ProjectMapper.toResponse.
+ * Names are unique per owner, case-insensitively but accent-sensitively
+ * (uk_project_owner_name on owner_id and the generated name_norm column,
+ * compared exactly).
+ * Updates write only the changed columns (@DynamicUpdate), so the name key
+ * and the owner foreign key are checked only when they change.
+ * Concurrent updates are detected with the version column (@Version).
+ * Projects are kept in the second-level cache (region CACHE_REGION, see
+ * EntityCacheConfig), so loads by ID and owner proxies of tasks are served
+ * from memory. Their task change counter is a separate entity
+ * (ProjectTaskChange).
  */
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Project.CACHE_REGION)
 @Table(name = "project")
+@NamedEntityGraph(name = Project.GRAPH_WITH_OWNER, attributeNodes = @NamedAttributeNode("owner"))
 public class Project {
 
-    // Primary key (auto-incremented by the database).
+    // Fetch plan used by read paths that map projects to response DTOs.
+    public static final String GRAPH_WITH_OWNER = "Project.withOwner";
+
+    // Unique key on (owner_id, name_norm).
+    public static final String UK_OWNER_NAME = "uk_project_owner_name";
+
+    // Foreign key from owner_id to app_user.
+    public static final String FK_OWNER = "fk_project_owner";
+
+    // Second-level cache region of the projects.
+    public static final String CACHE_REGION = "entity.project";
+
+    // Primary key, allocated in blocks of 50 from the id_generator table so
+    // that inserts can be batched.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "project_id")
+    @TableGenerator(name = "project_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "project", allocationSize = 50)
     private Long id;
 
     // Project's name (required, max length 120).
@@ -32,6 +65,11 @@ public class Project {
     @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
     private Instant createdAt;
 
+    // Optimistic lock version, incremented by every update (see V6 migration).
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Many-to-one relationship with AppUser (owner of the project).
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
@@ -70,6 +108,10 @@ public class Project {
         this.createdAt = createdAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public AppUser getOwner() {
         return owner;
     }
@@ -0,0 +1,34 @@
+package com.jbk.taskboard.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity class representing the task change counter of a project.
+ * Maps to the "project_task_change" table (one row per project, see V8
+ * migration); the counter versions the task listings of the project.
+ * Rows are only written by the bulk statements of the repositories. They
+ * live apart from the project row so that those statements, issued on every
+ * task write, leave the cached projects alone.
+ */
+@Entity
+@Table(name = "project_task_change")
+public class ProjectTaskChange {
+
+    // ID of the project (primary key and foreign key to project).
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    // Number of task changes in the project.
+    @Column(name = "change_count", nullable = false)
+    private long changeCount;
+
+    // Getters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public long getChangeCount() {
+        return changeCount;
+    }
+}
@@ -1,6 +1,7 @@
 package com.jbk.taskboard.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.Instant;
 import java.time.LocalDate;
 
@@ -14,20 +15,49 @@ import java.time.LocalDate;
  * entity.
  * Status and priority fields use enumerated types for predefined values.
  * Defaults: status = TO​DO, priority = MEDIUM.
+ * The "Task.withProjectAndOwner" entity graph fetches the project and its
+ * owner in the same statement, as required by TaskMapper.toResponse.
+ * Titles are unique per project, case-insensitively but accent-sensitively
+ * (uk_task_project_title on project_id and the generated title_norm column,
+ * compared exactly).
+ * Updates write only the changed columns (@DynamicUpdate), so the title key
+ * and the project foreign key are checked only when they change.
+ * Concurrent updates are detected with the version column (@Version).
  */
 @Entity
+@DynamicUpdate
 @Table(name = "task")
+@NamedEntityGraph(name = Task.GRAPH_WITH_PROJECT_AND_OWNER,
+        attributeNodes = @NamedAttributeNode(value = "project", subgraph = "project"),
+        subgraphs = @NamedSubgraph(name = "project", attributeNodes = @NamedAttributeNode("owner")))
 public class Task {
 
-    // Primary key (auto-incremented by the database).
+    // Fetch plan used by read paths that map tasks to response DTOs.
+    public static final String GRAPH_WITH_PROJECT_AND_OWNER = "Task.withProjectAndOwner";
+
+    // Unique key on (project_id, title_norm).
+    public static final String UK_PROJECT_TITLE = "uk_task_project_title";
+
+    // Foreign key from project_id to project.
+    public static final String FK_PROJECT = "fk_task_project";
+
+    // Primary key, allocated in blocks of 50 from the id_generator table so
+    // that inserts can be batched.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "task_id")
+    @TableGenerator(name = "task_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "task", allocationSize = 50)
     private Long id;
 
     // Task's title (required, max length 150).
     @Column(name = "title", nullable = false, length = 150)
     private String title;
 
+    // Lower-cased title, generated by the database (read-only, not refreshed
+    // after writes). Used by duplicate lookups so they hit the unique index.
+    @Column(name = "title_norm", insertable = false, updatable = false)
+    private String titleNorm;
+
     // Task's description (optional, max length 1000).
     @Column(name = "description", length = 1000)
     private String description;
@@ -46,6 +76,11 @@ public class Task {
     @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
     private Instant createdAt;
 
+    // Optimistic lock version, incremented by every update (see V6 migration).
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Due date for the task (optional).
     @Column(name = "due_date")
     private LocalDate dueDate;
@@ -72,6 +107,10 @@ public class Task {
         this.title = title;
     }
 
+    public String getTitleNorm() {
+        return titleNorm;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -104,6 +143,10 @@ public class Task {
         this.createdAt = createdAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public LocalDate getDueDate() {
         return dueDate;
     }
@@ -4,9 +4,12 @@ import jakarta.validation.ConstraintViolationException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -193,6 +196,35 @@ public class ApiExceptionHandler {
                 ErrorResponse.of(409, "Conflict", ex.getMessage(), null));
     }
 
+    /**
+     * Handles failed If-Match preconditions (the resource has another
+     * version).
+     * 
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        log.warn("Precondition failed: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(
+                ErrorResponse.of(412, "Precondition Failed", ex.getMessage(), null));
+    }
+
+    /**
+     * Handles optimistic locking failures (the row was updated by a
+     * concurrent transaction after it was read).
+     * 
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        var msg = "The resource was modified concurrently, please retry";
+        log.warn("Optimistic locking failure: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ErrorResponse.of(409, "Conflict", msg, null));
+    }
+
     /**
      * Handles data integrity violation exceptions.
      * 
@@ -221,6 +253,22 @@ public class ApiExceptionHandler {
                 ErrorResponse.of(415, "Unsupported Media Type", msg, null));
     }
 
+    /**
+     * Handles an unavailable database (no connection could be obtained,
+     * including while the database circuit breaker is open): the request
+     * fails fast and can be retried later.
+     * 
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(Exception ex) {
+        var msg = "Database unavailable, please retry";
+        log.warn("Database unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                ErrorResponse.of(503, "Service Unavailable", msg, null));
+    }
+
     /**
      * Handles generic exceptions.
      * 
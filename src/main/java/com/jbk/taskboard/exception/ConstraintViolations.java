@@ -0,0 +1,39 @@
+package com.jbk.taskboard.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Helpers to tell which database constraint caused a
+ * DataIntegrityViolationException.
+ * Services write optimistically and use this to translate a unique key
+ * violation into a BusinessRuleException and a foreign key violation into a
+ * NotFoundException; any other violation is rethrown.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Checks whether the exception was caused by a violation of the given
+     * constraint. MySQL may report the name qualified by the table
+     * ("task.uk_task_project_title"), so only the last segment is compared.
+     * Falls back to the driver message (quoted name) when Hibernate could not
+     * extract the name.
+     * 
+     * @param ex         The exception thrown by the write.
+     * @param constraint The constraint name, as declared in the migrations.
+     * @return true if the violated constraint is the given one.
+     */
+    public static boolean isViolationOf(DataIntegrityViolationException ex, String constraint) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                String name = cve.getConstraintName();
+                return name.substring(name.lastIndexOf('.') + 1).equalsIgnoreCase(constraint);
+            }
+        }
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && (message.contains(constraint + "'") || message.contains(constraint + "`"));
+    }
+}
@@ -0,0 +1,13 @@
+package com.jbk.taskboard.exception;
+
+/**
+ * Exception thrown when a conditional request (If-Match) does not match the
+ * current version of the resource.
+ * 
+ * @param message The detail message for the exception.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
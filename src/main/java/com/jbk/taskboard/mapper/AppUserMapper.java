@@ -48,6 +48,23 @@ public final class AppUserMapper {
         entity.setEmail(req.email());
     }
 
+    /**
+     * Applies the fields supplied in a patch request DTO to an existing
+     * AppUser entity (absent fields are left unchanged).
+     * 
+     * @param entity
+     * @param req
+     */
+    public static void applyPatch(AppUser entity, AppUserPatchRequestDTO req) {
+        log.debug("Applying patch to AppUser entity with id={}", entity.getId());
+        if (req.name() != null) {
+            entity.setName(req.name().orElseThrow());
+        }
+        if (req.email() != null) {
+            entity.setEmail(req.email().orElseThrow());
+        }
+    }
+
     /**
      * Converts an AppUser entity to a response DTO.
      * 
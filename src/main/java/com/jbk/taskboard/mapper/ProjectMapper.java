@@ -54,6 +54,24 @@ public final class ProjectMapper {
         entity.setOwner(owner);
     }
 
+    /**
+     * Applies the fields supplied in a ProjectPatchRequestDTO to an existing
+     * Project entity (absent fields are left unchanged, null ones are
+     * cleared). The owner is not handled here.
+     * 
+     * @param entity
+     * @param req
+     */
+    public static void applyPatch(Project entity, ProjectPatchRequestDTO req) {
+        log.debug("Applying patch to Project entity with id={}", entity.getId());
+        if (req.name() != null) {
+            entity.setName(req.name().orElseThrow());
+        }
+        if (req.description() != null) {
+            entity.setDescription(req.description().orElse(null));
+        }
+    }
+
     /**
      * Converts a Project entity to a ProjectResponseDTO.
      * 
@@ -79,6 +79,33 @@ public final class TaskMapper {
         entity.setProject(project);
     }
 
+    /**
+     * Applies the fields supplied in a TaskPatchRequestDTO to an existing Task
+     * entity (absent fields are left unchanged, null ones are cleared). The
+     * project is not handled here.
+     * 
+     * @param entity
+     * @param req
+     */
+    public static void applyPatch(Task entity, TaskPatchRequestDTO req) {
+        log.debug("Applying patch to Task entity with id={}", entity.getId());
+        if (req.title() != null) {
+            entity.setTitle(req.title().orElseThrow());
+        }
+        if (req.description() != null) {
+            entity.setDescription(req.description().orElse(null));
+        }
+        if (req.status() != null) {
+            entity.setStatus(req.status().orElseThrow());
+        }
+        if (req.priority() != null) {
+            entity.setPriority(req.priority().orElseThrow());
+        }
+        if (req.dueDate() != null) {
+            entity.setDueDate(req.dueDate().orElse(null));
+        }
+    }
+
     /**
      * Converts a Task entity to a TaskResponseDTO.
      * 
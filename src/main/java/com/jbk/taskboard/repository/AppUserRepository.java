@@ -1,20 +1,50 @@
 package com.jbk.taskboard.repository;
 
 import com.jbk.taskboard.entity.AppUser;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for AppUser entities.
  * Extends JpaRepository to provide CRUD operations.
- * Includes methods to check existence by email and to find by email.
+ * Email lookups (unique, see uk_app_user_email) use the natural ID (see
+ * AppUserRepositoryCustom).
+ * Slice-returning methods skip the COUNT query issued for pages.
  */
-public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+public interface AppUserRepository extends JpaRepository<AppUser, Long>, AppUserRepositoryCustom {
 
-    // Checks if a user already exists with the given email.
-    boolean existsByEmail(String email);
+    // Returns a slice of users (fetches size + 1 rows, no count query).
+    Slice<AppUser> findAllBy(Pageable pageable);
 
-    // Finds a user by email and returns an Optional<AppUser>.
-    Optional<AppUser> findByEmail(String email);
+    // Returns the version of the user (see Versions) without loading the
+    // user.
+    @Query("select cast(u.version as String) from AppUser u where u.id = :id")
+    Optional<String> findVersionById(@Param("id") long id);
+
+    // Returns the versions of the given users (missing users are left out).
+    @Query("select new com.jbk.taskboard.repository.IdVersion(u.id, cast(u.version as String)) "
+            + "from AppUser u where u.id in :ids")
+    List<IdVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Deletes the user with the given ID with a single DELETE statement (their
+    // projects and tasks go with it through ON DELETE CASCADE). Returns the
+    // number of deleted rows (0 or 1).
+    @Modifying
+    @Query("delete from AppUser u where u.id = :id")
+    int deleteRowById(@Param("id") long id);
+
+    // Deletes the user with the given ID with a single DELETE statement,
+    // provided that their version is one of the given ones. Returns the
+    // number of deleted rows (0 or 1).
+    @Modifying
+    @Query("delete from AppUser u where u.id = :id and cast(u.version as String) in :versions")
+    int deleteRowByIdAndVersionIn(@Param("id") long id, @Param("versions") Collection<String> versions);
 }
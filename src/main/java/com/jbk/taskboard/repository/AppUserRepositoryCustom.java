@@ -0,0 +1,25 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.entity.AppUser;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/**
+ * Custom query methods for AppUser entities that Spring Data cannot derive.
+ * Implemented by AppUserRepositoryCustomImpl and exposed through
+ * AppUserRepository.
+ */
+public interface AppUserRepositoryCustom {
+
+    // Finds a user by email (in any case) through the natural ID, so that
+    // the lookup is served from the second-level cache once resolved.
+    Optional<AppUser> findByEmail(String email);
+
+    // Returns a page of users as response DTOs, selecting only the columns
+    // they need (no entities), with the total read by the same query (COUNT
+    // subquery).
+    Page<AppUserResponseDTO> findResponsePage(Pageable pageable);
+}
@@ -0,0 +1,83 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.entity.AppUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Implementation of AppUserRepositoryCustom.
+ * Email lookups go through Hibernate's natural ID API instead of a query: the
+ * email to ID resolution and the user itself are then taken from the
+ * second-level cache (see AppUser), and a query is issued only on a miss.
+ * The cached resolutions are keyed by the exact value, so the email is
+ * lower-cased first, as it is when stored. Like the derived queries it runs
+ * in a read-only transaction when called outside one (the session must
+ * outlive the unwrap call).
+ * Pages of users are read as plain columns, with their total in the same
+ * statement.
+ */
+public class AppUserRepositoryCustomImpl implements AppUserRepositoryCustom {
+
+    private static final String SELECT_PAGE = """
+            select u.id, u.name, u.email, u.createdAt,
+                   (select count(c) from AppUser c)
+            from AppUser u
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Finds a user by email.
+     * 
+     * @param email The email, in any case (emails are stored in lower
+     *              case).
+     * @return The user, or empty if no user has this email.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AppUser> findByEmail(String email) {
+        return em.unwrap(Session.class)
+                .bySimpleNaturalId(AppUser.class)
+                .loadOptional(email.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns a page of users as response DTOs.
+     * Reads the total like ProjectRepositoryCustomImpl.findResponsePage: in
+     * the page statement, or with a separate count past the last page.
+     * 
+     * @param pageable The page to read and the order of the users.
+     * @return The page of users, with the total.
+     */
+    @Override
+    public Page<AppUserResponseDTO> findResponsePage(Pageable pageable) {
+        List<Object[]> rows = em.createQuery(QueryUtils.applySorting(SELECT_PAGE, pageable.getSort(), "u"),
+                Object[].class)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        List<AppUserResponseDTO> content = rows.stream()
+                .map(row -> AppUserResponseDTO.of((Long) row[0], (String) row[1], (String) row[2], (Instant) row[3]))
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> rows.isEmpty() ? count() : (Long) rows.get(0)[4]);
+    }
+
+    // Counts every user.
+    private long count() {
+        return em.createQuery("select count(u) from AppUser u", Long.class).getSingleResult();
+    }
+}
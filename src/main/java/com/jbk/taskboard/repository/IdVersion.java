@@ -0,0 +1,10 @@
+package com.jbk.taskboard.repository;
+
+/**
+ * ID and representation version of a row (see findVersionsByIdIn in the
+ * repositories), used to check cached entries without reading the rows.
+ */
+public record IdVersion(
+        long id,
+        String version) {
+}
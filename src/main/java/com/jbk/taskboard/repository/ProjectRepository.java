@@ -1,20 +1,93 @@
 package com.jbk.taskboard.repository;
 
 import com.jbk.taskboard.entity.Project;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Project entities.
  * Extends JpaRepository to provide CRUD operations.
- * Includes methods to check existence by owner ID and project name.
+ * Name uniqueness per owner is enforced by the uk_project_owner_name key.
+ * Read methods use the "Project.withOwner" entity graph so that the owner is
+ * loaded together with the project (no N+1 selects).
+ * List endpoints read response DTOs directly (see ProjectRepositoryCustom).
  */
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectRepositoryCustom {
+
+    // Finds a project by ID, fetching its owner.
+    @Override
+    @EntityGraph(Project.GRAPH_WITH_OWNER)
+    Optional<Project> findById(Long id);
+
+    // Finds the projects with the given IDs, fetching their owner (one query).
+    @EntityGraph(Project.GRAPH_WITH_OWNER)
+    List<Project> findWithOwnerByIdIn(Collection<Long> ids);
+
+    // Returns a page of projects, fetching their owner.
+    @Override
+    @EntityGraph(Project.GRAPH_WITH_OWNER)
+    Page<Project> findAll(Pageable pageable);
+
+    // Returns the version of the project representation ("project.owner",
+    // see Versions) without loading the project.
+    @Query("select concat(cast(p.version as String), '.', cast(o.version as String)) "
+            + "from Project p join p.owner o where p.id = :id")
+    Optional<String> findVersionById(@Param("id") long id);
+
+    // Returns the versions of the given project representations (missing
+    // projects are left out).
+    @Query("select new com.jbk.taskboard.repository.IdVersion(p.id, concat(cast(p.version as String), '.', "
+            + "cast(o.version as String))) from Project p join p.owner o where p.id in :ids")
+    List<IdVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Returns the version of the project's task listings ("changes.project.owner",
+    // see Versions) without reading any task.
+    @Query("select concat(cast(c.changeCount as String), '.', cast(p.version as String), '.', "
+            + "cast(o.version as String)) from Project p join p.owner o "
+            + "join ProjectTaskChange c on c.projectId = p.id where p.id = :id")
+    Optional<String> findTaskListVersionById(@Param("id") long id);
+
+    // Creates the task change counter of a new project (see
+    // ProjectTaskChange).
+    @Modifying
+    @Query("insert into ProjectTaskChange (projectId, changeCount) values (:projectId, 0)")
+    void insertTaskChangeCount(@Param("projectId") long projectId);
+
+    // Increments the task change counter of the given projects. Returns the
+    // number of matched projects.
+    @Modifying
+    @Query("update ProjectTaskChange c set c.changeCount = c.changeCount + 1 where c.projectId in :ids")
+    int incrementTaskChangeCount(@Param("ids") Collection<Long> ids);
+
+    // Increments the task change counter of the project of the given task.
+    // Returns the number of matched projects (0 when the task is missing).
+    @Modifying
+    @Query("update ProjectTaskChange c set c.changeCount = c.changeCount + 1 "
+            + "where c.projectId = (select t.project.id from Task t where t.id = :taskId)")
+    int incrementTaskChangeCountByTaskId(@Param("taskId") long taskId);
 
-    // Checks if a project exists for a given owner ID and project name (case
-    // insensitive).
-    boolean existsByOwner_IdAndNameIgnoreCase(long ownerId, String name);
+    // Deletes the project with the given ID with a single DELETE statement
+    // (its tasks go with it through ON DELETE CASCADE). Returns the number of
+    // deleted rows (0 or 1).
+    @Modifying
+    @Query("delete from Project p where p.id = :id")
+    int deleteRowById(@Param("id") long id);
 
-    // Checks if a project exists for a given owner ID and project name (case
-    // insensitive), excluding a specific project ID.
-    boolean existsByOwner_IdAndNameIgnoreCaseAndIdNot(long ownerId, String name, long id);
+    // Deletes the project with the given ID with a single DELETE statement,
+    // provided that its version (see findVersionById) is one of the given
+    // ones. Returns the number of deleted rows (0 or 1).
+    @Modifying
+    @Query("delete from Project p where p.id = :id and exists (select 1 from AppUser o "
+            + "where o.id = p.owner.id and concat(cast(p.version as String), '.', cast(o.version as String)) "
+            + "in :versions)")
+    int deleteRowByIdAndVersionIn(@Param("id") long id, @Param("versions") Collection<String> versions);
 }
@@ -0,0 +1,29 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom query methods for Project entities that Spring Data cannot derive.
+ * Implemented by ProjectRepositoryCustomImpl and exposed through
+ * ProjectRepository.
+ */
+public interface ProjectRepositoryCustom {
+
+    // Returns a window of projects as response DTOs, selecting only the
+    // columns they need (no entities).
+    List<ProjectResponseDTO> findResponses(Sort sort, long offset, int limit);
+
+    // Returns a page of projects as response DTOs, with the total read by the
+    // same query (COUNT subquery).
+    Page<ProjectResponseDTO> findResponsePage(Pageable pageable);
+
+    // Returns the project with the given ID as a response DTO (one query,
+    // owner included).
+    Optional<ProjectResponseDTO> findResponseById(long id);
+}
@@ -0,0 +1,106 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of ProjectRepositoryCustom.
+ * Reads projects and their owner as plain columns and maps them straight into
+ * the response DTOs, so list endpoints never hydrate entities or grow the
+ * persistence context. Pages read their total in the same statement.
+ */
+public class ProjectRepositoryCustomImpl implements ProjectRepositoryCustom {
+
+    private static final String SELECT_RESPONSES = """
+            select p.id, p.name, p.description, p.createdAt,
+                   o.id, o.name, o.email
+            from Project p join p.owner o
+            """;
+
+    private static final String SELECT_PAGE = """
+            select p.id, p.name, p.description, p.createdAt,
+                   o.id, o.name, o.email,
+                   (select count(c) from Project c)
+            from Project p join p.owner o
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Returns a window of projects as response DTOs.
+     * 
+     * @param sort   The order of the projects.
+     * @param offset The number of rows to skip.
+     * @param limit  The maximum number of projects to return.
+     * @return The projects, in the requested order.
+     */
+    @Override
+    public List<ProjectResponseDTO> findResponses(Sort sort, long offset, int limit) {
+        return em.createQuery(QueryUtils.applySorting(SELECT_RESPONSES, sort, "p"), Object[].class)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(ProjectRepositoryCustomImpl::toResponse)
+                .toList();
+    }
+
+    /**
+     * Returns a page of projects as response DTOs.
+     * The total is an uncorrelated COUNT subquery of the same statement
+     * (evaluated once), so the page takes one round trip; a page past the end
+     * has no row to carry it and is counted separately.
+     * 
+     * @param pageable The page to read and the order of the projects.
+     * @return The page of projects, with the total.
+     */
+    @Override
+    public Page<ProjectResponseDTO> findResponsePage(Pageable pageable) {
+        List<Object[]> rows = em.createQuery(QueryUtils.applySorting(SELECT_PAGE, pageable.getSort(), "p"),
+                Object[].class)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        List<ProjectResponseDTO> content = rows.stream().map(ProjectRepositoryCustomImpl::toResponse).toList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> rows.isEmpty() ? count() : (Long) rows.get(0)[7]);
+    }
+
+    /**
+     * Returns the project with the given ID as a response DTO.
+     * 
+     * @param id The ID of the project.
+     * @return The project, or empty if it does not exist.
+     */
+    @Override
+    public Optional<ProjectResponseDTO> findResponseById(long id) {
+        return em.createQuery(SELECT_RESPONSES + "where p.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(ProjectRepositoryCustomImpl::toResponse);
+    }
+
+    // Counts every project.
+    private long count() {
+        return em.createQuery("select count(p) from Project p", Long.class).getSingleResult();
+    }
+
+    // Maps a row of SELECT_RESPONSES or SELECT_PAGE (same shape as
+    // ProjectMapper.toResponse).
+    private static ProjectResponseDTO toResponse(Object[] row) {
+        AppUserResponseDTO owner = AppUserResponseDTO.of((Long) row[4], (String) row[5], (String) row[6]);
+        return ProjectResponseDTO.of((Long) row[0], (String) row[1], (String) row[2], (Instant) row[3], owner);
+    }
+}
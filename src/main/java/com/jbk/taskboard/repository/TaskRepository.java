@@ -1,23 +1,77 @@
 package com.jbk.taskboard.repository;
 
 import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Task entities.
  * Extends JpaRepository to provide CRUD operations.
  * Extends JpaSpecificationExecutor to support Specifications for dynamic
  * queries.
- * Includes methods to check existence by project ID and task title.
+ * Title uniqueness per project is enforced by the uk_task_project_title key.
+ * Read methods use the "Task.withProjectAndOwner" entity graph so that the
+ * project and its owner are loaded together with the task (no N+1 selects).
+ * Lists are read in two steps (TaskRepositoryCustom): findIds picks the page
+ * from the task indexes alone, then findRowsByIdIn reads the columns of
+ * those tasks by primary key.
  */
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskRepositoryCustom {
+
+    // Finds a task by ID, fetching its project and the project owner.
+    @Override
+    @EntityGraph(Task.GRAPH_WITH_PROJECT_AND_OWNER)
+    Optional<Task> findById(Long id);
+
+    // Returns the lower-cased titles of the project's tasks that match any of
+    // the given lower-cased titles (duplicate check for a whole batch, served
+    // by the uk_task_project_title index).
+    @Query("select t.titleNorm from Task t where t.project.id = :projectId and t.titleNorm in :titles")
+    List<String> findExistingTitles(@Param("projectId") long projectId, @Param("titles") Collection<String> titles);
+
+    // Returns the current status of the task with the given ID, if any.
+    @Query("select t.status from Task t where t.id = :id")
+    Optional<TaskStatus> findStatusById(@Param("id") long id);
+
+    // Returns the version of the task representation ("task.project.owner",
+    // see Versions) without loading the task.
+    @Query("select concat(cast(t.version as String), '.', cast(p.version as String), '.', "
+            + "cast(o.version as String)) from Task t join t.project p join p.owner o where t.id = :id")
+    Optional<String> findVersionById(@Param("id") long id);
+
+    // Sets the status of the task with the given ID with a single UPDATE
+    // statement (the task is not loaded first), provided that its current
+    // status is the expected one (any status when expected is null). The
+    // version is incremented as by an entity update. Returns the number of
+    // matched rows (0 or 1).
+    @Modifying
+    @Query("update Task t set t.status = :status, t.version = t.version + 1 "
+            + "where t.id = :id and (:expected is null or t.status = :expected)")
+    int updateStatus(@Param("id") long id, @Param("status") TaskStatus status,
+            @Param("expected") TaskStatus expected);
 
-    // Checks if a task exists for a given project ID and task title (case
-    // insensitive).
-    boolean existsByProject_IdAndTitleIgnoreCase(long projectId, String title);
+    // Deletes the task with the given ID with a single DELETE statement (the
+    // task is not loaded first). Returns the number of deleted rows (0 or 1).
+    @Modifying
+    @Query("delete from Task t where t.id = :id")
+    int deleteRowById(@Param("id") long id);
 
-    // Checks if a task exists for a given project ID and task title (case
-    // insensitive), excluding a specific task ID.
-    boolean existsByProject_IdAndTitleIgnoreCaseAndIdNot(long projectId, String title, long id);
+    // Deletes the task with the given ID with a single DELETE statement,
+    // provided that its version (see findVersionById) is one of the given
+    // ones. Returns the number of deleted rows (0 or 1).
+    @Modifying
+    @Query("delete from Task t where t.id = :id and exists (select 1 from Project p join p.owner o "
+            + "where p.id = t.project.id and concat(cast(t.version as String), '.', cast(p.version as String), "
+            + "'.', cast(o.version as String)) in :versions)")
+    int deleteRowByIdAndVersionIn(@Param("id") long id, @Param("versions") Collection<String> versions);
 }
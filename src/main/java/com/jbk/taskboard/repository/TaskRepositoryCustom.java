@@ -0,0 +1,49 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.task.TaskResponseDTO;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Custom query methods for Task entities that Spring Data cannot derive.
+ * Implemented by TaskRepositoryCustomImpl and exposed through TaskRepository.
+ */
+public interface TaskRepositoryCustom {
+
+    // Returns the IDs of the tasks matching the specification, sorted and
+    // limited, reading only the task table.
+    List<Long> findIds(Specification<Task> spec, Sort sort, long offset, int limit);
+
+    // Returns a page of the IDs of the tasks matching the specification, with
+    // the total read by the same query (COUNT subquery), reading only the
+    // task table.
+    Page<Long> findIdPage(Specification<Task> spec, Pageable pageable);
+
+    // Returns the tasks with the given IDs (in no particular order) as task
+    // columns with the project ID, reading only the task table (no entities).
+    List<TaskRow> findRowsByIdIn(Collection<Long> ids);
+
+    // Streams every task matching the specification as response DTOs, in ID
+    // order, reading rows from the database as the stream is consumed. The
+    // stream must be closed and consumed inside a transaction.
+    Stream<TaskResponseDTO> streamResponses(Specification<Task> spec);
+
+    // Sets the status and/or priority (null values are left unchanged) of
+    // every task matching the specification with a single UPDATE statement.
+    // Returns the number of matched tasks.
+    int updateStatusAndPriority(Specification<Task> spec, TaskStatus status, TaskPriority priority);
+
+    // Increments the task change counter of every project having a task that
+    // matches the specification, with a single UPDATE statement. Returns the
+    // number of matched projects.
+    int incrementProjectTaskChangeCounts(Specification<Task> spec);
+}
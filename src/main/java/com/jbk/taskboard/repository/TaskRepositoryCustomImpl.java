@@ -0,0 +1,263 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.task.TaskResponseDTO;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.ProjectTaskChange;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of TaskRepositoryCustom.
+ * The ID query selects only task.id and joins no other table, so MySQL can
+ * resolve the filters, the ORDER BY and the LIMIT from one of the composite
+ * task indexes (covering, no filesort). The rows are then read by primary
+ * key as plain task columns (the project by ID, no join), so list endpoints
+ * never hydrate entities or grow the persistence context; the services add
+ * the nested project and owner from their caches. Pages that need a total
+ * get it from the same ID query, as an uncorrelated COUNT subquery that MySQL
+ * runs once on the same index, instead of a second round trip. A window
+ * count (COUNT(*) OVER ()) would do the same in theory, but MySQL then
+ * buffers and sorts every matching ID before the LIMIT (temporary table and
+ * filesort, about 2.5 times slower than both queries on 1M tasks).
+ * Exports stream the task, project and owner columns through a forward-only
+ * MySQL cursor, so memory use does not depend on the number of rows.
+ * Bulk updates are issued as one set-based UPDATE built from the same
+ * specifications, without loading the affected tasks; so is the increment
+ * of the task change counter of the projects they belong to.
+ */
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final String SELECT_ROWS = """
+            select new com.jbk.taskboard.repository.TaskRow(
+                   t.id, t.title, t.description, t.status, t.priority, t.createdAt, t.dueDate, t.project.id)
+            from Task t
+            where t.id in :ids
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Returns the IDs of the tasks matching the specification.
+     * 
+     * @param spec   The filters to apply.
+     * @param sort   The order of the returned IDs.
+     * @param offset The number of rows to skip.
+     * @param limit  The maximum number of IDs to return.
+     * @return The matching task IDs, in the requested order.
+     */
+    @Override
+    public List<Long> findIds(Specification<Task> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return em.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Returns a page of the IDs of the tasks matching the specification, with
+     * the total number of matching tasks counted by the same query (COUNT
+     * subquery with the same filters, selected as a second column). Only a
+     * page past the last task, which has no row to carry the total, runs a
+     * separate COUNT.
+     * 
+     * @param spec     The filters to apply.
+     * @param pageable The page to read, with the order of the IDs.
+     * @return The matching task IDs of the page, in the requested order, and
+     *         the total.
+     */
+    @Override
+    public Page<Long> findIdPage(Specification<Task> spec, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Task> root = query.from(Task.class);
+        Subquery<Long> total = query.subquery(Long.class);
+        Root<Task> counted = total.from(Task.class);
+        total.select(cb.count(counted));
+        Predicate countPredicate = spec.toPredicate(counted, null, cb);
+        if (countPredicate != null) {
+            total.where(countPredicate);
+        }
+        query.multiselect(root.get("id"), total);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Object[]> rows = em.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+        return PageableExecutionUtils.getPage(ids, pageable,
+                () -> rows.isEmpty() ? count(spec) : (Long) rows.get(0)[1]);
+    }
+
+    /**
+     * Returns the task columns of the tasks with the given IDs.
+     * 
+     * @param ids The task IDs.
+     * @return The matching tasks, in no particular order.
+     */
+    @Override
+    public List<TaskRow> findRowsByIdIn(Collection<Long> ids) {
+        return em.createQuery(SELECT_ROWS, TaskRow.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Streams the tasks matching the specification as response DTOs.
+     * The fetch size of Integer.MIN_VALUE makes the MySQL driver read the rows
+     * one at a time from the connection instead of buffering the whole result,
+     * and scalar rows are never added to the persistence context.
+     * 
+     * @param spec The filters to apply.
+     * @return The matching tasks, in ascending ID order.
+     */
+    @Override
+    public Stream<TaskResponseDTO> streamResponses(Specification<Task> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Task> root = query.from(Task.class);
+        Join<Task, Project> project = root.join("project");
+        Join<Project, AppUser> owner = project.join("owner");
+        // Column order read by toResponse
+        query.multiselect(root.get("id"), root.get("title"), root.get("description"), root.get("status"),
+                root.get("priority"), root.get("createdAt"), root.get("dueDate"),
+                project.get("id"), project.get("name"), project.get("description"),
+                owner.get("id"), owner.get("name"), owner.get("email"), owner.get("createdAt"));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return em.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .getResultStream()
+                .map(TaskRepositoryCustomImpl::toResponse);
+    }
+
+    /**
+     * Updates the status and/or priority of the tasks matching the
+     * specification.
+     * The statement bypasses the persistence context: callers must not rely on
+     * task entities loaded earlier in the same transaction. The version of
+     * every matched task is incremented, as by an entity update.
+     * 
+     * @param spec     The filters selecting the tasks to update.
+     * @param status   The new status, or null to leave it unchanged.
+     * @param priority The new priority, or null to leave it unchanged.
+     * @return The number of tasks matched by the filters.
+     */
+    @Override
+    public int updateStatusAndPriority(Specification<Task> spec, TaskStatus status, TaskPriority priority) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> root = update.from(Task.class);
+        if (status != null) {
+            update.set(root.<TaskStatus>get("status"), status);
+        }
+        if (priority != null) {
+            update.set(root.<TaskPriority>get("priority"), priority);
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        Predicate predicate = spec.toPredicate(root, null, cb);
+        if (predicate != null) {
+            update.where(predicate);
+        }
+        return em.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Increments the task change counter of the projects of the tasks matching
+     * the specification, with a single UPDATE statement on the counter table
+     * (the tasks are selected by a subquery). Call it before updating the
+     * tasks, so that the counter rows are always locked before the task rows
+     * and the filters still select the tasks about to change.
+     * 
+     * @param spec The filters selecting the changed tasks.
+     * @return The number of projects matched.
+     */
+    @Override
+    public int incrementProjectTaskChangeCounts(Specification<Task> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaUpdate<ProjectTaskChange> update = cb.createCriteriaUpdate(ProjectTaskChange.class);
+        Root<ProjectTaskChange> counter = update.from(ProjectTaskChange.class);
+        update.set(counter.<Long>get("changeCount"), cb.sum(counter.<Long>get("changeCount"), 1L));
+
+        Subquery<Long> projectIds = update.subquery(Long.class);
+        Root<Task> task = projectIds.from(Task.class);
+        projectIds.select(task.get("project").<Long>get("id"));
+        Predicate predicate = spec.toPredicate(task, null, cb);
+        if (predicate != null) {
+            projectIds.where(predicate);
+        }
+        update.where(counter.get("projectId").in(projectIds));
+        return em.createQuery(update).executeUpdate();
+    }
+
+    // Counts the tasks matching the specification.
+    private long count(Specification<Task> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return em.createQuery(query).getSingleResult();
+    }
+
+    // Maps a row of streamResponses (same shape as TaskMapper.toResponse).
+    private static TaskResponseDTO toResponse(Object[] row) {
+        AppUserResponseDTO owner = AppUserResponseDTO.of((Long) row[10], (String) row[11], (String) row[12],
+                (Instant) row[13]);
+        ProjectResponseDTO project = ProjectResponseDTO.of((Long) row[7], (String) row[8], (String) row[9], owner);
+        return TaskResponseDTO.of((Long) row[0], (String) row[1], (String) row[2], (TaskStatus) row[3],
+                (TaskPriority) row[4], (Instant) row[5], (LocalDate) row[6], project);
+    }
+}
@@ -0,0 +1,31 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.task.TaskResponseDTO;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Columns of a task as read by TaskRepository.findRowsByIdIn: the task table
+ * only, with the project by ID. The nested project and owner of the response
+ * are added by the caller (see toResponse).
+ */
+public record TaskRow(
+        long id,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        Instant createdAt,
+        LocalDate dueDate,
+        long projectId) {
+
+    // Builds the task response with the given nested project (same shape as
+    // TaskMapper.toResponse).
+    public TaskResponseDTO toResponse(ProjectResponseDTO project) {
+        return TaskResponseDTO.of(id, title, description, status, priority, createdAt, dueDate, project);
+    }
+}
@@ -5,6 +5,8 @@ import com.jbk.taskboard.entity.TaskPriority;
 import com.jbk.taskboard.entity.TaskStatus;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
+
 /**
  * Specifications for querying Task entities.
  * Provides methods to create specifications based on status, priority,
@@ -35,4 +37,15 @@ public final class TaskSpecs {
     public static Specification<Task> hasProjectId(Long projectId) {
         return (root, q, cb) -> projectId == null ? null : cb.equal(root.get("project").get("id"), projectId);
     }
+
+    // Specification to keep only tasks whose ID is lower than the given one.
+    // Used as the keyset (seek) predicate when paginating by id DESC.
+    public static Specification<Task> idBefore(Long id) {
+        return (root, q, cb) -> id == null ? null : cb.lessThan(root.get("id"), id);
+    }
+
+    // Specification to keep only tasks with one of the given IDs.
+    public static Specification<Task> idIn(Collection<Long> ids) {
+        return (root, q, cb) -> ids == null ? null : root.get("id").in(ids);
+    }
 }
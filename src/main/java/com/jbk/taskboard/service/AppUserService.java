@@ -1,8 +1,14 @@
 package com.jbk.taskboard.service;
 
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.user.AppUserPatchRequestDTO;
 import com.jbk.taskboard.dto.user.AppUserRequestDTO;
 import com.jbk.taskboard.dto.user.AppUserResponseDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service interface for managing AppUser entities.
@@ -15,15 +21,38 @@ public interface AppUserService {
     // Creates a new user and returns the created user DTO.
     AppUserResponseDTO create(AppUserRequestDTO req);
 
-    // Retrieves a user by its ID.
-    AppUserResponseDTO getById(long id);
+    // Retrieves a user by its ID, with the version of the user.
+    VersionedDTO<AppUserResponseDTO> getById(long id);
+
+    // Returns the version of a user without reading the user.
+    String getVersion(long id);
+
+    // Returns the last cached user, whatever its version, without accessing
+    // the database (served while it is unavailable).
+    Optional<VersionedDTO<AppUserResponseDTO>> getCachedById(long id);
 
     // Returns a paginated list of users.
     Page<AppUserResponseDTO> list(int page, int size);
 
-    // Updates an existing user by ID.
-    AppUserResponseDTO update(long id, AppUserRequestDTO req);
+    // Returns a slice of users without computing the total count.
+    Slice<AppUserResponseDTO> listSlice(int page, int size);
+
+    // Returns the last page of users read with this page number and size,
+    // without accessing the database (served while it is unavailable).
+    Optional<Page<AppUserResponseDTO>> listCached(int page, int size);
+
+    // Same as listCached for a slice.
+    Optional<Slice<AppUserResponseDTO>> listSliceCached(int page, int size);
+
+    // Updates an existing user by ID, provided that their version is one of
+    // the expected ones (null for an unconditional update).
+    VersionedDTO<AppUserResponseDTO> update(long id, AppUserRequestDTO req, Set<String> expectedVersions);
+
+    // Applies a merge patch to an existing user (only the supplied fields),
+    // provided that their version is one of the expected ones.
+    VersionedDTO<AppUserResponseDTO> patch(long id, AppUserPatchRequestDTO req, Set<String> expectedVersions);
 
-    // Deletes a user by ID.
-    void delete(long id);
+    // Deletes a user by ID, provided that their version is one of the
+    // expected ones (null for an unconditional delete).
+    void delete(long id, Set<String> expectedVersions);
 }
@@ -1,9 +1,15 @@
 package com.jbk.taskboard.service;
 
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectPatchRequestDTO;
 import com.jbk.taskboard.dto.project.ProjectResponseDTO;
 import com.jbk.taskboard.dto.project.ProjectRequestDTO;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service interface for managing Project entities.
@@ -16,15 +22,50 @@ public interface ProjectService {
     // Creates a new project and returns the created project DTO.
     ProjectResponseDTO create(ProjectRequestDTO req);
 
-    // Retrieves a project by its ID.
-    ProjectResponseDTO getById(long id);
+    // Creates a new project and returns only its ID (the response is not read).
+    long createMinimal(ProjectRequestDTO req);
+
+    // Retrieves a project by its ID, with the version of the representation.
+    VersionedDTO<ProjectResponseDTO> getById(long id);
+
+    // Returns the version of a project representation without reading the
+    // project.
+    String getVersion(long id);
+
+    // Returns the last cached project, whatever its version, without
+    // accessing the database (served while it is unavailable).
+    Optional<VersionedDTO<ProjectResponseDTO>> getCachedById(long id);
 
     // Returns a paginated list of projects.
     Page<ProjectResponseDTO> list(int page, int size);
 
-    // Updates an existing project by ID.
-    ProjectResponseDTO update(long id, ProjectRequestDTO req);
+    // Returns a slice of projects without computing the total count.
+    Slice<ProjectResponseDTO> listSlice(int page, int size);
+
+    // Returns the last page of projects read with this page number and size,
+    // without accessing the database (served while it is unavailable).
+    Optional<Page<ProjectResponseDTO>> listCached(int page, int size);
+
+    // Same as listCached for a slice.
+    Optional<Slice<ProjectResponseDTO>> listSliceCached(int page, int size);
+
+    // Updates an existing project by ID, provided that its version is one of
+    // the expected ones (null for an unconditional update).
+    VersionedDTO<ProjectResponseDTO> update(long id, ProjectRequestDTO req, Set<String> expectedVersions);
+
+    // Updates an existing project by ID without reading the response and
+    // returns the new version.
+    String updateMinimal(long id, ProjectRequestDTO req, Set<String> expectedVersions);
+
+    // Applies a merge patch to an existing project (only the supplied fields),
+    // provided that its version is one of the expected ones.
+    VersionedDTO<ProjectResponseDTO> patch(long id, ProjectPatchRequestDTO req, Set<String> expectedVersions);
+
+    // Applies a merge patch to an existing project without reading the
+    // response and returns the new version.
+    String patchMinimal(long id, ProjectPatchRequestDTO req, Set<String> expectedVersions);
 
-    // Deletes a project by ID.
-    void delete(long id);
+    // Deletes a project by ID, provided that its version is one of the
+    // expected ones (null for an unconditional delete).
+    void delete(long id, Set<String> expectedVersions);
 }
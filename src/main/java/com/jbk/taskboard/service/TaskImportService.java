@@ -0,0 +1,29 @@
+package com.jbk.taskboard.service;
+
+import com.jbk.taskboard.dto.task.TaskImportProgressDTO;
+import com.jbk.taskboard.dto.task.TaskImportResponseDTO;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Service interface for importing tasks in bulk.
+ * Defines the import of large CSV or NDJSON uploads into a project.
+ * Rows are persisted in fixed-size batches, each in its own transaction.
+ */
+public interface TaskImportService {
+
+    // Upload formats accepted by the import.
+    enum Format {
+        NDJSON, CSV
+    }
+
+    // Imports the tasks read from the input into an existing project and
+    // returns the number of rows imported and the errors of the failed ones.
+    TaskImportResponseDTO importForProject(long projectId, InputStream in, Format format);
+
+    // Same as above, and reports the counters to the listener after each
+    // committed batch.
+    TaskImportResponseDTO importForProject(long projectId, InputStream in, Format format,
+            Consumer<TaskImportProgressDTO> onBatch);
+}
@@ -1,9 +1,18 @@
 package com.jbk.taskboard.service;
 
+import com.jbk.taskboard.dto.common.CursorPageDTO;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
 import com.jbk.taskboard.dto.task.*;
 import com.jbk.taskboard.entity.TaskPriority;
 import com.jbk.taskboard.entity.TaskStatus;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing Task entities.
@@ -16,19 +25,97 @@ public interface TaskService {
     // Creates a new task and returns the created task DTO.
     TaskResponseDTO create(TaskCreateRequestDTO req);
 
+    // Creates a new task and returns only its ID (the response is not read).
+    long createMinimal(TaskCreateRequestDTO req);
+
     // Creates a new task for a specific project and returns the created task DTO.
     TaskResponseDTO createForProject(long projectId, TaskCreateForProjectRequestDTO req);
 
-    // Retrieves a task by its ID.
-    TaskResponseDTO getById(long id);
+    // Creates a new task for a specific project and returns only its ID.
+    long createForProjectMinimal(long projectId, TaskCreateForProjectRequestDTO req);
+
+    // Creates several tasks for a specific project and returns the outcome of
+    // each item (invalid or duplicate items fail without affecting the rest).
+    TaskBatchResponseDTO createBatchForProject(long projectId, List<TaskCreateForProjectRequestDTO> items);
+
+    // Retrieves a task by its ID, with the version of the representation.
+    VersionedDTO<TaskResponseDTO> getById(long id);
+
+    // Retrieves a task by its ID already encoded as JSON, with its version
+    // (served from a cache while the version is unchanged).
+    VersionedDTO<EncodedJsonDTO> getJsonById(long id);
+
+    // Returns the version of a task representation without reading the task.
+    String getVersion(long id);
+
+    // Returns the last cached encoded task, whatever its version, without
+    // accessing the database (served while it is unavailable).
+    Optional<VersionedDTO<EncodedJsonDTO>> getCachedJsonById(long id);
+
+    // Returns the version of the task listings of a project (empty if the
+    // project does not exist) without reading any task.
+    Optional<String> getListVersion(long projectId);
 
     // Returns a paginated list of tasks with optional filtering by status,
     // priority, and project ID.
     Page<TaskResponseDTO> list(Integer page, Integer size, TaskStatus status, TaskPriority priority, Long projectId);
 
-    // Updates an existing task by ID.
-    TaskResponseDTO update(long id, TaskUpdateRequestDTO req);
+    // Returns a slice of tasks with the same filters as list, without
+    // computing the total count.
+    Slice<TaskResponseDTO> listSlice(int page, int size, TaskStatus status, TaskPriority priority, Long projectId);
+
+    // Returns the tasks following the given cursor (keyset pagination) with
+    // optional filtering by status, priority, and project ID.
+    CursorPageDTO<TaskResponseDTO> listAfter(String after, int size, TaskStatus status, TaskPriority priority,
+            Long projectId);
+
+    // Returns the last cached page of a project listing with the listing
+    // version it was read at, without accessing the database (served while
+    // it is unavailable); empty if it is not fully cached. For a listing
+    // across projects, the last page read, without version.
+    Optional<VersionedDTO<Page<TaskResponseDTO>>> listCached(int page, int size, TaskStatus status,
+            TaskPriority priority, Long projectId);
+
+    // Same as listCached for a slice.
+    Optional<VersionedDTO<Slice<TaskResponseDTO>>> listSliceCached(int page, int size, TaskStatus status,
+            TaskPriority priority, Long projectId);
+
+    // Same as listCached for the tasks following a cursor (project listings
+    // only).
+    Optional<VersionedDTO<CursorPageDTO<TaskResponseDTO>>> listAfterCached(String after, int size,
+            TaskStatus status, TaskPriority priority, Long projectId);
+
+    // Passes every task matching the optional filters to the sink, one at a
+    // time and in ID order, and returns the number of tasks exported.
+    long export(TaskStatus status, TaskPriority priority, Long projectId, Consumer<TaskResponseDTO> sink);
+
+    // Same as export for the tasks of an existing project.
+    long exportForProject(long projectId, TaskStatus status, TaskPriority priority, Consumer<TaskResponseDTO> sink);
+
+    // Updates an existing task by ID, provided that its version is one of the
+    // expected ones (null for an unconditional update).
+    VersionedDTO<TaskResponseDTO> update(long id, TaskUpdateRequestDTO req, Set<String> expectedVersions);
+
+    // Updates an existing task by ID without reading the response and returns
+    // the new version.
+    String updateMinimal(long id, TaskUpdateRequestDTO req, Set<String> expectedVersions);
+
+    // Applies a merge patch to an existing task (only the supplied fields),
+    // provided that its version is one of the expected ones.
+    VersionedDTO<TaskResponseDTO> patch(long id, TaskPatchRequestDTO req, Set<String> expectedVersions);
+
+    // Applies a merge patch to an existing task without reading the response
+    // and returns the new version.
+    String patchMinimal(long id, TaskPatchRequestDTO req, Set<String> expectedVersions);
+
+    // Moves a task to another status with a single conditional UPDATE.
+    TaskStatusResponseDTO changeStatus(long id, TaskStatusChangeRequestDTO req);
+
+    // Sets the status and/or priority of the tasks selected by IDs or by a
+    // filter and returns the number of tasks matched.
+    TaskBulkUpdateResponseDTO bulkUpdate(TaskBulkUpdateRequestDTO req);
 
-    // Deletes a task by ID.
-    void delete(long id);
+    // Deletes a task by ID, provided that its version is one of the expected
+    // ones (null for an unconditional delete).
+    void delete(long id, Set<String> expectedVersions);
 }
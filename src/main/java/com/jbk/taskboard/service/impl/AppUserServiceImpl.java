@@ -1,25 +1,39 @@
 package com.jbk.taskboard.service.impl;
 
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.user.AppUserPatchRequestDTO;
 import com.jbk.taskboard.dto.user.AppUserRequestDTO;
 import com.jbk.taskboard.dto.user.AppUserResponseDTO;
 import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
 import com.jbk.taskboard.exception.BusinessRuleException;
+import com.jbk.taskboard.exception.ConstraintViolations;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
 import com.jbk.taskboard.mapper.AppUserMapper;
 import com.jbk.taskboard.repository.AppUserRepository;
 import com.jbk.taskboard.service.AppUserService;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Service implementation for managing AppUser entities.
  * Provides methods for creating, retrieving, updating, and deleting users.
  * Uses AppUserRepository for database interactions and AppUserMapper for DTO
  * conversions.
+ * Single users are read through the user cache (DtoCaches); updates, patches
+ * and deletes evict the user, and the projects it owns, from the caches.
+ * The last page of each listing is kept for stale reads (LastPageCache).
  * All methods are transactional to ensure data integrity.
  * Implements the AppUserService interface.
  */
@@ -29,18 +43,31 @@ public class AppUserServiceImpl implements AppUserService {
 
     private static final Logger log = LoggerFactory.getLogger(AppUserServiceImpl.class);
     private final AppUserRepository repo;
+    private final DtoCaches caches;
+    private final EntityManagerFactory emf;
+    private final LastPageCache lastPages;
 
     /**
-     * Constructor that injects the AppUserRepository.
+     * Constructor that injects the AppUserRepository, the user cache, the
+     * EntityManagerFactory (for its second-level cache) and the cache of the
+     * last pages listed.
      * 
      * @param repo
+     * @param caches
+     * @param emf
+     * @param lastPages
      */
-    public AppUserServiceImpl(AppUserRepository repo) {
+    public AppUserServiceImpl(AppUserRepository repo, DtoCaches caches, EntityManagerFactory emf,
+            LastPageCache lastPages) {
         this.repo = repo;
+        this.caches = caches;
+        this.emf = emf;
+        this.lastPages = lastPages;
     }
 
     /**
-     * Creates a new user after checking for email uniqueness.
+     * Creates a new user. The insert is flushed right away, so a clash on the
+     * email key is detected by the database in the same statement.
      * 
      * @param req The user creation request DTO.
      * @return The created user as a response DTO.
@@ -49,38 +76,79 @@ public class AppUserServiceImpl implements AppUserService {
     @Override
     public AppUserResponseDTO create(AppUserRequestDTO req) {
         log.info("Attempting to create user with email={}", req.email());
-        if (repo.existsByEmail(req.email())) {
-            log.warn("Duplicate email detected: {}", req.email());
-            throw new BusinessRuleException("Email already in use: " + req.email());
+        AppUser saved;
+        try {
+            saved = repo.saveAndFlush(AppUserMapper.toEntity(req));
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateEmail(ex, req.email());
         }
-
-        AppUser saved = repo.save(AppUserMapper.toEntity(req));
         log.info("User created successfully with id={}", saved.getId());
         return AppUserMapper.toResponse(saved);
     }
 
     /**
-     * Retrieves a user by ID.
+     * Retrieves a user by ID, from the user cache (read on a miss). A change
+     * made through another instance shows once the entry expires, or after a
+     * conditional request (see getVersion).
      * 
      * @param id The ID of the user to retrieve.
-     * @return The user as a response DTO.
+     * @return The user as a response DTO, with its version.
      * @throws NotFoundException if the user is not found.
      */
     @Override
     @Transactional(readOnly = true)
-    public AppUserResponseDTO getById(long id) {
+    public VersionedDTO<AppUserResponseDTO> getById(long id) {
         log.debug("Fetching user by id={}", id);
-        AppUser found = repo.findById(id)
+        VersionedDTO<AppUserResponseDTO> found = caches.user(id)
                 .orElseThrow(() -> {
                     log.warn("User not found: id={}", id);
                     return new NotFoundException("User not found: " + id);
                 });
         log.info("User retrieved successfully: id={}", id);
-        return AppUserMapper.toResponse(found);
+        return found;
+    }
+
+    /**
+     * Retrieves the current version of a user with a single query (no user is
+     * loaded). A cached user at another version (changed through another
+     * instance) is dropped, so that getById reads it again.
+     * 
+     * @param id The ID of the user.
+     * @return The version (see Versions).
+     * @throws NotFoundException if the user is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getVersion(long id) {
+        log.debug("Fetching version of user id={}", id);
+        String version = repo.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.warn("User not found: id={}", id);
+                    return new NotFoundException("User not found: " + id);
+                });
+        caches.refreshUser(id, version);
+        return version;
+    }
+
+    /**
+     * Retrieves the last cached user, whatever its version, without accessing
+     * the database (and outside any transaction, which would need a
+     * connection): served while the database is unavailable.
+     * 
+     * @param id The ID of the user.
+     * @return The cached user with its version, or empty if it is not cached.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedDTO<AppUserResponseDTO>> getCachedById(long id) {
+        log.debug("Fetching cached user id={}", id);
+        return caches.cachedUser(id);
     }
 
     /**
      * Lists users with pagination.
+     * The users are read directly into response DTOs (no entities are
+     * loaded), with the total in the same query.
      * 
      * @param page The page number to retrieve.
      * @param size The number of users per page.
@@ -91,54 +159,185 @@ public class AppUserServiceImpl implements AppUserService {
     @Transactional(readOnly = true)
     public Page<AppUserResponseDTO> list(int page, int size) {
         log.debug("Listing users - page={}, size={}", page, size);
-        Page<AppUser> p = repo.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+        Page<AppUserResponseDTO> p = repo.findResponsePage(
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
         log.info("Fetched {} users from page {}", p.getContent().size(), page);
-        return p.map(AppUserMapper::toResponse);
+        lastPages.remember(pageKey(false, page, size), p);
+        return p;
+    }
+
+    /**
+     * Lists users with pagination without computing the total count.
+     * Fetches size + 1 rows to know whether a next page exists.
+     * 
+     * @param page The page number to retrieve.
+     * @param size The number of users per page.
+     * @return A slice of user response DTOs.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<AppUserResponseDTO> listSlice(int page, int size) {
+        log.debug("Listing users (slice) - page={}, size={}", page, size);
+        Slice<AppUser> s = repo.findAllBy(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+        log.info("Fetched {} users from page {} (hasNext={})", s.getNumberOfElements(), page, s.hasNext());
+        Slice<AppUserResponseDTO> res = s.map(AppUserMapper::toResponse);
+        lastPages.remember(pageKey(true, page, size), res);
+        return res;
+    }
+
+    /**
+     * Retrieves the last page of users read with this page number and size
+     * (see list), without accessing the database (and outside any
+     * transaction): served while the database is unavailable.
+     * 
+     * @param page The page number.
+     * @param size The number of users per page.
+     * @return The page, or empty if it was not read recently.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Page<AppUserResponseDTO>> listCached(int page, int size) {
+        log.debug("Fetching cached users - page={}, size={}", page, size);
+        return lastPages.peek(pageKey(false, page, size));
+    }
+
+    /**
+     * Retrieves the last slice of users read with this page number and size
+     * (see listSlice), like listCached.
+     * 
+     * @param page The page number.
+     * @param size The number of users per page.
+     * @return The slice, or empty if it was not read recently.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Slice<AppUserResponseDTO>> listSliceCached(int page, int size) {
+        log.debug("Fetching cached users (slice) - page={}, size={}", page, size);
+        return lastPages.peek(pageKey(true, page, size));
     }
 
     /**
      * Updates an existing user.
      * 
-     * @param id  The ID of the user to update.
-     * @param req The user update request DTO.
-     * @return The updated user as a response DTO.
-     * @throws NotFoundException     if the user is not found.
-     * @throws BusinessRuleException if the email is already in use by another user.
+     * @param id               The ID of the user to update.
+     * @param req              The user update request DTO.
+     * @param expectedVersions The versions the user must have (If-Match), or
+     *                         null for an unconditional update.
+     * @return The updated user as a response DTO, with its new version.
+     * @throws NotFoundException           if the user is not found.
+     * @throws PreconditionFailedException if the user version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if the email is already in use by
+     *                                     another user.
      */
     @Override
-    public AppUserResponseDTO update(long id, AppUserRequestDTO req) {
+    public VersionedDTO<AppUserResponseDTO> update(long id, AppUserRequestDTO req, Set<String> expectedVersions) {
         log.info("Updating user with id={}", id);
+        caches.evictUser(id);
         AppUser entity = repo.findById(id)
                 .orElseThrow(() -> {
                     log.warn("User not found: id={}", id);
                     return new NotFoundException("User not found: " + id);
                 });
+        Versions.check("User", id, Versions.of(entity.getVersion()), expectedVersions);
 
-        // Check for email uniqueness if the email is being changed
-        if (!entity.getEmail().equalsIgnoreCase(req.email()) && repo.existsByEmail(req.email())) {
-            log.warn("Duplicate email detected during update: {}", req.email());
-            throw new BusinessRuleException("Email already in use: " + req.email());
+        try {
+            AppUserMapper.applyUpdate(entity, req);
+            repo.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateEmail(ex, req.email());
         }
-
-        AppUserMapper.applyUpdate(entity, req);
         log.info("User with id={} updated successfully", id);
-        return AppUserMapper.toResponse(entity);
+        return VersionedDTO.of(AppUserMapper.toResponse(entity), Versions.of(entity.getVersion()));
     }
 
     /**
-     * Deletes a user by ID.
+     * Applies a merge patch to an existing user. Only the supplied fields are
+     * set, and only the columns whose value changes are written (see
+     * AppUser's @DynamicUpdate), so the email key is checked only when the
+     * email actually changes. A patch that changes nothing keeps the version.
      * 
-     * @param id The ID of the user to delete.
-     * @throws NotFoundException if the user is not found.
+     * @param id               The ID of the user to patch.
+     * @param req              The fields to change.
+     * @param expectedVersions The versions the user must have (If-Match), or
+     *                         null for an unconditional patch.
+     * @return The patched user as a response DTO, with its new version.
+     * @throws NotFoundException           if the user is not found.
+     * @throws PreconditionFailedException if the user version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if the email is already in use by
+     *                                     another user.
+     */
+    @Override
+    public VersionedDTO<AppUserResponseDTO> patch(long id, AppUserPatchRequestDTO req,
+            Set<String> expectedVersions) {
+        log.info("Patching user with id={}", id);
+        caches.evictUser(id);
+        AppUser entity = repo.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("User not found: id={}", id);
+                    return new NotFoundException("User not found: " + id);
+                });
+        Versions.check("User", id, Versions.of(entity.getVersion()), expectedVersions);
+
+        try {
+            AppUserMapper.applyPatch(entity, req);
+            repo.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateEmail(ex, entity.getEmail());
+        }
+        log.info("User with id={} patched successfully", id);
+        return VersionedDTO.of(AppUserMapper.toResponse(entity), Versions.of(entity.getVersion()));
+    }
+
+    /**
+     * Deletes a user by ID with a single DELETE statement, conditioned on the
+     * version when expected versions are given. The version is read only when
+     * nothing was deleted, to tell a missing user from a failed precondition.
+     * The database deletes the user's projects as well (ON DELETE CASCADE),
+     * unseen by Hibernate, so the cached projects are evicted too.
+     * 
+     * @param id               The ID of the user to delete.
+     * @param expectedVersions The versions the user must have (If-Match), or
+     *                         null for an unconditional delete.
+     * @throws NotFoundException           if the user is not found.
+     * @throws PreconditionFailedException if the user version is not one of
+     *                                     the expected ones.
      */
     @Override
-    public void delete(long id) {
-        log.info("Attempting to delete user with id={}", id);
-        if (!repo.existsById(id)) {
+    public void delete(long id, Set<String> expectedVersions) {
+        log.info("Attempting to delete user with id={} (expected versions={})", id, expectedVersions);
+        caches.evictUser(id);
+        int deleted;
+        if (expectedVersions == null) {
+            deleted = repo.deleteRowById(id);
+        } else {
+            deleted = expectedVersions.isEmpty() ? 0 : repo.deleteRowByIdAndVersionIn(id, expectedVersions);
+        }
+        if (deleted == 0) {
+            if (expectedVersions != null) {
+                repo.findVersionById(id).ifPresent(current -> Versions.check("User", id, current,
+                        expectedVersions));
+            }
             log.warn("User not found: id={}", id);
             throw new NotFoundException("User not found: " + id);
         }
-        repo.deleteById(id);
+        emf.getCache().evict(Project.class);
         log.info("User with id={} deleted successfully", id);
     }
+
+    // Translates a violation of the email key into a 409; any other integrity
+    // violation is rethrown as is.
+    private static RuntimeException duplicateEmail(DataIntegrityViolationException ex, String email) {
+        if (!ConstraintViolations.isViolationOf(ex, AppUser.UK_EMAIL)) {
+            return ex;
+        }
+        log.warn("Duplicate email detected: {}", email);
+        return new BusinessRuleException("Email already in use: " + email);
+    }
+
+    // Key of a user listing in the last page cache.
+    private static LastPageCache.Key pageKey(boolean slice, int page, int size) {
+        return new LastPageCache.Key("users", slice, page, size);
+    }
 }
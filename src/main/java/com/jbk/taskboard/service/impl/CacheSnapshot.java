@@ -0,0 +1,255 @@
+package com.jbk.taskboard.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the in-process read caches (users, projects and encoded
+ * tasks, see DtoCaches and TaskJsonCache) on local disk, so that a restarted
+ * instance starts warm instead of sending every first lookup to the database.
+ * Enabled with taskboard.cache.snapshot.enabled=true. The file is written
+ * every taskboard.cache.snapshot.interval and on shutdown (to a temporary
+ * file first, then moved over the previous one), and read at startup through
+ * a memory-mapped file, as an ApplicationRunner: runners complete before the
+ * readiness state turns to ACCEPTING_TRAFFIC, so the instance only receives
+ * traffic once the caches are filled. The restored entries are not trusted:
+ * users and projects are checked against their version columns when first
+ * read, tasks on every read. A missing, unreadable or incompatible file is
+ * logged and ignored (the caches then fill as usual).
+ * File format: a header (magic, format, write time) followed by one section
+ * per cache (tag, entry count, entries) and an end tag; an entry is its ID,
+ * version and JSON (plus the gzip form for tasks), each byte array and
+ * string prefixed by its length.
+ */
+@Component
+@ConditionalOnProperty(prefix = "taskboard.cache.snapshot", name = "enabled", havingValue = "true")
+final class CacheSnapshot implements ApplicationRunner, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshot.class);
+    private static final int MAGIC = 0x54424353; // "TBCS"
+    private static final int FORMAT = 1;
+    private static final byte END = 0;
+    private static final byte USERS = 1;
+    private static final byte PROJECTS = 2;
+    private static final byte TASKS = 3;
+
+    private final DtoCaches caches;
+    private final TaskJsonCache taskJson;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final long intervalMillis;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructor that injects the caches, the ObjectMapper (encoding of the
+     * user and project entries) and the snapshot settings.
+     * 
+     * @param caches
+     * @param taskJson
+     * @param objectMapper
+     * @param properties
+     */
+    CacheSnapshot(DtoCaches caches, TaskJsonCache taskJson, ObjectMapper objectMapper,
+            CacheProperties properties) {
+        this.caches = caches;
+        this.taskJson = taskJson;
+        this.objectMapper = objectMapper;
+        this.file = properties.snapshot().file();
+        this.intervalMillis = properties.snapshot().interval().toMillis();
+    }
+
+    /**
+     * Restores the caches from the snapshot file, then starts the periodic
+     * writes.
+     * 
+     * @param args
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        load();
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::saveQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic writes and writes a last snapshot.
+     */
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            saveQuietly();
+        }
+    }
+
+    /**
+     * Restores the caches from the snapshot file, if there is one.
+     * 
+     * @return The number of entries added to the caches.
+     */
+    int load() {
+        if (!Files.isRegularFile(file)) {
+            log.info("No cache snapshot at {}, starting cold", file);
+            return 0;
+        }
+        long start = System.nanoTime();
+        Map<Long, VersionedDTO<AppUserResponseDTO>> users = new HashMap<>();
+        Map<Long, VersionedDTO<ProjectResponseDTO>> projects = new HashMap<>();
+        Map<Long, VersionedDTO<EncodedJsonDTO>> tasks = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT) {
+                log.warn("Ignoring cache snapshot {}: unknown format", file);
+                return 0;
+            }
+            long writtenAt = buf.getLong();
+            for (byte section = buf.get(); section != END; section = buf.get()) {
+                int count = buf.getInt();
+                for (int i = 0; i < count; i++) {
+                    long id = buf.getLong();
+                    String version = new String(bytes(buf), StandardCharsets.UTF_8);
+                    byte[] json = bytes(buf);
+                    switch (section) {
+                        case USERS -> users.put(id,
+                                VersionedDTO.of(objectMapper.readValue(json, AppUserResponseDTO.class), version));
+                        case PROJECTS -> projects.put(id,
+                                VersionedDTO.of(objectMapper.readValue(json, ProjectResponseDTO.class), version));
+                        case TASKS -> tasks.put(id, VersionedDTO.of(EncodedJsonDTO.of(json, bytes(buf)), version));
+                        default -> throw new IOException("Unknown section " + section);
+                    }
+                }
+            }
+            int restored = caches.restoreUsers(users) + caches.restoreProjects(projects) + taskJson.restore(tasks);
+            log.info("Cache snapshot {} (written at {}) restored in {} ms: {} users, {} projects, {} tasks", file,
+                    Instant.ofEpochMilli(writtenAt), (System.nanoTime() - start) / 1_000_000,
+                    users.size(), projects.size(), tasks.size());
+            return restored;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring unreadable cache snapshot {}: {}", file, ex.toString());
+            return 0;
+        }
+    }
+
+    /**
+     * Writes the current content of the caches to the snapshot file.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    void save() throws IOException {
+        long start = System.nanoTime();
+        Map<Long, VersionedDTO<AppUserResponseDTO>> users = caches.userEntries();
+        Map<Long, VersionedDTO<ProjectResponseDTO>> projects = caches.projectEntries();
+        Map<Long, VersionedDTO<EncodedJsonDTO>> tasks = taskJson.entries();
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeLong(System.currentTimeMillis());
+                out.writeByte(USERS);
+                out.writeInt(users.size());
+                for (var e : users.entrySet()) {
+                    writeEntry(out, e.getKey(), e.getValue().version(),
+                            objectMapper.writeValueAsBytes(e.getValue().value()));
+                }
+                out.writeByte(PROJECTS);
+                out.writeInt(projects.size());
+                for (var e : projects.entrySet()) {
+                    writeEntry(out, e.getKey(), e.getValue().version(),
+                            objectMapper.writeValueAsBytes(e.getValue().value()));
+                }
+                out.writeByte(TASKS);
+                out.writeInt(tasks.size());
+                for (var e : tasks.entrySet()) {
+                    writeEntry(out, e.getKey(), e.getValue().version(), e.getValue().value().json());
+                    writeBytes(out, e.getValue().value().gzip());
+                }
+                out.writeByte(END);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        log.debug("Cache snapshot {} written in {} ms: {} users, {} projects, {} tasks", file,
+                (System.nanoTime() - start) / 1_000_000, users.size(), projects.size(), tasks.size());
+    }
+
+    // Writes a snapshot, logging failures (never throws, or the schedule
+    // would stop).
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Cache snapshot {} could not be written", file, ex);
+        }
+    }
+
+    // Writes the ID, version and JSON of an entry.
+    private static void writeEntry(DataOutputStream out, long id, String version, byte[] json) throws IOException {
+        out.writeLong(id);
+        writeBytes(out, version.getBytes(StandardCharsets.UTF_8));
+        writeBytes(out, json);
+    }
+
+    // Writes a byte array prefixed by its length (-1 for null).
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Reads a byte array written by writeBytes.
+    private static byte[] bytes(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buf.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return bytes;
+    }
+}
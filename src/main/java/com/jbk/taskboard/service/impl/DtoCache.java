@@ -0,0 +1,175 @@
+package com.jbk.taskboard.service.impl;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of versioned response DTOs keyed by ID (Caffeine).
+ * Missing entries are read by the loader, several at a time with a single
+ * query; IDs the loader does not return (missing rows) are not cached.
+ * Evictions apply right away and again when the current transaction
+ * completes, so that neither a reader that loaded the old row before the
+ * commit nor a load of uncommitted data inside the writing transaction can
+ * leave a stale entry behind.
+ * Entries restored from a snapshot (see CacheSnapshot) may have changed
+ * while the application was down: they are checked against the current
+ * versions when first read, with a single version query for all the restored
+ * entries of a lookup, and reloaded if stale.
+ */
+final class DtoCache<V> {
+
+    private final LoadingCache<Long, VersionedDTO<V>> cache;
+    private final Function<Set<Long>, Map<Long, String>> versionLoader;
+    private final Set<Long> unverified = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates the cache and registers its cache.* metrics.
+     * 
+     * @param name     The name of the cache (the "cache" metric tag).
+     * @param spec     The size and expiry of the cache.
+     * @param loader        Reads the entries of the given IDs (missing IDs are
+     *                      left out of the result).
+     * @param versionLoader Reads the current versions of the given IDs
+     *                      (missing IDs are left out of the result).
+     * @param registry      The registry of the metrics.
+     */
+    DtoCache(String name, CacheProperties.Spec spec, Function<Set<Long>, Map<Long, VersionedDTO<V>>> loader,
+            Function<Set<Long>, Map<Long, String>> versionLoader, MeterRegistry registry) {
+        this.versionLoader = versionLoader;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .expireAfterWrite(spec.timeToLive())
+                .recordStats()
+                .build(new CacheLoader<Long, VersionedDTO<V>>() {
+                    @Override
+                    public VersionedDTO<V> load(Long id) {
+                        return loader.apply(Set.of(id)).get(id);
+                    }
+
+                    @Override
+                    public Map<Long, VersionedDTO<V>> loadAll(Set<? extends Long> ids) {
+                        return loader.apply(Set.copyOf(ids));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    // Returns the entry of the given ID, loading it on a miss.
+    Optional<VersionedDTO<V>> get(long id) {
+        verify(List.of(id));
+        return Optional.ofNullable(cache.get(id));
+    }
+
+    // Returns the entries of the given IDs, loading all the missing ones with
+    // one call to the loader. Missing rows are absent from the result.
+    Map<Long, VersionedDTO<V>> getAll(Collection<Long> ids) {
+        verify(ids);
+        return cache.getAll(ids);
+    }
+
+    // Returns the cached entry of the given ID without loading or checking it
+    // (served while the database is unavailable).
+    Optional<VersionedDTO<V>> peek(long id) {
+        return Optional.ofNullable(cache.policy().getIfPresentQuietly(id));
+    }
+
+    // Returns a copy of the cached entries (for a snapshot).
+    Map<Long, VersionedDTO<V>> entries() {
+        return Map.copyOf(cache.asMap());
+    }
+
+    // Adds entries read from a snapshot, unless the cache already has an
+    // entry for the ID; they are verified when first read. Returns the number
+    // of entries added.
+    int restore(Map<Long, VersionedDTO<V>> entries) {
+        int restored = 0;
+        for (Map.Entry<Long, VersionedDTO<V>> entry : entries.entrySet()) {
+            unverified.add(entry.getKey());
+            if (cache.asMap().putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                restored++;
+            } else {
+                unverified.remove(entry.getKey());
+            }
+        }
+        return restored;
+    }
+
+    // Evicts the entry of the given ID, now and when the transaction
+    // completes.
+    void evict(long id) {
+        unverified.remove(id);
+        cache.invalidate(id);
+        afterCompletion(() -> cache.invalidate(id));
+    }
+
+    // Evicts the entries whose value matches the predicate, now and when the
+    // transaction completes (scans the whole cache).
+    void evictIf(Predicate<V> predicate) {
+        Runnable evict = () -> cache.asMap().values().removeIf(entry -> predicate.test(entry.value()));
+        evict.run();
+        afterCompletion(evict);
+    }
+
+    // Drops the cached entries whose version is not the given current one
+    // (read from the database by the caller), so that they are reloaded.
+    void refresh(Map<Long, String> current) {
+        current.forEach(this::dropIfStale);
+    }
+
+    // Checks the restored entries among the given IDs against the current
+    // versions (one query), dropping the stale and the deleted ones so that
+    // they are reloaded. Does nothing once every restored entry was checked.
+    private void verify(Collection<Long> ids) {
+        if (unverified.isEmpty()) {
+            return;
+        }
+        Set<Long> pending = ids.stream().filter(unverified::contains).collect(Collectors.toSet());
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, String> versions = versionLoader.apply(pending);
+        for (Long id : pending) {
+            dropIfStale(id, versions.get(id));
+            unverified.remove(id);
+        }
+    }
+
+    // Drops the cached entry of an ID if its version is not the given one
+    // (null for a deleted row).
+    private void dropIfStale(Long id, String version) {
+        VersionedDTO<V> cached = cache.policy().getIfPresentQuietly(id);
+        if (cached != null && !cached.version().equals(version)) {
+            cache.asMap().remove(id, cached);
+        }
+    }
+
+    // Runs the action when the current transaction commits or rolls back (or
+    // not at all outside a transaction).
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.jbk.taskboard.service.impl;
+
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.mapper.AppUserMapper;
+import com.jbk.taskboard.mapper.ProjectMapper;
+import com.jbk.taskboard.repository.AppUserRepository;
+import com.jbk.taskboard.repository.IdVersion;
+import com.jbk.taskboard.repository.ProjectRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Caches of the user and project response DTOs, with their versions (see
+ * Versions), shared by the services.
+ * Users and projects change rarely but are embedded in every task response:
+ * task listings read the task columns only and take the nested project and
+ * owner from here. The services evict an entry on every update and delete of
+ * the user or project; since a project response embeds its owner, evicting a
+ * user also evicts the projects they own. Changes made through another
+ * instance are not evicted here: wherever a response carries an ETag built
+ * from versions read from the database (project task listings, conditional
+ * GETs), the entries are first checked against these versions and reloaded
+ * if they differ; elsewhere they are served until they expire.
+ * Concurrent lookups of the same project share one read (see SingleFlight);
+ * evictions also forget the project reads in flight.
+ * Both caches can be saved to and restored from a snapshot (see
+ * CacheSnapshot); restored entries are checked against the version columns
+ * when first read. While the database is unavailable, the cached entries can
+ * be peeked at without any check (the cached* methods).
+ */
+@Component
+final class DtoCaches {
+
+    private final DtoCache<AppUserResponseDTO> users;
+    private final DtoCache<ProjectResponseDTO> projects;
+    private final SingleFlight flights;
+
+    /**
+     * Constructor that builds both caches over the repositories.
+     * 
+     * @param userRepo
+     * @param projectRepo
+     * @param properties
+     * @param flights
+     * @param registry
+     */
+    DtoCaches(AppUserRepository userRepo, ProjectRepository projectRepo, CacheProperties properties,
+            SingleFlight flights, MeterRegistry registry) {
+        this.flights = flights;
+        this.users = new DtoCache<>("users", properties.users(),
+                ids -> userRepo.findAllById(ids).stream().collect(Collectors.toMap(u -> u.getId(),
+                        u -> VersionedDTO.of(AppUserMapper.toResponse(u), Versions.of(u.getVersion())))),
+                ids -> versions(userRepo.findVersionsByIdIn(ids)),
+                registry);
+        this.projects = new DtoCache<>("projects", properties.projects(),
+                ids -> projectRepo.findWithOwnerByIdIn(ids).stream().collect(Collectors.toMap(p -> p.getId(),
+                        p -> VersionedDTO.of(ProjectMapper.toResponse(p),
+                                Versions.of(p.getVersion(), p.getOwner().getVersion())))),
+                ids -> versions(projectRepo.findVersionsByIdIn(ids)),
+                registry);
+    }
+
+    // Returns a user with their version, if they exist.
+    Optional<VersionedDTO<AppUserResponseDTO>> user(long id) {
+        return users.get(id);
+    }
+
+    // Returns a project with its version, if it exists.
+    Optional<VersionedDTO<ProjectResponseDTO>> project(long id) {
+        return flights.run("project", id, () -> projects.get(id));
+    }
+
+    // Returns the given projects as nested in task responses (owner with all
+    // its fields, no project creation date), by project ID. Missing projects
+    // are left out.
+    Map<Long, ProjectResponseDTO> taskProjects(Collection<Long> projectIds) {
+        Map<Long, VersionedDTO<ProjectResponseDTO>> found = projects.getAll(projectIds);
+        Set<Long> ownerIds = found.values().stream().map(p -> p.value().owner().id()).collect(Collectors.toSet());
+        Map<Long, VersionedDTO<AppUserResponseDTO>> owners = users.getAll(ownerIds);
+
+        Map<Long, ProjectResponseDTO> result = new HashMap<>();
+        found.forEach((id, entry) -> {
+            ProjectResponseDTO p = entry.value();
+            VersionedDTO<AppUserResponseDTO> owner = owners.get(p.owner().id());
+            if (owner != null) {
+                result.put(id, ProjectResponseDTO.of(p.id(), p.name(), p.description(), owner.value()));
+            }
+        });
+        return result;
+    }
+
+    // Returns the given project as nested in task responses (see
+    // taskProjects), after checking the cached project and owner against the
+    // current project version ("project.owner", read from the database):
+    // either is reloaded if it changed. Empty if the project is gone.
+    Map<Long, ProjectResponseDTO> taskProjects(long projectId, String version) {
+        projects.refresh(Map.of(projectId, version));
+        projects.get(projectId).ifPresent(
+                p -> users.refresh(Map.of(p.value().owner().id(), Versions.tail(version))));
+        return taskProjects(List.of(projectId));
+    }
+
+    // Returns the cached user, without reading the database.
+    Optional<VersionedDTO<AppUserResponseDTO>> cachedUser(long id) {
+        return users.peek(id);
+    }
+
+    // Returns the cached project, without reading the database.
+    Optional<VersionedDTO<ProjectResponseDTO>> cachedProject(long id) {
+        return projects.peek(id);
+    }
+
+    // Returns the cached project as nested in task responses, with its cached
+    // owner, without reading the database; empty unless both are cached.
+    Optional<ProjectResponseDTO> cachedTaskProject(long id) {
+        return projects.peek(id).flatMap(p -> users.peek(p.value().owner().id())
+                .map(owner -> ProjectResponseDTO.of(p.value().id(), p.value().name(), p.value().description(),
+                        owner.value())));
+    }
+
+    // Drops the cached user if their version is not the given current one.
+    void refreshUser(long id, String version) {
+        users.refresh(Map.of(id, version));
+    }
+
+    // Drops the cached project if its version is not the given current one.
+    void refreshProject(long id, String version) {
+        projects.refresh(Map.of(id, version));
+    }
+
+    // Evicts a user and the projects they own.
+    void evictUser(long id) {
+        users.evict(id);
+        projects.evictIf(p -> p.owner().id() == id);
+        flights.forget("project");
+    }
+
+    // Evicts a project.
+    void evictProject(long id) {
+        projects.evict(id);
+        flights.forget("project");
+    }
+
+    // Returns a copy of the cached users (for a snapshot).
+    Map<Long, VersionedDTO<AppUserResponseDTO>> userEntries() {
+        return users.entries();
+    }
+
+    // Returns a copy of the cached projects (for a snapshot).
+    Map<Long, VersionedDTO<ProjectResponseDTO>> projectEntries() {
+        return projects.entries();
+    }
+
+    // Adds users read from a snapshot (verified when first read). Returns the
+    // number of users added.
+    int restoreUsers(Map<Long, VersionedDTO<AppUserResponseDTO>> entries) {
+        return users.restore(entries);
+    }
+
+    // Adds projects read from a snapshot (verified when first read). Returns
+    // the number of projects added.
+    int restoreProjects(Map<Long, VersionedDTO<ProjectResponseDTO>> entries) {
+        return projects.restore(entries);
+    }
+
+    // Indexes versions by ID.
+    private static Map<Long, String> versions(List<IdVersion> rows) {
+        return rows.stream().collect(Collectors.toMap(IdVersion::id, IdVersion::version));
+    }
+}
@@ -0,0 +1,59 @@
+package com.jbk.taskboard.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jbk.taskboard.config.CacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Last page read of the listings that no version validates (users, projects,
+ * tasks across projects), keyed by listing, paging, page number and size.
+ * Pages are recorded on every read but never served while the database is
+ * up: they are only peeked at when no connection can be obtained, so that
+ * these listings are answered stale instead of with 503 (see the services'
+ * list*Cached methods). Pages expire timeToLive after they were read, which
+ * bounds how stale they can be.
+ * Publishes cache.* metrics tagged "last-pages".
+ */
+@Component
+final class LastPageCache {
+
+    // Listing (e.g. "users", or "tasks" with its filters), whether it is a
+    // slice, page number and size.
+    record Key(String listing, boolean slice, int page, int size) {
+    }
+
+    private final Cache<Key, Object> pages;
+
+    /**
+     * Constructor that builds the cache and registers its metrics.
+     * 
+     * @param properties
+     * @param registry
+     */
+    LastPageCache(CacheProperties properties, MeterRegistry registry) {
+        CacheProperties.LastPages spec = properties.lastPages();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .expireAfterWrite(spec.timeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, pages, "last-pages");
+    }
+
+    // Records the page just read for a listing.
+    void remember(Key key, Object page) {
+        pages.put(key, page);
+    }
+
+    // Returns the last page read for a listing, whatever its age within the
+    // time to live. The caller asks for the type it recorded under the key.
+    @SuppressWarnings("unchecked")
+    <T> Optional<T> peek(Key key) {
+        return Optional.ofNullable((T) pages.policy().getIfPresentQuietly(key));
+    }
+}
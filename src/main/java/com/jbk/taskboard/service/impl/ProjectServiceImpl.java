@@ -1,27 +1,40 @@
 package com.jbk.taskboard.service.impl;
 
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectPatchRequestDTO;
 import com.jbk.taskboard.dto.project.ProjectResponseDTO;
 import com.jbk.taskboard.dto.project.ProjectRequestDTO;
-import com.jbk.taskboard.entity.AppUser;
 import com.jbk.taskboard.entity.Project;
 import com.jbk.taskboard.exception.BusinessRuleException;
+import com.jbk.taskboard.exception.ConstraintViolations;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
 import com.jbk.taskboard.mapper.ProjectMapper;
 import com.jbk.taskboard.repository.AppUserRepository;
 import com.jbk.taskboard.repository.ProjectRepository;
 import com.jbk.taskboard.service.ProjectService;
 
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Service implementation for managing Project entities.
  * Provides methods for creating, retrieving, updating, and deleting projects.
  * Uses ProjectRepository for database interactions and ProjectMapper for DTO
  * conversions.
+ * Single projects are read through the project cache (DtoCaches); updates,
+ * patches and deletes evict the project from it. The last page of each
+ * listing is kept for stale reads (LastPageCache).
  * All methods are transactional to ensure data integrity.
  * Implements the ProjectService interface.
  */
@@ -30,69 +43,125 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProjectServiceImpl implements ProjectService {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectServiceImpl.class);
+    private static final Sort BY_ID_DESC = Sort.by(Sort.Direction.DESC, "id");
     private final ProjectRepository projectRepo;
     private final AppUserRepository userRepo;
+    private final DtoCaches caches;
+    private final LastPageCache lastPages;
 
     /**
-     * Constructor that injects the ProjectRepository and AppUserRepository.
+     * Constructor that injects the ProjectRepository, AppUserRepository, the
+     * project cache and the cache of the last pages listed.
      * 
      * @param projectRepo
      * @param userRepo
+     * @param caches
+     * @param lastPages
      */
-    public ProjectServiceImpl(ProjectRepository projectRepo, AppUserRepository userRepo) {
+    public ProjectServiceImpl(ProjectRepository projectRepo, AppUserRepository userRepo, DtoCaches caches,
+            LastPageCache lastPages) {
         this.projectRepo = projectRepo;
         this.userRepo = userRepo;
+        this.caches = caches;
+        this.lastPages = lastPages;
     }
 
     /**
-     * Creates a new project after checking for name uniqueness per owner.
+     * Creates a new project. The owner is bound by reference (it is not
+     * loaded) and the insert is flushed right away, so the database checks in
+     * the same statement that the owner exists and that the name is unique for
+     * that owner. The response is then read with a single query.
      * 
      * @param req The project creation request DTO.
      * @return The created project as a response DTO.
+     * @throws NotFoundException     if the owner is not found.
      * @throws BusinessRuleException if the project name already exists for the
      *                               owner.
      */
     @Override
     public ProjectResponseDTO create(ProjectRequestDTO req) {
-        log.info("Attempting to create project with name='{}' for ownerId={}", req.name(), req.ownerId());
-        AppUser owner = userRepo.findById(req.ownerId())
-                .orElseThrow(() -> {
-                    log.warn("Owner not found: id={}", req.ownerId());
-                    return new NotFoundException("Owner not found: " + req.ownerId());
-                });
-
-        if (projectRepo.existsByOwner_IdAndNameIgnoreCase(req.ownerId(), req.name())) {
-            log.warn("Duplicate project name '{}' for ownerId={}", req.name(), req.ownerId());
-            throw new BusinessRuleException("Project name already exists for this owner");
-        }
+        return toResponse(insert(req));
+    }
 
-        Project saved = projectRepo.save(ProjectMapper.toEntity(req, owner));
-        log.info("Project created successfully with id={}", saved.getId());
-        return ProjectMapper.toResponse(saved);
+    /**
+     * Creates a new project like create, without reading the response.
+     * 
+     * @param req The project creation request DTO.
+     * @return The ID of the created project.
+     * @throws NotFoundException     if the owner is not found.
+     * @throws BusinessRuleException if the project name already exists for the
+     *                               owner.
+     */
+    @Override
+    public long createMinimal(ProjectRequestDTO req) {
+        return insert(req).getId();
     }
 
     /**
-     * Retrieves a project by ID.
+     * Retrieves a project by ID, from the project cache (read with its owner
+     * on a miss). A change made through another instance shows once the
+     * entry expires, or after a conditional request (see getVersion).
      * 
      * @param id The ID of the project to retrieve.
-     * @return The project as a response DTO.
+     * @return The project as a response DTO, with its version.
      * @throws NotFoundException if the project is not found.
      */
     @Override
     @Transactional(readOnly = true)
-    public ProjectResponseDTO getById(long id) {
+    public VersionedDTO<ProjectResponseDTO> getById(long id) {
         log.debug("Fetching project by id={}", id);
-        Project found = projectRepo.findById(id)
+        VersionedDTO<ProjectResponseDTO> found = caches.project(id)
                 .orElseThrow(() -> {
                     log.warn("Project not found: id={}", id);
                     return new NotFoundException("Project not found: " + id);
                 });
         log.info("Project retrieved successfully: id={}", id);
-        return ProjectMapper.toResponse(found);
+        return found;
+    }
+
+    /**
+     * Retrieves the current version of a project representation with a
+     * single query (no project is loaded). A cached project at another
+     * version (changed through another instance) is dropped, so that getById
+     * reads it again.
+     * 
+     * @param id The ID of the project.
+     * @return The version (see Versions).
+     * @throws NotFoundException if the project is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getVersion(long id) {
+        log.debug("Fetching version of project id={}", id);
+        String version = projectRepo.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.warn("Project not found: id={}", id);
+                    return new NotFoundException("Project not found: " + id);
+                });
+        caches.refreshProject(id, version);
+        return version;
+    }
+
+    /**
+     * Retrieves the last cached project, whatever its version, without
+     * accessing the database (and outside any transaction, which would need a
+     * connection): served while the database is unavailable.
+     * 
+     * @param id The ID of the project.
+     * @return The cached project with its version, or empty if it is not
+     *         cached.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedDTO<ProjectResponseDTO>> getCachedById(long id) {
+        log.debug("Fetching cached project id={}", id);
+        return caches.cachedProject(id);
     }
 
     /**
      * Lists projects with pagination.
+     * The projects are read directly into response DTOs (no entities are
+     * loaded), with the total in the same query.
      * 
      * @param page The page number to retrieve.
      * @param size The number of projects per page.
@@ -103,63 +172,286 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional(readOnly = true)
     public Page<ProjectResponseDTO> list(int page, int size) {
         log.debug("Listing projects: page={}, size={}", page, size);
-        Page<Project> p = projectRepo.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+        Page<ProjectResponseDTO> res = projectRepo.findResponsePage(PageRequest.of(page, size, BY_ID_DESC));
         log.info("Projects listed successfully: page={}, size={}", page, size);
-        return p.map(ProjectMapper::toResponse);
+        lastPages.remember(pageKey(false, page, size), res);
+        return res;
     }
 
     /**
-     * Updates an existing project after checking for name uniqueness per owner.
+     * Lists projects with pagination without computing the total count.
+     * Fetches size + 1 rows to know whether a next page exists.
      * 
-     * @param id  The ID of the project to update.
-     * @param req The project update request DTO.
-     * @return The updated project as a response DTO.
-     * @throws NotFoundException     if the project or owner is not found.
-     * @throws BusinessRuleException if the project name already exists for the
-     *                               owner.
+     * @param page The page number to retrieve.
+     * @param size The number of projects per page.
+     * @return A slice of project response DTOs.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProjectResponseDTO> listSlice(int page, int size) {
+        log.debug("Listing projects (slice): page={}, size={}", page, size);
+        PageRequest pr = PageRequest.of(page, size, BY_ID_DESC);
+        List<ProjectResponseDTO> rows = projectRepo.findResponses(BY_ID_DESC, pr.getOffset(), size + 1);
+        boolean hasNext = rows.size() > size;
+        log.info("Projects listed successfully (slice): page={}, size={}, hasNext={}", page, size, hasNext);
+        Slice<ProjectResponseDTO> res = new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pr, hasNext);
+        lastPages.remember(pageKey(true, page, size), res);
+        return res;
+    }
+
+    /**
+     * Retrieves the last page of projects read with this page number and size
+     * (see list), without accessing the database (and outside any
+     * transaction): served while the database is unavailable.
+     * 
+     * @param page The page number.
+     * @param size The number of projects per page.
+     * @return The page, or empty if it was not read recently.
      */
     @Override
-    public ProjectResponseDTO update(long id, ProjectRequestDTO req) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Page<ProjectResponseDTO>> listCached(int page, int size) {
+        log.debug("Fetching cached projects: page={}, size={}", page, size);
+        return lastPages.peek(pageKey(false, page, size));
+    }
+
+    /**
+     * Retrieves the last slice of projects read with this page number and size
+     * (see listSlice), like listCached.
+     * 
+     * @param page The page number.
+     * @param size The number of projects per page.
+     * @return The slice, or empty if it was not read recently.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Slice<ProjectResponseDTO>> listSliceCached(int page, int size) {
+        log.debug("Fetching cached projects (slice): page={}, size={}", page, size);
+        return lastPages.peek(pageKey(true, page, size));
+    }
+
+    /**
+     * Updates an existing project. The owner is bound by reference (it is not
+     * loaded) and the changes are flushed right away, so the database checks
+     * that the owner exists and that the name is unique for that owner.
+     * 
+     * @param id               The ID of the project to update.
+     * @param req              The project update request DTO.
+     * @param expectedVersions The versions the project must have (If-Match),
+     *                         or null for an unconditional update.
+     * @return The updated project as a response DTO, with its new version.
+     * @throws NotFoundException           if the project or owner is not found.
+     * @throws PreconditionFailedException if the project version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if the project name already exists
+     *                                     for the owner.
+     */
+    @Override
+    public VersionedDTO<ProjectResponseDTO> update(long id, ProjectRequestDTO req, Set<String> expectedVersions) {
+        Project project = applyUpdate(id, req, expectedVersions);
+        return VersionedDTO.of(toResponse(project), version(project));
+    }
+
+    /**
+     * Updates an existing project like update, without reading the response.
+     * 
+     * @param id               The ID of the project to update.
+     * @param req              The project update request DTO.
+     * @param expectedVersions The versions the project must have (If-Match),
+     *                         or null for an unconditional update.
+     * @return The new version of the project.
+     * @throws NotFoundException           if the project or owner is not found.
+     * @throws PreconditionFailedException if the project version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if the project name already exists
+     *                                     for the owner.
+     */
+    @Override
+    public String updateMinimal(long id, ProjectRequestDTO req, Set<String> expectedVersions) {
+        return version(applyUpdate(id, req, expectedVersions));
+    }
+
+    /**
+     * Applies a merge patch to an existing project. Only the supplied fields
+     * are set, and only the columns whose value changes are written (see
+     * Project's @DynamicUpdate), so the owner foreign key and the name key are
+     * checked only when the owner or the name actually change. A patch that
+     * changes nothing keeps the version.
+     * 
+     * @param id               The ID of the project to patch.
+     * @param req              The fields to change.
+     * @param expectedVersions The versions the project must have (If-Match),
+     *                         or null for an unconditional patch.
+     * @return The patched project as a response DTO, with its new version.
+     * @throws NotFoundException           if the project or owner is not found.
+     * @throws PreconditionFailedException if the project version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if the project name already exists
+     *                                     for the owner.
+     */
+    @Override
+    public VersionedDTO<ProjectResponseDTO> patch(long id, ProjectPatchRequestDTO req,
+            Set<String> expectedVersions) {
+        Project project = applyPatch(id, req, expectedVersions);
+        return VersionedDTO.of(toResponse(project), version(project));
+    }
+
+    /**
+     * Applies a merge patch to an existing project like patch, without
+     * reading the response.
+     * 
+     * @param id               The ID of the project to patch.
+     * @param req              The fields to change.
+     * @param expectedVersions The versions the project must have (If-Match),
+     *                         or null for an unconditional patch.
+     * @return The new version of the project.
+     * @throws NotFoundException           if the project or owner is not found.
+     * @throws PreconditionFailedException if the project version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if the project name already exists
+     *                                     for the owner.
+     */
+    @Override
+    public String patchMinimal(long id, ProjectPatchRequestDTO req, Set<String> expectedVersions) {
+        return version(applyPatch(id, req, expectedVersions));
+    }
+
+    /**
+     * Deletes a project by ID with a single DELETE statement, conditioned on
+     * the version when expected versions are given. The version is read only
+     * when nothing was deleted, to tell a missing project from a failed
+     * precondition.
+     * 
+     * @param id               The ID of the project to delete.
+     * @param expectedVersions The versions the project must have (If-Match),
+     *                         or null for an unconditional delete.
+     * @throws NotFoundException           if the project is not found.
+     * @throws PreconditionFailedException if the project version is not one of
+     *                                     the expected ones.
+     */
+    @Override
+    public void delete(long id, Set<String> expectedVersions) {
+        log.info("Attempting to delete project with id={} (expected versions={})", id, expectedVersions);
+        caches.evictProject(id);
+        int deleted;
+        if (expectedVersions == null) {
+            deleted = projectRepo.deleteRowById(id);
+        } else {
+            deleted = expectedVersions.isEmpty() ? 0 : projectRepo.deleteRowByIdAndVersionIn(id, expectedVersions);
+        }
+        if (deleted == 0) {
+            if (expectedVersions != null) {
+                projectRepo.findVersionById(id).ifPresent(current -> Versions.check("Project", id, current,
+                        expectedVersions));
+            }
+            log.warn("Project not found: id={}", id);
+            throw new NotFoundException("Project not found: " + id);
+        }
+        log.info("Project deleted successfully: id={}", id);
+    }
+
+    // Inserts a new project, flushing right away so that the owner foreign key
+    // and the name key are checked by this statement, then its task change
+    // counter.
+    private Project insert(ProjectRequestDTO req) {
+        log.info("Attempting to create project with name='{}' for ownerId={}", req.name(), req.ownerId());
+        Project saved;
+        try {
+            saved = projectRepo.saveAndFlush(ProjectMapper.toEntity(req, userRepo.getReferenceById(req.ownerId())));
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex, req.name(), req.ownerId());
+        }
+        projectRepo.insertTaskChangeCount(saved.getId());
+        log.info("Project created successfully with id={}", saved.getId());
+        return saved;
+    }
+
+    // Applies an update to a project, binding the owner by reference and
+    // flushing right away (see insert).
+    private Project applyUpdate(long id, ProjectRequestDTO req, Set<String> expectedVersions) {
         log.info("Updating project with id={}", id);
+        caches.evictProject(id);
         Project entity = projectRepo.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Project not found: id={}", id);
                     return new NotFoundException("Project not found: " + id);
                 });
+        Versions.check("Project", id, version(entity), expectedVersions);
 
-        AppUser newOwner = userRepo.findById(req.ownerId())
+        try {
+            ProjectMapper.applyUpdate(entity, req, userRepo.getReferenceById(req.ownerId()));
+            projectRepo.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex, req.name(), req.ownerId());
+        }
+        log.info("Project updated successfully: id={}", id);
+        return entity;
+    }
+
+    // Applies the supplied fields to the project. The owner is bound by
+    // reference only when it changes; the flush writes the changed columns
+    // only (nothing at all if no value changed).
+    private Project applyPatch(long id, ProjectPatchRequestDTO req, Set<String> expectedVersions) {
+        log.info("Patching project with id={}", id);
+        caches.evictProject(id);
+        Project entity = projectRepo.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("Owner not found: id={}", req.ownerId());
-                    return new NotFoundException("Owner not found: " + req.ownerId());
+                    log.warn("Project not found: id={}", id);
+                    return new NotFoundException("Project not found: " + id);
                 });
+        Versions.check("Project", id, version(entity), expectedVersions);
 
-        long targetOwnerId = newOwner.getId();
-        String targetName = req.name();
+        long currentOwnerId = entity.getOwner().getId();
+        long targetOwnerId = req.ownerId() != null ? req.ownerId().orElseThrow() : currentOwnerId;
+        try {
+            ProjectMapper.applyPatch(entity, req);
+            if (targetOwnerId != currentOwnerId) {
+                entity.setOwner(userRepo.getReferenceById(targetOwnerId));
+            }
+            projectRepo.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex, entity.getName(), targetOwnerId);
+        }
+        log.info("Project patched successfully: id={}", id);
+        return entity;
+    }
 
-        if (projectRepo.existsByOwner_IdAndNameIgnoreCaseAndIdNot(targetOwnerId, targetName, id)) {
-            log.warn("Duplicate project name '{}' for ownerId={}", targetName, targetOwnerId);
-            throw new BusinessRuleException("Project name already exists for this owner");
+    // Maps a written project to its response. The owner is read with one
+    // query, unless it is already loaded (e.g. the project kept its owner
+    // during an update).
+    private ProjectResponseDTO toResponse(Project project) {
+        if (Hibernate.isInitialized(project.getOwner())) {
+            return ProjectMapper.toResponse(project);
         }
+        return projectRepo.findResponseById(project.getId()).orElseThrow();
+    }
 
-        ProjectMapper.applyUpdate(entity, req, newOwner);
-        log.info("Project updated successfully: id={}", id);
-        return ProjectMapper.toResponse(entity);
+    // Returns the version of a project (see Versions). It is read with one
+    // query when the owner is not loaded (the project changed owner).
+    private String version(Project project) {
+        if (Hibernate.isInitialized(project.getOwner())) {
+            return Versions.of(project.getVersion(), project.getOwner().getVersion());
+        }
+        return projectRepo.findVersionById(project.getId()).orElseThrow();
     }
 
-    /**
-     * Deletes a project by ID.
-     * 
-     * @param id The ID of the project to delete.
-     * @throws NotFoundException if the project is not found.
-     */
-    @Override
-    public void delete(long id) {
-        log.info("Attempting to delete project with id={}", id);
-        if (!projectRepo.existsById(id)) {
-            log.warn("Project not found: id={}", id);
-            throw new NotFoundException("Project not found: " + id);
+    // Translates a violation of the owner foreign key into a 404 and of the
+    // per-owner name key into a 409; any other integrity violation is rethrown
+    // as is.
+    private static RuntimeException translate(DataIntegrityViolationException ex, String name, long ownerId) {
+        if (ConstraintViolations.isViolationOf(ex, Project.FK_OWNER)) {
+            log.warn("Owner not found: id={}", ownerId);
+            return new NotFoundException("Owner not found: " + ownerId);
         }
-        projectRepo.deleteById(id);
-        log.info("Project deleted successfully: id={}", id);
+        if (ConstraintViolations.isViolationOf(ex, Project.UK_OWNER_NAME)) {
+            log.warn("Duplicate project name '{}' for ownerId={}", name, ownerId);
+            return new BusinessRuleException("Project name already exists for this owner");
+        }
+        return ex;
+    }
+
+    // Key of a project listing in the last page cache.
+    private static LastPageCache.Key pageKey(boolean slice, int page, int size) {
+        return new LastPageCache.Key("projects", slice, page, size);
     }
 }
@@ -0,0 +1,192 @@
+package com.jbk.taskboard.service.impl;
+
+import com.jbk.taskboard.config.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalescing of identical concurrent reads ("single flight"): the first
+ * caller of a read runs it, and callers of the same read (same name and key)
+ * arriving while it is in flight wait for its result (or exception) instead
+ * of running their own query.
+ * A read is only shared by callers that would all accept its result: keys
+ * include the version the caller read first (task, task listing), or the
+ * read is forgotten when a local write evicts what it reads (see forget), so
+ * a request arriving after a write commits never joins a read started
+ * before. Reads made in a read-write transaction (which may see its own
+ * uncommitted writes) are never shared. Followers wait at most
+ * taskboard.coalescing.max-wait, then read on their own.
+ * Publishes, per read name, taskboard.single.flight.calls (result "leader",
+ * "joined" or "timeout"), the wait of the followers
+ * (taskboard.single.flight.wait), the number of followers of each read
+ * (taskboard.single.flight.followers) and of the followers currently waiting
+ * (taskboard.single.flight.waiting).
+ */
+@Component
+final class SingleFlight {
+
+    private record Key(String name, long generation, Object key) {
+    }
+
+    private record Flight(CompletableFuture<Object> result, AtomicInteger followers) {
+    }
+
+    private record Meters(Counter leader, Counter joined, Counter timeout, Timer waitTime,
+            DistributionSummary followers, AtomicInteger waiting) {
+    }
+
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor that injects the coalescing settings and the registry of
+     * the metrics.
+     * 
+     * @param properties
+     * @param registry
+     */
+    SingleFlight(CoalescingProperties properties, MeterRegistry registry) {
+        this.enabled = properties.enabled();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.registry = registry;
+    }
+
+    /**
+     * Runs a read, or waits for the same read already in flight and returns
+     * its result. The result is shared by all its callers and must not be
+     * modified.
+     * 
+     * @param name The name of the read (the "name" metric tag).
+     * @param key  The key of the read (equal keys share one call).
+     * @param read The read.
+     * @return The result of the read.
+     */
+    @SuppressWarnings("unchecked")
+    <V> V run(String name, Object key, Supplier<V> read) {
+        if (!enabled || inWriteTransaction()) {
+            return read.get();
+        }
+        Meters m = meters(name);
+        Key k = new Key(name, generation(name).get(), key);
+        Flight flight = new Flight(new CompletableFuture<>(), new AtomicInteger());
+        Flight inFlight = flights.putIfAbsent(k, flight);
+        if (inFlight == null) {
+            m.leader().increment();
+            try {
+                V value = read.get();
+                flight.result().complete(value);
+                return value;
+            } catch (RuntimeException | Error ex) {
+                flight.result().completeExceptionally(ex);
+                throw ex;
+            } finally {
+                flights.remove(k, flight);
+                m.followers().record(flight.followers().get());
+            }
+        }
+        inFlight.followers().incrementAndGet();
+        m.waiting().incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            V value = (V) inFlight.result().get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            m.joined().increment();
+            return value;
+        } catch (TimeoutException ex) {
+            m.timeout().increment();
+            return read.get();
+        } catch (ExecutionException ex) {
+            m.joined().increment();
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) ex.getCause();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name + " " + key, ex);
+        } finally {
+            m.waiting().decrementAndGet();
+            m.waitTime().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Forgets the reads of the given name in flight, now and when the current
+    // transaction completes: later callers run a new read instead of joining
+    // one that may have read the rows before the write.
+    void forget(String name) {
+        generation(name).incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation(name).incrementAndGet();
+                }
+            });
+        }
+    }
+
+    // Whether the caller runs in a read-write transaction.
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // Returns the generation of the reads of a name (incremented by forget).
+    private AtomicLong generation(String name) {
+        return generations.computeIfAbsent(name, n -> new AtomicLong());
+    }
+
+    // Returns the meters of the reads of a name, registering them on first
+    // use.
+    private Meters meters(String name) {
+        return meters.computeIfAbsent(name, this::registerMeters);
+    }
+
+    // Registers the meters of the reads of a name.
+    private Meters registerMeters(String name) {
+        AtomicInteger waiting = new AtomicInteger();
+        Gauge.builder("taskboard.single.flight.waiting", waiting, AtomicInteger::get)
+                .description("Callers waiting for a read already in flight")
+                .tag("name", name)
+                .register(registry);
+        return new Meters(
+                calls(name, "leader"), calls(name, "joined"), calls(name, "timeout"),
+                Timer.builder("taskboard.single.flight.wait")
+                        .description("Time callers waited for a read already in flight")
+                        .tag("name", name)
+                        .register(registry),
+                DistributionSummary.builder("taskboard.single.flight.followers")
+                        .description("Callers that joined a read instead of running it")
+                        .tag("name", name)
+                        .register(registry),
+                waiting);
+    }
+
+    // Registers the call counter of a name and result.
+    private Counter calls(String name, String result) {
+        return Counter.builder("taskboard.single.flight.calls")
+                .description("Coalesced reads: run (leader), shared (joined) or run after waiting too long (timeout)")
+                .tag("name", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.jbk.taskboard.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor used by the keyset pagination of tasks.
+ * Task listings are always ordered by id DESC, so the id of the last returned
+ * row is the whole sort key. The value is encoded as Base64 (URL safe) of
+ * "v1:id=<id>" so that the format can evolve without breaking clients.
+ */
+final class TaskCursor {
+
+    private static final String PREFIX = "v1:id=";
+
+    // Private constructor to prevent instantiation.
+    private TaskCursor() {
+    }
+
+    /**
+     * Encodes the id of the last returned task as an opaque cursor.
+     * 
+     * @param lastId
+     * @return
+     */
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by encode.
+     * 
+     * @param cursor
+     * @return The id of the last task of the previous page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    static long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.jbk.taskboard.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jbk.taskboard.dto.task.*;
+import com.jbk.taskboard.exception.BusinessRuleException;
+import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.repository.ProjectRepository;
+import com.jbk.taskboard.service.TaskImportService;
+import com.jbk.taskboard.service.TaskService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service implementation for importing tasks in bulk.
+ * The upload is read one row at a time with the Jackson streaming parsers
+ * (the payload is never bound as a whole) and every BATCH_SIZE rows are
+ * handed to TaskService.createBatchForProject, which validates them with the
+ * TaskCreateForProjectRequestDTO rules, checks title duplicates with one
+ * query and inserts them in JDBC batches, in its own transaction.
+ * Not transactional itself: each batch is committed before the next one is
+ * read, so memory use does not depend on the size of the upload.
+ */
+@Service
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportServiceImpl.class);
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final TaskService taskService;
+    private final ProjectRepository projectRepo;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+
+    /**
+     * Constructor that injects the TaskService, the ProjectRepository and the
+     * ObjectMapper (whose settings are used to read NDJSON rows). CSV rows are
+     * read with a header line naming the columns; empty cells are null.
+     * 
+     * @param taskService
+     * @param projectRepo
+     * @param objectMapper
+     */
+    public TaskImportServiceImpl(TaskService taskService, ProjectRepository projectRepo,
+            ObjectMapper objectMapper) {
+        this.taskService = taskService;
+        this.projectRepo = projectRepo;
+        this.ndjsonReader = objectMapper.readerFor(TaskCreateForProjectRequestDTO.class);
+        this.csvReader = CsvMapper.builder()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new JavaTimeModule())
+                .build()
+                .readerFor(TaskCreateForProjectRequestDTO.class)
+                .with(CsvSchema.emptySchema().withHeader());
+    }
+
+    /**
+     * Imports the tasks read from the input into a project.
+     * Rows that cannot be read (e.g. unknown status) or fail validation are
+     * reported with 400, duplicate titles with 409; the other rows are
+     * imported. Malformed content (e.g. broken JSON) stops the import after
+     * the rows read so far.
+     * 
+     * @param projectId The project ID.
+     * @param in        The upload.
+     * @param format    The format of the upload.
+     * @return The number of rows read, imported and failed, with the errors.
+     * @throws NotFoundException if the project is not found.
+     */
+    @Override
+    public TaskImportResponseDTO importForProject(long projectId, InputStream in, Format format) {
+        return importForProject(projectId, in, format, progress -> {
+        });
+    }
+
+    /**
+     * Imports the tasks read from the input into a project, reporting the
+     * counters so far to the listener after each committed batch (e.g. to
+     * stream them to the client). The listener is not called when the
+     * project is not found.
+     * 
+     * @param projectId The project ID.
+     * @param in        The upload.
+     * @param format    The format of the upload.
+     * @param onBatch   The listener called after each batch.
+     * @return The number of rows read, imported and failed, with the errors.
+     * @throws NotFoundException if the project is not found.
+     */
+    @Override
+    public TaskImportResponseDTO importForProject(long projectId, InputStream in, Format format,
+            Consumer<TaskImportProgressDTO> onBatch) {
+        log.info("Importing tasks ({}) into projectId={}", format, projectId);
+        if (!projectRepo.existsById(projectId)) {
+            log.warn("Project not found: id={}", projectId);
+            throw new NotFoundException("Project not found: " + projectId);
+        }
+
+        Progress progress = new Progress(projectId, onBatch);
+        ObjectReader reader = format == Format.CSV ? csvReader : ndjsonReader;
+        try (MappingIterator<TaskCreateForProjectRequestDTO> rows = reader.readValues(in)) {
+            while (readNext(rows, progress)) {
+                if (progress.batch.size() == BATCH_SIZE) {
+                    progress.flush();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            progress.fail(progress.rows + 1, 400, "malformed content: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        progress.flush();
+        progress.errors.sort(Comparator.comparingLong(TaskImportErrorDTO::row));
+
+        log.info("Tasks imported into projectId={}: rows={}, imported={}, failed={}", projectId, progress.rows,
+                progress.imported, progress.failed);
+        return TaskImportResponseDTO.of(progress.rows, progress.imported, progress.failed, progress.errors);
+    }
+
+    // Reads the next row into the current batch (or records it as failed when
+    // it cannot be bound). Returns false at the end of the input or when the
+    // content is malformed.
+    private boolean readNext(MappingIterator<TaskCreateForProjectRequestDTO> rows, Progress progress)
+            throws IOException {
+        try {
+            if (!rows.hasNextValue()) {
+                return false;
+            }
+        } catch (JsonProcessingException e) {
+            progress.fail(progress.rows + 1, 400, "malformed content: " + e.getOriginalMessage());
+            return false;
+        }
+        long row = ++progress.rows;
+        try {
+            progress.add(row, rows.nextValue());
+        } catch (JsonMappingException e) {
+            // The iterator skips the rest of this row on the next read
+            progress.fail(row, 400, "invalid row: " + e.getOriginalMessage());
+        } catch (JsonProcessingException e) {
+            progress.fail(row, 400, "malformed content: " + e.getOriginalMessage());
+            return false;
+        }
+        return true;
+    }
+
+    // Counters of a running import and the rows of the current batch.
+    private final class Progress {
+
+        private final long projectId;
+        private final Consumer<TaskImportProgressDTO> onBatch;
+        private List<TaskCreateForProjectRequestDTO> batch = new ArrayList<>(BATCH_SIZE);
+        private List<Long> batchRows = new ArrayList<>(BATCH_SIZE);
+        private final List<TaskImportErrorDTO> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        private Progress(long projectId, Consumer<TaskImportProgressDTO> onBatch) {
+            this.projectId = projectId;
+            this.onBatch = onBatch;
+        }
+
+        private void add(long row, TaskCreateForProjectRequestDTO item) {
+            batch.add(item);
+            batchRows.add(row);
+        }
+
+        private void fail(long row, int status, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(TaskImportErrorDTO.of(row, status, error));
+            }
+        }
+
+        // Persists the current batch (one transaction), records its outcome and
+        // reports the counters to the listener.
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                record(taskService.createBatchForProject(projectId, batch), batchRows);
+            } catch (BusinessRuleException e) {
+                // The title key rejected the batch after the duplicate check (a
+                // concurrent write took one of the titles): the batch was rolled
+                // back, so its rows are retried one by one and only the rows
+                // that still clash fail
+                log.warn("Import batch rejected for projectId={}, retrying its {} rows one by one: {}", projectId,
+                        batch.size(), e.getMessage());
+                for (int i = 0; i < batch.size(); i++) {
+                    long row = batchRows.get(i);
+                    try {
+                        record(taskService.createBatchForProject(projectId, List.of(batch.get(i))), List.of(row));
+                    } catch (BusinessRuleException rowEx) {
+                        fail(row, 409, rowEx.getMessage());
+                    }
+                }
+            }
+            batch = new ArrayList<>(BATCH_SIZE);
+            batchRows = new ArrayList<>(BATCH_SIZE);
+            log.info("Import into projectId={} in progress: rows={}, imported={}, failed={}", projectId, rows,
+                    imported, failed);
+            onBatch.accept(TaskImportProgressDTO.of(rows, imported, failed));
+        }
+
+        // Records the outcome of a committed batch whose items were read from
+        // the given rows.
+        private void record(TaskBatchResponseDTO res, List<Long> itemRows) {
+            imported += res.created();
+            for (TaskBatchItemResultDTO result : res.results()) {
+                if (result.task() == null) {
+                    fail(itemRows.get(result.index()), result.status(), result.error());
+                }
+            }
+        }
+    }
+}
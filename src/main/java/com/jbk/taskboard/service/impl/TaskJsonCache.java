@@ -0,0 +1,166 @@
+package com.jbk.taskboard.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.task.TaskResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of task responses encoded as JSON (and optionally gzip), keyed by
+ * task ID and valid for one version of the task (see Versions).
+ * A handful of tasks are read over and over (e.g. by wallboards): a hit
+ * skips the task query, the mapping and the serialization, and the bytes are
+ * written to the response as they are. Each lookup is made with the current
+ * version, so an entry made stale by another instance or by a change of the
+ * project or owner is never served; the task write paths also evict the
+ * entry right away. The cache is bounded by the total size of the bytes it
+ * holds (taskboard.cache.task-json.*) and publishes cache.* metrics tagged
+ * "task-json". It can be saved to and restored from a snapshot (see
+ * CacheSnapshot). While the database is unavailable, the last encoded form of
+ * a task can be peeked at without any version check.
+ */
+@Component
+final class TaskJsonCache {
+
+    // Estimated size of an entry besides its byte arrays (key, version,
+    // records and cache node).
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final Cache<Long, VersionedDTO<EncodedJsonDTO>> cache;
+    private final ObjectWriter writer;
+    private final boolean gzip;
+    private final long gzipMinSize;
+
+    /**
+     * Constructor that builds the cache and registers its metrics.
+     * 
+     * @param objectMapper
+     * @param properties
+     * @param registry
+     */
+    TaskJsonCache(ObjectMapper objectMapper, CacheProperties properties, MeterRegistry registry) {
+        CacheProperties.TaskJson spec = properties.taskJson();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(spec.maximumWeight().toBytes())
+                .weigher((Long id, VersionedDTO<EncodedJsonDTO> entry) -> weight(entry))
+                .expireAfterWrite(spec.timeToLive())
+                .recordStats()
+                .build();
+        this.writer = objectMapper.writerFor(TaskResponseDTO.class);
+        this.gzip = spec.gzip();
+        this.gzipMinSize = spec.gzipMinSize().toBytes();
+        CaffeineCacheMetrics.monitor(registry, cache, "task-json");
+    }
+
+    /**
+     * Returns the encoded task of the given version. On a miss (including an
+     * entry of another version, which is dropped) the task is read with the
+     * loader, encoded and cached under the version it was read with.
+     * 
+     * @param id      The task ID.
+     * @param version The current version of the task.
+     * @param loader  Reads the task response and its version.
+     * @return The encoded task with its version.
+     */
+    VersionedDTO<EncodedJsonDTO> get(long id, String version, Supplier<VersionedDTO<TaskResponseDTO>> loader) {
+        VersionedDTO<EncodedJsonDTO> cached = cache.policy().getIfPresentQuietly(id);
+        if (cached != null && !cached.version().equals(version)) {
+            cache.asMap().remove(id, cached);
+        }
+        cached = cache.getIfPresent(id);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        VersionedDTO<TaskResponseDTO> res = loader.get();
+        VersionedDTO<EncodedJsonDTO> encoded = VersionedDTO.of(encode(res.value()), res.version());
+        cache.put(id, encoded);
+        return encoded;
+    }
+
+    // Returns the cached encoded task, whatever its version, without checking
+    // it (served while the database is unavailable).
+    Optional<VersionedDTO<EncodedJsonDTO>> peek(long id) {
+        return Optional.ofNullable(cache.policy().getIfPresentQuietly(id));
+    }
+
+    // Evicts the entry of a task.
+    void evict(long id) {
+        cache.invalidate(id);
+    }
+
+    // Evicts the entries of several tasks.
+    void evictAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    // Returns a copy of the cached entries (for a snapshot).
+    Map<Long, VersionedDTO<EncodedJsonDTO>> entries() {
+        return Map.copyOf(cache.asMap());
+    }
+
+    // Adds entries read from a snapshot, unless the cache already has an
+    // entry for the task (they need no other check: every lookup compares
+    // the versions). The gzip forms are dropped when gzip is now disabled.
+    // Returns the number of entries added.
+    int restore(Map<Long, VersionedDTO<EncodedJsonDTO>> entries) {
+        int restored = 0;
+        for (Map.Entry<Long, VersionedDTO<EncodedJsonDTO>> entry : entries.entrySet()) {
+            VersionedDTO<EncodedJsonDTO> value = entry.getValue();
+            if (!gzip && value.value().gzip() != null) {
+                value = VersionedDTO.of(EncodedJsonDTO.of(value.value().json(), null), value.version());
+            }
+            if (cache.asMap().putIfAbsent(entry.getKey(), value) == null) {
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    // Encodes a task as JSON, adding the gzip form when enabled and the JSON
+    // is large enough (and only if it is actually smaller).
+    private EncodedJsonDTO encode(TaskResponseDTO task) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(task);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot encode task " + task.id(), ex);
+        }
+        byte[] compressed = gzip && json.length >= gzipMinSize ? gzip(json) : null;
+        return EncodedJsonDTO.of(json, compressed != null && compressed.length < json.length ? compressed : null);
+    }
+
+    // Compresses bytes with gzip.
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    // Weight of an entry: its bytes plus a fixed overhead.
+    private static int weight(VersionedDTO<EncodedJsonDTO> entry) {
+        EncodedJsonDTO value = entry.value();
+        return ENTRY_OVERHEAD + entry.version().length() + value.json().length
+                + (value.gzip() == null ? 0 : value.gzip().length);
+    }
+}
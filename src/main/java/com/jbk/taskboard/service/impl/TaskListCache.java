@@ -0,0 +1,210 @@
+package com.jbk.taskboard.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.repository.TaskRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the task listings of a project: the ordered task IDs of a listing
+ * (and its total, for pages), keyed by its normalized filters and position,
+ * and the task rows of these listings, keyed by task ID.
+ * The same listings (e.g. the DOING tasks of a project, first page) are read
+ * over and over by every open board. Listings are stamped with the listing
+ * version of their project (its task change counter, project and owner
+ * versions, see TaskService.getListVersion), rows with the task change
+ * counter, and both are only served while these are unchanged: every task
+ * write (create, update, move, delete, bulk changes, on any instance)
+ * increments the counter, so exactly the listings of the affected projects
+ * are read again. The version is read before the listing, in the same
+ * transaction. The nested projects and owners still come from DtoCaches.
+ * Listings across all projects are not cached (no counter versions them);
+ * only their last pages are kept for stale reads (see LastPageCache).
+ * While the database is unavailable, the last listings and rows can be
+ * peeked at whatever their version (see peek and peekRows).
+ * Publishes cache.* metrics tagged "task-lists" and "task-rows", and
+ * taskboard.task.lists counts of hits and misses by filter shape (e.g.
+ * "project+status") and paging, to see which boards benefit.
+ */
+@Component
+final class TaskListCache {
+
+    // How a listing is paged; part of the key since pages also hold a total
+    // and slices one ID more than their size.
+    enum Paging {
+        PAGE, SLICE, CURSOR
+    }
+
+    // Normalized listing: project (null for all projects, not cached),
+    // optional filters, paging, position (page number, or last seen ID for a
+    // cursor, Long.MAX_VALUE for the first page) and size.
+    record Key(Long projectId, TaskStatus status, TaskPriority priority, Paging paging, long position, int size) {
+
+        // Filter shape of the listing, e.g. "project+status".
+        String shape() {
+            return "project" + (status == null ? "" : "+status") + (priority == null ? "" : "+priority");
+        }
+    }
+
+    // Ordered task IDs of a listing, and its total (-1 when not counted).
+    record Listing(List<Long> ids, long total) {
+
+        Listing {
+            ids = List.copyOf(ids);
+        }
+    }
+
+    private record StampedListing(String version, Listing listing) {
+    }
+
+    private record StampedRow(long changeCount, TaskRow row) {
+    }
+
+    private final Cache<Key, StampedListing> listings;
+    private final Cache<Long, StampedRow> rows;
+    private final boolean enabled;
+    private final MeterRegistry registry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that builds both caches and registers their metrics.
+     * 
+     * @param properties
+     * @param registry
+     */
+    TaskListCache(CacheProperties properties, MeterRegistry registry) {
+        CacheProperties.TaskLists spec = properties.taskLists();
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .expireAfterWrite(spec.timeToLive())
+                .recordStats()
+                .build();
+        this.rows = Caffeine.newBuilder()
+                .maximumSize(spec.maximumRows())
+                .expireAfterWrite(spec.timeToLive())
+                .recordStats()
+                .build();
+        this.enabled = spec.enabled();
+        this.registry = registry;
+        CaffeineCacheMetrics.monitor(registry, listings, "task-lists");
+        CaffeineCacheMetrics.monitor(registry, rows, "task-rows");
+    }
+
+    // Whether listings are cached (taskboard.cache.task-lists.enabled).
+    boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a listing read at the given listing version of its project. On
+     * a miss (including an entry read at another version, which is dropped)
+     * the listing is read with the loader and cached under that version.
+     * 
+     * @param key     The listing.
+     * @param version The current listing version of the project.
+     * @param loader  Reads the task IDs and total of the listing.
+     * @return The listing.
+     */
+    Listing get(Key key, String version, Supplier<Listing> loader) {
+        StampedListing cached = listings.policy().getIfPresentQuietly(key);
+        if (cached != null && !cached.version().equals(version)) {
+            listings.asMap().remove(key, cached);
+        }
+        cached = listings.getIfPresent(key);
+        boolean hit = cached != null && cached.version().equals(version);
+        count(key, hit);
+        if (hit) {
+            return cached.listing();
+        }
+        Listing listing = loader.get();
+        listings.put(key, new StampedListing(version, listing));
+        return listing;
+    }
+
+    // Returns the last cached listing of a key with the version it was read
+    // at, without checking it (the database is unavailable).
+    Optional<VersionedDTO<Listing>> peek(Key key) {
+        StampedListing cached = listings.policy().getIfPresentQuietly(key);
+        return cached == null ? Optional.empty() : Optional.of(VersionedDTO.of(cached.listing(), cached.version()));
+    }
+
+    // Returns the last cached rows of the given tasks of a project, whatever
+    // the count they were read at, or empty unless all of them are cached.
+    Optional<List<TaskRow>> peekRows(long projectId, List<Long> ids) {
+        List<TaskRow> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            StampedRow row = rows.policy().getIfPresentQuietly(id);
+            if (row == null || row.row().projectId() != projectId) {
+                return Optional.empty();
+            }
+            found.add(row.row());
+        }
+        return Optional.of(found);
+    }
+
+    /**
+     * Returns the rows of the given tasks of a project, read at the given task
+     * change count. Rows missing from the cache (or cached at another count,
+     * or for another project) are read with one call to the loader and cached
+     * under that count. Tasks the loader does not return are left out.
+     * 
+     * @param projectId   The project of the tasks.
+     * @param changeCount The current task change count of the project.
+     * @param ids         The task IDs.
+     * @param loader      Reads the rows of the given task IDs.
+     * @return The rows found, in no particular order.
+     */
+    List<TaskRow> rows(long projectId, long changeCount, List<Long> ids, Function<List<Long>, List<TaskRow>> loader) {
+        Map<Long, StampedRow> cached = rows.getAllPresent(ids);
+        List<TaskRow> found = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            StampedRow row = cached.get(id);
+            if (row != null && row.changeCount() == changeCount && row.row().projectId() == projectId) {
+                found.add(row.row());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, StampedRow> loaded = new HashMap<>();
+            for (TaskRow row : loader.apply(missing)) {
+                found.add(row);
+                loaded.put(row.id(), new StampedRow(changeCount, row));
+            }
+            rows.putAll(loaded);
+        }
+        return found;
+    }
+
+    // Counts a hit or miss of a listing under its filter shape and paging.
+    private void count(Key key, boolean hit) {
+        String paging = key.paging().name().toLowerCase(Locale.ROOT);
+        String result = hit ? "hit" : "miss";
+        counters.computeIfAbsent(key.shape() + ':' + paging + ':' + result,
+                k -> Counter.builder("taskboard.task.lists")
+                        .description("Task listings of a project served from (hit) or read into (miss) the cache")
+                        .tag("shape", key.shape())
+                        .tag("paging", paging)
+                        .tag("result", result)
+                        .register(registry))
+                .increment();
+    }
+}
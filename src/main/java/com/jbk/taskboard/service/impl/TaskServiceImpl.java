@@ -1,30 +1,65 @@
 package com.jbk.taskboard.service.impl;
 
+import com.jbk.taskboard.dto.common.CursorPageDTO;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
 import com.jbk.taskboard.dto.task.*;
 import com.jbk.taskboard.entity.Project;
 import com.jbk.taskboard.entity.Task;
 import com.jbk.taskboard.entity.TaskPriority;
 import com.jbk.taskboard.entity.TaskStatus;
 import com.jbk.taskboard.exception.BusinessRuleException;
+import com.jbk.taskboard.exception.ConstraintViolations;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
 import com.jbk.taskboard.mapper.TaskMapper;
 import com.jbk.taskboard.repository.ProjectRepository;
 import com.jbk.taskboard.repository.TaskRepository;
+import com.jbk.taskboard.repository.TaskRow;
 import com.jbk.taskboard.repository.spec.TaskSpecs;
 import com.jbk.taskboard.service.TaskService;
+import com.jbk.taskboard.service.impl.TaskListCache.Listing;
+import com.jbk.taskboard.service.impl.TaskListCache.Paging;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Service implementation for managing Task entities.
  * Provides methods for creating, retrieving, updating, and deleting tasks.
  * Uses TaskRepository for database interactions and TaskMapper for DTO
  * conversions.
  * All methods are transactional to ensure data integrity.
+ * Every write increments the task change counter of the affected projects
+ * first, in the same transaction (it versions the project's task listings,
+ * see getListVersion); bumping the counter rows before writing the task rows
+ * keeps the lock order the same for all writes. Writes of known tasks also
+ * evict their encoded responses (see TaskJsonCache). The same counter
+ * validates the cached task listings of a project (see TaskListCache).
  * Implements the TaskService interface.
  */
 @Service
@@ -32,88 +67,196 @@ import org.springframework.transaction.annotation.Transactional;
 public class TaskServiceImpl implements TaskService {
 
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(TaskServiceImpl.class);
+    private static final Sort BY_ID_DESC = Sort.by(Sort.Direction.DESC, "id");
     private final TaskRepository taskRepo;
     private final ProjectRepository projectRepo;
+    private final Validator validator;
+    private final DtoCaches caches;
+    private final TaskJsonCache jsonCache;
+    private final TaskListCache listCache;
+    private final LastPageCache lastPages;
+    private final SingleFlight flights;
 
     /**
-     * Constructor that injects the TaskRepository and ProjectRepository.
+     * Constructor that injects the TaskRepository, ProjectRepository, the
+     * bean Validator (used to validate batch items one by one), the project
+     * and user caches (nested in the task responses of listings) and the
+     * caches of encoded task responses, of the task listings of a project and
+     * of the last pages of the listings across projects, and the coalescing
+     * of identical concurrent reads.
      * 
      * @param taskRepo
      * @param projectRepo
+     * @param validator
+     * @param caches
+     * @param jsonCache
+     * @param listCache
+     * @param lastPages
+     * @param flights
      */
-    public TaskServiceImpl(TaskRepository taskRepo, ProjectRepository projectRepo) {
+    public TaskServiceImpl(TaskRepository taskRepo, ProjectRepository projectRepo, Validator validator,
+            DtoCaches caches, TaskJsonCache jsonCache, TaskListCache listCache, LastPageCache lastPages,
+            SingleFlight flights) {
         this.taskRepo = taskRepo;
         this.projectRepo = projectRepo;
+        this.validator = validator;
+        this.caches = caches;
+        this.jsonCache = jsonCache;
+        this.listCache = listCache;
+        this.lastPages = lastPages;
+        this.flights = flights;
     }
 
     /**
-     * Creates a new task after checking for title uniqueness within the project.
+     * Creates a new task. The project is bound by reference (it is not loaded)
+     * and the insert is flushed right away, so the database checks in the same
+     * statement that the project exists and that the title is unique in it.
+     * The response is then read with a single query.
      * 
      * @param req The task creation request DTO.
      * @return The created task as a response DTO.
+     * @throws NotFoundException     if the project is not found.
      * @throws BusinessRuleException if a task with the same title already exists in
      *                               the project.
      */
     @Override
     public TaskResponseDTO create(TaskCreateRequestDTO req) {
-        log.info("Attempting to create task with title='{}' for projectId={}", req.title(), req.projectId());
-        Project project = projectRepo.findById(req.projectId())
-                .orElseThrow(() -> {
-                    log.warn("Project not found: id={}", req.projectId());
-                    return new NotFoundException("Project not found: " + req.projectId());
-                });
-
-        if (taskRepo.existsByProject_IdAndTitleIgnoreCase(req.projectId(), req.title())) {
-            log.warn("Duplicate task title '{}' in projectId={}", req.title(), req.projectId());
-            throw new BusinessRuleException("Task title already exists in this project");
-        }
+        return toResponse(insert(req.title(), req.projectId(),
+                TaskMapper.toEntity(req, projectRepo.getReferenceById(req.projectId()))));
+    }
 
-        Task saved = taskRepo.save(TaskMapper.toEntity(req, project));
-        log.info("Created task id={} with title='{}' for projectId={}", saved.getId(), saved.getTitle(),
-                req.projectId());
-        return TaskMapper.toResponse(saved);
+    /**
+     * Creates a new task like create, without reading the response.
+     * 
+     * @param req The task creation request DTO.
+     * @return The ID of the created task.
+     * @throws NotFoundException     if the project is not found.
+     * @throws BusinessRuleException if a task with the same title already exists in
+     *                               the project.
+     */
+    @Override
+    public long createMinimal(TaskCreateRequestDTO req) {
+        return insert(req.title(), req.projectId(),
+                TaskMapper.toEntity(req, projectRepo.getReferenceById(req.projectId()))).getId();
     }
 
     /**
-     * Creates a new task for a specific project after checking for title
-     * uniqueness within that project.
+     * Creates a new task for a specific project. The project is bound by
+     * reference (it is not loaded) and the insert is flushed right away, so the
+     * database checks in the same statement that the project exists and that
+     * the title is unique in it. The response is then read with a single query.
      * 
      * @param projectId The ID of the project to which the task will be added.
      * @param req       The task creation request DTO.
      * @return The created task as a response DTO.
+     * @throws NotFoundException     if the project is not found.
      * @throws BusinessRuleException if a task with the same title already exists in
      *                               the project.
      */
     @Override
     public TaskResponseDTO createForProject(long projectId, TaskCreateForProjectRequestDTO req) {
-        log.info("Attempting to create task with title='{}' for projectId={}", req.title(), projectId);
+        return toResponse(insert(req.title(), projectId,
+                TaskMapper.toEntity(req, projectRepo.getReferenceById(projectId))));
+    }
+
+    /**
+     * Creates a new task for a specific project like createForProject, without
+     * reading the response.
+     * 
+     * @param projectId The ID of the project to which the task will be added.
+     * @param req       The task creation request DTO.
+     * @return The ID of the created task.
+     * @throws NotFoundException     if the project is not found.
+     * @throws BusinessRuleException if a task with the same title already exists in
+     *                               the project.
+     */
+    @Override
+    public long createForProjectMinimal(long projectId, TaskCreateForProjectRequestDTO req) {
+        return insert(req.title(), projectId, TaskMapper.toEntity(req, projectRepo.getReferenceById(projectId)))
+                .getId();
+    }
+
+    /**
+     * Creates several tasks for a specific project.
+     * The project is resolved once, title duplicates are checked for the whole
+     * batch with a single query on the unique title index, and the new tasks
+     * are inserted in JDBC batches. Items that are invalid (400) or whose title
+     * already exists in the project or earlier in the batch (409) are reported
+     * as failed; the other items are created. Titles are compared by their
+     * titleKey, the rule of the title_norm unique key (case ignored, accents
+     * significant), so every duplicate is caught here and reported per item.
+     * 
+     * @param projectId The ID of the project to which the tasks will be added.
+     * @param items     The task creation request DTOs.
+     * @return One result per item, in request order.
+     * @throws NotFoundException     if the project is not found.
+     * @throws BusinessRuleException if a concurrent write created one of the
+     *                               titles after the duplicate check (nothing
+     *                               is created).
+     */
+    @Override
+    public TaskBatchResponseDTO createBatchForProject(long projectId, List<TaskCreateForProjectRequestDTO> items) {
+        log.info("Attempting to create {} tasks for projectId={}", items.size(), projectId);
         Project project = projectRepo.findById(projectId)
                 .orElseThrow(() -> {
                     log.warn("Project not found: id={}", projectId);
                     return new NotFoundException("Project not found: " + projectId);
                 });
 
-        if (taskRepo.existsByProject_IdAndTitleIgnoreCase(projectId, req.title())) {
-            log.warn("Duplicate task title '{}' in projectId={}", req.title(), projectId);
-            throw new BusinessRuleException("Task title already exists in this project");
+        TaskBatchItemResultDTO[] results = new TaskBatchItemResultDTO[items.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String error = validationError(items.get(i));
+            if (error != null) {
+                results[i] = TaskBatchItemResultDTO.failed(i, 400, error);
+            } else if (candidates.putIfAbsent(titleKey(items.get(i).title()), i) != null) {
+                results[i] = TaskBatchItemResultDTO.failed(i, 409, "Task title is duplicated in this batch");
+            }
         }
 
-        Task saved = taskRepo.save(TaskMapper.toEntity(req, project));
-        log.info("Created task id={} with title='{}' for projectId={}", saved.getId(), saved.getTitle(),
-                projectId);
-        return TaskMapper.toResponse(saved);
+        Set<String> existing = candidates.isEmpty() ? Set.of()
+                : new HashSet<>(taskRepo.findExistingTitles(projectId, candidates.keySet()));
+        List<Integer> indexes = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        candidates.forEach((title, i) -> {
+            if (existing.contains(title)) {
+                results[i] = TaskBatchItemResultDTO.failed(i, 409, "Task title already exists in this project");
+            } else {
+                indexes.add(i);
+                tasks.add(TaskMapper.toEntity(items.get(i), project));
+            }
+        });
+
+        List<Task> saved;
+        try {
+            if (!tasks.isEmpty()) {
+                projectRepo.incrementTaskChangeCount(List.of(projectId));
+            }
+            saved = taskRepo.saveAll(tasks);
+            taskRepo.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex, projectId);
+        }
+        for (int k = 0; k < saved.size(); k++) {
+            int i = indexes.get(k);
+            results[i] = TaskBatchItemResultDTO.created(i, TaskMapper.toResponse(saved.get(k)));
+        }
+        TaskBatchResponseDTO res = TaskBatchResponseDTO.of(List.of(results));
+        log.info("Created {} of {} tasks for projectId={} ({} failed)", res.created(), items.size(), projectId,
+                res.failed());
+        return res;
     }
 
     /**
      * Retrieves a task by ID.
      * 
      * @param id The ID of the task to retrieve.
-     * @return The task as a response DTO.
+     * @return The task as a response DTO, with its version.
      * @throws NotFoundException if the task is not found.
      */
     @Override
     @Transactional(readOnly = true)
-    public TaskResponseDTO getById(long id) {
+    public VersionedDTO<TaskResponseDTO> getById(long id) {
         log.debug("Fetching task by id={}", id);
         Task found = taskRepo.findById(id)
                 .orElseThrow(() -> {
@@ -121,11 +264,84 @@ public class TaskServiceImpl implements TaskService {
                     return new NotFoundException("Task not found: " + id);
                 });
         log.info("Task retrieved successfully: id={}", id);
-        return TaskMapper.toResponse(found);
+        return VersionedDTO.of(TaskMapper.toResponse(found), version(found));
+    }
+
+    /**
+     * Retrieves a task by ID encoded as JSON. The current version is read
+     * first (see getVersion); the encoded task is then taken from the cache
+     * when it holds this version, and read, mapped and encoded otherwise.
+     * Concurrent requests for the same task and version share one read (see
+     * SingleFlight).
+     * 
+     * @param id The ID of the task to retrieve.
+     * @return The encoded task, with its version.
+     * @throws NotFoundException if the task is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VersionedDTO<EncodedJsonDTO> getJsonById(long id) {
+        String version = getVersion(id);
+        return flights.run("task", new ReadKey(id, version), () -> jsonCache.get(id, version, () -> getById(id)));
+    }
+
+    /**
+     * Retrieves the version of a task representation with a single query on
+     * the version columns; the task is neither loaded nor mapped.
+     * 
+     * @param id The ID of the task.
+     * @return The version (see Versions).
+     * @throws NotFoundException if the task is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getVersion(long id) {
+        log.debug("Fetching version of task id={}", id);
+        return taskRepo.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.warn("Task not found: id={}", id);
+                    return new NotFoundException("Task not found: " + id);
+                });
+    }
+
+    /**
+     * Retrieves the last cached encoded task, whatever its version, without
+     * accessing the database (and outside any transaction, which would need a
+     * connection): served while the database is unavailable.
+     * 
+     * @param id The ID of the task.
+     * @return The encoded task with its version, or empty if it is not cached.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedDTO<EncodedJsonDTO>> getCachedJsonById(long id) {
+        log.debug("Fetching cached task id={}", id);
+        return jsonCache.peek(id);
+    }
+
+    /**
+     * Retrieves the version of the task listings of a project (the task change
+     * counter and the project and owner versions) with a single query by
+     * primary keys; no task is read.
+     * 
+     * @param projectId The ID of the project.
+     * @return The version (see Versions), or empty if the project is not
+     *         found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getListVersion(long projectId) {
+        log.debug("Fetching task list version of projectId={}", projectId);
+        return projectRepo.findTaskListVersionById(projectId);
     }
 
     /**
      * Lists tasks with optional filtering by status, priority, and project ID.
+     * The tasks are read directly into response DTOs (no entities are loaded);
+     * the page IDs and the total come from one query (see findIdPage).
+     * The listings of a project are served from TaskListCache while its task
+     * change counter is unchanged, and concurrent identical listings of a
+     * project share one read (see SingleFlight).
      * 
      * @param page      The page number (0-based).
      * @param size      The page size.
@@ -140,66 +356,660 @@ public class TaskServiceImpl implements TaskService {
             Long projectId) {
         log.debug("Listing tasks with filters - page: {}, size: {}, status: {}, priority: {}, projectId: {}",
                 page, size, status, priority, projectId);
-        PageRequest pr = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
-        Specification<Task> spec = Specification.<Task>unrestricted()
-                .and(TaskSpecs.hasStatus(status))
-                .and(TaskSpecs.hasPriority(priority))
-                .and(TaskSpecs.hasProjectId(projectId));
+        PageRequest pr = PageRequest.of(page, size, BY_ID_DESC);
+        Specification<Task> spec = filters(status, priority, projectId);
+        Listed listed = findListing(new TaskListCache.Key(projectId, status, priority, Paging.PAGE, page, size),
+                () -> {
+                    Page<Long> ids = taskRepo.findIdPage(spec, pr);
+                    return new Listing(ids.getContent(), ids.getTotalElements());
+                });
         log.info("Tasks listed successfully with applied filters");
-        return taskRepo.findAll(spec, pr).map(TaskMapper::toResponse);
+        Page<TaskResponseDTO> res = new PageImpl<>(listed.content(), pr, listed.listing().total());
+        if (projectId == null) {
+            lastPages.remember(pageKey(status, priority, false, page, size), res);
+        }
+        return res;
     }
 
     /**
-     * Updates an existing task after checking for title uniqueness within the
-     * project.
+     * Lists tasks with the same filters as list, without computing the total
+     * count. Fetches size + 1 rows to know whether a next page exists.
      * 
-     * @param id  The ID of the task to update.
-     * @param req The task update request DTO.
-     * @return The updated task as a response DTO.
-     * @throws NotFoundException     if the task or target project is not found.
-     * @throws BusinessRuleException if a task with the same title already exists in
-     *                               the target project.
+     * @param page      The page number (0-based).
+     * @param size      The page size.
+     * @param status    Optional filter by task status.
+     * @param priority  Optional filter by task priority.
+     * @param projectId Optional filter by project ID.
+     * @return A slice of task response DTOs.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TaskResponseDTO> listSlice(int page, int size, TaskStatus status, TaskPriority priority,
+            Long projectId) {
+        log.debug("Listing tasks (slice) with filters - page: {}, size: {}, status: {}, priority: {}, projectId: {}",
+                page, size, status, priority, projectId);
+        Slice<TaskResponseDTO> slice = findSlice(filters(status, priority, projectId),
+                PageRequest.of(page, size, BY_ID_DESC),
+                new TaskListCache.Key(projectId, status, priority, Paging.SLICE, page, size));
+        log.info("Tasks listed successfully (slice) with applied filters");
+        if (projectId == null) {
+            lastPages.remember(pageKey(status, priority, true, page, size), slice);
+        }
+        return slice;
+    }
+
+    /**
+     * Lists tasks using keyset (seek) pagination with optional filtering by
+     * status, priority, and project ID.
+     * Each page is an index range scan on id ("id < last seen id") instead of an
+     * OFFSET scan, and no COUNT query is issued.
+     * 
+     * @param after     Opaque cursor returned by the previous page, or blank
+     *                  to start from the newest task.
+     * @param size      The page size.
+     * @param status    Optional filter by task status.
+     * @param priority  Optional filter by task priority.
+     * @param projectId Optional filter by project ID.
+     * @return The page content and the cursor of the next page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskResponseDTO> listAfter(String after, int size, TaskStatus status,
+            TaskPriority priority, Long projectId) {
+        Long lastId = (after == null || after.isBlank()) ? null : TaskCursor.decode(after);
+        log.debug("Listing tasks after id={} - size: {}, status: {}, priority: {}, projectId: {}",
+                lastId, size, status, priority, projectId);
+        Specification<Task> spec = filters(status, priority, projectId).and(TaskSpecs.idBefore(lastId));
+        Slice<TaskResponseDTO> slice = findSlice(spec, PageRequest.of(0, size, BY_ID_DESC),
+                new TaskListCache.Key(projectId, status, priority, Paging.CURSOR,
+                        lastId == null ? Long.MAX_VALUE : lastId, size));
+        log.info("Tasks listed successfully after id={} ({} elements)", lastId, slice.getNumberOfElements());
+        return toCursorPage(slice, size);
+    }
+
+    /**
+     * Retrieves the last cached page of a project listing (see list), with
+     * the listing version it was read at, without accessing the database (and
+     * outside any transaction): served while the database is unavailable.
+     * A listing across projects has no version: its last page read is
+     * returned as is (see LastPageCache).
+     * 
+     * @param page      The page number (0-based).
+     * @param size      The page size.
+     * @param status    Optional filter by task status.
+     * @param priority  Optional filter by task priority.
+     * @param projectId Optional filter by project ID.
+     * @return The page with its version (null across projects), or empty
+     *         unless the listing, its tasks, project and owner are all cached.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedDTO<Page<TaskResponseDTO>>> listCached(int page, int size, TaskStatus status,
+            TaskPriority priority, Long projectId) {
+        if (projectId == null) {
+            return lastPages.<Page<TaskResponseDTO>>peek(pageKey(status, priority, false, page, size))
+                    .map(res -> VersionedDTO.of(res, null));
+        }
+        PageRequest pr = PageRequest.of(page, size, BY_ID_DESC);
+        return findCachedListing(new TaskListCache.Key(projectId, status, priority, Paging.PAGE, page, size))
+                .map(listed -> VersionedDTO.of(
+                        new PageImpl<>(listed.value().content(), pr, listed.value().listing().total()),
+                        listed.version()));
+    }
+
+    /**
+     * Retrieves the last cached slice of a listing (see listSlice), like
+     * listCached.
+     * 
+     * @param page      The page number (0-based).
+     * @param size      The page size.
+     * @param status    Optional filter by task status.
+     * @param priority  Optional filter by task priority.
+     * @param projectId Optional filter by project ID.
+     * @return The slice with its version, or empty if it is not fully cached.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedDTO<Slice<TaskResponseDTO>>> listSliceCached(int page, int size, TaskStatus status,
+            TaskPriority priority, Long projectId) {
+        if (projectId == null) {
+            return lastPages.<Slice<TaskResponseDTO>>peek(pageKey(status, priority, true, page, size))
+                    .map(res -> VersionedDTO.of(res, null));
+        }
+        PageRequest pr = PageRequest.of(page, size, BY_ID_DESC);
+        return findCachedListing(new TaskListCache.Key(projectId, status, priority, Paging.SLICE, page, size))
+                .map(listed -> VersionedDTO.of(toSlice(listed.value(), pr), listed.version()));
+    }
+
+    /**
+     * Retrieves the last cached page of a project listing after a cursor (see
+     * listAfter), like listCached; cursor listings across projects are not
+     * cached.
+     * 
+     * @param after     Opaque cursor returned by the previous page, or blank
+     *                  to start from the newest task.
+     * @param size      The page size.
+     * @param status    Optional filter by task status.
+     * @param priority  Optional filter by task priority.
+     * @param projectId Optional filter by project ID.
+     * @return The page with its version, or empty if it is not fully cached.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedDTO<CursorPageDTO<TaskResponseDTO>>> listAfterCached(String after, int size,
+            TaskStatus status, TaskPriority priority, Long projectId) {
+        Long lastId = (after == null || after.isBlank()) ? null : TaskCursor.decode(after);
+        PageRequest pr = PageRequest.of(0, size, BY_ID_DESC);
+        return findCachedListing(new TaskListCache.Key(projectId, status, priority, Paging.CURSOR,
+                lastId == null ? Long.MAX_VALUE : lastId, size))
+                .map(listed -> VersionedDTO.of(toCursorPage(toSlice(listed.value(), pr), size), listed.version()));
+    }
+
+    /**
+     * Exports the tasks matching the optional filters.
+     * Rows are streamed from the database and handed to the sink as they are
+     * read, so memory use stays flat whatever the number of tasks.
+     * 
+     * @param status    Optional filter by task status.
+     * @param priority  Optional filter by task priority.
+     * @param projectId Optional filter by project ID.
+     * @param sink      Receives each task, in ascending ID order.
+     * @return The number of tasks exported.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long export(TaskStatus status, TaskPriority priority, Long projectId, Consumer<TaskResponseDTO> sink) {
+        log.debug("Exporting tasks with filters - status: {}, priority: {}, projectId: {}", status, priority,
+                projectId);
+        long count = 0;
+        try (Stream<TaskResponseDTO> tasks = taskRepo.streamResponses(filters(status, priority, projectId))) {
+            Iterator<TaskResponseDTO> it = tasks.iterator();
+            while (it.hasNext()) {
+                sink.accept(it.next());
+                count++;
+            }
+        }
+        log.info("Tasks exported successfully ({} rows)", count);
+        return count;
+    }
+
+    /**
+     * Exports the tasks of a project with optional filtering by status and
+     * priority.
+     * 
+     * @param projectId The project ID.
+     * @param status    Optional filter by task status.
+     * @param priority  Optional filter by task priority.
+     * @param sink      Receives each task, in ascending ID order.
+     * @return The number of tasks exported.
+     * @throws NotFoundException if the project is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportForProject(long projectId, TaskStatus status, TaskPriority priority,
+            Consumer<TaskResponseDTO> sink) {
+        if (!projectRepo.existsById(projectId)) {
+            log.warn("Project not found: id={}", projectId);
+            throw new NotFoundException("Project not found: " + projectId);
+        }
+        return export(status, priority, projectId, sink);
+    }
+
+    /**
+     * Updates an existing task. The target project is bound by reference (it
+     * is not loaded) and the changes are flushed right away, so the database
+     * checks that the project exists and that the title is unique in it.
+     * 
+     * @param id               The ID of the task to update.
+     * @param req              The task update request DTO.
+     * @param expectedVersions The versions the task must have (If-Match), or
+     *                         null for an unconditional update.
+     * @return The updated task as a response DTO, with its new version.
+     * @throws NotFoundException           if the task or target project is not
+     *                                     found.
+     * @throws PreconditionFailedException if the task version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if a task with the same title already
+     *                                     exists in the target project.
      */
     @Override
-    public TaskResponseDTO update(long id, TaskUpdateRequestDTO req) {
+    public VersionedDTO<TaskResponseDTO> update(long id, TaskUpdateRequestDTO req, Set<String> expectedVersions) {
+        Task task = applyUpdate(id, req, expectedVersions);
+        return VersionedDTO.of(toResponse(task), version(task));
+    }
+
+    /**
+     * Updates an existing task like update, without reading the response.
+     * 
+     * @param id               The ID of the task to update.
+     * @param req              The task update request DTO.
+     * @param expectedVersions The versions the task must have (If-Match), or
+     *                         null for an unconditional update.
+     * @return The new version of the task.
+     * @throws NotFoundException           if the task or target project is not
+     *                                     found.
+     * @throws PreconditionFailedException if the task version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if a task with the same title already
+     *                                     exists in the target project.
+     */
+    @Override
+    public String updateMinimal(long id, TaskUpdateRequestDTO req, Set<String> expectedVersions) {
+        return version(applyUpdate(id, req, expectedVersions));
+    }
+
+    /**
+     * Applies a merge patch to an existing task. Only the supplied fields are
+     * set, and only the columns whose value changes are written (see
+     * Task's @DynamicUpdate), so the project foreign key and the title key are
+     * checked only when the project or the title actually change. A patch
+     * that changes nothing keeps the version.
+     * 
+     * @param id               The ID of the task to patch.
+     * @param req              The fields to change.
+     * @param expectedVersions The versions the task must have (If-Match), or
+     *                         null for an unconditional patch.
+     * @return The patched task as a response DTO, with its new version.
+     * @throws NotFoundException           if the task or target project is not
+     *                                     found.
+     * @throws PreconditionFailedException if the task version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if a task with the same title already
+     *                                     exists in the target project.
+     */
+    @Override
+    public VersionedDTO<TaskResponseDTO> patch(long id, TaskPatchRequestDTO req, Set<String> expectedVersions) {
+        Task task = applyPatch(id, req, expectedVersions);
+        return VersionedDTO.of(toResponse(task), version(task));
+    }
+
+    /**
+     * Applies a merge patch to an existing task like patch, without reading
+     * the response.
+     * 
+     * @param id               The ID of the task to patch.
+     * @param req              The fields to change.
+     * @param expectedVersions The versions the task must have (If-Match), or
+     *                         null for an unconditional patch.
+     * @return The new version of the task.
+     * @throws NotFoundException           if the task or target project is not
+     *                                     found.
+     * @throws PreconditionFailedException if the task version is not one of
+     *                                     the expected ones.
+     * @throws BusinessRuleException       if a task with the same title already
+     *                                     exists in the target project.
+     */
+    @Override
+    public String patchMinimal(long id, TaskPatchRequestDTO req, Set<String> expectedVersions) {
+        return version(applyPatch(id, req, expectedVersions));
+    }
+
+    /**
+     * Moves a task to another status with a single UPDATE statement: the task
+     * is neither loaded nor mapped (a status change cannot break title
+     * uniqueness). When the request has an expected status, the update only
+     * matches if the task still has it; the current status is read only when
+     * nothing matched, to tell a missing task from a conflict.
+     * 
+     * @param id  The ID of the task.
+     * @param req The new status and, optionally, the expected current one.
+     * @return The task ID and its new status.
+     * @throws NotFoundException     if the task is not found.
+     * @throws BusinessRuleException if the task does not have the expected
+     *                               status.
+     */
+    @Override
+    public TaskStatusResponseDTO changeStatus(long id, TaskStatusChangeRequestDTO req) {
+        log.info("Changing status of task id={} to {} (expected={})", id, req.status(), req.expectedStatus());
+        jsonCache.evict(id);
+        projectRepo.incrementTaskChangeCountByTaskId(id);
+        if (taskRepo.updateStatus(id, req.status(), req.expectedStatus()) == 0) {
+            TaskStatus current = taskRepo.findStatusById(id)
+                    .orElseThrow(() -> {
+                        log.warn("Task not found: id={}", id);
+                        return new NotFoundException("Task not found: " + id);
+                    });
+            log.warn("Task id={} has status {}, expected {}", id, current, req.expectedStatus());
+            throw new BusinessRuleException("Task status is " + current + ", expected " + req.expectedStatus());
+        }
+        log.info("Task status changed successfully: id={}, status={}", id, req.status());
+        return TaskStatusResponseDTO.of(id, req.status());
+    }
+
+    /**
+     * Updates the status and/or priority of several tasks with a single
+     * set-based UPDATE statement: the tasks are neither loaded nor validated
+     * one by one (status and priority changes cannot break title uniqueness).
+     * 
+     * @param req The tasks to update (IDs or filter) and the new values.
+     * @return The number of tasks matched by the request.
+     * @throws IllegalArgumentException if neither status nor priority is given,
+     *                                  if not exactly one of ids and filter is
+     *                                  given, or if the filter is empty.
+     */
+    @Override
+    public TaskBulkUpdateResponseDTO bulkUpdate(TaskBulkUpdateRequestDTO req) {
+        log.info("Bulk updating tasks (ids={}, filter={}) to status={}, priority={}",
+                req.ids() == null ? null : req.ids().size(), req.filter(), req.status(), req.priority());
+        if (req.status() == null && req.priority() == null) {
+            log.warn("Bulk update without status or priority");
+            throw new IllegalArgumentException("status or priority is required");
+        }
+        if ((req.ids() == null) == (req.filter() == null)) {
+            log.warn("Bulk update must select tasks by ids or by filter");
+            throw new IllegalArgumentException("exactly one of ids or filter is required");
+        }
+
+        Specification<Task> spec;
+        if (req.ids() != null) {
+            jsonCache.evictAll(req.ids());
+            spec = TaskSpecs.idIn(req.ids());
+        } else {
+            TaskFilterDTO filter = req.filter();
+            if (filter.isEmpty()) {
+                log.warn("Bulk update with an empty filter");
+                throw new IllegalArgumentException("filter must have at least one criterion");
+            }
+            spec = filters(filter.status(), filter.priority(), filter.projectId());
+        }
+
+        taskRepo.incrementProjectTaskChangeCounts(spec);
+        int updated = taskRepo.updateStatusAndPriority(spec, req.status(), req.priority());
+        log.info("Tasks bulk updated successfully: updated={}", updated);
+        return TaskBulkUpdateResponseDTO.of(updated);
+    }
+
+    /**
+     * Deletes a task by ID with a single DELETE statement, conditioned on the
+     * version when expected versions are given. The version is read only when
+     * nothing was deleted, to tell a missing task from a failed precondition.
+     * 
+     * @param id               The ID of the task to delete.
+     * @param expectedVersions The versions the task must have (If-Match), or
+     *                         null for an unconditional delete.
+     * @throws NotFoundException           if the task is not found.
+     * @throws PreconditionFailedException if the task version is not one of
+     *                                     the expected ones.
+     */
+    @Override
+    public void delete(long id, Set<String> expectedVersions) {
+        log.info("Attempting to delete task with id={} (expected versions={})", id, expectedVersions);
+        jsonCache.evict(id);
+        projectRepo.incrementTaskChangeCountByTaskId(id);
+        int deleted;
+        if (expectedVersions == null) {
+            deleted = taskRepo.deleteRowById(id);
+        } else {
+            deleted = expectedVersions.isEmpty() ? 0 : taskRepo.deleteRowByIdAndVersionIn(id, expectedVersions);
+        }
+        if (deleted == 0) {
+            if (expectedVersions != null) {
+                taskRepo.findVersionById(id).ifPresent(current -> Versions.check("Task", id, current,
+                        expectedVersions));
+            }
+            log.warn("Task not found: id={}", id);
+            throw new NotFoundException("Task not found: " + id);
+        }
+        log.info("Task deleted successfully: id={}", id);
+    }
+
+    // Validates a batch item, returning the violation messages (or null when
+    // the item is valid).
+    private String validationError(TaskCreateForProjectRequestDTO item) {
+        if (item == null) {
+            return "task must not be null";
+        }
+        Set<ConstraintViolation<TaskCreateForProjectRequestDTO>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    // Inserts a new task, flushing right away so that the project foreign key
+    // and the title key are checked by this statement.
+    private Task insert(String title, long projectId, Task task) {
+        log.info("Attempting to create task with title='{}' for projectId={}", title, projectId);
+        Task saved;
+        try {
+            projectRepo.incrementTaskChangeCount(List.of(projectId));
+            saved = taskRepo.saveAndFlush(task);
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex, projectId);
+        }
+        log.info("Created task id={} with title='{}' for projectId={}", saved.getId(), title, projectId);
+        return saved;
+    }
+
+    // Applies an update to a task, moving it to the target project by
+    // reference and flushing right away (see insert).
+    private Task applyUpdate(long id, TaskUpdateRequestDTO req, Set<String> expectedVersions) {
         log.info("Updating task with id={}", id);
         Task entity = taskRepo.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Task not found: id={}", id);
                     return new NotFoundException("Task not found: " + id);
                 });
+        Versions.check("Task", id, version(entity), expectedVersions);
+        jsonCache.evict(id);
 
         long targetProjectId = req.projectId();
-        Project targetProject = projectRepo.findById(targetProjectId)
+        countTaskChange(entity.getProject().getId(), targetProjectId);
+        try {
+            TaskMapper.applyUpdate(entity, req, projectRepo.getReferenceById(targetProjectId));
+            taskRepo.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex, targetProjectId);
+        }
+        log.info("Task updated successfully: id={}", id);
+        return entity;
+    }
+
+    // Applies the supplied fields to the task. The project is bound by
+    // reference only when it changes; the flush writes the changed columns
+    // only (nothing at all if no value changed).
+    private Task applyPatch(long id, TaskPatchRequestDTO req, Set<String> expectedVersions) {
+        log.info("Patching task with id={}", id);
+        Task entity = taskRepo.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("Target project not found: id={}", targetProjectId);
-                    return new NotFoundException("Project not found: " + targetProjectId);
+                    log.warn("Task not found: id={}", id);
+                    return new NotFoundException("Task not found: " + id);
                 });
+        Versions.check("Task", id, version(entity), expectedVersions);
+        jsonCache.evict(id);
 
-        if (taskRepo.existsByProject_IdAndTitleIgnoreCaseAndIdNot(targetProjectId, req.title(), id)) {
-            log.warn("Duplicate task title '{}' in projectId={}", req.title(), targetProjectId);
-            throw new BusinessRuleException("Task title already exists in this project");
+        long currentProjectId = entity.getProject().getId();
+        long targetProjectId = req.projectId() != null ? req.projectId().orElseThrow() : currentProjectId;
+        countTaskChange(currentProjectId, targetProjectId);
+        try {
+            TaskMapper.applyPatch(entity, req);
+            if (targetProjectId != currentProjectId) {
+                entity.setProject(projectRepo.getReferenceById(targetProjectId));
+            }
+            taskRepo.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex, targetProjectId);
         }
+        log.info("Task patched successfully: id={}", id);
+        return entity;
+    }
 
-        TaskMapper.applyUpdate(entity, req, targetProject);
-        log.info("Task updated successfully: id={}", id);
-        return TaskMapper.toResponse(entity);
+    // Increments the task change counter of the project a task leaves and of
+    // the one it moves to, before the task row is written. A patch that turns
+    // out to change nothing still counts as a change.
+    private void countTaskChange(long projectId, long targetProjectId) {
+        projectRepo.incrementTaskChangeCount(projectId == targetProjectId ? List.of(projectId)
+                : List.of(projectId, targetProjectId));
     }
 
-    /**
-     * Deletes a task by ID.
-     * 
-     * @param id The ID of the task to delete.
-     * @throws NotFoundException if the task is not found.
-     */
-    @Override
-    public void delete(long id) {
-        log.info("Attempting to delete task with id={}", id);
-        if (!taskRepo.existsById(id)) {
-            log.warn("Task not found: id={}", id);
-            throw new NotFoundException("Task not found: " + id);
+    // Maps a written task to its response. The task is read back (for its
+    // creation date) and project and owner taken from the caches, unless they
+    // are already loaded (e.g. the task kept its project during an update).
+    private TaskResponseDTO toResponse(Task task) {
+        Project project = task.getProject();
+        if (Hibernate.isInitialized(project) && Hibernate.isInitialized(project.getOwner())) {
+            return TaskMapper.toResponse(task);
         }
-        taskRepo.deleteById(id);
-        log.info("Task deleted successfully: id={}", id);
+        return findResponses(List.of(task.getId()), caches::taskProjects).get(0);
+    }
+
+    // Returns the version of a task (see Versions). It is read with one query
+    // when the project or owner is not loaded (the task was moved to another
+    // project).
+    private String version(Task task) {
+        Project project = task.getProject();
+        if (Hibernate.isInitialized(project) && Hibernate.isInitialized(project.getOwner())) {
+            return Versions.of(task.getVersion(), project.getVersion(), project.getOwner().getVersion());
+        }
+        return taskRepo.findVersionById(task.getId()).orElseThrow();
+    }
+
+    // Translates a violation of the project foreign key into a 404 and of the
+    // per-project title key into a 409; any other integrity violation is
+    // rethrown as is.
+    private static RuntimeException translate(DataIntegrityViolationException ex, long projectId) {
+        if (ConstraintViolations.isViolationOf(ex, Task.FK_PROJECT)) {
+            log.warn("Project not found: id={}", projectId);
+            return new NotFoundException("Project not found: " + projectId);
+        }
+        if (ConstraintViolations.isViolationOf(ex, Task.UK_PROJECT_TITLE)) {
+            log.warn("Duplicate task title in projectId={}: {}", projectId, ex.getMostSpecificCause().getMessage());
+            return new BusinessRuleException("Task title already exists in this project");
+        }
+        return ex;
+    }
+
+    // Combines the optional list filters into a single specification.
+    private static Specification<Task> filters(TaskStatus status, TaskPriority priority, Long projectId) {
+        return Specification.<Task>unrestricted()
+                .and(TaskSpecs.hasStatus(status))
+                .and(TaskSpecs.hasPriority(priority))
+                .and(TaskSpecs.hasProjectId(projectId));
+    }
+
+    // Reads a slice (size + 1 IDs, no count query) and its task responses.
+    private Slice<TaskResponseDTO> findSlice(Specification<Task> spec, Pageable pageable, TaskListCache.Key key) {
+        int size = pageable.getPageSize();
+        return toSlice(findListing(key,
+                () -> new Listing(taskRepo.findIds(spec, pageable.getSort(), pageable.getOffset(), size + 1), -1)),
+                pageable);
+    }
+
+    // Builds a slice from a listing of size + 1 IDs.
+    private static Slice<TaskResponseDTO> toSlice(Listed listed, Pageable pageable) {
+        return new SliceImpl<>(listed.content(), pageable, listed.listing().ids().size() > pageable.getPageSize());
+    }
+
+    // Builds a cursor page from a slice: the cursor of the next page points to
+    // its last task.
+    private static CursorPageDTO<TaskResponseDTO> toCursorPage(Slice<TaskResponseDTO> slice, int size) {
+        List<TaskResponseDTO> content = slice.getContent();
+        String nextCursor = slice.hasNext() ? TaskCursor.encode(content.get(content.size() - 1).id()) : null;
+        return CursorPageDTO.of(content, size, slice.hasNext(), nextCursor);
+    }
+
+    // Reads the IDs of a listing and the task responses of (at most size of)
+    // them. For the listings of a project, the listing version (the one of
+    // its ETag, see getListVersion) is read first: the nested project and
+    // owner are checked against it, and IDs and rows are served from the list
+    // cache if they were read at its task change count; concurrent callers
+    // that read the same version share one read.
+    private Listed findListing(TaskListCache.Key key, Supplier<Listing> loader) {
+        Optional<String> version = key.projectId() == null ? Optional.empty()
+                : projectRepo.findTaskListVersionById(key.projectId());
+        if (version.isEmpty()) {
+            Listing listing = loader.get();
+            return new Listed(listing, findResponses(firstIds(listing, key.size()), caches::taskProjects));
+        }
+        String projectVersion = Versions.tail(version.get());
+        Function<Set<Long>, Map<Long, ProjectResponseDTO>> projects =
+                projectIds -> caches.taskProjects(key.projectId(), projectVersion);
+        if (!listCache.enabled()) {
+            Listing listing = loader.get();
+            return new Listed(listing, findResponses(firstIds(listing, key.size()), projects));
+        }
+        long count = Long.parseLong(Versions.head(version.get()));
+        return flights.run("task-list", new ReadKey(key, version.get()), () -> {
+            Listing listing = listCache.get(key, version.get(), loader);
+            List<Long> ids = firstIds(listing, key.size());
+            return new Listed(listing, ids.isEmpty() ? List.of()
+                    : toResponses(ids, listCache.rows(key.projectId(), count, ids, taskRepo::findRowsByIdIn),
+                            projects));
+        });
+    }
+
+    // Returns the last cached listing of a project and its task responses,
+    // with the listing version it was read at, without accessing the
+    // database: empty unless the listing, its rows, the project and its owner
+    // are all cached.
+    private Optional<VersionedDTO<Listed>> findCachedListing(TaskListCache.Key key) {
+        if (key.projectId() == null || !listCache.enabled()) {
+            return Optional.empty();
+        }
+        Optional<VersionedDTO<Listing>> cached = listCache.peek(key);
+        Optional<ProjectResponseDTO> project = caches.cachedTaskProject(key.projectId());
+        if (cached.isEmpty() || project.isEmpty()) {
+            return Optional.empty();
+        }
+        Listing listing = cached.get().value();
+        List<Long> ids = firstIds(listing, key.size());
+        return listCache.peekRows(key.projectId(), ids)
+                .map(rows -> VersionedDTO.of(new Listed(listing,
+                        toResponses(ids, rows, projectIds -> Map.of(key.projectId(), project.get()))),
+                        cached.get().version()));
+    }
+
+    // Returns the form of a title compared by uk_task_project_title: the
+    // lower-cased title, compared exactly (title_norm, see V10), so that the
+    // batch checks and the unique key agree on what a duplicate is.
+    private static String titleKey(String title) {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    // Key of a listing across projects in the last page cache.
+    private static LastPageCache.Key pageKey(TaskStatus status, TaskPriority priority, boolean slice, int page,
+            int size) {
+        return new LastPageCache.Key("tasks?status=" + status + "&priority=" + priority, slice, page, size);
+    }
+
+    // Returns the first size IDs of a listing (slices hold one more).
+    private static List<Long> firstIds(Listing listing, int size) {
+        return listing.ids().size() > size ? listing.ids().subList(0, size) : listing.ids();
+    }
+
+    // Reads the task responses for the given IDs, keeping the order of the
+    // IDs: the task columns with one query, project and owner from the
+    // caches. Tasks (or projects) deleted in between are skipped.
+    private List<TaskResponseDTO> findResponses(List<Long> ids,
+            Function<Set<Long>, Map<Long, ProjectResponseDTO>> projects) {
+        return ids.isEmpty() ? List.of() : toResponses(ids, taskRepo.findRowsByIdIn(ids), projects);
+    }
+
+    // Maps task rows to responses in the order of the IDs, with project and
+    // owner looked up by project ID (from the caches). IDs without a row (or
+    // whose project is gone) are skipped.
+    private List<TaskResponseDTO> toResponses(List<Long> ids, List<TaskRow> found,
+            Function<Set<Long>, Map<Long, ProjectResponseDTO>> projectLookup) {
+        Map<Long, TaskRow> rows = found.stream()
+                .collect(Collectors.toMap(TaskRow::id, Function.identity()));
+        Map<Long, ProjectResponseDTO> projects = projectLookup.apply(rows.values().stream()
+                .map(TaskRow::projectId)
+                .collect(Collectors.toSet()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(row -> row != null && projects.containsKey(row.projectId()))
+                .map(row -> row.toResponse(projects.get(row.projectId())))
+                .toList();
+    }
+
+    // IDs of a listing and the task responses of its page.
+    private record Listed(Listing listing, List<TaskResponseDTO> content) {
+    }
+
+    // Key of a coalesced read: what is read, and the version the caller read
+    // it at.
+    private record ReadKey(Object key, Object version) {
     }
 }
@@ -0,0 +1,83 @@
+package com.jbk.taskboard.service.impl;
+
+import com.jbk.taskboard.exception.PreconditionFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+
+/**
+ * Versions of the resource representations, used as ETags.
+ * A representation embeds its related entities (a task its project and the
+ * project owner, a project its owner), so its version joins the @Version of
+ * every entity it is built from: "task.project.owner", "project.owner" and
+ * "user". Renaming a project therefore changes the version of its tasks.
+ * The repositories build the same format in JPQL (findVersionById).
+ */
+final class Versions {
+
+    private static final Logger log = LoggerFactory.getLogger(Versions.class);
+
+    // Private constructor to prevent instantiation.
+    private Versions() {
+    }
+
+    /**
+     * Joins the versions of the entities a representation is built from.
+     * 
+     * @param versions
+     * @return
+     */
+    static String of(long... versions) {
+        StringBuilder sb = new StringBuilder();
+        for (long v : versions) {
+            if (!sb.isEmpty()) {
+                sb.append('.');
+            }
+            sb.append(v);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the version of the first entity a version joins, e.g. the task
+     * change counter of a task listing version ("changes.project.owner").
+     * 
+     * @param version
+     * @return
+     */
+    static String head(String version) {
+        return version.substring(0, version.indexOf('.'));
+    }
+
+    /**
+     * Returns the versions of the entities a version joins after the first
+     * one, e.g. the project version ("project.owner") of a task listing
+     * version or the owner version ("owner") of a project version.
+     * 
+     * @param version
+     * @return
+     */
+    static String tail(String version) {
+        return version.substring(version.indexOf('.') + 1);
+    }
+
+    /**
+     * Checks an If-Match precondition against the current version.
+     * 
+     * @param resource The resource name, for the error message.
+     * @param id       The resource ID.
+     * @param current  The current version.
+     * @param expected The accepted versions, or null for an unconditional
+     *                 request.
+     * @throws PreconditionFailedException if the current version is not one of
+     *                                     the expected ones.
+     */
+    static void check(String resource, long id, String current, Set<String> expected) {
+        if (expected != null && !expected.contains(current)) {
+            log.warn("{} id={} is at version {}, expected one of {}", resource, id, current, expected);
+            throw new PreconditionFailedException(resource + " " + id + " has been modified (version " + current
+                    + ")");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Exact comparison of the normalized titles and names
+-- V5 generated title_norm and name_norm with the table collation. Under the
+-- default MySQL collation (utf8mb4_0900_ai_ci) the unique keys then ignored
+-- accents as well as case, and LOWER() added nothing, so "Café" and "cafe"
+-- clashed in the database while the services, which lower-case titles in
+-- Java (Locale.ROOT) before checking a batch, saw two different titles.
+-- The columns now use a binary collation: the keys compare the lower-cased
+-- value exactly, whatever the column or table collation, and agree with the
+-- checks of the services (only case is ignored).
+
+ALTER TABLE task
+    MODIFY COLUMN title_norm VARCHAR(150) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin
+        GENERATED ALWAYS AS (LOWER(title)) STORED;
+
+ALTER TABLE project
+    MODIFY COLUMN name_norm VARCHAR(120) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin
+        GENERATED ALWAYS AS (LOWER(name)) STORED;
@@ -0,0 +1,16 @@
+-- Composite indexes for the task list filters (TaskSpecs)
+-- The list filters on any mix of project_id, status and priority with
+-- equality and always sorts by id DESC. Each index below has the equality
+-- columns of one filter shape followed by id, so MySQL can read the rows
+-- already ordered (no filesort) and stop after LIMIT rows.
+-- The list selects only task ids in that step (TaskRepositoryCustom.findIds),
+-- so the indexes also cover the query: the table rows are never read.
+-- Shapes with a single column are served by idx_task_project, idx_task_status
+-- and idx_task_priority: InnoDB appends the primary key (id) to every
+-- secondary index.
+
+CREATE INDEX idx_task_project_status_priority ON task(project_id, status, priority, id);
+CREATE INDEX idx_task_project_status          ON task(project_id, status, id);
+CREATE INDEX idx_task_project_priority        ON task(project_id, priority, id);
+CREATE INDEX idx_task_status_priority         ON task(status, priority, id);
+CREATE INDEX idx_task_priority                ON task(priority, id);
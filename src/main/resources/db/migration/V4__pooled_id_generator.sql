@@ -0,0 +1,21 @@
+-- Pooled ID allocation for app_user, project and task
+-- IDENTITY keys force Hibernate to run every INSERT on its own to read the
+-- generated id, which disables JDBC batching. The entities now take their ids
+-- from this table instead (JPA @TableGenerator, pooled optimizer): each row
+-- holds the upper bound of the last block handed out, and one update reserves
+-- the next 50 ids (allocationSize in the entities).
+-- The AUTO_INCREMENT columns are kept for the seed migrations only; rows
+-- inserted by the application always carry an id from this table.
+
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+-- Start the first block right after the existing rows.
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'app_user', COALESCE(MAX(id), 0) + 50 FROM app_user;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'project', COALESCE(MAX(id), 0) + 50 FROM project;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'task', COALESCE(MAX(id), 0) + 50 FROM task;
@@ -0,0 +1,19 @@
+-- Case-insensitive uniqueness enforced by the database
+-- Task titles are unique within a project, project names within an owner and
+-- user emails globally. The services insert/update optimistically and
+-- translate a violation of these keys into a 409 (see ConstraintViolations)
+-- instead of running an exists query before every write.
+-- Titles and names are compared through a generated lower-cased column, so
+-- the rule does not depend on the column collation and duplicate lookups
+-- (TaskRepository.findExistingTitles) are served by the unique index.
+
+ALTER TABLE task
+    ADD COLUMN title_norm VARCHAR(150) GENERATED ALWAYS AS (LOWER(title)) STORED,
+    ADD CONSTRAINT uk_task_project_title UNIQUE (project_id, title_norm);
+
+ALTER TABLE project
+    ADD COLUMN name_norm VARCHAR(120) GENERATED ALWAYS AS (LOWER(name)) STORED,
+    ADD CONSTRAINT uk_project_owner_name UNIQUE (owner_id, name_norm);
+
+-- The email key created by V1 gets an explicit name
+ALTER TABLE app_user RENAME INDEX email TO uk_app_user_email;
@@ -0,0 +1,15 @@
+-- Optimistic locking
+-- Every write through JPA checks and increments the version of the row
+-- (@Version), so a concurrent update fails instead of silently overwriting
+-- the other one. The bulk task updates increment it as well.
+-- The versions also make up the ETag of the task, project and user
+-- representations (If-None-Match / If-Match on the REST API).
+
+ALTER TABLE app_user
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE project
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE task
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
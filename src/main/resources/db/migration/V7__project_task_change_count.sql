@@ -0,0 +1,9 @@
+-- Task change counter per project
+-- Incremented in the same transaction as every task create, update and
+-- delete (including status changes and bulk updates), before the task rows
+-- are written. Together with the project and owner versions it makes up the
+-- ETag of the project's task listings, so a board that did not change is
+-- answered 304 after a primary key lookup.
+
+ALTER TABLE project
+    ADD COLUMN task_change_count BIGINT NOT NULL DEFAULT 0;
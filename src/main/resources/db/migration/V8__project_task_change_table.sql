@@ -0,0 +1,20 @@
+-- Task change counters in their own table
+-- Projects and users are kept in the Hibernate second-level cache, and
+-- Hibernate empties the cache region of an entity after every bulk statement
+-- on its table. The task change counter (see V7) is incremented by a bulk
+-- statement on every task write, so it moves out of the project table into a
+-- row of its own per project, created together with the project.
+
+CREATE TABLE project_task_change (
+    project_id BIGINT PRIMARY KEY,
+    change_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_project_task_change_project
+        FOREIGN KEY (project_id) REFERENCES project(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+INSERT INTO project_task_change (project_id, change_count)
+SELECT id, task_change_count FROM project;
+
+ALTER TABLE project
+    DROP COLUMN task_change_count;
@@ -0,0 +1,10 @@
+-- Emails stored in lower case
+-- Users are looked up by email through Hibernate's natural ID API, whose
+-- cached resolutions are keyed by the exact value, while the column
+-- collation compares emails ignoring case. The application now lower-cases
+-- emails on write and before a lookup; existing rows are brought in line,
+-- with a new version so that cached representations are refreshed.
+
+UPDATE app_user
+SET email = LOWER(email), version = version + 1
+WHERE CAST(email AS BINARY) <> CAST(LOWER(email) AS BINARY);
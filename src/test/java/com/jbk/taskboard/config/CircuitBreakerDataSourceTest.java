@@ -0,0 +1,109 @@
+package com.jbk.taskboard.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CircuitBreakerDataSource and DatabaseProbe.
+ * Mocks the pool and checks when connection requests reach it, and how the
+ * breaker state follows their outcome.
+ */
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakerDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+    @Mock
+    private Connection con;
+
+    /**
+     * Should refuse connections right away while the breaker is open,
+     * without asking the pool.
+     */
+    @Test
+    void shouldFailFast_whenOpen() {
+        // Arrange
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        breaker.transitionToOpenState();
+        var dataSource = new CircuitBreakerDataSource(pool, breaker);
+
+        // Act + Assert
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("OPEN")
+                .extracting(ex -> ((SQLException) ex).getSQLState()).isEqualTo("08001");
+        verifyNoInteractions(pool);
+    }
+
+    /**
+     * Should open the breaker once enough connection requests failed, then
+     * stop asking the pool.
+     */
+    @Test
+    void shouldOpen_whenConnectionsFail() throws SQLException {
+        // Arrange
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        var dataSource = new CircuitBreakerDataSource(pool, breaker);
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(dataSource::getConnection).hasMessageContaining("not available");
+        }
+        assertThatThrownBy(dataSource::getConnection).hasMessageContaining("circuit breaker is OPEN");
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        verify(pool, times(2)).getConnection();
+    }
+
+    /**
+     * Should close the breaker from the background probe once the open state
+     * has lasted long enough and the database answers again.
+     */
+    @Test
+    void shouldClose_whenProbeSucceeds() throws Exception {
+        // Arrange
+        CircuitBreaker breaker = breaker(Duration.ofMillis(1));
+        var dataSource = new CircuitBreakerDataSource(pool, breaker);
+        var probe = new DatabaseProbe(dataSource, breaker, Duration.ofSeconds(5), 0.5);
+        when(pool.getConnection()).thenReturn(con);
+        when(con.isValid(anyInt())).thenReturn(true);
+        breaker.transitionToOpenState();
+        Thread.sleep(20);
+
+        // Act
+        probe.probe();
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        verify(con).close();
+        assertThat(probe.nextDelayMillis()).isBetween(2500L, 7500L);
+    }
+
+    // Creates a breaker opening after 2 failed connection requests out of 2,
+    // and letting 1 trial through after the given wait.
+    private static CircuitBreaker breaker(Duration waitInOpenState) {
+        return CircuitBreaker.of("database", CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build());
+    }
+}
@@ -0,0 +1,137 @@
+package com.jbk.taskboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource and the replica selectors.
+ * Mocks the primary and replica pools and checks which one hands out the
+ * connection of a read-only transaction.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private HikariDataSource pool1;
+    @Mock
+    private HikariDataSource pool2;
+    @Mock
+    private Connection primaryCon;
+    @Mock
+    private Connection con1;
+    @Mock
+    private Connection con2;
+
+    /**
+     * Tests round robin selection.
+     * Verifies that connections alternate between the replicas in sync.
+     */
+    @Test
+    void shouldAlternateReplicas_whenRoundRobin() throws SQLException {
+        // Arrange
+        when(pool1.getConnection()).thenReturn(con1);
+        when(pool2.getConnection()).thenReturn(con2);
+        var routing = new ReplicaRoutingDataSource(primary, List.of(inSync("r1", pool1), inSync("r2", pool2)),
+                new RoundRobinReplicaSelector());
+
+        // Act + Assert
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(con1, con2, con1);
+        verifyNoInteractions(primary);
+    }
+
+    /**
+     * Tests routing with lagging replicas.
+     * Verifies that replicas out of sync are skipped and the primary is used
+     * when none is left.
+     */
+    @Test
+    void shouldSkipReplicasOutOfSync_andFallBackToPrimary() throws SQLException {
+        // Arrange
+        when(pool2.getConnection()).thenReturn(con2);
+        when(primary.getConnection()).thenReturn(primaryCon);
+        Replica lagging = new Replica("r1", pool1);
+        Replica healthy = inSync("r2", pool2);
+        var routing = new ReplicaRoutingDataSource(primary, List.of(lagging, healthy),
+                new RoundRobinReplicaSelector());
+
+        // Act
+        Connection first = routing.getConnection();
+        healthy.setInSync(false);
+        Connection second = routing.getConnection();
+
+        // Assert
+        assertThat(first).isSameAs(con2);
+        assertThat(second).isSameAs(primaryCon);
+        verify(pool1, never()).getConnection();
+    }
+
+    /**
+     * Tests routing to an unreachable replica.
+     * Verifies that the primary serves the connection and the replica is
+     * marked out of sync.
+     */
+    @Test
+    void shouldFallBackToPrimary_whenReplicaUnavailable() throws SQLException {
+        // Arrange
+        when(pool1.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        when(primary.getConnection()).thenReturn(primaryCon);
+        Replica replica = inSync("r1", pool1);
+        var routing = new ReplicaRoutingDataSource(primary, List.of(replica), new RoundRobinReplicaSelector());
+
+        // Act
+        Connection con = routing.getConnection();
+
+        // Assert
+        assertThat(con).isSameAs(primaryCon);
+        assertThat(replica.isInSync()).isFalse();
+    }
+
+    /**
+     * Tests least-loaded selection.
+     * Verifies that the replica with the fewest active connections is picked.
+     */
+    @Test
+    void shouldPickReplicaWithFewestActiveConnections_whenLeastLoaded() {
+        // Arrange
+        HikariPoolMXBean busyPool = pool(7);
+        HikariPoolMXBean idlePool = pool(2);
+        when(pool1.getHikariPoolMXBean()).thenReturn(busyPool);
+        when(pool2.getHikariPoolMXBean()).thenReturn(idlePool);
+        Replica busy = inSync("r1", pool1);
+        Replica idle = inSync("r2", pool2);
+
+        // Act
+        Replica selected = new LeastLoadedReplicaSelector().select(List.of(busy, idle));
+
+        // Assert
+        assertThat(selected).isSameAs(idle);
+    }
+
+    private static Replica inSync(String name, HikariDataSource pool) {
+        Replica replica = new Replica(name, pool);
+        replica.setInSync(true);
+        return replica;
+    }
+
+    private static HikariPoolMXBean pool(int active) {
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(pool.getActiveConnections()).thenReturn(active);
+        return pool;
+    }
+}
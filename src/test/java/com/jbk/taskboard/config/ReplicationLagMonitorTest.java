@@ -0,0 +1,134 @@
+package com.jbk.taskboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReplicationLagMonitor.
+ * Mocks the replica connection and the SHOW REPLICA STATUS result to check
+ * when a replica is considered in sync (max lag of 5 seconds).
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicationLagMonitorTest {
+
+    @Mock
+    private HikariDataSource pool;
+    @Mock
+    private Connection con;
+    @Mock
+    private Statement st;
+    @Mock
+    private ResultSet rs;
+    @Mock
+    private ResultSetMetaData meta;
+
+    private Replica replica;
+    private ReplicationLagMonitor monitor;
+
+    @BeforeEach
+    void init() throws SQLException {
+        replica = new Replica("r1", pool);
+        monitor = new ReplicationLagMonitor(List.of(replica), Duration.ofSeconds(5), Duration.ofSeconds(1), false);
+        when(pool.getConnection()).thenReturn(con);
+        when(con.createStatement()).thenReturn(st);
+        when(st.executeQuery("SHOW REPLICA STATUS")).thenReturn(rs);
+        when(rs.getMetaData()).thenReturn(meta);
+        when(meta.getColumnCount()).thenReturn(2);
+        when(meta.getColumnLabel(1)).thenReturn("Slave_IO_State");
+        when(meta.getColumnLabel(2)).thenReturn("Seconds_Behind_Master");
+    }
+
+    /**
+     * Tests the lag guard against the replication delay.
+     * Verifies that only a known delay within the maximum keeps the replica
+     * in sync (an empty delay means replication is stopped).
+     */
+    @ParameterizedTest(name = "secondsBehind={0} -> inSync={1}")
+    @CsvSource({ "0, true", "5, true", "6, false", ", false" })
+    void shouldMarkReplicaInSync_whenLagWithinMax(Long secondsBehind, boolean expected) throws SQLException {
+        // Arrange
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong(2)).thenReturn(secondsBehind == null ? 0L : secondsBehind);
+        when(rs.wasNull()).thenReturn(secondsBehind == null);
+
+        // Act
+        monitor.checkAll();
+
+        // Assert
+        assertThat(replica.isInSync()).isEqualTo(expected);
+        verify(con).close();
+    }
+
+    /**
+     * Tests a server without replication configured.
+     * Verifies that it is marked out of sync.
+     */
+    @Test
+    void shouldMarkReplicaOutOfSync_whenServerDoesNotReplicate() throws SQLException {
+        // Arrange
+        replica.setInSync(true);
+        when(rs.next()).thenReturn(false);
+
+        // Act
+        monitor.checkAll();
+
+        // Assert
+        assertThat(replica.isInSync()).isFalse();
+    }
+
+    /**
+     * Tests a server without replication configured when unreplicated
+     * servers are allowed.
+     * Verifies that it is considered in sync.
+     */
+    @Test
+    void shouldMarkReplicaInSync_whenServerDoesNotReplicateAndAllowed() throws SQLException {
+        // Arrange
+        monitor = new ReplicationLagMonitor(List.of(replica), Duration.ofSeconds(5), Duration.ofSeconds(1), true);
+        when(rs.next()).thenReturn(false);
+
+        // Act
+        monitor.checkAll();
+
+        // Assert
+        assertThat(replica.isInSync()).isTrue();
+    }
+
+    /**
+     * Tests an unreachable replica.
+     * Verifies that it is marked out of sync.
+     */
+    @Test
+    void shouldMarkReplicaOutOfSync_whenCheckFails() throws SQLException {
+        // Arrange
+        replica.setInSync(true);
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+
+        // Act
+        monitor.checkAll();
+
+        // Assert
+        assertThat(replica.isInSync()).isFalse();
+    }
+}
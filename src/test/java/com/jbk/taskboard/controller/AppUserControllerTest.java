@@ -1,10 +1,13 @@
 package com.jbk.taskboard.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jbk.taskboard.config.JacksonConfig;
+import com.jbk.taskboard.dto.common.VersionedDTO;
 import com.jbk.taskboard.dto.user.*;
 import com.jbk.taskboard.exception.ApiExceptionHandler;
 import com.jbk.taskboard.exception.BusinessRuleException;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
 import com.jbk.taskboard.service.AppUserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -16,10 +19,15 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.containsString;
@@ -37,7 +45,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(controllers = AppUserController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import(ApiExceptionHandler.class)
+@Import({ ApiExceptionHandler.class, JacksonConfig.class })
 class AppUserControllerTest {
 
     @Autowired
@@ -104,18 +112,59 @@ class AppUserControllerTest {
     @SuppressWarnings("null")
     @Test
     void shouldGetUserById() throws Exception {
-        given(service.getById(5L)).willReturn(AppUserResponseDTO.of(5L, "Bob", "bob@mail.com"));
+        given(service.getById(5L))
+                .willReturn(VersionedDTO.of(AppUserResponseDTO.of(5L, "Bob", "bob@mail.com"), "3"));
 
         mvc.perform(get("/api/users/5"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(5))
                 .andExpect(jsonPath("$.name").value("Bob"))
-                .andExpect(jsonPath("$.email").value("bob@mail.com"));
+                .andExpect(jsonPath("$.email").value("bob@mail.com"))
+                .andExpect(header().string("ETag", "\"3\""));
 
         verify(service).getById(5L);
     }
 
+    /**
+     * --- GET /api/users/{id} with a current If-None-Match (304) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn304_whenIfNoneMatchIsCurrent() throws Exception {
+        given(service.getVersion(5L)).willReturn("3");
+
+        mvc.perform(get("/api/users/5").header("If-None-Match", "*"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(service).getVersion(5L);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- GET /api/users/{id} while the database is unavailable, with the
+     * cached version as If-None-Match (304 stale) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn304_whenDatabaseUnavailableAndCachedUserMatches() throws Exception {
+        given(service.getVersion(5L)).willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.getCachedById(5L)).willReturn(Optional.of(
+                VersionedDTO.of(AppUserResponseDTO.of(5L, "Alice", "alice@mail.com"), "3")));
+
+        mvc.perform(get("/api/users/5").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""));
+
+        verify(service).getVersion(5L);
+        verify(service).getCachedById(5L);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
     /**
      * --- GET /api/users/{id} (404) ---
      * 
@@ -161,6 +210,53 @@ class AppUserControllerTest {
         verify(service).list(0, 2);
     }
 
+    /**
+     * --- GET /api/users?withTotal=false (200) as a slice ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldListUsersSlice_whenWithTotalFalse() throws Exception {
+        List<AppUserResponseDTO> content = List.of(AppUserResponseDTO.of(2L, "A", "a@mail.com"));
+        Slice<AppUserResponseDTO> slice = new SliceImpl<>(content, PageRequest.of(0, 1), true);
+        given(service.listSlice(0, 1)).willReturn(slice);
+
+        mvc.perform(get("/api/users").param("size", "1").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(service).listSlice(0, 1);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- GET /api/users while the database is unavailable (200 stale, last
+     * page read) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldServeLastUserPage_whenDatabaseUnavailable() throws Exception {
+        List<AppUserResponseDTO> content = List.of(AppUserResponseDTO.of(2L, "A", "a@mail.com"));
+        given(service.list(0, 1)).willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.listCached(0, 1)).willReturn(Optional.of(new PageImpl<>(content, PageRequest.of(0, 1), 4)));
+
+        mvc.perform(get("/api/users").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.totalElements").value(4));
+
+        verify(service).list(0, 1);
+        verify(service).listCached(0, 1);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
     /**
      * --- PUT /api/users/{id} (200) ---
      * 
@@ -171,7 +267,7 @@ class AppUserControllerTest {
     void shouldUpdateUser() throws Exception {
         var req = new AppUserRequestDTO("Carol", "carol@mail.com");
         var res = AppUserResponseDTO.of(7L, "Carol", "carol@mail.com");
-        given(service.update(eq(7L), any(AppUserRequestDTO.class))).willReturn(res);
+        given(service.update(eq(7L), any(AppUserRequestDTO.class), isNull())).willReturn(VersionedDTO.of(res, "3"));
 
         mvc.perform(put("/api/users/7")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -180,7 +276,47 @@ class AppUserControllerTest {
                 .andExpect(jsonPath("$.id").value(7))
                 .andExpect(jsonPath("$.name").value("Carol"));
 
-        verify(service).update(eq(7L), any(AppUserRequestDTO.class));
+        verify(service).update(eq(7L), any(AppUserRequestDTO.class), isNull());
+    }
+
+    /**
+     * --- PATCH /api/users/{id} (200) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldPatchUser_withSuppliedFieldsOnly() throws Exception {
+        given(service.patch(eq(7L), any(AppUserPatchRequestDTO.class), isNull()))
+                .willReturn(VersionedDTO.of(AppUserResponseDTO.of(7L, "Carol", "carol@new.com"), "3"));
+
+        mvc.perform(patch("/api/users/7")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"email":"carol@new.com"}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("carol@new.com"));
+
+        verify(service).patch(7L, new AppUserPatchRequestDTO(null, Optional.of("carol@new.com")), null);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- PATCH /api/users/{id} (400) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn400_whenPatchEmailInvalid() throws Exception {
+        mvc.perform(patch("/api/users/7")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"email":"not-an-email"}
+                        """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.messages.email").value("Email is not valid"));
+
+        Mockito.verifyNoInteractions(service);
     }
 
     /**
@@ -192,7 +328,7 @@ class AppUserControllerTest {
     @Test
     void shouldReturn404_whenUpdateUserMissing() throws Exception {
         var req = new AppUserRequestDTO("X", "x@mail.com");
-        given(service.update(eq(77L), any(AppUserRequestDTO.class)))
+        given(service.update(eq(77L), any(AppUserRequestDTO.class), isNull()))
                 .willThrow(new NotFoundException("User not found: 77"));
 
         mvc.perform(put("/api/users/77")
@@ -202,7 +338,7 @@ class AppUserControllerTest {
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.message", containsString("User not found")));
 
-        verify(service).update(eq(77L), any(AppUserRequestDTO.class));
+        verify(service).update(eq(77L), any(AppUserRequestDTO.class), isNull());
     }
 
     /**
@@ -214,7 +350,7 @@ class AppUserControllerTest {
     @Test
     void shouldReturn409_whenUpdateEmailConflict() throws Exception {
         var req = new AppUserRequestDTO("D", "dup@mail.com");
-        given(service.update(eq(12L), any(AppUserRequestDTO.class)))
+        given(service.update(eq(12L), any(AppUserRequestDTO.class), isNull()))
                 .willThrow(new BusinessRuleException("Email already in use: dup@mail.com"));
 
         mvc.perform(put("/api/users/12")
@@ -225,7 +361,7 @@ class AppUserControllerTest {
                 .andExpect(jsonPath("$.error").value("Conflict"))
                 .andExpect(jsonPath("$.message", containsString("Email already in use")));
 
-        verify(service).update(eq(12L), any(AppUserRequestDTO.class));
+        verify(service).update(eq(12L), any(AppUserRequestDTO.class), isNull());
     }
 
     /**
@@ -238,7 +374,7 @@ class AppUserControllerTest {
         mvc.perform(delete("/api/users/20"))
                 .andExpect(status().isNoContent());
 
-        verify(service).delete(20L);
+        verify(service).delete(20L, null);
     }
 
     /**
@@ -249,13 +385,13 @@ class AppUserControllerTest {
     @SuppressWarnings("null")
     @Test
     void shouldReturn404_whenDeleteUserMissing() throws Exception {
-        Mockito.doThrow(new NotFoundException("User not found: 30")).when(service).delete(30L);
+        Mockito.doThrow(new NotFoundException("User not found: 30")).when(service).delete(30L, null);
 
         mvc.perform(delete("/api/users/30"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.message", containsString("User not found")));
 
-        verify(service).delete(30L);
+        verify(service).delete(30L, null);
     }
 }
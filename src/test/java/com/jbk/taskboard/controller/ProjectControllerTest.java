@@ -1,11 +1,14 @@
 package com.jbk.taskboard.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jbk.taskboard.config.JacksonConfig;
+import com.jbk.taskboard.dto.common.VersionedDTO;
 import com.jbk.taskboard.dto.user.AppUserResponseDTO;
 import com.jbk.taskboard.dto.project.*;
 import com.jbk.taskboard.exception.ApiExceptionHandler;
 import com.jbk.taskboard.exception.BusinessRuleException;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
 import com.jbk.taskboard.service.ProjectService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -17,10 +20,15 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
@@ -38,7 +46,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(controllers = ProjectController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import(ApiExceptionHandler.class)
+@Import({ ApiExceptionHandler.class, JacksonConfig.class })
 class ProjectControllerTest {
 
     @Autowired
@@ -77,6 +85,30 @@ class ProjectControllerTest {
         verify(service).create(any(ProjectRequestDTO.class));
     }
 
+    /**
+     * --- POST /api/projects with Prefer: return=minimal (201, no body) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldCreateProject_andReturn201WithoutBody_whenReturnMinimal() throws Exception {
+        var req = new ProjectRequestDTO("Alpha", "Desc", 1L);
+
+        given(service.createMinimal(any(ProjectRequestDTO.class))).willReturn(10L);
+
+        mvc.perform(post("/api/projects")
+                .header("Prefer", "return=minimal")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", endsWith("/api/projects/10")))
+                .andExpect(header().string("Preference-Applied", "return=minimal"))
+                .andExpect(content().string(""));
+
+        verify(service).createMinimal(any(ProjectRequestDTO.class));
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
     /**
      * --- POST /api/projects (400) ---
      * 
@@ -107,18 +139,60 @@ class ProjectControllerTest {
     @Test
     void shouldGetProjectById() throws Exception {
         var owner = AppUserResponseDTO.of(2L, "Bob", "bob@mail.com");
-        given(service.getById(5L)).willReturn(ProjectResponseDTO.of(5L, "P", "D", owner));
+        given(service.getById(5L)).willReturn(VersionedDTO.of(ProjectResponseDTO.of(5L, "P", "D", owner), "3"));
 
         mvc.perform(get("/api/projects/5"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(5))
                 .andExpect(jsonPath("$.name").value("P"))
-                .andExpect(jsonPath("$.owner.id").value(2));
+                .andExpect(jsonPath("$.owner.id").value(2))
+                .andExpect(header().string("ETag", "\"3\""));
 
         verify(service).getById(5L);
     }
 
+    /**
+     * --- GET /api/projects/{id} with a current If-None-Match (304) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn304_whenIfNoneMatchIsCurrent() throws Exception {
+        given(service.getVersion(5L)).willReturn("2.0");
+
+        mvc.perform(get("/api/projects/5").header("If-None-Match", "\"2.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2.0\""));
+
+        verify(service).getVersion(5L);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- GET /api/projects/{id} while the database is unavailable ---
+     * The cached project is served stale; a project that is not cached
+     * answers 503.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldServeCachedProject_whenDatabaseUnavailable() throws Exception {
+        var owner = AppUserResponseDTO.of(1L, "Alice", "alice@mail.com");
+        given(service.getById(anyLong())).willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.getCachedById(5L)).willReturn(Optional.of(
+                VersionedDTO.of(ProjectResponseDTO.of(5L, "Alpha", "Desc", owner), "2.0")));
+        given(service.getCachedById(6L)).willReturn(Optional.empty());
+
+        mvc.perform(get("/api/projects/5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2.0\""))
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(jsonPath("$.name").value("Alpha"));
+        mvc.perform(get("/api/projects/6"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     /**
      * --- GET /api/projects/{id} (404) ---
      * 
@@ -165,6 +239,50 @@ class ProjectControllerTest {
         verify(service).list(0, 2);
     }
 
+    /**
+     * --- GET /api/projects?withTotal=false (200) as a slice ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldListProjectsSlice_whenWithTotalFalse() throws Exception {
+        var owner = AppUserResponseDTO.of(3L, "Carol", "carol@mail.com");
+        List<ProjectResponseDTO> content = List.of(ProjectResponseDTO.of(3L, "A", "a", owner));
+        Slice<ProjectResponseDTO> slice = new SliceImpl<>(content, PageRequest.of(0, 1), false);
+        given(service.listSlice(0, 1)).willReturn(slice);
+
+        mvc.perform(get("/api/projects").param("size", "1").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(service).listSlice(0, 1);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- GET /api/projects?withTotal=false while the database is unavailable
+     * and the slice was never read (503) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldReturn503_whenDatabaseUnavailableAndNoProjectSliceCached() throws Exception {
+        given(service.listSlice(0, 1)).willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.listSliceCached(0, 1)).willReturn(Optional.empty());
+
+        mvc.perform(get("/api/projects").param("size", "1").param("withTotal", "false"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist("Warning"));
+
+        verify(service).listSlice(0, 1);
+        verify(service).listSliceCached(0, 1);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
     /**
      * --- PUT /api/projects/{id} (200) ---
      * 
@@ -177,7 +295,7 @@ class ProjectControllerTest {
         var owner = AppUserResponseDTO.of(7L, "Frank", "frank@mail.com");
         var res = ProjectResponseDTO.of(12L, "New", "D2", owner);
 
-        given(service.update(eq(12L), any(ProjectRequestDTO.class))).willReturn(res);
+        given(service.update(eq(12L), any(ProjectRequestDTO.class), isNull())).willReturn(VersionedDTO.of(res, "3"));
 
         mvc.perform(put("/api/projects/12")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -187,7 +305,50 @@ class ProjectControllerTest {
                 .andExpect(jsonPath("$.name").value("New"))
                 .andExpect(jsonPath("$.owner.id").value(7));
 
-        verify(service).update(eq(12L), any(ProjectRequestDTO.class));
+        verify(service).update(eq(12L), any(ProjectRequestDTO.class), isNull());
+    }
+
+    /**
+     * --- PATCH /api/projects/{id} (200) ---
+     * Only the supplied fields reach the service: absent ones are null and
+     * explicit nulls are empty.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldPatchProject_withSuppliedFieldsOnly() throws Exception {
+        var owner = AppUserResponseDTO.of(7L, "Frank", "frank@mail.com");
+        given(service.patch(eq(12L), any(ProjectPatchRequestDTO.class), isNull()))
+                .willReturn(VersionedDTO.of(ProjectResponseDTO.of(12L, "Renamed", null, owner), "3"));
+
+        mvc.perform(patch("/api/projects/12")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"name":"Renamed","description":null}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"));
+
+        verify(service).patch(12L, new ProjectPatchRequestDTO(Optional.of("Renamed"), Optional.empty(), null), null);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- PATCH /api/projects/{id} (400) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn400_whenPatchClearsOwner() throws Exception {
+        mvc.perform(patch("/api/projects/12")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"ownerId":null}
+                        """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.messages.ownerId").value("OwnerId cannot be null"));
+
+        Mockito.verifyNoInteractions(service);
     }
 
     /**
@@ -199,7 +360,7 @@ class ProjectControllerTest {
     @Test
     void shouldReturn404_whenUpdateProjectMissing() throws Exception {
         var req = new ProjectRequestDTO("X", "D", 1L);
-        given(service.update(eq(77L), any(ProjectRequestDTO.class)))
+        given(service.update(eq(77L), any(ProjectRequestDTO.class), isNull()))
                 .willThrow(new NotFoundException("Project not found: 77"));
 
         mvc.perform(put("/api/projects/77")
@@ -209,7 +370,7 @@ class ProjectControllerTest {
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.message", containsString("Project not found")));
 
-        verify(service).update(eq(77L), any(ProjectRequestDTO.class));
+        verify(service).update(eq(77L), any(ProjectRequestDTO.class), isNull());
     }
 
     /**
@@ -221,7 +382,7 @@ class ProjectControllerTest {
     @Test
     void shouldReturn409_whenDuplicateNamePerOwner() throws Exception {
         var req = new ProjectRequestDTO("Alpha", "D", 10L);
-        given(service.update(eq(15L), any(ProjectRequestDTO.class)))
+        given(service.update(eq(15L), any(ProjectRequestDTO.class), isNull()))
                 .willThrow(new BusinessRuleException("Project name already exists for this owner"));
 
         mvc.perform(put("/api/projects/15")
@@ -232,7 +393,7 @@ class ProjectControllerTest {
                 .andExpect(jsonPath("$.error").value("Conflict"))
                 .andExpect(jsonPath("$.message", containsString("already exists")));
 
-        verify(service).update(eq(15L), any(ProjectRequestDTO.class));
+        verify(service).update(eq(15L), any(ProjectRequestDTO.class), isNull());
     }
 
     /**
@@ -245,7 +406,22 @@ class ProjectControllerTest {
         mvc.perform(delete("/api/projects/20"))
                 .andExpect(status().isNoContent());
 
-        verify(service).delete(20L);
+        verify(service).delete(20L, null);
+    }
+
+    /**
+     * --- DELETE /api/projects/{id} with a stale If-Match (412) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn412_whenDeleteIfMatchIsStale() throws Exception {
+        Mockito.doThrow(new PreconditionFailedException("Project 20 has been modified (version 2.0)"))
+                .when(service).delete(20L, Set.of("1.0"));
+
+        mvc.perform(delete("/api/projects/20").header("If-Match", "\"1.0\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
     }
 
     /**
@@ -256,13 +432,13 @@ class ProjectControllerTest {
     @SuppressWarnings("null")
     @Test
     void shouldReturn404_whenDeleteProjectMissing() throws Exception {
-        Mockito.doThrow(new NotFoundException("Project not found: 30")).when(service).delete(30L);
+        Mockito.doThrow(new NotFoundException("Project not found: 30")).when(service).delete(30L, null);
 
         mvc.perform(delete("/api/projects/30"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.message", containsString("Project not found")));
 
-        verify(service).delete(30L);
+        verify(service).delete(30L, null);
     }
 }
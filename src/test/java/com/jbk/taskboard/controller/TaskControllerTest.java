@@ -1,6 +1,10 @@
 package com.jbk.taskboard.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jbk.taskboard.config.JacksonConfig;
+import com.jbk.taskboard.dto.common.CursorPageDTO;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
 import com.jbk.taskboard.dto.task.*;
 import com.jbk.taskboard.dto.project.ProjectResponseDTO;
 import com.jbk.taskboard.dto.user.AppUserResponseDTO;
@@ -9,6 +13,8 @@ import com.jbk.taskboard.entity.TaskStatus;
 import com.jbk.taskboard.exception.ApiExceptionHandler;
 import com.jbk.taskboard.exception.BusinessRuleException;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
+import com.jbk.taskboard.service.TaskImportService;
 import com.jbk.taskboard.service.TaskService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -20,18 +26,30 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,7 +61,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(controllers = TaskController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import(ApiExceptionHandler.class)
+@Import({ ApiExceptionHandler.class, JacksonConfig.class })
 class TaskControllerTest {
 
     @Autowired
@@ -54,6 +72,9 @@ class TaskControllerTest {
     @SuppressWarnings("removal")
     @MockBean
     private TaskService service;
+    @SuppressWarnings("removal")
+    @MockBean
+    private TaskImportService importService;
 
     // Helper methods to create DTOs for tests
     private AppUserResponseDTO owner(long id) {
@@ -72,6 +93,19 @@ class TaskControllerTest {
                 project(projectId, ownerId));
     }
 
+    // Encodes a task as the service does, with a gzip form if asked.
+    private EncodedJsonDTO json(TaskResponseDTO task, boolean gzip) throws IOException {
+        byte[] json = om.writeValueAsBytes(task);
+        if (!gzip) {
+            return EncodedJsonDTO.of(json, null);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        }
+        return EncodedJsonDTO.of(json, out.toByteArray());
+    }
+
     /**
      * --- POST /api/tasks (201) ---
      * 
@@ -98,6 +132,30 @@ class TaskControllerTest {
         verify(service).create(any(TaskCreateRequestDTO.class));
     }
 
+    /**
+     * --- POST /api/tasks with Prefer: return=minimal (201, no body) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldCreateTask_andReturn201WithoutBody_whenReturnMinimal() throws Exception {
+        var req = new TaskCreateRequestDTO("T1", "d", null, null, null, 10L);
+
+        given(service.createMinimal(any(TaskCreateRequestDTO.class))).willReturn(100L);
+
+        mvc.perform(post("/api/tasks")
+                .header("Prefer", "return=minimal")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", endsWith("/api/tasks/100")))
+                .andExpect(header().string("Preference-Applied", "return=minimal"))
+                .andExpect(content().string(""));
+
+        verify(service).createMinimal(any(TaskCreateRequestDTO.class));
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
     /**
      * --- POST /api/tasks (400) ---
      * 
@@ -166,6 +224,193 @@ class TaskControllerTest {
         verify(service).createForProject(eq(30L), any(TaskCreateForProjectRequestDTO.class));
     }
 
+    /**
+     * --- POST /api/projects/{projectId}/tasks:batch (201) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldCreateTaskBatch_andReturn201WhenAllCreated() throws Exception {
+        var req = List.of(new TaskCreateForProjectRequestDTO("T1", null, null, null, null),
+                new TaskCreateForProjectRequestDTO("T2", null, null, null, null));
+        var res = TaskBatchResponseDTO.of(List.of(
+                TaskBatchItemResultDTO.created(0, task(101L, "T1", TaskStatus.TODO, TaskPriority.MEDIUM, 20L, 2L)),
+                TaskBatchItemResultDTO.created(1, task(102L, "T2", TaskStatus.TODO, TaskPriority.MEDIUM, 20L, 2L))));
+        given(service.createBatchForProject(eq(20L), anyList())).willReturn(res);
+
+        mvc.perform(post("/api/projects/20/tasks:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[1].task.id").value(102))
+                .andExpect(jsonPath("$.results[1].error").doesNotExist());
+
+        verify(service).createBatchForProject(eq(20L), anyList());
+    }
+
+    /**
+     * --- POST /api/projects/{projectId}/tasks:batch (207) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldCreateTaskBatch_andReturn207WhenSomeItemsFail() throws Exception {
+        var req = List.of(new TaskCreateForProjectRequestDTO("T1", null, null, null, null),
+                new TaskCreateForProjectRequestDTO("", null, null, null, null));
+        var res = TaskBatchResponseDTO.of(List.of(
+                TaskBatchItemResultDTO.created(0, task(101L, "T1", TaskStatus.TODO, TaskPriority.MEDIUM, 20L, 2L)),
+                TaskBatchItemResultDTO.failed(1, 400, "title is required")));
+        given(service.createBatchForProject(eq(20L), anyList())).willReturn(res);
+
+        mvc.perform(post("/api/projects/20/tasks:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].error").value("title is required"))
+                .andExpect(jsonPath("$.results[1].task").doesNotExist());
+
+        verify(service).createBatchForProject(eq(20L), anyList());
+    }
+
+    /**
+     * --- POST /api/projects/{projectId}/tasks:batch (400) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn400_whenTaskBatchEmpty() throws Exception {
+        mvc.perform(post("/api/projects/20/tasks:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * --- POST /api/projects/{projectId}/tasks:import NDJSON (201) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldImportNdjson_andReturn201WhenAllImported() throws Exception {
+        given(importService.importForProject(eq(20L), any(), eq(TaskImportService.Format.NDJSON)))
+                .willReturn(TaskImportResponseDTO.of(2, 2, 0, List.of()));
+
+        mvc.perform(post("/api/projects/20/tasks:import")
+                .contentType("application/x-ndjson")
+                .content("{\"title\":\"T1\"}\n{\"title\":\"T2\"}\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.errors", hasSize(0)));
+
+        verify(importService).importForProject(eq(20L), any(), eq(TaskImportService.Format.NDJSON));
+    }
+
+    /**
+     * --- POST /api/projects/{projectId}/tasks:import NDJSON progress (200) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldStreamImportProgress_whenNdjsonAccepted() throws Exception {
+        given(importService.importForProject(eq(20L), any(), eq(TaskImportService.Format.CSV), any()))
+                .willAnswer(inv -> {
+                    Consumer<TaskImportProgressDTO> onBatch = inv.getArgument(3);
+                    onBatch.accept(TaskImportProgressDTO.of(500, 500, 0));
+                    onBatch.accept(TaskImportProgressDTO.of(700, 699, 1));
+                    return TaskImportResponseDTO.of(700, 699, 1,
+                            List.of(TaskImportErrorDTO.of(650, 409, "Task title already exists in this project")));
+                });
+
+        String body = mvc.perform(post("/api/projects/20/tasks:import")
+                .contentType("text/csv")
+                .accept("application/x-ndjson")
+                .content("title\nT1\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(om.readValue(lines[0], TaskImportProgressDTO.class)).isEqualTo(TaskImportProgressDTO.of(500, 500, 0));
+        assertThat(om.readValue(lines[1], TaskImportProgressDTO.class)).isEqualTo(TaskImportProgressDTO.of(700, 699, 1));
+        TaskImportResponseDTO res = om.readValue(lines[2], TaskImportResponseDTO.class);
+        assertThat(res.failed()).isEqualTo(1);
+        assertThat(res.errors()).extracting(TaskImportErrorDTO::row).containsExactly(650L);
+    }
+
+    /**
+     * --- POST /api/projects/{projectId}/tasks:import NDJSON progress (404) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldReturn404_whenStreamedImportProjectMissing() throws Exception {
+        given(importService.importForProject(eq(99L), any(), eq(TaskImportService.Format.NDJSON), any()))
+                .willThrow(new NotFoundException("Project not found: 99"));
+
+        mvc.perform(post("/api/projects/99/tasks:import")
+                .contentType("application/x-ndjson")
+                .accept("application/x-ndjson")
+                .content("{\"title\":\"T1\"}\n"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message", containsString("Project not found")));
+    }
+
+    /**
+     * --- POST /api/projects/{projectId}/tasks:import CSV (207) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldImportCsv_andReturn207WhenSomeRowsFail() throws Exception {
+        given(importService.importForProject(eq(20L), any(), eq(TaskImportService.Format.CSV)))
+                .willReturn(TaskImportResponseDTO.of(2, 1, 1,
+                        List.of(TaskImportErrorDTO.of(2, 409, "Task title already exists in this project"))));
+
+        mvc.perform(post("/api/projects/20/tasks:import")
+                .contentType("text/csv; charset=UTF-8")
+                .content("title\nT1\nT2\n"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].status").value(409));
+
+        verify(importService).importForProject(eq(20L), any(), eq(TaskImportService.Format.CSV));
+    }
+
+    /**
+     * --- POST /api/projects/{projectId}/tasks:import (415) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldReturn415_whenImportContentTypeUnsupported() throws Exception {
+        mvc.perform(post("/api/projects/20/tasks:import")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("T1"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(importService, Mockito.never()).importForProject(anyLong(), any(), any());
+    }
+
     /**
      * --- GET /api/tasks/{id} (200) ---
      * 
@@ -174,17 +419,122 @@ class TaskControllerTest {
     @SuppressWarnings("null")
     @Test
     void shouldGetTaskById() throws Exception {
-        given(service.getById(5L)).willReturn(task(5L, "X", TaskStatus.DOING, TaskPriority.HIGH, 40L, 3L));
+        given(service.getJsonById(5L)).willReturn(VersionedDTO.of(
+                json(task(5L, "X", TaskStatus.DOING, TaskPriority.HIGH, 40L, 3L), false), "3"));
 
-        mvc.perform(get("/api/tasks/5"))
+        mvc.perform(get("/api/tasks/5").header("Accept-Encoding", "gzip"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(5))
                 .andExpect(jsonPath("$.title").value("X"))
                 .andExpect(jsonPath("$.status").value("DOING"))
-                .andExpect(jsonPath("$.project.id").value(40));
+                .andExpect(jsonPath("$.project.id").value(40))
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+
+        verify(service).getJsonById(5L);
+    }
+
+    /**
+     * --- GET /api/tasks/{id} with a gzip form (200) ---
+     * The gzip bytes are sent, with a weak ETag, only when the client accepts
+     * gzip.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldGetTaskById_gzipOnlyWhenAccepted() throws Exception {
+        EncodedJsonDTO json = json(task(5L, "X", TaskStatus.DOING, TaskPriority.HIGH, 40L, 3L), true);
+        given(service.getJsonById(5L)).willReturn(VersionedDTO.of(json, "3.1.2"));
+
+        mvc.perform(get("/api/tasks/5").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "W/\"3.1.2\""))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andExpect(content().bytes(json.gzip()));
+        mvc.perform(get("/api/tasks/5").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"3.1.2\""))
+                .andExpect(content().bytes(json.json()));
+    }
+
+    /**
+     * --- GET /api/tasks/{id} with a current If-None-Match (304) ---
+     * Only the version is read: the task is neither fetched nor serialized.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn304_whenIfNoneMatchIsCurrent() throws Exception {
+        given(service.getVersion(5L)).willReturn("3.1.2");
+
+        mvc.perform(get("/api/tasks/5").header("If-None-Match", "\"1.0.0\", W/\"3.1.2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3.1.2\""))
+                .andExpect(content().string(""));
 
-        verify(service).getById(5L);
+        verify(service).getVersion(5L);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- GET /api/tasks/{id} with a stale If-None-Match (200) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturnTask_whenIfNoneMatchIsStale() throws Exception {
+        given(service.getVersion(5L)).willReturn("4.1.2");
+        given(service.getJsonById(5L)).willReturn(VersionedDTO.of(
+                json(task(5L, "X", TaskStatus.DONE, TaskPriority.HIGH, 40L, 3L), false), "4.1.2"));
+
+        mvc.perform(get("/api/tasks/5").header("If-None-Match", "\"3.1.2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4.1.2\""))
+                .andExpect(jsonPath("$.status").value("DONE"));
+    }
+
+    /**
+     * --- GET /api/tasks/{id} while the database is unavailable (200 stale) ---
+     * The cached task is served with its cached version and a Warning.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldServeCachedTask_whenDatabaseUnavailable() throws Exception {
+        given(service.getJsonById(5L)).willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.getCachedJsonById(5L)).willReturn(Optional.of(VersionedDTO.of(
+                json(task(5L, "X", TaskStatus.DOING, TaskPriority.HIGH, 40L, 3L), false), "3.1.2")));
+
+        mvc.perform(get("/api/tasks/5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3.1.2\""))
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(jsonPath("$.id").value(5));
+    }
+
+    /**
+     * --- GET /api/tasks/{id} while the database is unavailable, with the
+     * cached version as If-None-Match (304 stale) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn304_whenDatabaseUnavailableAndCachedTaskMatches() throws Exception {
+        given(service.getVersion(5L)).willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.getCachedJsonById(5L)).willReturn(Optional.of(VersionedDTO.of(
+                json(task(5L, "X", TaskStatus.DOING, TaskPriority.HIGH, 40L, 3L), false), "3.1.2")));
+
+        mvc.perform(get("/api/tasks/5").header("If-None-Match", "\"3.1.2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3.1.2\""))
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""));
+
+        verify(service).getVersion(5L);
+        verify(service).getCachedJsonById(5L);
+        Mockito.verifyNoMoreInteractions(service);
     }
 
     /**
@@ -195,7 +545,7 @@ class TaskControllerTest {
     @SuppressWarnings("null")
     @Test
     void shouldReturn404_whenTaskNotFound() throws Exception {
-        given(service.getById(99L)).willThrow(new NotFoundException("Task not found: 99"));
+        given(service.getJsonById(99L)).willThrow(new NotFoundException("Task not found: 99"));
 
         mvc.perform(get("/api/tasks/99"))
                 .andExpect(status().isNotFound())
@@ -203,7 +553,7 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.error").value("Not Found"))
                 .andExpect(jsonPath("$.message", containsString("Task not found")));
 
-        verify(service).getById(99L);
+        verify(service).getJsonById(99L);
     }
 
     /**
@@ -218,6 +568,7 @@ class TaskControllerTest {
                 task(3L, "A", TaskStatus.DONE, TaskPriority.LOW, 40L, 4L),
                 task(1L, "B", TaskStatus.DONE, TaskPriority.LOW, 40L, 4L));
         Page<TaskResponseDTO> page = new PageImpl<>(content, PageRequest.of(0, 2), 2);
+        given(service.getListVersion(40L)).willReturn(Optional.of("7.0.0"));
         given(service.list(0, 2, TaskStatus.DONE, TaskPriority.LOW, 40L)).willReturn(page);
 
         mvc.perform(get("/api/tasks")
@@ -232,11 +583,183 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.content[1].id").value(1))
                 .andExpect(jsonPath("$.number").value(0))
                 .andExpect(jsonPath("$.size").value(2))
-                .andExpect(jsonPath("$.totalElements").value(2));
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(header().string("ETag", "\"7.0.0\""));
 
         verify(service).list(0, 2, TaskStatus.DONE, TaskPriority.LOW, 40L);
     }
 
+    /**
+     * --- GET /api/tasks?withTotal=false (200) as a slice ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldListTasksSlice_whenWithTotalFalse() throws Exception {
+        var content = List.of(task(3L, "A", TaskStatus.DONE, TaskPriority.LOW, 40L, 4L));
+        Slice<TaskResponseDTO> slice = new SliceImpl<>(content, PageRequest.of(0, 1), true);
+        given(service.listSlice(0, 1, TaskStatus.DONE, null, 40L)).willReturn(slice);
+
+        mvc.perform(get("/api/tasks")
+                .param("size", "1")
+                .param("status", "DONE")
+                .param("projectId", "40")
+                .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(service).getListVersion(40L);
+        verify(service).listSlice(0, 1, TaskStatus.DONE, null, 40L);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- GET /api/tasks?projectId= with a current If-None-Match (304) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn304_whenProjectTaskListNotModified() throws Exception {
+        given(service.getListVersion(40L)).willReturn(Optional.of("7.0.0"));
+
+        mvc.perform(get("/api/tasks")
+                .param("projectId", "40")
+                .param("status", "DONE")
+                .header("If-None-Match", "\"7.0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"7.0.0\""));
+
+        verify(service).getListVersion(40L);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- GET /api/tasks?projectId= while the database is unavailable ---
+     * The cached listing of the project is served stale; a listing across
+     * projects whose page was never read answers 503.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldServeCachedProjectTaskList_whenDatabaseUnavailable() throws Exception {
+        Page<TaskResponseDTO> page = new PageImpl<>(
+                List.of(task(3L, "A", TaskStatus.DONE, TaskPriority.LOW, 40L, 4L)), PageRequest.of(0, 20), 1);
+        given(service.getListVersion(40L)).willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.listCached(0, 20, TaskStatus.DONE, null, 40L))
+                .willReturn(Optional.of(VersionedDTO.of(page, "7.0.0")));
+        given(service.list(0, 20, TaskStatus.DONE, null, null))
+                .willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.listCached(0, 20, TaskStatus.DONE, null, null)).willReturn(Optional.empty());
+
+        mvc.perform(get("/api/tasks").param("projectId", "40").param("status", "DONE"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7.0.0\""))
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(jsonPath("$.content[0].id").value(3));
+        mvc.perform(get("/api/tasks").param("status", "DONE"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    /**
+     * --- GET /api/tasks while the database is unavailable ---
+     * The last page read of a listing across projects is served stale,
+     * without ETag (it has no version).
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldServeLastPageOfAllTasks_whenDatabaseUnavailable() throws Exception {
+        Page<TaskResponseDTO> page = new PageImpl<>(
+                List.of(task(3L, "A", TaskStatus.DONE, TaskPriority.LOW, 40L, 4L)), PageRequest.of(0, 20), 1);
+        given(service.list(0, 20, TaskStatus.DONE, null, null))
+                .willThrow(new CannotCreateTransactionException("Database down"));
+        given(service.listCached(0, 20, TaskStatus.DONE, null, null))
+                .willReturn(Optional.of(VersionedDTO.of(page, null)));
+
+        mvc.perform(get("/api/tasks").param("status", "DONE").header("If-None-Match", "\"7.0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(jsonPath("$.content[0].id").value(3));
+    }
+
+    /**
+     * --- GET /api/tasks?after= (200) with keyset pagination ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldListTasksAfterCursor() throws Exception {
+        var content = List.of(task(9L, "A", TaskStatus.DOING, TaskPriority.HIGH, 40L, 4L));
+        given(service.listAfter("abc", 1, TaskStatus.DOING, null, 40L))
+                .willReturn(CursorPageDTO.of(content, 1, true, "next"));
+
+        mvc.perform(get("/api/tasks")
+                .param("after", "abc")
+                .param("size", "1")
+                .param("status", "DOING")
+                .param("projectId", "40"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(9))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(service).listAfter("abc", 1, TaskStatus.DOING, null, 40L);
+    }
+
+    /**
+     * --- GET /api/tasks/export (200) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldExportTasksAsNdjson() throws Exception {
+        willAnswer(inv -> {
+            Consumer<TaskResponseDTO> sink = inv.getArgument(3);
+            sink.accept(task(1L, "T1", TaskStatus.TODO, TaskPriority.HIGH, 10L, 2L));
+            sink.accept(task(2L, "T2", TaskStatus.TODO, TaskPriority.HIGH, 10L, 2L));
+            return 2L;
+        }).given(service).export(eq(TaskStatus.TODO), eq(TaskPriority.HIGH), isNull(), any());
+
+        String body = mvc.perform(get("/api/tasks/export")
+                .param("status", "TODO")
+                .param("priority", "HIGH"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(2).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(om.readValue(lines[0], TaskResponseDTO.class).id()).isEqualTo(1L);
+        assertThat(om.readValue(lines[1], TaskResponseDTO.class).title()).isEqualTo("T2");
+    }
+
+    /**
+     * --- GET /api/projects/{projectId}/tasks/export (404) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldReturn404_whenExportProjectMissing() throws Exception {
+        given(service.exportForProject(eq(99L), isNull(), isNull(), any()))
+                .willThrow(new NotFoundException("Project not found: 99"));
+
+        mvc.perform(get("/api/projects/99/tasks/export"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message", containsString("Project not found")));
+    }
+
     /**
      * --- PUT /api/tasks/{id} (200) ---
      * 
@@ -249,7 +772,7 @@ class TaskControllerTest {
                 51L);
         var res = task(12L, "New", TaskStatus.DOING, TaskPriority.HIGH, 51L, 5L);
 
-        given(service.update(eq(12L), any(TaskUpdateRequestDTO.class))).willReturn(res);
+        given(service.update(eq(12L), any(TaskUpdateRequestDTO.class), isNull())).willReturn(VersionedDTO.of(res, "3"));
 
         mvc.perform(put("/api/tasks/12")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -261,7 +784,48 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.priority").value("HIGH"))
                 .andExpect(jsonPath("$.project.id").value(51));
 
-        verify(service).update(eq(12L), any(TaskUpdateRequestDTO.class));
+        verify(service).update(eq(12L), any(TaskUpdateRequestDTO.class), isNull());
+    }
+
+    /**
+     * --- PUT /api/tasks/{id} with Prefer: return=minimal (204) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldUpdateTask_andReturn204_whenReturnMinimal() throws Exception {
+        var req = new TaskUpdateRequestDTO("New", "nd", TaskStatus.DOING, TaskPriority.HIGH, null, 51L);
+
+        mvc.perform(put("/api/tasks/12")
+                .header("Prefer", "respond-async, return=minimal; foo=bar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+
+        verify(service).updateMinimal(eq(12L), any(TaskUpdateRequestDTO.class), isNull());
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- PUT /api/tasks/{id} with If-Match (200) ---
+     * The strong tags reach the service (weak tags never match) and the
+     * response carries the new ETag.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldPassIfMatchVersions_whenUpdateTask() throws Exception {
+        var req = new TaskUpdateRequestDTO("New", "nd", TaskStatus.DOING, TaskPriority.HIGH, null, 51L);
+        given(service.update(eq(12L), any(TaskUpdateRequestDTO.class), eq(Set.of("1.0.0"))))
+                .willReturn(VersionedDTO.of(task(12L, "New", TaskStatus.DOING, TaskPriority.HIGH, 51L, 5L), "2.0.0"));
+
+        mvc.perform(put("/api/tasks/12")
+                .header("If-Match", "\"1.0.0\", W/\"0.0.0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2.0.0\""));
     }
 
     /**
@@ -273,7 +837,7 @@ class TaskControllerTest {
     @Test
     void shouldReturn404_whenUpdateTaskMissing() throws Exception {
         var req = new TaskUpdateRequestDTO("X", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null, 1L);
-        given(service.update(eq(77L), any(TaskUpdateRequestDTO.class)))
+        given(service.update(eq(77L), any(TaskUpdateRequestDTO.class), isNull()))
                 .willThrow(new NotFoundException("Task not found: 77"));
 
         mvc.perform(put("/api/tasks/77")
@@ -283,7 +847,7 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.message", containsString("Task not found")));
 
-        verify(service).update(eq(77L), any(TaskUpdateRequestDTO.class));
+        verify(service).update(eq(77L), any(TaskUpdateRequestDTO.class), isNull());
     }
 
     /**
@@ -295,7 +859,7 @@ class TaskControllerTest {
     @Test
     void shouldReturn409_whenUpdateDuplicateTitleInProject() throws Exception {
         var req = new TaskUpdateRequestDTO("Clash", "d", TaskStatus.DOING, TaskPriority.HIGH, null, 80L);
-        given(service.update(eq(15L), any(TaskUpdateRequestDTO.class)))
+        given(service.update(eq(15L), any(TaskUpdateRequestDTO.class), isNull()))
                 .willThrow(new BusinessRuleException("Task title already exists in this project"));
 
         mvc.perform(put("/api/tasks/15")
@@ -306,7 +870,194 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.error").value("Conflict"))
                 .andExpect(jsonPath("$.message", containsString("already exists")));
 
-        verify(service).update(eq(15L), any(TaskUpdateRequestDTO.class));
+        verify(service).update(eq(15L), any(TaskUpdateRequestDTO.class), isNull());
+    }
+
+    /**
+     * --- PATCH /api/tasks/{id} (200) ---
+     * Only the supplied fields reach the service: absent ones are null and
+     * explicit nulls are empty.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldPatchTask_withSuppliedFieldsOnly() throws Exception {
+        given(service.patch(eq(12L), any(TaskPatchRequestDTO.class), isNull()))
+                .willReturn(VersionedDTO.of(task(12L, "T", TaskStatus.DONE, TaskPriority.HIGH, 51L, 7L), "3"));
+
+        mvc.perform(patch("/api/tasks/12")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"status":"DONE","dueDate":null}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(12))
+                .andExpect(jsonPath("$.status").value("DONE"));
+
+        verify(service).patch(12L, new TaskPatchRequestDTO(null, null, Optional.of(TaskStatus.DONE), null,
+                Optional.empty(), null), null);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- PATCH /api/tasks/{id} with Prefer: return=minimal (204) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldPatchTask_andReturn204_whenReturnMinimal() throws Exception {
+        mvc.perform(patch("/api/tasks/12")
+                .header("Prefer", "return=minimal")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"priority":"LOW"}
+                        """))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+
+        verify(service).patchMinimal(eq(12L), any(TaskPatchRequestDTO.class), isNull());
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- PATCH /api/tasks/{id} with a stale If-Match (412) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn412_whenPatchIfMatchIsStale() throws Exception {
+        given(service.patch(eq(12L), any(TaskPatchRequestDTO.class), eq(Set.of("1.0.0"))))
+                .willThrow(new PreconditionFailedException("Task 12 has been modified (version 2.0.0)"));
+
+        mvc.perform(patch("/api/tasks/12")
+                .header("If-Match", "\"1.0.0\"")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"status":"DONE"}
+                        """))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.message", containsString("has been modified")));
+    }
+
+    /**
+     * --- PATCH /api/tasks/{id} (400) ---
+     * Required fields cannot be cleared and supplied values are validated.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn400_whenPatchClearsTitleOrTitleTooLong() throws Exception {
+        mvc.perform(patch("/api/tasks/12")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {"title":null,"description":"%s"}
+                        """.formatted("x".repeat(1001))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Validation errors"))
+                .andExpect(jsonPath("$.messages.title").value("Title cannot be blank"))
+                .andExpect(jsonPath("$.messages.description").exists());
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * --- POST /api/tasks/{id}/status (200) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldChangeTaskStatus_andReturnMinimalBody() throws Exception {
+        var req = new TaskStatusChangeRequestDTO(TaskStatus.DONE, TaskStatus.DOING);
+        given(service.changeStatus(12L, req)).willReturn(TaskStatusResponseDTO.of(12L, TaskStatus.DONE));
+
+        mvc.perform(post("/api/tasks/12/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"id":12,"status":"DONE"}
+                        """, JsonCompareMode.STRICT));
+
+        verify(service).changeStatus(12L, req);
+        Mockito.verifyNoMoreInteractions(service);
+    }
+
+    /**
+     * --- POST /api/tasks/{id}/status (400) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn400_whenChangeStatusWithoutStatus() throws Exception {
+        mvc.perform(post("/api/tasks/12/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"expectedStatus":"TODO"}
+                        """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.messages.status").value("Status is required"));
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * --- POST /api/tasks/{id}/status (409) ---
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn409_whenTaskStatusNotExpected() throws Exception {
+        var req = new TaskStatusChangeRequestDTO(TaskStatus.DONE, TaskStatus.DOING);
+        given(service.changeStatus(12L, req))
+                .willThrow(new BusinessRuleException("Task status is TODO, expected DOING"));
+
+        mvc.perform(post("/api/tasks/12/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Task status is TODO, expected DOING"));
+    }
+
+    /**
+     * --- POST /api/tasks:bulkUpdate (200) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldBulkUpdateTasks() throws Exception {
+        var req = new TaskBulkUpdateRequestDTO(null, new TaskFilterDTO(TaskStatus.DOING, null, 2L),
+                TaskStatus.DONE, null);
+        given(service.bulkUpdate(req)).willReturn(TaskBulkUpdateResponseDTO.of(37));
+
+        mvc.perform(post("/api/tasks:bulkUpdate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(37));
+
+        verify(service).bulkUpdate(req);
+    }
+
+    /**
+     * --- POST /api/tasks:bulkUpdate (400) ---
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldReturn400_whenBulkUpdateIdsInvalid() throws Exception {
+        var req = new TaskBulkUpdateRequestDTO(List.of(1L, -5L), null, TaskStatus.DONE, null);
+
+        mvc.perform(post("/api/tasks:bulkUpdate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(req)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(service, Mockito.never()).bulkUpdate(any());
     }
 
     /**
@@ -319,7 +1070,24 @@ class TaskControllerTest {
         mvc.perform(delete("/api/tasks/20"))
                 .andExpect(status().isNoContent());
 
-        verify(service).delete(20L);
+        verify(service).delete(20L, null);
+    }
+
+    /**
+     * --- DELETE /api/tasks/{id} with If-Match (204) ---
+     * "If-Match: *" puts no condition on the version.
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldDeleteTask_withIfMatch() throws Exception {
+        mvc.perform(delete("/api/tasks/20").header("If-Match", "\"4.0.1\""))
+                .andExpect(status().isNoContent());
+        mvc.perform(delete("/api/tasks/21").header("If-Match", "*"))
+                .andExpect(status().isNoContent());
+
+        verify(service).delete(20L, Set.of("4.0.1"));
+        verify(service).delete(21L, null);
     }
 
     /**
@@ -330,13 +1098,13 @@ class TaskControllerTest {
     @SuppressWarnings("null")
     @Test
     void shouldReturn404_whenDeleteTaskMissing() throws Exception {
-        Mockito.doThrow(new NotFoundException("Task not found: 30")).when(service).delete(30L);
+        Mockito.doThrow(new NotFoundException("Task not found: 30")).when(service).delete(30L, null);
 
         mvc.perform(delete("/api/tasks/30"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.message", containsString("Task not found")));
 
-        verify(service).delete(30L);
+        verify(service).delete(30L, null);
     }
 }
@@ -234,6 +234,20 @@ class ApiExceptionHandlerTest {
                 .andExpect(jsonPath("$.message", containsString("Unsupported media type")));
     }
 
+    /**
+     * 503: CannotCreateTransactionException (database unavailable)
+     * 
+     * @throws Exception
+     */
+    @Test
+    void shouldReturn503_whenDatabaseUnavailable() throws Exception {
+        mvc.perform(get("/dummy/db-unavailable"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.error").value("Service Unavailable"))
+                .andExpect(jsonPath("$.message").value("Database unavailable, please retry"));
+    }
+
     /**
      * 500: Generic Exception
      * 
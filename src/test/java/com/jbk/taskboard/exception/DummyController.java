@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Positive;
 import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -134,6 +135,16 @@ public class DummyController {
         throw new DataIntegrityViolationException("violation");
     }
 
+    /**
+     * Throw CannotCreateTransactionException
+     * 
+     * @return
+     */
+    @GetMapping("/db-unavailable")
+    public String dbUnavailable() {
+        throw new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+    }
+
     /**
      * Throw generic RuntimeException
      * 
@@ -0,0 +1,131 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.testutil.PersistedGraph;
+import com.jbk.taskboard.testutil.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Statement-count tests for deletes by ID (requires the MySQL test database).
+ * Each deleteRowById must run exactly one statement, whether or not the row
+ * exists, and report the number of deleted rows; child rows are removed by
+ * the ON DELETE CASCADE foreign keys, not by extra statements.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session.events.auto="
+        + "com.jbk.taskboard.testutil.StatementCounter")
+@ActiveProfiles("test")
+class DeleteStatementCountTest {
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private AppUserRepository userRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    /**
+     * Should delete an existing task with one statement and report one row.
+     */
+    @Test
+    void shouldDeleteTaskWithOneStatement() {
+        // Arrange
+        long id = persistTask(persistProject(persistUser("delete-task@test.com"))).getId();
+        em.flush();
+        em.clear();
+        StatementCounter.reset();
+
+        // Act
+        int deleted = taskRepo.deleteRowById(id);
+
+        // Assert
+        assertThat(deleted).isEqualTo(1);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(taskRepo.existsById(id)).isFalse();
+    }
+
+    /**
+     * Should delete a project and its tasks with one statement.
+     */
+    @Test
+    void shouldDeleteProjectWithOneStatement() {
+        // Arrange
+        Project project = persistProject(persistUser("delete-project@test.com"));
+        long taskId = persistTask(project).getId();
+        em.flush();
+        em.clear();
+        StatementCounter.reset();
+
+        // Act
+        int deleted = projectRepo.deleteRowById(project.getId());
+
+        // Assert
+        assertThat(deleted).isEqualTo(1);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(taskRepo.existsById(taskId)).isFalse();
+    }
+
+    /**
+     * Should delete a user (and their projects) with one statement.
+     */
+    @Test
+    void shouldDeleteUserWithOneStatement() {
+        // Arrange
+        AppUser user = persistUser("delete-user@test.com");
+        long projectId = persistProject(user).getId();
+        em.flush();
+        em.clear();
+        StatementCounter.reset();
+
+        // Act
+        int deleted = userRepo.deleteRowById(user.getId());
+
+        // Assert
+        assertThat(deleted).isEqualTo(1);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(projectRepo.existsById(projectId)).isFalse();
+    }
+
+    /**
+     * Should report zero rows for a missing ID, still with one statement.
+     */
+    @Test
+    void shouldReportZeroRows_whenMissing() {
+        // Arrange
+        StatementCounter.reset();
+
+        // Act
+        int tasks = taskRepo.deleteRowById(Long.MAX_VALUE);
+        int projects = projectRepo.deleteRowById(Long.MAX_VALUE);
+        int users = userRepo.deleteRowById(Long.MAX_VALUE);
+
+        // Assert
+        assertThat(tasks + projects + users).isZero();
+        assertThat(StatementCounter.count()).isEqualTo(3);
+    }
+
+    private AppUser persistUser(String email) {
+        return PersistedGraph.user(em, "Delete test", email);
+    }
+
+    private Project persistProject(AppUser owner) {
+        return PersistedGraph.project(em, "Delete test project", owner);
+    }
+
+    private Task persistTask(Project project) {
+        return PersistedGraph.task(em, "Delete test task", TaskStatus.TODO, project);
+    }
+}
@@ -0,0 +1,97 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.testutil.PersistedGraph;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Column-minimal update tests (requires the MySQL test database).
+ * Entities are mapped with @DynamicUpdate, so a flush writes only the columns
+ * whose value changed; the unique keys and foreign keys on the other columns
+ * are not re-checked, and a patch that changes nothing writes nothing.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.jbk.taskboard.repository.DynamicUpdateTest$UpdateRecorder")
+@ActiveProfiles("test")
+class DynamicUpdateTest {
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private long taskId;
+
+    @BeforeEach
+    void init() {
+        taskId = PersistedGraph.ownedTask(em, "Dynamic update", TaskStatus.TODO).getId();
+        em.flush();
+        em.clear();
+        UpdateRecorder.updates.clear();
+    }
+
+    /**
+     * Should write only the status column when only the status changes.
+     */
+    @Test
+    void shouldUpdateChangedColumnOnly() {
+        // Arrange
+        Task task = taskRepo.findById(taskId).orElseThrow();
+
+        // Act
+        task.setStatus(TaskStatus.DONE);
+        task.setTitle("Dynamic update task");
+        taskRepo.flush();
+
+        // Assert
+        assertThat(UpdateRecorder.updates).singleElement().asString()
+                .contains("status")
+                .doesNotContain("title", "project_id", "priority", "description");
+    }
+
+    /**
+     * Should not write anything when no value changes.
+     */
+    @Test
+    void shouldSkipUpdate_whenNothingChanged() {
+        // Arrange
+        Task task = taskRepo.findById(taskId).orElseThrow();
+
+        // Act
+        task.setPriority(TaskPriority.MEDIUM);
+        taskRepo.flush();
+
+        // Assert
+        assertThat(UpdateRecorder.updates).isEmpty();
+    }
+
+    /**
+     * Hibernate statement inspector that records the UPDATE statements.
+     */
+    public static class UpdateRecorder implements StatementInspector {
+
+        static final List<String> updates = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase().startsWith("update task")) {
+                updates.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.config.EntityCacheConfig;
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Second-level cache tests (requires the MySQL test database).
+ * Reads the seeded users, projects and tasks with the regions of
+ * EntityCacheConfig. Runs outside a test transaction: a read-write region
+ * only serves an entry to transactions started after it was cached, so each
+ * read uses its own persistence context and transaction.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ EntityCacheConfig.class, EntityCacheTest.Metrics.class })
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private AppUserRepository userRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Statistics statistics;
+    private long projectId;
+    private long taskId;
+    private String email;
+
+    @BeforeEach
+    void init() {
+        inSession(em -> {
+            Task task = em.createQuery("select t from Task t join fetch t.project p join fetch p.owner order by t.id",
+                    Task.class).setMaxResults(1).getSingleResult();
+            taskId = task.getId();
+            projectId = task.getProject().getId();
+            email = task.getProject().getOwner().getEmail();
+        });
+        emf.getCache().evictAll();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Should serve findById from the cache once the project was loaded.
+     */
+    @Test
+    void shouldFindProjectById_fromCache() {
+        // Arrange
+        projectRepo.findById(projectId);
+
+        // Act
+        Project found = projectRepo.findById(projectId).orElseThrow();
+
+        // Assert
+        assertThat(found.getId()).isEqualTo(projectId);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Project.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", Project.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    /**
+     * Should initialize the project proxy of a task (as TaskMapper does) from
+     * the cache.
+     */
+    @Test
+    void shouldInitializeProjectProxy_fromCache() {
+        // Arrange
+        projectRepo.findById(projectId);
+        long queries = statistics.getPrepareStatementCount();
+
+        // Act
+        String name = inSession(em -> {
+            Task task = em.find(Task.class, taskId);
+            Hibernate.initialize(task.getProject());
+            return task.getProject().getName();
+        });
+
+        // Assert
+        assertThat(name).isNotBlank();
+        assertThat(statistics.getPrepareStatementCount() - queries).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Project.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    /**
+     * Should resolve an email to its user from the cache on the second lookup.
+     */
+    @Test
+    void shouldFindUserByEmail_fromCache() {
+        // Arrange
+        userRepo.findByEmail(email);
+        long queries = statistics.getPrepareStatementCount();
+
+        // Act
+        AppUser found = userRepo.findByEmail(email).orElseThrow();
+
+        // Assert
+        assertThat(found.getEmail()).isEqualTo(email);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(queries);
+        assertThat(statistics.getNaturalIdStatistics(AppUser.class.getName()).getCacheHitCount()).isPositive();
+        assertThat(userRepo.findByEmail("missing-" + email)).isEmpty();
+    }
+
+    /**
+     * Should resolve an email in any case to the same cached resolution.
+     */
+    @Test
+    void shouldFindUserByEmail_inAnyCase() {
+        // Arrange
+        userRepo.findByEmail(email);
+        long queries = statistics.getPrepareStatementCount();
+
+        // Act
+        AppUser found = userRepo.findByEmail(email.toUpperCase()).orElseThrow();
+
+        // Assert
+        assertThat(found.getEmail()).isEqualTo(email);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(queries);
+    }
+
+    /**
+     * Should keep the cached projects when a task change counter is
+     * incremented (a bulk statement on its own table).
+     */
+    @Test
+    void shouldKeepCachedProject_whenTaskChangeCountIncremented() {
+        // Arrange
+        projectRepo.findById(projectId);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        // Act
+        boolean cached = Boolean.TRUE.equals(tx.execute(status -> {
+            projectRepo.incrementTaskChangeCount(List.of(projectId));
+            status.setRollbackOnly();
+            return emf.getCache().contains(Project.class, projectId);
+        }));
+
+        // Assert
+        assertThat(cached).isTrue();
+        assertThat(emf.getCache().contains(Project.class, projectId)).isTrue();
+    }
+
+    // Runs work in a new persistence context and transaction.
+    private <T> T inSession(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+
+    // Runs work returning nothing in a new persistence context and transaction.
+    private void inSession(Consumer<EntityManager> work) {
+        inSession(em -> {
+            work.accept(em);
+            return null;
+        });
+    }
+
+    // Registry of the region metrics (no actuator in the JPA test slice).
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
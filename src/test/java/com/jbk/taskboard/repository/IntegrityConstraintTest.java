@@ -0,0 +1,144 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.exception.ConstraintViolations;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the database constraints the services rely on instead of lookups
+ * (requires the MySQL test database): the case-insensitive, accent-sensitive
+ * unique keys added in V5 (exact since V10) and the foreign keys of associations bound by reference.
+ * Checks that the database rejects the writes, and that the violation is
+ * reported with the constraint name the services translate
+ * (ConstraintViolations).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class IntegrityConstraintTest {
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private AppUserRepository userRepo;
+
+    /**
+     * Should reject a task title that differs only in case within a project.
+     */
+    @Test
+    void shouldRejectDuplicateTaskTitleIgnoringCase() {
+        // Arrange
+        Project project = projectRepo.findAll().get(0);
+        taskRepo.saveAndFlush(task("Unique key task", project));
+
+        // Act + Assert
+        assertThatThrownBy(() -> taskRepo.saveAndFlush(task("UNIQUE KEY TASK", project)))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class, ex -> assertThat(
+                        ConstraintViolations.isViolationOf(ex, Task.UK_PROJECT_TITLE)).isTrue());
+    }
+
+    /**
+     * Should find existing titles through the generated lower-cased column.
+     */
+    @Test
+    void shouldFindExistingTitlesByNormalizedTitle() {
+        // Arrange
+        Project project = projectRepo.findAll().get(0);
+        taskRepo.saveAndFlush(task("Normalized Title", project));
+
+        // Act
+        List<String> existing = taskRepo.findExistingTitles(project.getId(), List.of("normalized title", "other"));
+
+        // Assert
+        assertThat(existing).containsExactly("normalized title");
+    }
+
+    /**
+     * Should accept task titles that differ only by an accent, and tell them
+     * apart in duplicate lookups (the same rule as the lower-cased titles of
+     * the services).
+     */
+    @Test
+    void shouldAcceptTaskTitlesDifferingByAccent() {
+        // Arrange
+        Project project = projectRepo.findAll().get(0);
+        taskRepo.saveAndFlush(task("Café", project));
+
+        // Act
+        taskRepo.saveAndFlush(task("cafe", project));
+        List<String> existing = taskRepo.findExistingTitles(project.getId(), List.of("café", "cafe", "cafè"));
+
+        // Assert
+        assertThat(existing).containsExactlyInAnyOrder("café", "cafe");
+    }
+
+    /**
+     * Should reject a project name that differs only in case for an owner.
+     */
+    @Test
+    void shouldRejectDuplicateProjectNameIgnoringCase() {
+        // Arrange
+        Project existing = projectRepo.findAll().get(0);
+        Project clash = new Project();
+        clash.setName(existing.getName().toUpperCase());
+        clash.setOwner(existing.getOwner());
+
+        // Act + Assert
+        assertThatThrownBy(() -> projectRepo.saveAndFlush(clash))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class, ex -> assertThat(
+                        ConstraintViolations.isViolationOf(ex, Project.UK_OWNER_NAME)).isTrue());
+    }
+
+    /**
+     * Should reject a task bound by reference to a missing project.
+     */
+    @Test
+    void shouldRejectTaskForMissingProject() {
+        // Arrange
+        Project missing = projectRepo.getReferenceById(Long.MAX_VALUE);
+
+        // Act + Assert
+        assertThatThrownBy(() -> taskRepo.saveAndFlush(task("Orphan task", missing)))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class, ex -> assertThat(
+                        ConstraintViolations.isViolationOf(ex, Task.FK_PROJECT)).isTrue());
+    }
+
+    /**
+     * Should reject a project bound by reference to a missing owner.
+     */
+    @Test
+    void shouldRejectProjectForMissingOwner() {
+        // Arrange
+        Project project = new Project();
+        project.setName("Orphan project");
+        project.setOwner(userRepo.getReferenceById(Long.MAX_VALUE));
+
+        // Act + Assert
+        assertThatThrownBy(() -> projectRepo.saveAndFlush(project))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class, ex -> assertThat(
+                        ConstraintViolations.isViolationOf(ex, Project.FK_OWNER)).isTrue());
+    }
+
+    private static Task task(String title, Project project) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setStatus(TaskStatus.TODO);
+        t.setPriority(TaskPriority.MEDIUM);
+        t.setProject(project);
+        return t;
+    }
+}
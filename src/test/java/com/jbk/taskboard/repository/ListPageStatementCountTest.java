@@ -0,0 +1,113 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.testutil.PersistedGraph;
+import com.jbk.taskboard.testutil.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Statement-count tests for the user and project pages (requires the MySQL
+ * test database).
+ * A page must read its rows and its total with one statement; only a page
+ * past the end, which has no row to carry the total, runs a second one.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session.events.auto="
+        + "com.jbk.taskboard.testutil.StatementCounter")
+@ActiveProfiles("test")
+class ListPageStatementCountTest {
+
+    private static final Sort BY_ID_DESC = Sort.by(Sort.Direction.DESC, "id");
+
+    @Autowired
+    private AppUserRepository userRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @BeforeEach
+    void init() {
+        for (int i = 0; i < 3; i++) {
+            AppUser user = PersistedGraph.user(em, "Page test " + i, "page-test-" + i + "@test.com");
+            PersistedGraph.project(em, "Page test project " + i, user);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * Should read a page of users and their total with one statement.
+     */
+    @Test
+    void shouldReadUserPageWithOneStatement() {
+        // Arrange
+        long total = userRepo.count();
+        StatementCounter.reset();
+
+        // Act
+        Page<AppUserResponseDTO> page = userRepo.findResponsePage(PageRequest.of(0, 2, BY_ID_DESC));
+
+        // Assert
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent().get(0).email()).isEqualTo("page-test-2@test.com");
+        assertThat(page.getContent().get(0).createdAt()).isNotNull();
+        assertThat(page.getTotalElements()).isEqualTo(total);
+    }
+
+    /**
+     * Should read a page of projects and their total with one statement.
+     */
+    @Test
+    void shouldReadProjectPageWithOneStatement() {
+        // Arrange
+        long total = projectRepo.count();
+        StatementCounter.reset();
+
+        // Act
+        Page<ProjectResponseDTO> page = projectRepo.findResponsePage(PageRequest.of(0, 2, BY_ID_DESC));
+
+        // Assert
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(page.getContent()).extracting(ProjectResponseDTO::name)
+                .containsExactly("Page test project 2", "Page test project 1");
+        assertThat(page.getContent().get(0).owner().email()).isEqualTo("page-test-2@test.com");
+        assertThat(page.getTotalElements()).isEqualTo(total);
+    }
+
+    /**
+     * Should still report the total of a page past the end (counted apart).
+     */
+    @Test
+    void shouldCountSeparately_whenPagePastEnd() {
+        // Arrange
+        long users = userRepo.count();
+        long projects = projectRepo.count();
+        StatementCounter.reset();
+
+        // Act
+        Page<AppUserResponseDTO> userPage = userRepo.findResponsePage(PageRequest.of(10_000, 20, BY_ID_DESC));
+        Page<ProjectResponseDTO> projectPage = projectRepo.findResponsePage(PageRequest.of(10_000, 20, BY_ID_DESC));
+
+        // Assert
+        assertThat(StatementCounter.count()).isEqualTo(4);
+        assertThat(userPage.getContent()).isEmpty();
+        assertThat(userPage.getTotalElements()).isEqualTo(users);
+        assertThat(projectPage.getContent()).isEmpty();
+        assertThat(projectPage.getTotalElements()).isEqualTo(projects);
+    }
+}
@@ -0,0 +1,125 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.testutil.PersistedGraph;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Version column tests (requires the MySQL test database).
+ * Entity updates, status changes and bulk updates must all increment the
+ * version, the composite version read by findVersionById must follow them,
+ * and conditional deletes must only match a current version.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class OptimisticLockingTest {
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private AppUserRepository userRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private long taskId;
+    private long projectId;
+    private long userId;
+
+    @BeforeEach
+    void init() {
+        Task task = PersistedGraph.ownedTask(em, "Optimistic locking", TaskStatus.TODO);
+        taskId = task.getId();
+        projectId = task.getProject().getId();
+        userId = task.getProject().getOwner().getId();
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * Should read the composite versions and follow entity updates.
+     */
+    @Test
+    void shouldReadCompositeVersions() {
+        // Arrange
+        AppUser owner = userRepo.findById(userId).orElseThrow();
+
+        // Act
+        owner.setName("Optimistic locking renamed");
+        em.flush();
+
+        // Assert
+        assertThat(taskRepo.findVersionById(taskId)).contains("0.0.1");
+        assertThat(projectRepo.findVersionById(projectId)).contains("0.1");
+        assertThat(userRepo.findVersionById(userId)).contains("1");
+        assertThat(taskRepo.findVersionById(Long.MAX_VALUE)).isEmpty();
+    }
+
+    /**
+     * Should increment the version on status changes and bulk updates.
+     */
+    @Test
+    void shouldIncrementVersion_onStatusAndBulkUpdates() {
+        // Act
+        taskRepo.updateStatus(taskId, TaskStatus.DOING, null);
+        taskRepo.updateStatusAndPriority(byId(taskId), TaskStatus.DONE, TaskPriority.HIGH);
+
+        // Assert
+        assertThat(taskRepo.findVersionById(taskId)).contains("2.0.0");
+    }
+
+    /**
+     * Should reject a flush of an entity loaded before a bulk update.
+     */
+    @Test
+    void shouldRejectStaleEntity_afterBulkUpdate() {
+        // Arrange
+        Task stale = taskRepo.findById(taskId).orElseThrow();
+        taskRepo.updateStatusAndPriority(byId(taskId), TaskStatus.DONE, null);
+
+        // Act + Assert
+        stale.setTitle("Optimistic locking stale");
+        assertThatThrownBy(() -> em.flush()).isInstanceOf(OptimisticLockException.class);
+    }
+
+    /**
+     * Should delete only when the given version is the current one.
+     */
+    @Test
+    void shouldDeleteByVersion_onlyWhenCurrent() {
+        // Act
+        int stale = taskRepo.deleteRowByIdAndVersionIn(taskId, List.of("1.0.0"));
+        int current = taskRepo.deleteRowByIdAndVersionIn(taskId, List.of("1.0.0", "0.0.0"));
+        int staleProject = projectRepo.deleteRowByIdAndVersionIn(projectId, List.of("0.1"));
+        int staleUser = userRepo.deleteRowByIdAndVersionIn(userId, List.of("2"));
+
+        // Assert
+        assertThat(stale).isZero();
+        assertThat(current).isEqualTo(1);
+        assertThat(staleProject + staleUser).isZero();
+        assertThat(taskRepo.existsById(taskId)).isFalse();
+        assertThat(userRepo.deleteRowByIdAndVersionIn(userId, List.of("0"))).isEqualTo(1);
+    }
+
+    private static Specification<Task> byId(long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+}
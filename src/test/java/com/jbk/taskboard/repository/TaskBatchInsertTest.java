@@ -0,0 +1,86 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Batching tests for task inserts (requires the MySQL test database).
+ * Task ids come from the pooled id_generator table, so Hibernate does not
+ * need to run each INSERT on its own to learn the key and can send them in
+ * JDBC batches of hibernate.jdbc.batch_size rows.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session.events.auto="
+        + "com.jbk.taskboard.repository.TaskBatchInsertTest$BatchCounter")
+@ActiveProfiles("test")
+class TaskBatchInsertTest {
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @BeforeEach
+    void init() {
+        BatchCounter.batches.set(0);
+    }
+
+    /**
+     * Should insert 120 tasks in 3 JDBC batches (batch size 50), with distinct
+     * ids assigned before the flush.
+     */
+    @Test
+    void shouldBatchTaskInserts() {
+        // Arrange
+        Project project = projectRepo.findAll().get(0);
+        List<Task> tasks = IntStream.rangeClosed(1, 120)
+                .mapToObj(i -> task("Batch task " + i, project))
+                .toList();
+
+        // Act
+        taskRepo.saveAll(tasks);
+        int batchesBeforeFlush = BatchCounter.batches.get();
+        taskRepo.flush();
+
+        // Assert
+        assertThat(batchesBeforeFlush).isZero();
+        assertThat(tasks).extracting(Task::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(BatchCounter.batches.get()).isEqualTo(3);
+    }
+
+    private static Task task(String title, Project project) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setStatus(TaskStatus.TODO);
+        t.setPriority(TaskPriority.MEDIUM);
+        t.setProject(project);
+        return t;
+    }
+
+    /**
+     * Hibernate session listener that counts the JDBC batches executed.
+     */
+    public static class BatchCounter implements SessionEventListener {
+
+        static final AtomicInteger batches = new AtomicInteger();
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches.incrementAndGet();
+        }
+    }
+}
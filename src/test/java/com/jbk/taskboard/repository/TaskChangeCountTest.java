@@ -0,0 +1,113 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.repository.spec.TaskSpecs;
+import com.jbk.taskboard.testutil.PersistedGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Task change counter tests (requires the MySQL test database).
+ * The counter versions the task listings of a project, so each increment
+ * must reach exactly the projects whose tasks change, and the listing
+ * version must follow it as well as the project and owner versions.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class TaskChangeCountTest {
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private long alphaId;
+    private long betaId;
+    private long alphaTaskId;
+    private long betaTaskId;
+
+    @BeforeEach
+    void init() {
+        AppUser owner = PersistedGraph.user(em, "Change count", "change-count@test.com");
+        Project alpha = persistProject("Change count alpha", owner);
+        Project beta = persistProject("Change count beta", owner);
+        alphaTaskId = PersistedGraph.task(em, "Alpha task", TaskStatus.DOING, alpha).getId();
+        betaTaskId = PersistedGraph.task(em, "Beta task", TaskStatus.TODO, beta).getId();
+        alphaId = alpha.getId();
+        betaId = beta.getId();
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * Should combine the counter with the project and owner versions.
+     */
+    @Test
+    void shouldReadListVersion_afterIncrement() {
+        // Act
+        int matched = projectRepo.incrementTaskChangeCount(List.of(alphaId));
+
+        // Assert
+        assertThat(matched).isEqualTo(1);
+        assertThat(projectRepo.findTaskListVersionById(alphaId)).contains("1.0.0");
+        assertThat(projectRepo.findTaskListVersionById(betaId)).contains("0.0.0");
+        assertThat(projectRepo.findTaskListVersionById(Long.MAX_VALUE)).isEmpty();
+    }
+
+    /**
+     * Should increment the counter of the project of a task only.
+     */
+    @Test
+    void shouldIncrementProjectOfTask() {
+        // Act
+        int matched = projectRepo.incrementTaskChangeCountByTaskId(alphaTaskId);
+        int missing = projectRepo.incrementTaskChangeCountByTaskId(Long.MAX_VALUE);
+
+        // Assert
+        assertThat(matched).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(projectRepo.findTaskListVersionById(alphaId)).contains("1.0.0");
+        assertThat(projectRepo.findTaskListVersionById(betaId)).contains("0.0.0");
+    }
+
+    /**
+     * Should increment the counters of the projects having a matching task
+     * (among the two tasks of the test, the seed data has TODO tasks too),
+     * without touching the project versions.
+     */
+    @Test
+    void shouldIncrementProjectsOfMatchingTasks() {
+        // Act
+        int matched = taskRepo.incrementProjectTaskChangeCounts(TaskSpecs.hasStatus(TaskStatus.TODO)
+                .and(TaskSpecs.idIn(List.of(alphaTaskId, betaTaskId))));
+
+        // Assert
+        assertThat(matched).isEqualTo(1);
+        assertThat(projectRepo.findTaskListVersionById(alphaId)).contains("0.0.0");
+        assertThat(projectRepo.findTaskListVersionById(betaId)).contains("1.0.0");
+        assertThat(projectRepo.findVersionById(betaId)).contains("0.0");
+    }
+
+    // Persists a project with its task change counter row.
+    private Project persistProject(String name, AppUser owner) {
+        Project p = PersistedGraph.project(em, name, owner);
+        em.flush();
+        projectRepo.insertTaskChangeCount(p.getId());
+        return p;
+    }
+}
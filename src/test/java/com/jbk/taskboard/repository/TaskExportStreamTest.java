@@ -0,0 +1,93 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.dto.task.TaskResponseDTO;
+import com.jbk.taskboard.entity.Task;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Memory test for the task export stream (requires the MySQL test database).
+ * Seeds one million tasks (rolled back after the test) and reads them all
+ * through TaskRepository.streamResponses, sampling the used heap along the
+ * way. If the rows were buffered by the driver or kept in the persistence
+ * context, the heap would grow by hundreds of megabytes.
+ * Tagged "slow" (about two minutes): excluded from the default test run, run
+ * it with the slow-tests profile.
+ */
+@Tag("slow")
+@DataJpaTest
+@ActiveProfiles("test")
+class TaskExportStreamTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+    private static final String DIGITS = "(SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 "
+            + "UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 "
+            + "UNION ALL SELECT 9)";
+
+    // 1,000,000 tasks with a description, so each row weighs like a real one
+    private static final String SEED_TASKS = "INSERT INTO task (title, description, status, priority, project_id) "
+            + "SELECT CONCAT('Export task ', n), REPEAT('x', 200), 'TODO', 'MEDIUM', "
+            + "(SELECT MIN(id) FROM project) "
+            + "FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d + 10000 * f.d + 100000 * g.d AS n FROM "
+            + DIGITS + " a, " + DIGITS + " b, " + DIGITS + " c, " + DIGITS + " e, " + DIGITS + " f, "
+            + DIGITS + " g) seq";
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Should stream one million tasks in ID order with a bounded heap.
+     */
+    @Test
+    void shouldStreamMillionTasksWithBoundedHeap() {
+        // Arrange
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update(SEED_TASKS);
+        long expected = taskRepo.count();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+
+        // Act
+        long count = 0;
+        long lastId = 0;
+        long maxUsed = baseline;
+        try (Stream<TaskResponseDTO> tasks = taskRepo.streamResponses(Specification.<Task>unrestricted())) {
+            Iterator<TaskResponseDTO> it = tasks.iterator();
+            while (it.hasNext()) {
+                TaskResponseDTO task = it.next();
+                assertThat(task.id()).isGreaterThan(lastId);
+                lastId = task.id();
+                if (++count % 100_000 == 0) {
+                    maxUsed = Math.max(maxUsed, usedHeapAfterGc(memory));
+                }
+            }
+        }
+
+        // Assert
+        assertThat(count).isEqualTo(expected).isGreaterThanOrEqualTo(ROWS);
+        assertThat(maxUsed - baseline).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
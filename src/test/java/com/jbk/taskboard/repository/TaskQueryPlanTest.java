@@ -0,0 +1,235 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.repository.spec.TaskSpecs;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Query plan tests for the task list (requires the MySQL test database).
+ * Runs the ID query that Hibernate generates for every combination of the
+ * TaskSpecs filters (with and without the keyset predicate) through EXPLAIN
+ * and asserts that the task table is read through an index, without a
+ * filesort or a temporary table. The second step of the list (loading the
+ * tasks by ID) must be a primary key lookup. The page query, which also
+ * counts the matching tasks, must read the same index and report the same
+ * total as a separate count.
+ * A change to TaskSpecs or to the indexes that regresses a plan fails the
+ * build.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.jbk.taskboard.repository.TaskQueryPlanTest$SqlCapture")
+@ActiveProfiles("test")
+class TaskQueryPlanTest {
+
+    private static final Pattern TASK_ALIAS = Pattern.compile("from task (\\w+)");
+    private static final Pattern BOUND_COLUMN = Pattern.compile("(\\w+)\\s*(=|<|<=|>|>=)\\s*$");
+
+    private static final String DIGITS = "(SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 "
+            + "UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 "
+            + "UNION ALL SELECT 9)";
+
+    // 10,000 tasks spread over the seeded projects, statuses and priorities
+    private static final String SEED_TASKS = "INSERT INTO task (title, status, priority, project_id) "
+            + "SELECT CONCAT('Plan task ', n), "
+            + "ELT(1 + n % 3, 'TODO', 'DOING', 'DONE'), "
+            + "ELT(1 + (n DIV 3) % 3, 'LOW', 'MEDIUM', 'HIGH'), "
+            + "IF(n % 2 = 0, (SELECT MIN(id) FROM project), (SELECT MAX(id) FROM project)) "
+            + "FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d AS n FROM "
+            + DIGITS + " a, " + DIGITS + " b, " + DIGITS + " c, " + DIGITS + " e) seq";
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // The seed data alone is so small that a full scan looks as cheap as any
+    // index; a realistic volume (rolled back after each test) keeps the plans
+    // representative.
+    @BeforeEach
+    void init() {
+        new JdbcTemplate(dataSource).update(SEED_TASKS);
+        SqlCapture.statements.clear();
+    }
+
+    /**
+     * Every filter shape produced by TaskSpecs: any subset of status, priority
+     * and projectId, with and without the keyset (id &lt; ?) predicate.
+     * 
+     * @return
+     */
+    static Stream<Arguments> filterShapes() {
+        List<Arguments> shapes = new ArrayList<>();
+        for (int mask = 0; mask < 16; mask++) {
+            shapes.add(Arguments.of(
+                    (mask & 1) != 0 ? TaskStatus.DOING : null,
+                    (mask & 2) != 0 ? TaskPriority.HIGH : null,
+                    (mask & 4) != 0 ? 1L : null,
+                    (mask & 8) != 0 ? 1_000L : null));
+        }
+        return shapes.stream();
+    }
+
+    /**
+     * Should read tasks through an index and without filesort for each filter
+     * shape.
+     * 
+     * @param status
+     * @param priority
+     * @param projectId
+     * @param beforeId
+     */
+    @ParameterizedTest(name = "status={0}, priority={1}, projectId={2}, idBefore={3}")
+    @MethodSource("filterShapes")
+    void shouldUseIndexWithoutFilesort(TaskStatus status, TaskPriority priority, Long projectId, Long beforeId) {
+        // Arrange
+        Specification<Task> spec = Specification.<Task>unrestricted()
+                .and(TaskSpecs.hasStatus(status))
+                .and(TaskSpecs.hasPriority(priority))
+                .and(TaskSpecs.hasProjectId(projectId))
+                .and(TaskSpecs.idBefore(beforeId));
+        taskRepo.findIds(spec, Sort.by(Sort.Direction.DESC, "id"), 0, 20);
+        String sql = capturedQuery();
+
+        // Act
+        List<Map<String, Object>> plan = explain(sql, status, priority, projectId, beforeId);
+
+        // Assert
+        Matcher alias = TASK_ALIAS.matcher(sql);
+        assertThat(alias.find()).as("task alias in %s", sql).isTrue();
+        Map<String, Object> taskRow = plan.stream()
+                .filter(row -> alias.group(1).equals(row.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for the task table: " + plan));
+        assertThat(taskRow.get("key")).as("index used for %s", plan).isNotNull();
+        assertThat(taskRow.get("type")).as("access type for %s", plan).isNotEqualTo("ALL");
+        assertThat(plan).allSatisfy(row -> assertThat(String.valueOf(row.get("Extra")))
+                .as("plan %s", plan)
+                .doesNotContain("filesort")
+                .doesNotContain("temporary"));
+    }
+
+    /**
+     * Should count the total in the ID query of a page, through an index and
+     * without filesort or temporary table, and fall back to a count past the
+     * last page.
+     */
+    @Test
+    void shouldCountTotalInPageQuery() {
+        // Arrange
+        Specification<Task> spec = Specification.<Task>unrestricted()
+                .and(TaskSpecs.hasStatus(TaskStatus.DOING))
+                .and(TaskSpecs.hasProjectId(1L));
+        Sort byIdDesc = Sort.by(Sort.Direction.DESC, "id");
+        long total = taskRepo.count(spec);
+        SqlCapture.statements.clear();
+
+        // Act
+        Page<Long> page = taskRepo.findIdPage(spec, PageRequest.of(1, 20, byIdDesc));
+        String sql = capturedQuery();
+        Page<Long> pastEnd = taskRepo.findIdPage(spec, PageRequest.of(10_000, 20, byIdDesc));
+
+        // Assert
+        assertThat(page.getContent()).hasSize(20)
+                .isEqualTo(taskRepo.findIds(spec, byIdDesc, 20, 20));
+        assertThat(page.getTotalElements()).isEqualTo(total);
+        assertThat(pastEnd.getContent()).isEmpty();
+        assertThat(pastEnd.getTotalElements()).isEqualTo(total);
+        List<Map<String, Object>> plan = explain(sql, TaskStatus.DOING, null, 1L, null);
+        assertThat(plan).allSatisfy(row -> assertThat(row.get("key")).as("plan %s", plan).isNotNull());
+        assertThat(plan).allSatisfy(row -> assertThat(String.valueOf(row.get("Extra")))
+                .as("plan %s", plan)
+                .doesNotContain("filesort")
+                .doesNotContain("temporary"));
+    }
+
+    /**
+     * Should read the tasks of a page by primary key, from the task table only.
+     */
+    @Test
+    void shouldLoadTasksByPrimaryKey() {
+        // Arrange
+        taskRepo.findRowsByIdIn(List.of(1L, 2L, 3L));
+        String sql = capturedQuery();
+
+        // Act
+        List<Map<String, Object>> plan = new JdbcTemplate(dataSource)
+                .queryForList("EXPLAIN " + sql, 1L, 2L, 3L);
+
+        // Assert
+        Matcher alias = TASK_ALIAS.matcher(sql);
+        assertThat(alias.find()).as("task alias in %s", sql).isTrue();
+        assertThat(plan)
+                .filteredOn(row -> alias.group(1).equals(row.get("table")))
+                .singleElement()
+                .satisfies(row -> assertThat(row.get("key")).as("plan %s", plan).isEqualTo("PRIMARY"));
+        assertThat(plan).allSatisfy(row -> assertThat(String.valueOf(row.get("type")))
+                .as("plan %s", plan)
+                .isNotEqualTo("ALL"));
+    }
+
+    // Returns the single SELECT captured since the last reset.
+    private String capturedQuery() {
+        assertThat(SqlCapture.statements).as("captured statements").hasSize(1);
+        return SqlCapture.statements.get(0);
+    }
+
+    // Runs EXPLAIN on the captured SQL, binding each parameter from the column
+    // it is compared to (limit/offset parameters get the page size).
+    private List<Map<String, Object>> explain(String sql, TaskStatus status, TaskPriority priority, Long projectId,
+            Long beforeId) {
+        List<Object> args = new ArrayList<>();
+        for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+            Matcher m = BOUND_COLUMN.matcher(sql.substring(0, i));
+            String column = m.find() ? m.group(1) : "";
+            switch (column) {
+                case "status" -> args.add(status.name());
+                case "priority" -> args.add(priority.name());
+                case "project_id" -> args.add(projectId);
+                case "id" -> args.add(beforeId);
+                default -> args.add(20);
+            }
+        }
+        return new JdbcTemplate(dataSource).queryForList("EXPLAIN " + sql, args.toArray());
+    }
+
+    /**
+     * Hibernate statement inspector that records the SQL sent to the database.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.jbk.taskboard.repository;
+
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.testutil.PersistedGraph;
+import com.jbk.taskboard.testutil.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Conditional status update tests (requires the MySQL test database).
+ * TaskRepository.updateStatus must change the status with one statement and
+ * only when the task still has the expected status; setting the status it
+ * already has still counts as a match.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session.events.auto="
+        + "com.jbk.taskboard.testutil.StatementCounter")
+@ActiveProfiles("test")
+class TaskStatusUpdateTest {
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private long taskId;
+
+    @BeforeEach
+    void init() {
+        taskId = PersistedGraph.ownedTask(em, "Status update", TaskStatus.DOING).getId();
+        em.flush();
+        em.clear();
+        StatementCounter.reset();
+    }
+
+    /**
+     * Should update the status with one statement when the expected status
+     * matches.
+     */
+    @Test
+    void shouldUpdateStatus_whenExpectedMatches() {
+        // Act
+        int updated = taskRepo.updateStatus(taskId, TaskStatus.DONE, TaskStatus.DOING);
+
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(taskRepo.findStatusById(taskId)).contains(TaskStatus.DONE);
+    }
+
+    /**
+     * Should leave the task unchanged when the expected status does not
+     * match.
+     */
+    @Test
+    void shouldNotUpdateStatus_whenExpectedDiffers() {
+        // Act
+        int updated = taskRepo.updateStatus(taskId, TaskStatus.DONE, TaskStatus.TODO);
+
+        // Assert
+        assertThat(updated).isZero();
+        assertThat(taskRepo.findStatusById(taskId)).contains(TaskStatus.DOING);
+    }
+
+    /**
+     * Should update unconditionally without an expected status, and count a
+     * task that already has the status as matched.
+     */
+    @Test
+    void shouldMatchAnyStatus_whenNoExpectedStatus() {
+        // Act
+        int changed = taskRepo.updateStatus(taskId, TaskStatus.TODO, null);
+        int unchanged = taskRepo.updateStatus(taskId, TaskStatus.TODO, null);
+
+        // Assert
+        assertThat(changed).isEqualTo(1);
+        assertThat(unchanged).isEqualTo(1);
+        assertThat(taskRepo.updateStatus(Long.MAX_VALUE, TaskStatus.TODO, null)).isZero();
+    }
+}
@@ -1,9 +1,13 @@
 package com.jbk.taskboard.service.impl;
 
+import com.jbk.taskboard.dto.common.VersionedDTO;
 import com.jbk.taskboard.dto.user.*;
 import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
 import com.jbk.taskboard.exception.BusinessRuleException;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
+import com.jbk.taskboard.mapper.AppUserMapper;
 import com.jbk.taskboard.repository.AppUserRepository;
 import com.jbk.taskboard.testutil.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +17,14 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +46,18 @@ class AppUserServiceImplTest {
     @Mock
     private AppUserRepository repo;
 
+    @Mock
+    private DtoCaches caches;
+
+    @Mock
+    private EntityManagerFactory emf;
+
+    @Mock
+    private Cache entityCache;
+
+    @Mock
+    private LastPageCache lastPages;
+
     @InjectMocks
     private AppUserServiceImpl service;
 
@@ -53,7 +72,8 @@ class AppUserServiceImplTest {
 
     /**
      * Should create a new user when email does not already exist.
-     * Verifies that the repository's existsByEmail and save methods are called.
+     * Verifies that only the repository's saveAndFlush method is called (no
+     * separate duplicate check).
      * Asserts that the returned DTO has the expected values.
      * 
      * @throws BusinessRuleException if email already exists (not
@@ -65,9 +85,8 @@ class AppUserServiceImplTest {
     void shouldCreateUser_whenEmailNotExists() {
         // Arrange
         AppUserRequestDTO req = TestDataFactory.userReq("Alice", "alice@mail.com");
-        when(repo.existsByEmail("alice@mail.com")).thenReturn(false);
         AppUser saved = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
-        when(repo.save(any(AppUser.class))).thenReturn(saved);
+        when(repo.saveAndFlush(any(AppUser.class))).thenReturn(saved);
 
         // Act
         AppUserResponseDTO res = service.create(req);
@@ -76,16 +95,15 @@ class AppUserServiceImplTest {
         assertThat(res.id()).isEqualTo(1L);
         assertThat(res.name()).isEqualTo("Alice");
         assertThat(res.email()).isEqualTo("alice@mail.com");
-        verify(repo).existsByEmail("alice@mail.com");
-        verify(repo).save(any(AppUser.class));
+        verify(repo).saveAndFlush(any(AppUser.class));
         verifyNoMoreInteractions(repo);
     }
 
     /**
      * Should throw BusinessRuleException when trying to create a user with an email
      * that already exists.
-     * Verifies that the repository's existsByEmail method is called and no user is
-     * saved.
+     * Verifies that the unique key violation raised by saveAndFlush is
+     * translated.
      * 
      * @throws BusinessRuleException when email already exists.
      */
@@ -93,13 +111,13 @@ class AppUserServiceImplTest {
     void shouldThrowBusinessRule_whenCreateWithDuplicateEmail() {
         // Arrange
         AppUserRequestDTO req = TestDataFactory.userReq("Bob", "dup@mail.com");
-        when(repo.existsByEmail("dup@mail.com")).thenReturn(true);
+        when(repo.saveAndFlush(any(AppUser.class))).thenThrow(TestDataFactory.constraintViolation(AppUser.UK_EMAIL));
 
         // Act + Assert
         assertThatThrownBy(() -> service.create(req))
                 .isInstanceOf(BusinessRuleException.class)
                 .hasMessageContaining("Email already in use");
-        verify(repo).existsByEmail("dup@mail.com");
+        verify(repo).saveAndFlush(any(AppUser.class));
         verifyNoMoreInteractions(repo);
     }
 
@@ -107,7 +125,7 @@ class AppUserServiceImplTest {
 
     /**
      * Should return user when getById exists.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the user is read from the cache (not the repository).
      * Asserts that the returned DTO has the expected values.
      * 
      * @throws NotFoundException if user is not found (not expected in this test).
@@ -116,63 +134,126 @@ class AppUserServiceImplTest {
     void shouldReturnUser_whenGetByIdExists() {
         // Arrange
         AppUser entity = TestDataFactory.userEntity(5L, "Carol", "carol@mail.com");
-        when(repo.findById(5L)).thenReturn(Optional.of(entity));
+        when(caches.user(5L)).thenReturn(Optional.of(VersionedDTO.of(AppUserMapper.toResponse(entity), "2")));
 
         // Act
-        AppUserResponseDTO res = service.getById(5L);
+        VersionedDTO<AppUserResponseDTO> res = service.getById(5L);
 
         // Assert
-        assertThat(res.id()).isEqualTo(5L);
-        assertThat(res.name()).isEqualTo("Carol");
-        assertThat(res.email()).isEqualTo("carol@mail.com");
-        verify(repo).findById(5L);
-        verifyNoMoreInteractions(repo);
+        assertThat(res.value().id()).isEqualTo(5L);
+        assertThat(res.value().name()).isEqualTo("Carol");
+        assertThat(res.value().email()).isEqualTo("carol@mail.com");
+        assertThat(res.version()).isEqualTo("2");
+        verify(caches).user(5L);
+        verifyNoMoreInteractions(repo, caches);
     }
 
     /**
      * Should throw NotFoundException when getById does not exist.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the cache is queried.
      * 
      * @throws NotFoundException when user is not found.
      */
     @Test
     void shouldThrowNotFound_whenGetByIdMissing() {
         // Arrange
-        when(repo.findById(99L)).thenReturn(Optional.empty());
+        when(caches.user(99L)).thenReturn(Optional.empty());
 
         // Act + Assert
         assertThatThrownBy(() -> service.getById(99L))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
-        verify(repo).findById(99L);
-        verifyNoMoreInteractions(repo);
+        verify(caches).user(99L);
+        verifyNoMoreInteractions(repo, caches);
+    }
+
+    /**
+     * Should return the current version of the user.
+     * Verifies that the version is read from the database and the cached user
+     * checked against it (no user is loaded).
+     */
+    @Test
+    void shouldReturnVersion_andRefreshCache() {
+        // Arrange
+        when(repo.findVersionById(6L)).thenReturn(Optional.of("3"));
+
+        // Act
+        String version = service.getVersion(6L);
+
+        // Assert
+        assertThat(version).isEqualTo("3");
+        verify(repo).findVersionById(6L);
+        verify(caches).refreshUser(6L, "3");
+        verifyNoMoreInteractions(repo, caches);
     }
 
     // --- LIST ---
 
     /**
      * Should list users with pagination.
-     * Verifies that the repository's findAll method is called with correct
-     * Pageable.
+     * Verifies that the repository's findResponsePage method (page and total
+     * in one query) is called with the correct Pageable.
      * Asserts that the returned Page contains expected users in correct order.
      */
     @SuppressWarnings("null")
     @Test
     void shouldListUsers_withPagination() {
         // Arrange
-        List<AppUser> content = List.of(
-                TestDataFactory.userEntity(2L, "A", "a@mail.com"),
-                TestDataFactory.userEntity(1L, "B", "b@mail.com"));
-        Page<AppUser> page = new PageImpl<>(content, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")), 2);
-        when(repo.findAll(any(Pageable.class))).thenReturn(page);
+        PageRequest pr = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        List<AppUserResponseDTO> content = List.of(
+                AppUserResponseDTO.of(2L, "A", "a@mail.com"),
+                AppUserResponseDTO.of(1L, "B", "b@mail.com"));
+        when(repo.findResponsePage(pr)).thenReturn(new PageImpl<>(content, pr, 5));
 
         // Act
         Page<AppUserResponseDTO> res = service.list(0, 2);
 
         // Assert
-        assertThat(res.getTotalElements()).isEqualTo(2);
+        assertThat(res.getTotalElements()).isEqualTo(5);
         assertThat(res.getContent()).extracting(AppUserResponseDTO::id).containsExactly(2L, 1L);
-        verify(repo).findAll(any(Pageable.class));
+        verify(repo).findResponsePage(pr);
+        verify(lastPages).remember(new LastPageCache.Key("users", false, 0, 2), res);
+        verifyNoMoreInteractions(repo);
+    }
+
+    /**
+     * Should serve the last slice of users read with the same page and size,
+     * without accessing the database.
+     */
+    @Test
+    void shouldListCachedUsersSlice_fromLastPage() {
+        // Arrange
+        Slice<AppUserResponseDTO> slice = new SliceImpl<>(List.of(AppUserResponseDTO.of(2L, "A", "a@mail.com")));
+        when(lastPages.<Slice<AppUserResponseDTO>>peek(new LastPageCache.Key("users", true, 0, 1)))
+                .thenReturn(Optional.of(slice));
+
+        // Act
+        Optional<Slice<AppUserResponseDTO>> res = service.listSliceCached(0, 1);
+
+        // Assert
+        assertThat(res).containsSame(slice);
+        verifyNoInteractions(repo);
+    }
+
+    /**
+     * Should list users as a slice without counting.
+     * Verifies that only the repository's findAllBy method is called.
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldListUsersSlice_withoutCount() {
+        // Arrange
+        List<AppUser> content = List.of(TestDataFactory.userEntity(2L, "A", "a@mail.com"));
+        Slice<AppUser> slice = new SliceImpl<>(content, PageRequest.of(0, 1), true);
+        when(repo.findAllBy(any(Pageable.class))).thenReturn(slice);
+
+        // Act
+        Slice<AppUserResponseDTO> res = service.listSlice(0, 1);
+
+        // Assert
+        assertThat(res.hasNext()).isTrue();
+        assertThat(res.getContent()).extracting(AppUserResponseDTO::id).containsExactly(2L);
+        verify(repo).findAllBy(any(Pageable.class));
         verifyNoMoreInteractions(repo);
     }
 
@@ -180,7 +261,7 @@ class AppUserServiceImplTest {
 
     /**
      * Should update user when email is changed and not taken.
-     * Verifies that the repository's findById and existsByEmail methods are called.
+     * Verifies that the repository's findById and flush methods are called.
      * Asserts that the returned DTO has the updated values.
      * 
      * @throws NotFoundException     if user is not found (not expected in this
@@ -193,51 +274,51 @@ class AppUserServiceImplTest {
         // Arrange
         AppUser entity = TestDataFactory.userEntity(10L, "Old", "old@mail.com");
         when(repo.findById(10L)).thenReturn(Optional.of(entity));
-        when(repo.existsByEmail("new@mail.com")).thenReturn(false);
         AppUserRequestDTO req = TestDataFactory.userReq("New Name", "new@mail.com");
 
         // Act
-        AppUserResponseDTO res = service.update(10L, req);
+        AppUserResponseDTO res = service.update(10L, req, null).value();
 
         // Assert
         assertThat(res.id()).isEqualTo(10L);
         assertThat(res.name()).isEqualTo("New Name");
         assertThat(res.email()).isEqualTo("new@mail.com");
         verify(repo).findById(10L);
-        verify(repo).existsByEmail("new@mail.com");
-        verifyNoMoreInteractions(repo);
+        verify(repo).flush();
+        verify(caches).evictUser(10L);
+        verifyNoMoreInteractions(repo, caches);
     }
 
     /**
-     * Should not check email uniqueness when email is unchanged during update.
-     * Verifies that the repository's findById method is called and
-     * existsByEmail is not called.
+     * Should update user when email is unchanged.
+     * Verifies that the repository's findById and flush methods are called.
      * Asserts that the returned DTO has the updated name and unchanged email.
      * 
      * @throws NotFoundException if user is not found (not expected in this test).
      */
     @Test
-    void shouldNotCheckEmailUniqueness_whenEmailUnchanged() {
+    void shouldUpdateUser_whenEmailUnchanged() {
         // Arrange
         AppUser entity = TestDataFactory.userEntity(11L, "Same", "same@mail.com");
         when(repo.findById(11L)).thenReturn(Optional.of(entity));
         AppUserRequestDTO req = TestDataFactory.userReq("Same Name", "same@mail.com");
 
         // Act
-        AppUserResponseDTO res = service.update(11L, req);
+        AppUserResponseDTO res = service.update(11L, req, null).value();
 
         // Assert
         assertThat(res.name()).isEqualTo("Same Name");
         assertThat(res.email()).isEqualTo("same@mail.com");
-        // existsByEmail should NOT be called when the email does not change
         verify(repo).findById(11L);
-        verifyNoMoreInteractions(repo);
+        verify(repo).flush();
+        verify(caches).evictUser(11L);
+        verifyNoMoreInteractions(repo, caches);
     }
 
     /**
      * Should throw BusinessRuleException when updating user with an email that is
      * already taken by another user.
-     * Verifies that the repository's findById and existsByEmail methods are called.
+     * Verifies that the unique key violation raised by flush is translated.
      * 
      * @throws NotFoundException     if user is not found (not expected in this
      *                               test).
@@ -248,16 +329,64 @@ class AppUserServiceImplTest {
         // Arrange
         AppUser entity = TestDataFactory.userEntity(12L, "User", "old@mail.com");
         when(repo.findById(12L)).thenReturn(Optional.of(entity));
-        when(repo.existsByEmail("taken@mail.com")).thenReturn(true);
+        doThrow(TestDataFactory.constraintViolation(AppUser.UK_EMAIL)).when(repo).flush();
         AppUserRequestDTO req = TestDataFactory.userReq("User", "taken@mail.com");
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(12L, req))
+        assertThatThrownBy(() -> service.update(12L, req, null))
                 .isInstanceOf(BusinessRuleException.class)
                 .hasMessageContaining("Email already in use");
         verify(repo).findById(12L);
-        verify(repo).existsByEmail("taken@mail.com");
-        verifyNoMoreInteractions(repo);
+        verify(repo).flush();
+        verify(caches).evictUser(12L);
+        verifyNoMoreInteractions(repo, caches);
+    }
+
+    // --- PATCH ---
+
+    /**
+     * Should patch only the supplied fields.
+     * Asserts that the name is kept when only the email is supplied.
+     */
+    @Test
+    void shouldPatchSuppliedFieldsOnly() {
+        // Arrange
+        AppUser entity = TestDataFactory.userEntity(13L, "Name", "old@mail.com");
+        when(repo.findById(13L)).thenReturn(Optional.of(entity));
+        AppUserPatchRequestDTO req = new AppUserPatchRequestDTO(null, Optional.of("new@mail.com"));
+
+        // Act
+        AppUserResponseDTO res = service.patch(13L, req, null).value();
+
+        // Assert
+        assertThat(res.name()).isEqualTo("Name");
+        assertThat(res.email()).isEqualTo("new@mail.com");
+        verify(repo).findById(13L);
+        verify(repo).flush();
+        verify(caches).evictUser(13L);
+        verifyNoMoreInteractions(repo, caches);
+    }
+
+    /**
+     * Should throw BusinessRuleException when a patched email is taken.
+     * Verifies that the unique key violation raised by flush is translated.
+     */
+    @Test
+    void shouldThrowBusinessRule_whenPatchedEmailTaken() {
+        // Arrange
+        AppUser entity = TestDataFactory.userEntity(14L, "Name", "old@mail.com");
+        when(repo.findById(14L)).thenReturn(Optional.of(entity));
+        doThrow(TestDataFactory.constraintViolation(AppUser.UK_EMAIL)).when(repo).flush();
+        AppUserPatchRequestDTO req = new AppUserPatchRequestDTO(null, Optional.of("taken@mail.com"));
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.patch(14L, req, null))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("Email already in use: taken@mail.com");
+        verify(repo).findById(14L);
+        verify(repo).flush();
+        verify(caches).evictUser(14L);
+        verifyNoMoreInteractions(repo, caches);
     }
 
     /**
@@ -273,52 +402,80 @@ class AppUserServiceImplTest {
         AppUserRequestDTO req = TestDataFactory.userReq("X", "x@mail.com");
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(77L, req))
+        assertThatThrownBy(() -> service.update(77L, req, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
         verify(repo).findById(77L);
-        verifyNoMoreInteractions(repo);
+        verify(caches).evictUser(77L);
+        verifyNoMoreInteractions(repo, caches);
     }
 
     // --- DELETE ---
 
     /**
      * Should delete user when it exists.
-     * Verifies that the repository's existsById and deleteById methods are called.
+     * Verifies that the user is deleted with a single repository call
+     * (deleteRowById), and that the cached projects (deleted with it by the
+     * database) are evicted.
      * 
      * @throws NotFoundException if user does not exist (not expected in this test).
      */
     @Test
     void shouldDelete_whenExists() {
         // Arrange
-        when(repo.existsById(15L)).thenReturn(true);
+        when(repo.deleteRowById(15L)).thenReturn(1);
+        when(emf.getCache()).thenReturn(entityCache);
 
         // Act
-        service.delete(15L);
+        service.delete(15L, null);
 
         // Assert
-        verify(repo).existsById(15L);
-        verify(repo).deleteById(15L);
-        verifyNoMoreInteractions(repo);
+        verify(repo).deleteRowById(15L);
+        verify(caches).evictUser(15L);
+        verify(entityCache).evict(Project.class);
+        verifyNoMoreInteractions(repo, caches, entityCache);
     }
 
     /**
      * Should throw NotFoundException when deleting a non-existing user.
-     * Verifies that the repository's existsById method is called.
+     * Verifies that a zero row count from deleteRowById is reported as not found.
      * 
      * @throws NotFoundException when user does not exist.
      */
     @Test
     void shouldThrowNotFound_whenDeleteMissing() {
         // Arrange
-        when(repo.existsById(16L)).thenReturn(false);
+        when(repo.deleteRowById(16L)).thenReturn(0);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.delete(16L))
+        assertThatThrownBy(() -> service.delete(16L, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
-        verify(repo).existsById(16L);
-        verifyNoMoreInteractions(repo);
+        verify(repo).deleteRowById(16L);
+        verify(caches).evictUser(16L);
+        verifyNoMoreInteractions(repo, caches);
+    }
+
+    /**
+     * Should throw PreconditionFailedException when the user version is not
+     * one of the expected ones.
+     * Verifies that nothing is flushed.
+     */
+    @Test
+    void shouldThrowPreconditionFailed_whenUpdateVersionStale() {
+        // Arrange
+        AppUser entity = TestDataFactory.userEntity(17L, "Old", "old@mail.com");
+        when(repo.findById(17L)).thenReturn(Optional.of(entity));
+        AppUserRequestDTO req = TestDataFactory.userReq("New", "new@mail.com");
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.update(17L, req, Set.of("4")))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("User 17 has been modified");
+        assertThat(entity.getName()).isEqualTo("Old");
+        verify(repo).findById(17L);
+        verify(caches).evictUser(17L);
+        verifyNoMoreInteractions(repo, caches);
     }
 
     // --- SIMPLE DTO VALIDATION ---
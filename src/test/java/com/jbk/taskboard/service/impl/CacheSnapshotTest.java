@@ -0,0 +1,147 @@
+package com.jbk.taskboard.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.config.CoalescingProperties;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.task.TaskResponseDTO;
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.repository.AppUserRepository;
+import com.jbk.taskboard.repository.IdVersion;
+import com.jbk.taskboard.repository.ProjectRepository;
+import com.jbk.taskboard.testutil.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheSnapshot.
+ * Fills the caches of one "instance" (repositories mocked), writes the
+ * snapshot to a temporary directory and restores it into the caches of a
+ * second instance, checking what the restored entries still read from the
+ * repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheSnapshotTest {
+
+    @Mock
+    private AppUserRepository userRepo;
+    @Mock
+    private ProjectRepository projectRepo;
+
+    @TempDir
+    private Path dir;
+
+    private final ObjectMapper om = JsonMapper.builder().findAndAddModules().build();
+    private final SingleFlight flights = new SingleFlight(new CoalescingProperties(true, Duration.ofSeconds(1)),
+            new SimpleMeterRegistry());
+    private CacheProperties properties;
+    private AppUser carol;
+    private Project alpha;
+
+    @BeforeEach
+    void init() {
+        CacheProperties.Spec spec = new CacheProperties.Spec(100, Duration.ofMinutes(10));
+        properties = new CacheProperties(spec, spec, null,
+                new CacheProperties.TaskJson(DataSize.ofMegabytes(1), Duration.ofMinutes(10), true,
+                        DataSize.ofBytes(64)),
+                new CacheProperties.Snapshot(true, dir.resolve("caches.snapshot"), Duration.ofMinutes(5)), null, null);
+        carol = TestDataFactory.userEntity(1L, "Carol", "carol@mail.com");
+        alpha = TestDataFactory.projectEntity(10L, "Alpha", "A", carol);
+    }
+
+    /**
+     * Should restore users, projects and tasks written by another instance;
+     * users and projects are then only checked against their versions, tasks
+     * served as they were encoded.
+     */
+    @Test
+    void shouldRestoreCaches_fromSnapshot() throws IOException {
+        // Arrange
+        DtoCaches caches = new DtoCaches(userRepo, projectRepo, properties, flights, new SimpleMeterRegistry());
+        TaskJsonCache taskJson = new TaskJsonCache(om, properties, new SimpleMeterRegistry());
+        when(userRepo.findAllById(Set.of(1L))).thenReturn(List.of(carol));
+        when(projectRepo.findWithOwnerByIdIn(Set.of(10L))).thenReturn(List.of(alpha));
+        caches.user(1L);
+        caches.project(10L);
+        var task = taskJson.get(5L, "2.0.0", () -> VersionedDTO.of(task("X".repeat(100)), "2.0.0"));
+        new CacheSnapshot(caches, taskJson, om, properties).save();
+        clearInvocations(userRepo, projectRepo);
+
+        DtoCaches restoredCaches = new DtoCaches(userRepo, projectRepo, properties, flights, new SimpleMeterRegistry());
+        TaskJsonCache restoredTaskJson = new TaskJsonCache(om, properties, new SimpleMeterRegistry());
+        when(userRepo.findVersionsByIdIn(Set.of(1L))).thenReturn(List.of(new IdVersion(1L, "0")));
+        when(projectRepo.findVersionsByIdIn(Set.of(10L))).thenReturn(List.of(new IdVersion(10L, "0.0")));
+
+        // Act
+        int restored = new CacheSnapshot(restoredCaches, restoredTaskJson, om, properties).load();
+        var user = restoredCaches.user(1L);
+        var project = restoredCaches.project(10L);
+        var restoredTask = restoredTaskJson.get(5L, "2.0.0", () -> {
+            throw new AssertionError("task read again");
+        });
+
+        // Assert
+        assertThat(restored).isEqualTo(3);
+        assertThat(user).hasValueSatisfying(u -> assertThat(u.value().email()).isEqualTo("carol@mail.com"));
+        assertThat(project).hasValueSatisfying(p -> {
+            assertThat(p.value().createdAt()).isEqualTo(alpha.getCreatedAt());
+            assertThat(p.version()).isEqualTo("0.0");
+        });
+        assertThat(restoredTask.value().json()).isEqualTo(task.value().json());
+        assertThat(restoredTask.value().gzip()).isEqualTo(task.value().gzip()).isNotNull();
+        verify(userRepo).findVersionsByIdIn(Set.of(1L));
+        verify(projectRepo).findVersionsByIdIn(Set.of(10L));
+        verifyNoMoreInteractions(userRepo, projectRepo);
+    }
+
+    /**
+     * Should ignore a missing or unreadable snapshot.
+     */
+    @Test
+    void shouldIgnoreMissingOrCorruptSnapshot() throws IOException {
+        // Arrange
+        DtoCaches caches = new DtoCaches(userRepo, projectRepo, properties, flights, new SimpleMeterRegistry());
+        TaskJsonCache taskJson = new TaskJsonCache(om, properties, new SimpleMeterRegistry());
+        CacheSnapshot snapshot = new CacheSnapshot(caches, taskJson, om, properties);
+
+        // Act
+        int missing = snapshot.load();
+        Files.write(properties.snapshot().file(), new byte[] { 'T', 'B', 'C', 'S', 0, 0 });
+        int corrupt = snapshot.load();
+
+        // Assert
+        assertThat(missing).isZero();
+        assertThat(corrupt).isZero();
+        assertThat(caches.userEntries()).isEmpty();
+        verifyNoInteractions(userRepo, projectRepo);
+    }
+
+    // Builds task 5 with the given title, in project Alpha.
+    private TaskResponseDTO task(String title) {
+        return TaskResponseDTO.of(5L, title, "d", TaskStatus.TODO, TaskPriority.HIGH,
+                Instant.parse("2024-01-01T00:00:00Z"), null,
+                ProjectResponseDTO.of(10L, "Alpha", "A", null, null));
+    }
+}
@@ -0,0 +1,266 @@
+package com.jbk.taskboard.service.impl;
+
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.config.CoalescingProperties;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.repository.AppUserRepository;
+import com.jbk.taskboard.repository.IdVersion;
+import com.jbk.taskboard.repository.ProjectRepository;
+import com.jbk.taskboard.testutil.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DtoCaches.
+ * Mocks the repositories to check when the caches read from them, how task
+ * projects are assembled, which entries the evictions remove and how
+ * restored entries are verified.
+ */
+@ExtendWith(MockitoExtension.class)
+class DtoCachesTest {
+
+    @Mock
+    private AppUserRepository userRepo;
+    @Mock
+    private ProjectRepository projectRepo;
+
+    private SimpleMeterRegistry registry;
+    private DtoCaches caches;
+
+    private AppUser carol;
+    private AppUser dan;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        CacheProperties.Spec spec = new CacheProperties.Spec(100, Duration.ofMinutes(10));
+        caches = new DtoCaches(userRepo, projectRepo, new CacheProperties(spec, spec, null, null, null, null, null),
+                new SingleFlight(new CoalescingProperties(true, Duration.ofSeconds(1)), registry), registry);
+        carol = TestDataFactory.userEntity(1L, "Carol", "carol@mail.com");
+        dan = TestDataFactory.userEntity(2L, "Dan", "dan@mail.com");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Should read a user once and count the miss and the hit.
+     */
+    @Test
+    void shouldLoadUserOnce_andRecordHitAndMiss() {
+        // Arrange
+        when(userRepo.findAllById(Set.of(1L))).thenReturn(List.of(carol));
+
+        // Act
+        caches.user(1L);
+        var res = caches.user(1L);
+
+        // Assert
+        assertThat(res).hasValueSatisfying(u -> {
+            assertThat(u.value().email()).isEqualTo("carol@mail.com");
+            assertThat(u.version()).isEqualTo("0");
+        });
+        assertThat(gets("users", "miss")).isEqualTo(1);
+        assertThat(gets("users", "hit")).isEqualTo(1);
+        verify(userRepo).findAllById(Set.of(1L));
+        verifyNoMoreInteractions(userRepo, projectRepo);
+    }
+
+    /**
+     * Should not cache a missing user.
+     */
+    @Test
+    void shouldNotCacheMissingUser() {
+        // Arrange
+        when(userRepo.findAllById(Set.of(9L))).thenReturn(List.of());
+
+        // Act
+        var first = caches.user(9L);
+        var second = caches.user(9L);
+
+        // Assert
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        verify(userRepo, times(2)).findAllById(Set.of(9L));
+    }
+
+    /**
+     * Should assemble task projects with one query per cache, with the full
+     * owner and no project creation date, leaving missing projects out.
+     */
+    @Test
+    void shouldAssembleTaskProjects_withOneQueryPerCache() {
+        // Arrange
+        Project alpha = TestDataFactory.projectEntity(10L, "Alpha", "A", carol);
+        Project beta = TestDataFactory.projectEntity(11L, "Beta", "B", carol);
+        when(projectRepo.findWithOwnerByIdIn(Set.of(10L, 11L, 12L))).thenReturn(List.of(alpha, beta));
+        when(userRepo.findAllById(Set.of(1L))).thenReturn(List.of(carol));
+
+        // Act
+        Map<Long, ProjectResponseDTO> res = caches.taskProjects(Set.of(10L, 11L, 12L));
+
+        // Assert
+        assertThat(res).containsOnlyKeys(10L, 11L);
+        assertThat(res.get(10L).createdAt()).isNull();
+        assertThat(res.get(10L).owner().createdAt()).isEqualTo(carol.getCreatedAt());
+        verify(projectRepo).findWithOwnerByIdIn(Set.of(10L, 11L, 12L));
+        verify(userRepo).findAllById(Set.of(1L));
+        verifyNoMoreInteractions(userRepo, projectRepo);
+    }
+
+    /**
+     * Should evict a user and the projects they own, and keep the others.
+     */
+    @Test
+    void shouldEvictUser_andOwnedProjects() {
+        // Arrange
+        Project alpha = TestDataFactory.projectEntity(10L, "Alpha", "A", carol);
+        Project gamma = TestDataFactory.projectEntity(12L, "Gamma", "G", dan);
+        when(projectRepo.findWithOwnerByIdIn(Set.of(10L))).thenReturn(List.of(alpha));
+        when(projectRepo.findWithOwnerByIdIn(Set.of(12L))).thenReturn(List.of(gamma));
+        caches.project(10L);
+        caches.project(12L);
+
+        // Act
+        caches.evictUser(1L);
+        caches.project(10L);
+        caches.project(12L);
+
+        // Assert
+        verify(projectRepo, times(2)).findWithOwnerByIdIn(Set.of(10L));
+        verify(projectRepo).findWithOwnerByIdIn(Set.of(12L));
+    }
+
+    /**
+     * Should evict a project again when the transaction completes, dropping
+     * an entry loaded in between (e.g. by a reader that saw the old row).
+     */
+    @Test
+    void shouldEvictProjectAgain_whenTransactionCompletes() {
+        // Arrange
+        Project alpha = TestDataFactory.projectEntity(10L, "Alpha", "A", carol);
+        when(projectRepo.findWithOwnerByIdIn(Set.of(10L))).thenReturn(List.of(alpha));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        caches.evictProject(10L);
+        caches.project(10L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        caches.project(10L);
+
+        // Assert
+        verify(projectRepo, times(2)).findWithOwnerByIdIn(Set.of(10L));
+    }
+
+    /**
+     * Should reload the project and owner nested in a listing once the
+     * listing version shows they changed (e.g. through another instance), and
+     * keep them while it does not.
+     */
+    @Test
+    void shouldReloadTaskProject_whenVersionChanged() {
+        // Arrange
+        AppUser caroline = TestDataFactory.userEntity(1L, "Caroline", "carol@mail.com");
+        when(projectRepo.findWithOwnerByIdIn(Set.of(10L))).thenReturn(
+                List.of(TestDataFactory.projectEntity(10L, "Alpha", "A", carol)),
+                List.of(TestDataFactory.projectEntity(10L, "Alpha 2", "A", caroline)));
+        when(userRepo.findAllById(Set.of(1L))).thenReturn(List.of(carol), List.of(caroline));
+
+        // Act
+        Map<Long, ProjectResponseDTO> first = caches.taskProjects(10L, "0.0");
+        Map<Long, ProjectResponseDTO> unchanged = caches.taskProjects(10L, "0.0");
+        Map<Long, ProjectResponseDTO> changed = caches.taskProjects(10L, "1.1");
+
+        // Assert
+        assertThat(first.get(10L).name()).isEqualTo("Alpha");
+        assertThat(unchanged.get(10L)).isEqualTo(first.get(10L));
+        assertThat(changed.get(10L).name()).isEqualTo("Alpha 2");
+        assertThat(changed.get(10L).owner().name()).isEqualTo("Caroline");
+        verify(projectRepo, times(2)).findWithOwnerByIdIn(Set.of(10L));
+        verify(userRepo, times(2)).findAllById(Set.of(1L));
+        verifyNoMoreInteractions(userRepo, projectRepo);
+    }
+
+    /**
+     * Should check restored projects against their versions when first read,
+     * with one version query, reloading only the stale ones.
+     */
+    @Test
+    void shouldVerifyRestoredProjects_whenFirstRead() {
+        // Arrange
+        caches.restoreProjects(Map.of(
+                10L, VersionedDTO.of(ProjectResponseDTO.of(10L, "Alpha", "A", Instant.EPOCH, owner(1L)), "0.0"),
+                11L, VersionedDTO.of(ProjectResponseDTO.of(11L, "Old", "B", Instant.EPOCH, owner(1L)), "0.0")));
+        caches.restoreUsers(Map.of(1L, VersionedDTO.of(AppUserResponseDTO.of(1L, "Carol", "carol@mail.com",
+                Instant.EPOCH), "0")));
+        Project beta = TestDataFactory.projectEntity(11L, "Beta", "B", carol);
+        when(projectRepo.findVersionsByIdIn(Set.of(10L, 11L)))
+                .thenReturn(List.of(new IdVersion(10L, "0.0"), new IdVersion(11L, "1.0")));
+        when(userRepo.findVersionsByIdIn(Set.of(1L))).thenReturn(List.of(new IdVersion(1L, "0")));
+        when(projectRepo.findWithOwnerByIdIn(Set.of(11L))).thenReturn(List.of(beta));
+
+        // Act
+        Map<Long, ProjectResponseDTO> res = caches.taskProjects(Set.of(10L, 11L));
+        caches.taskProjects(Set.of(10L, 11L));
+
+        // Assert
+        assertThat(res.get(10L).name()).isEqualTo("Alpha");
+        assertThat(res.get(11L).name()).isEqualTo("Beta");
+        verify(projectRepo).findVersionsByIdIn(Set.of(10L, 11L));
+        verify(userRepo).findVersionsByIdIn(Set.of(1L));
+        verify(projectRepo).findWithOwnerByIdIn(Set.of(11L));
+        verifyNoMoreInteractions(userRepo, projectRepo);
+    }
+
+    /**
+     * Should reload a restored user that was deleted or changed meanwhile.
+     */
+    @Test
+    void shouldDropRestoredUser_whenDeleted() {
+        // Arrange
+        caches.restoreUsers(Map.of(9L, VersionedDTO.of(AppUserResponseDTO.of(9L, "Gone", "gone@mail.com"), "0")));
+        when(userRepo.findVersionsByIdIn(Set.of(9L))).thenReturn(List.of());
+        when(userRepo.findAllById(Set.of(9L))).thenReturn(List.of());
+
+        // Act
+        var res = caches.user(9L);
+
+        // Assert
+        assertThat(res).isEmpty();
+    }
+
+    // Builds a user response without creation date.
+    private static AppUserResponseDTO owner(long id) {
+        return AppUserResponseDTO.of(id, "Carol", "carol@mail.com");
+    }
+
+    // Returns the cache.gets count of a cache for a result (hit or miss).
+    private double gets(String cache, String result) {
+        return registry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,78 @@
+package com.jbk.taskboard.service.impl;
+
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.service.impl.LastPageCache.Key;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LastPageCache.
+ * Checks that only the last page read of a listing is kept, apart from the
+ * other listings, pagings and positions.
+ */
+class LastPageCacheTest {
+
+    private static final Key USERS = new Key("users", false, 0, 20);
+
+    private SimpleMeterRegistry registry;
+    private LastPageCache cache;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        cache = new LastPageCache(new CacheProperties(null, null, null, null, null, null,
+                new CacheProperties.LastPages(100, Duration.ofMinutes(30))), registry);
+    }
+
+    /**
+     * Should return the last page read of a listing, replacing the previous
+     * one, and publish its cache metrics.
+     */
+    @Test
+    void shouldReturnLastPageRead() {
+        // Arrange
+        cache.remember(USERS, page(AppUserResponseDTO.of(1L, "A", "a@mail.com")));
+        Page<AppUserResponseDTO> last = page(AppUserResponseDTO.of(2L, "B", "b@mail.com"));
+        cache.remember(USERS, last);
+
+        // Act
+        Optional<Page<AppUserResponseDTO>> res = cache.peek(USERS);
+
+        // Assert
+        assertThat(res).containsSame(last);
+        assertThat(registry.find("cache.size").tag("cache", "last-pages").gauge()).isNotNull();
+    }
+
+    /**
+     * Should keep pages and slices, and other positions, apart.
+     */
+    @Test
+    void shouldKeepListingsApart() {
+        // Arrange
+        Slice<AppUserResponseDTO> slice = new SliceImpl<>(List.of(AppUserResponseDTO.of(1L, "A", "a@mail.com")));
+        cache.remember(new Key("users", true, 0, 20), slice);
+
+        // Act + Assert
+        assertThat(cache.<Slice<AppUserResponseDTO>>peek(new Key("users", true, 0, 20))).containsSame(slice);
+        assertThat(cache.peek(USERS)).isEmpty();
+        assertThat(cache.peek(new Key("users", true, 1, 20))).isEmpty();
+        assertThat(cache.peek(new Key("projects", true, 0, 20))).isEmpty();
+    }
+
+    private static Page<AppUserResponseDTO> page(AppUserResponseDTO user) {
+        return new PageImpl<>(List.of(user), PageRequest.of(0, 20), 1);
+    }
+}
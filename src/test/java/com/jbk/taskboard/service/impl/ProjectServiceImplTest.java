@@ -1,10 +1,14 @@
 package com.jbk.taskboard.service.impl;
 
+import com.jbk.taskboard.dto.common.VersionedDTO;
 import com.jbk.taskboard.dto.project.*;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
 import com.jbk.taskboard.entity.AppUser;
 import com.jbk.taskboard.entity.Project;
 import com.jbk.taskboard.exception.BusinessRuleException;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
+import com.jbk.taskboard.mapper.ProjectMapper;
 import com.jbk.taskboard.repository.AppUserRepository;
 import com.jbk.taskboard.repository.ProjectRepository;
 import com.jbk.taskboard.testutil.TestDataFactory;
@@ -21,6 +25,7 @@ import jakarta.validation.Validator;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,6 +51,12 @@ class ProjectServiceImplTest {
     @Mock
     private AppUserRepository userRepo;
 
+    @Mock
+    private DtoCaches caches;
+
+    @Mock
+    private LastPageCache lastPages;
+
     @InjectMocks
     private ProjectServiceImpl service;
 
@@ -60,8 +71,9 @@ class ProjectServiceImplTest {
 
     /**
      * Should create project when owner exists and name is unique.
-     * Verifies that the repository's findById, existsByOwner_IdAndNameIgnoreCase,
-     * and save methods are called.
+     * Verifies that the repository's findById and saveAndFlush methods are
+     * called (no separate duplicate check), then the task change counter is
+     * created.
      * Asserts that the returned DTO has the expected values.
      * 
      * @throws NotFoundException     if owner is not found (not
@@ -74,11 +86,10 @@ class ProjectServiceImplTest {
     void shouldCreateProject_whenOwnerExistsAndNameUnique() {
         // Arrange
         AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
-        when(userRepo.findById(1L)).thenReturn(Optional.of(owner));
-        when(projectRepo.existsByOwner_IdAndNameIgnoreCase(1L, "Alpha")).thenReturn(false);
+        when(userRepo.getReferenceById(1L)).thenReturn(owner);
 
         Project saved = TestDataFactory.projectEntity(100L, "Alpha", "Desc", owner);
-        when(projectRepo.save(any(Project.class))).thenReturn(saved);
+        when(projectRepo.saveAndFlush(any(Project.class))).thenReturn(saved);
 
         ProjectRequestDTO req = TestDataFactory.projectReq("Alpha", "Desc", 1L);
 
@@ -89,15 +100,43 @@ class ProjectServiceImplTest {
         assertThat(res.id()).isEqualTo(100L);
         assertThat(res.name()).isEqualTo("Alpha");
         assertThat(res.owner().id()).isEqualTo(1L);
-        verify(userRepo).findById(1L);
-        verify(projectRepo).existsByOwner_IdAndNameIgnoreCase(1L, "Alpha");
-        verify(projectRepo).save(any(Project.class));
+        verify(userRepo).getReferenceById(1L);
+        verify(projectRepo).saveAndFlush(any(Project.class));
+        verify(projectRepo).insertTaskChangeCount(100L);
+        verifyNoMoreInteractions(projectRepo, userRepo);
+    }
+
+    /**
+     * Should create project and return only its ID for a minimal create.
+     * Verifies that the owner is bound by reference and that no response is
+     * read.
+     */
+    @Test
+    void shouldReturnId_whenCreateMinimal() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
+        when(userRepo.getReferenceById(1L)).thenReturn(owner);
+        when(projectRepo.saveAndFlush(any(Project.class))).thenAnswer(inv -> {
+            Project p = inv.getArgument(0);
+            p.setId(101L);
+            return p;
+        });
+        ProjectRequestDTO req = TestDataFactory.projectReq("Alpha", "Desc", 1L);
+
+        // Act
+        long id = service.createMinimal(req);
+
+        // Assert
+        assertThat(id).isEqualTo(101L);
+        verify(userRepo).getReferenceById(1L);
+        verify(projectRepo).saveAndFlush(any(Project.class));
+        verify(projectRepo).insertTaskChangeCount(101L);
         verifyNoMoreInteractions(projectRepo, userRepo);
     }
 
     /**
      * Should throw NotFoundException when creating project with missing owner.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the foreign key violation raised by saveAndFlush is translated.
      * 
      * @throws NotFoundException     when owner is not found.
      * @throws BusinessRuleException when project name is not
@@ -106,23 +145,24 @@ class ProjectServiceImplTest {
     @Test
     void shouldThrowNotFound_whenCreateOwnerMissing() {
         // Arrange
-        when(userRepo.findById(7L)).thenReturn(Optional.empty());
+        when(userRepo.getReferenceById(7L)).thenReturn(TestDataFactory.userEntity(7L, null, null));
+        when(projectRepo.saveAndFlush(any(Project.class))).thenThrow(TestDataFactory.constraintViolation(Project.FK_OWNER));
         ProjectRequestDTO req = TestDataFactory.projectReq("Alpha", "Desc", 7L);
 
         // Act + Assert
         assertThatThrownBy(() -> service.create(req))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Owner not found");
-        verify(userRepo).findById(7L);
+        verify(userRepo).getReferenceById(7L);
+        verify(projectRepo).saveAndFlush(any(Project.class));
         verifyNoMoreInteractions(projectRepo, userRepo);
     }
 
     /**
      * Should throw BusinessRuleException when creating project with duplicate name
      * per owner.
-     * Verifies that the repository's findById and existsByOwner_IdAndNameIgnoreCase
-     * methods are called.
-     * Asserts that no project is saved.
+     * Verifies that the unique key violation raised by saveAndFlush is
+     * translated.
      * 
      * @throws NotFoundException     if owner is not found (not
      *                               expected in this test).
@@ -133,8 +173,8 @@ class ProjectServiceImplTest {
     void shouldThrowBusinessRule_whenCreateDuplicateNamePerOwner() {
         // Arrange
         AppUser owner = TestDataFactory.userEntity(2L, "Bob", "bob@mail.com");
-        when(userRepo.findById(2L)).thenReturn(Optional.of(owner));
-        when(projectRepo.existsByOwner_IdAndNameIgnoreCase(2L, "Alpha")).thenReturn(true);
+        when(userRepo.getReferenceById(2L)).thenReturn(owner);
+        when(projectRepo.saveAndFlush(any(Project.class))).thenThrow(TestDataFactory.constraintViolation(Project.UK_OWNER_NAME));
 
         ProjectRequestDTO req = TestDataFactory.projectReq("Alpha", "Desc", 2L);
 
@@ -142,8 +182,8 @@ class ProjectServiceImplTest {
         assertThatThrownBy(() -> service.create(req))
                 .isInstanceOf(BusinessRuleException.class)
                 .hasMessageContaining("Project name already exists");
-        verify(userRepo).findById(2L);
-        verify(projectRepo).existsByOwner_IdAndNameIgnoreCase(2L, "Alpha");
+        verify(userRepo).getReferenceById(2L);
+        verify(projectRepo).saveAndFlush(any(Project.class));
         verifyNoMoreInteractions(projectRepo, userRepo);
     }
 
@@ -151,7 +191,7 @@ class ProjectServiceImplTest {
 
     /**
      * Should return project when getById exists.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the project is read from the cache (not the repository).
      * Asserts that the returned DTO has the expected values.
      * 
      * @throws NotFoundException if project is not found (not expected in this
@@ -162,43 +202,65 @@ class ProjectServiceImplTest {
         // Arrange
         AppUser owner = TestDataFactory.userEntity(3L, "Carol", "carol@mail.com");
         Project entity = TestDataFactory.projectEntity(200L, "Beta", "B", owner);
-        when(projectRepo.findById(200L)).thenReturn(Optional.of(entity));
+        when(caches.project(200L)).thenReturn(Optional.of(VersionedDTO.of(ProjectMapper.toResponse(entity), "1.2")));
 
         // Act
-        ProjectResponseDTO res = service.getById(200L);
+        VersionedDTO<ProjectResponseDTO> res = service.getById(200L);
 
         // Assert
-        assertThat(res.id()).isEqualTo(200L);
-        assertThat(res.name()).isEqualTo("Beta");
-        assertThat(res.owner().email()).isEqualTo("carol@mail.com");
-        verify(projectRepo).findById(200L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        assertThat(res.value().id()).isEqualTo(200L);
+        assertThat(res.value().name()).isEqualTo("Beta");
+        assertThat(res.value().owner().email()).isEqualTo("carol@mail.com");
+        assertThat(res.version()).isEqualTo("1.2");
+        verify(caches).project(200L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     /**
      * Should throw NotFoundException when getById missing.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the cache is queried.
      * 
      * @throws NotFoundException if project is not found (expected in this test).
      */
     @Test
     void shouldThrowNotFound_whenGetByIdMissing() {
         // Arrange
-        when(projectRepo.findById(404L)).thenReturn(Optional.empty());
+        when(caches.project(404L)).thenReturn(Optional.empty());
 
         // Act + Assert
         assertThatThrownBy(() -> service.getById(404L))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Project not found");
-        verify(projectRepo).findById(404L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        verify(caches).project(404L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
+    }
+
+    /**
+     * Should return the current version of the project.
+     * Verifies that the version is read from the database and the cached
+     * project checked against it (no project is loaded).
+     */
+    @Test
+    void shouldReturnVersion_andRefreshCache() {
+        // Arrange
+        when(projectRepo.findVersionById(7L)).thenReturn(Optional.of("2.1"));
+
+        // Act
+        String version = service.getVersion(7L);
+
+        // Assert
+        assertThat(version).isEqualTo("2.1");
+        verify(projectRepo).findVersionById(7L);
+        verify(caches).refreshProject(7L, "2.1");
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     // --- LIST ---
 
     /**
      * Should list projects with pagination.
-     * Verifies that the repository's findAll method is called.
+     * Verifies that the repository's findResponsePage method (page and total
+     * in one query) is called.
      * Asserts that the returned page has the expected content and order.
      * 
      * @throws NotFoundException if any referenced entity is not found (not expected
@@ -209,30 +271,69 @@ class ProjectServiceImplTest {
     @Test
     void shouldListProjects_withPagination() {
         // Arrange
-        AppUser owner = TestDataFactory.userEntity(5L, "Dan", "dan@mail.com");
-        List<Project> content = List.of(
-                TestDataFactory.projectEntity(3L, "Gamma", "G", owner),
-                TestDataFactory.projectEntity(1L, "Omega", "O", owner));
-        Page<Project> page = new PageImpl<>(content, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")), 2);
-        when(projectRepo.findAll(any(Pageable.class))).thenReturn(page);
+        AppUserResponseDTO owner = AppUserResponseDTO.of(5L, "Dan", "dan@mail.com");
+        List<ProjectResponseDTO> content = List.of(
+                ProjectResponseDTO.of(3L, "Gamma", "G", null, owner),
+                ProjectResponseDTO.of(1L, "Omega", "O", null, owner));
+        PageRequest pr = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        when(projectRepo.findResponsePage(pr)).thenReturn(new PageImpl<>(content, pr, 4));
 
         // Act
         Page<ProjectResponseDTO> res = service.list(0, 2);
 
         // Assert
-        assertThat(res.getTotalElements()).isEqualTo(2);
+        assertThat(res.getTotalElements()).isEqualTo(4);
         assertThat(res.getContent()).extracting(ProjectResponseDTO::id).containsExactly(3L, 1L);
-        verify(projectRepo).findAll(any(Pageable.class));
+        verify(projectRepo).findResponsePage(pr);
+        verifyNoMoreInteractions(projectRepo, userRepo);
+    }
+
+    /**
+     * Should list projects as a slice without counting.
+     * Verifies that size + 1 rows are read and that no count query is issued.
+     */
+    @Test
+    void shouldListProjectsSlice_withoutCount() {
+        // Arrange
+        AppUserResponseDTO owner = AppUserResponseDTO.of(5L, "Dan", "dan@mail.com");
+        List<ProjectResponseDTO> content = List.of(ProjectResponseDTO.of(3L, "Gamma", "G", null, owner));
+        when(projectRepo.findResponses(any(Sort.class), eq(0L), eq(2))).thenReturn(content);
+
+        // Act
+        Slice<ProjectResponseDTO> res = service.listSlice(0, 1);
+
+        // Assert
+        assertThat(res.hasNext()).isFalse();
+        assertThat(res.getContent()).extracting(ProjectResponseDTO::id).containsExactly(3L);
+        verify(projectRepo).findResponses(any(Sort.class), eq(0L), eq(2));
+        verify(lastPages).remember(new LastPageCache.Key("projects", true, 0, 1), res);
         verifyNoMoreInteractions(projectRepo, userRepo);
     }
 
+    /**
+     * Should serve the last page of projects read with the same page and
+     * size, without accessing the database.
+     */
+    @Test
+    void shouldListCachedProjects_fromLastPage() {
+        // Arrange
+        Page<ProjectResponseDTO> page = new PageImpl<>(List.of(), PageRequest.of(1, 5), 3);
+        when(lastPages.<Page<ProjectResponseDTO>>peek(new LastPageCache.Key("projects", false, 1, 5)))
+                .thenReturn(Optional.of(page));
+
+        // Act
+        Optional<Page<ProjectResponseDTO>> res = service.listCached(1, 5);
+
+        // Assert
+        assertThat(res).containsSame(page);
+        verifyNoInteractions(projectRepo, userRepo);
+    }
+
     // --- UPDATE ---
 
     /**
      * Should update project when owner exists and name is unique.
-     * Verifies that the repository's findById,
-     * existsByOwner_IdAndNameIgnoreCaseAndIdNot,
-     * and save methods are called.
+     * Verifies that the repository's findById and flush methods are called.
      * Asserts that the returned DTO has the expected values.
      * 
      * @throws NotFoundException     if project or owner is not found.
@@ -246,13 +347,12 @@ class ProjectServiceImplTest {
         Project entity = TestDataFactory.projectEntity(500L, "Old", "D", oldOwner);
 
         when(projectRepo.findById(500L)).thenReturn(Optional.of(entity));
-        when(userRepo.findById(7L)).thenReturn(Optional.of(newOwner));
-        when(projectRepo.existsByOwner_IdAndNameIgnoreCaseAndIdNot(7L, "NewName", 500L)).thenReturn(false);
+        when(userRepo.getReferenceById(7L)).thenReturn(newOwner);
 
         ProjectRequestDTO req = TestDataFactory.projectReq("NewName", "NewDesc", 7L);
 
         // Act
-        ProjectResponseDTO res = service.update(500L, req);
+        ProjectResponseDTO res = service.update(500L, req, null).value();
 
         // Assert
         assertThat(res.id()).isEqualTo(500L);
@@ -260,9 +360,87 @@ class ProjectServiceImplTest {
         assertThat(res.description()).isEqualTo("NewDesc");
         assertThat(res.owner().id()).isEqualTo(7L);
         verify(projectRepo).findById(500L);
-        verify(userRepo).findById(7L);
-        verify(projectRepo).existsByOwner_IdAndNameIgnoreCaseAndIdNot(7L, "NewName", 500L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        verify(userRepo).getReferenceById(7L);
+        verify(projectRepo).flush();
+        verify(caches).evictProject(500L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
+    }
+
+    // --- PATCH ---
+
+    /**
+     * Should patch only the supplied fields, keeping the owner.
+     * Verifies that the owner is not bound when the patch does not change it.
+     */
+    @Test
+    void shouldPatchSuppliedFieldsOnly_whenOwnerUnchanged() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(6L, "Eve", "eve@mail.com");
+        Project entity = TestDataFactory.projectEntity(510L, "Name", "D", owner);
+        when(projectRepo.findById(510L)).thenReturn(Optional.of(entity));
+        ProjectPatchRequestDTO req = new ProjectPatchRequestDTO(null, Optional.empty(), null);
+
+        // Act
+        ProjectResponseDTO res = service.patch(510L, req, null).value();
+
+        // Assert
+        assertThat(res.name()).isEqualTo("Name");
+        assertThat(res.description()).isNull();
+        assertThat(res.owner().id()).isEqualTo(6L);
+        verify(projectRepo).findById(510L);
+        verify(projectRepo).flush();
+        verify(caches).evictProject(510L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
+    }
+
+    /**
+     * Should throw PreconditionFailedException when the project version
+     * (project and owner versions) is not one of the expected ones.
+     * Verifies that nothing is flushed.
+     */
+    @Test
+    void shouldThrowPreconditionFailed_whenPatchVersionStale() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(6L, "Eve", "eve@mail.com");
+        Project entity = TestDataFactory.projectEntity(511L, "Name", "D", owner);
+        when(projectRepo.findById(511L)).thenReturn(Optional.of(entity));
+        ProjectPatchRequestDTO req = new ProjectPatchRequestDTO(Optional.of("Other"), null, null);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.patch(511L, req, Set.of("0.1")))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("version 0.0");
+        assertThat(entity.getName()).isEqualTo("Name");
+        verify(projectRepo).findById(511L);
+        verify(caches).evictProject(511L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
+    }
+
+    /**
+     * Should bind the new owner by reference when a patch changes it.
+     * Verifies that no response is read for a minimal patch.
+     */
+    @Test
+    void shouldBindNewOwner_whenPatchChangesOwner() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(6L, "Eve", "eve@mail.com");
+        AppUser newOwner = TestDataFactory.userEntity(7L, "Frank", "frank@mail.com");
+        Project entity = TestDataFactory.projectEntity(511L, "Name", "D", owner);
+        when(projectRepo.findById(511L)).thenReturn(Optional.of(entity));
+        when(userRepo.getReferenceById(7L)).thenReturn(newOwner);
+        ProjectPatchRequestDTO req = new ProjectPatchRequestDTO(null, null, Optional.of(7L));
+
+        // Act
+        service.patchMinimal(511L, req, null);
+
+        // Assert
+        assertThat(entity.getOwner()).isSameAs(newOwner);
+        assertThat(entity.getName()).isEqualTo("Name");
+        verify(projectRepo).findById(511L);
+        verify(userRepo).getReferenceById(7L);
+        verify(projectRepo).flush();
+        verify(caches).evictProject(511L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     /**
@@ -279,16 +457,17 @@ class ProjectServiceImplTest {
         ProjectRequestDTO req = TestDataFactory.projectReq("X", "D", 1L);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(600L, req))
+        assertThatThrownBy(() -> service.update(600L, req, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Project not found");
         verify(projectRepo).findById(600L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        verify(caches).evictProject(600L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     /**
      * Should throw NotFoundException when updating project with missing owner.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the foreign key violation raised by flush is translated.
      * 
      * @throws NotFoundException     when owner is not found.
      * @throws BusinessRuleException when project name is not unique per owner.
@@ -299,24 +478,26 @@ class ProjectServiceImplTest {
         AppUser oldOwner = TestDataFactory.userEntity(8L, "Gus", "gus@mail.com");
         Project entity = TestDataFactory.projectEntity(700L, "P", "D", oldOwner);
         when(projectRepo.findById(700L)).thenReturn(Optional.of(entity));
-        when(userRepo.findById(999L)).thenReturn(Optional.empty());
+        when(userRepo.getReferenceById(999L)).thenReturn(TestDataFactory.userEntity(999L, null, null));
+        doThrow(TestDataFactory.constraintViolation(Project.FK_OWNER)).when(projectRepo).flush();
 
         ProjectRequestDTO req = TestDataFactory.projectReq("P2", "D2", 999L);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(700L, req))
+        assertThatThrownBy(() -> service.update(700L, req, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Owner not found");
         verify(projectRepo).findById(700L);
-        verify(userRepo).findById(999L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        verify(userRepo).getReferenceById(999L);
+        verify(projectRepo).flush();
+        verify(caches).evictProject(700L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     /**
      * Should throw BusinessRuleException when updating project with duplicate name
      * per owner.
-     * Verifies that the repository's findById and
-     * existsByOwner_IdAndNameIgnoreCaseAndIdNot methods are called.
+     * Verifies that the unique key violation raised by flush is translated.
      * 
      * @throws NotFoundException     when project or owner is not found.
      * @throws BusinessRuleException when project name is not unique per owner.
@@ -327,26 +508,28 @@ class ProjectServiceImplTest {
         AppUser owner = TestDataFactory.userEntity(10L, "H", "h@mail.com");
         Project entity = TestDataFactory.projectEntity(800L, "Old", "D", owner);
         when(projectRepo.findById(800L)).thenReturn(Optional.of(entity));
-        when(userRepo.findById(10L)).thenReturn(Optional.of(owner));
-        when(projectRepo.existsByOwner_IdAndNameIgnoreCaseAndIdNot(10L, "Clash", 800L)).thenReturn(true);
+        when(userRepo.getReferenceById(10L)).thenReturn(owner);
+        doThrow(TestDataFactory.constraintViolation(Project.UK_OWNER_NAME)).when(projectRepo).flush();
 
         ProjectRequestDTO req = TestDataFactory.projectReq("Clash", "D2", 10L);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(800L, req))
+        assertThatThrownBy(() -> service.update(800L, req, null))
                 .isInstanceOf(BusinessRuleException.class)
                 .hasMessageContaining("Project name already exists");
         verify(projectRepo).findById(800L);
-        verify(userRepo).findById(10L);
-        verify(projectRepo).existsByOwner_IdAndNameIgnoreCaseAndIdNot(10L, "Clash", 800L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        verify(userRepo).getReferenceById(10L);
+        verify(projectRepo).flush();
+        verify(caches).evictProject(800L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     // --- DELETE ---
 
     /**
      * Should delete project when it exists.
-     * Verifies that the repository's existsById and deleteById methods are called.
+     * Verifies that the project is deleted with a single repository call
+     * (deleteRowById).
      * 
      * @throws NotFoundException if project is not found (not expected in this
      *                           test).
@@ -354,34 +537,54 @@ class ProjectServiceImplTest {
     @Test
     void shouldDelete_whenExists() {
         // Arrange
-        when(projectRepo.existsById(900L)).thenReturn(true);
+        when(projectRepo.deleteRowById(900L)).thenReturn(1);
 
         // Act
-        service.delete(900L);
+        service.delete(900L, null);
 
         // Assert
-        verify(projectRepo).existsById(900L);
-        verify(projectRepo).deleteById(900L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        verify(projectRepo).deleteRowById(900L);
+        verify(caches).evictProject(900L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     /**
      * Should throw NotFoundException when deleting missing project.
-     * Verifies that the repository's existsById method is called.
+     * Verifies that a zero row count from deleteRowById is reported as not found.
      * 
      * @throws NotFoundException when project is not found.
      */
     @Test
     void shouldThrowNotFound_whenDeleteMissing() {
         // Arrange
-        when(projectRepo.existsById(901L)).thenReturn(false);
+        when(projectRepo.deleteRowById(901L)).thenReturn(0);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.delete(901L))
+        assertThatThrownBy(() -> service.delete(901L, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Project not found");
-        verify(projectRepo).existsById(901L);
-        verifyNoMoreInteractions(projectRepo, userRepo);
+        verify(projectRepo).deleteRowById(901L);
+        verify(caches).evictProject(901L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
+    }
+
+    /**
+     * Should throw PreconditionFailedException when the conditional delete
+     * matches nothing but the project exists.
+     */
+    @Test
+    void shouldThrowPreconditionFailed_whenDeleteVersionStale() {
+        // Arrange
+        when(projectRepo.deleteRowByIdAndVersionIn(902L, Set.of("1.0"))).thenReturn(0);
+        when(projectRepo.findVersionById(902L)).thenReturn(Optional.of("1.1"));
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.delete(902L, Set.of("1.0")))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(projectRepo).deleteRowByIdAndVersionIn(902L, Set.of("1.0"));
+        verify(projectRepo).findVersionById(902L);
+        verify(caches).evictProject(902L);
+        verifyNoMoreInteractions(projectRepo, userRepo, caches);
     }
 
     // --- SIMPLE DTO VALIDATION ---
@@ -0,0 +1,192 @@
+package com.jbk.taskboard.service.impl;
+
+import com.jbk.taskboard.config.CoalescingProperties;
+import com.jbk.taskboard.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ * A first read is held in flight on a latch while other threads call the same
+ * read; the reads actually run are counted, and the calls metrics read back.
+ */
+class SingleFlightTest {
+
+    private SimpleMeterRegistry registry;
+    private ExecutorService executor;
+    private AtomicInteger reads;
+    private CountDownLatch started;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(4);
+        reads = new AtomicInteger();
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Should run identical concurrent reads once and give every caller its
+     * result; a different key runs on its own.
+     */
+    @Test
+    void shouldShareRead_betweenConcurrentCallers() throws Exception {
+        // Arrange
+        SingleFlight flights = flights(Duration.ofSeconds(5));
+        Future<String> leader = executor.submit(() -> flights.run("project", 7L, blockedRead("p7")));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> follower1 = executor.submit(() -> flights.run("project", 7L, read("other")));
+        Future<String> follower2 = executor.submit(() -> flights.run("project", 7L, read("other")));
+        awaitFollowers("project", 2);
+
+        // Act
+        String other = flights.run("project", 8L, read("p8"));
+        release.countDown();
+
+        // Assert
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("p7");
+        assertThat(follower1.get(5, TimeUnit.SECONDS)).isEqualTo("p7");
+        assertThat(follower2.get(5, TimeUnit.SECONDS)).isEqualTo("p7");
+        assertThat(other).isEqualTo("p8");
+        assertThat(reads).hasValue(2);
+        assertThat(calls("project", "leader")).isEqualTo(2);
+        assertThat(calls("project", "joined")).isEqualTo(2);
+    }
+
+    /**
+     * Should give the followers the exception of the shared read.
+     */
+    @Test
+    void shouldShareException_withFollowers() throws Exception {
+        // Arrange
+        SingleFlight flights = flights(Duration.ofSeconds(5));
+        Future<String> leader = executor.submit(() -> flights.run("task", 5L, () -> {
+            started.countDown();
+            await(release);
+            throw new NotFoundException("Task not found: 5");
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> follower = executor.submit(() -> flights.run("task", 5L, read("other")));
+        awaitFollowers("task", 1);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NotFoundException.class);
+        assertThat(reads).hasValue(0);
+    }
+
+    /**
+     * Should run the read on its own once the wait for the read in flight
+     * exceeds the maximum.
+     */
+    @Test
+    void shouldReadAlone_whenWaitExceeded() throws Exception {
+        // Arrange
+        SingleFlight flights = flights(Duration.ofMillis(50));
+        executor.submit(() -> flights.run("task-list", "k", blockedRead("slow")));
+        started.await(5, TimeUnit.SECONDS);
+
+        // Act
+        String res = flights.run("task-list", "k", read("own"));
+
+        // Assert
+        assertThat(res).isEqualTo("own");
+        assertThat(calls("task-list", "timeout")).isEqualTo(1);
+    }
+
+    /**
+     * Should not join a read started before the reads were forgotten (a
+     * write).
+     */
+    @Test
+    void shouldNotJoinRead_startedBeforeForget() throws Exception {
+        // Arrange
+        SingleFlight flights = flights(Duration.ofSeconds(5));
+        Future<String> before = executor.submit(() -> flights.run("project", 7L, blockedRead("old")));
+        started.await(5, TimeUnit.SECONDS);
+
+        // Act
+        flights.forget("project");
+        String after = flights.run("project", 7L, read("new"));
+        release.countDown();
+
+        // Assert
+        assertThat(after).isEqualTo("new");
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("old");
+        assertThat(calls("project", "joined")).isZero();
+    }
+
+    // Creates the coalescing with the given maximum wait.
+    private SingleFlight flights(Duration maxWait) {
+        return new SingleFlight(new CoalescingProperties(true, maxWait), registry);
+    }
+
+    // Returns a read of the given value that counts its calls.
+    private Supplier<String> read(String value) {
+        return () -> {
+            reads.incrementAndGet();
+            return value;
+        };
+    }
+
+    // Returns a read of the given value that signals it started, then waits
+    // for the release.
+    private Supplier<String> blockedRead(String value) {
+        return () -> {
+            reads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return value;
+        };
+    }
+
+    // Waits (up to 5s) until the given number of callers wait for the reads
+    // of a name in flight.
+    private void awaitFollowers(String name, int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("taskboard.single.flight.waiting").tag("name", name).gauge().value() < followers
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    // Returns the taskboard.single.flight.calls count of a name and result.
+    private double calls(String name, String result) {
+        return registry.get("taskboard.single.flight.calls").tag("name", name).tag("result", result).counter()
+                .count();
+    }
+
+    // Waits for a latch, failing after 5s.
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.jbk.taskboard.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jbk.taskboard.dto.task.*;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.exception.BusinessRuleException;
+import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.repository.ProjectRepository;
+import com.jbk.taskboard.service.TaskImportService.Format;
+import com.jbk.taskboard.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskImportServiceImpl.
+ * Mocks TaskService and ProjectRepository and reads real CSV/NDJSON content,
+ * checking how rows are grouped into batches and how errors are reported.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceImplTest {
+
+    @Mock
+    private TaskService taskService;
+    @Mock
+    private ProjectRepository projectRepo;
+
+    private TaskImportServiceImpl service;
+
+    @BeforeEach
+    void init() {
+        service = new TaskImportServiceImpl(taskService, projectRepo, new ObjectMapper().findAndRegisterModules());
+    }
+
+    /**
+     * Tests NDJSON import of more rows than one batch.
+     * Verifies that rows are sent to TaskService in batches of BATCH_SIZE.
+     */
+    @Test
+    void shouldImportNdjsonInBatches() {
+        // Arrange
+        when(projectRepo.existsById(10L)).thenReturn(true);
+        when(taskService.createBatchForProject(eq(10L), anyList())).thenAnswer(inv -> createdAll(inv.getArgument(1)));
+        String body = IntStream.rangeClosed(1, 1201)
+                .mapToObj(i -> "{\"title\":\"Task " + i + "\"}")
+                .collect(Collectors.joining("\n"));
+
+        // Act
+        TaskImportResponseDTO res = service.importForProject(10L, stream(body), Format.NDJSON);
+
+        // Assert
+        assertThat(res.rows()).isEqualTo(1201);
+        assertThat(res.imported()).isEqualTo(1201);
+        assertThat(res.failed()).isZero();
+        assertThat(res.errors()).isEmpty();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskCreateForProjectRequestDTO>> batches = ArgumentCaptor.forClass(List.class);
+        verify(taskService, times(3)).createBatchForProject(eq(10L), batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(500, 500, 201);
+        assertThat(batches.getAllValues().get(2).get(200).title()).isEqualTo("Task 1201");
+        verify(projectRepo).existsById(10L);
+        verifyNoMoreInteractions(taskService, projectRepo);
+    }
+
+    /**
+     * Tests NDJSON import of more rows than one batch with a listener.
+     * Verifies that the counters so far are reported after each committed
+     * batch.
+     */
+    @Test
+    void shouldReportProgress_afterEachBatch() {
+        // Arrange
+        when(projectRepo.existsById(10L)).thenReturn(true);
+        when(taskService.createBatchForProject(eq(10L), anyList())).thenAnswer(inv -> createdAll(inv.getArgument(1)));
+        String body = IntStream.rangeClosed(1, 1001)
+                .mapToObj(i -> "{\"title\":\"Task " + i + "\"}")
+                .collect(Collectors.joining("\n"));
+        List<TaskImportProgressDTO> progress = new ArrayList<>();
+
+        // Act
+        TaskImportResponseDTO res = service.importForProject(10L, stream(body), Format.NDJSON, progress::add);
+
+        // Assert
+        assertThat(res.imported()).isEqualTo(1001);
+        assertThat(progress).containsExactly(
+                TaskImportProgressDTO.of(500, 500, 0),
+                TaskImportProgressDTO.of(1000, 1000, 0),
+                TaskImportProgressDTO.of(1001, 1001, 0));
+    }
+
+    /**
+     * Tests NDJSON import with an unreadable row and a duplicate.
+     * Verifies that errors carry the row number of the upload, including rows
+     * rejected by TaskService.
+     */
+    @Test
+    void shouldReportUnreadableAndRejectedRows() {
+        // Arrange
+        when(projectRepo.existsById(10L)).thenReturn(true);
+        when(taskService.createBatchForProject(eq(10L), anyList())).thenReturn(TaskBatchResponseDTO.of(List.of(
+                created(0),
+                TaskBatchItemResultDTO.failed(1, 409, "Task title already exists in this project"))));
+        String body = """
+                {"title":"A"}
+                {"title":"B","status":"LATER"}
+                {"title":"C"}
+                """;
+
+        // Act
+        TaskImportResponseDTO res = service.importForProject(10L, stream(body), Format.NDJSON);
+
+        // Assert
+        assertThat(res.rows()).isEqualTo(3);
+        assertThat(res.imported()).isEqualTo(1);
+        assertThat(res.failed()).isEqualTo(2);
+        assertThat(res.errors()).extracting(TaskImportErrorDTO::row, TaskImportErrorDTO::status)
+                .containsExactly(tuple(2L, 400), tuple(3L, 409));
+        assertThat(res.errors()).filteredOn(e -> e.row() == 2L).first()
+                .extracting(TaskImportErrorDTO::error).asString().startsWith("invalid row");
+    }
+
+    /**
+     * Tests NDJSON import of a batch rejected as a whole (a title taken by a
+     * concurrent write).
+     * Verifies that the rows are retried one by one and only the row whose
+     * title still clashes is reported as a conflict.
+     */
+    @Test
+    void shouldRetryRowsOneByOne_whenBatchRejected() {
+        // Arrange
+        when(projectRepo.existsById(10L)).thenReturn(true);
+        when(taskService.createBatchForProject(eq(10L), argThat(items -> items.size() == 3)))
+                .thenThrow(new BusinessRuleException("Task title already exists in this project"));
+        when(taskService.createBatchForProject(eq(10L), argThat(items -> items.size() == 1)))
+                .thenAnswer(inv -> createdAll(inv.getArgument(1)))
+                .thenThrow(new BusinessRuleException("Task title already exists in this project"))
+                .thenAnswer(inv -> createdAll(inv.getArgument(1)));
+        String body = """
+                {"title":"A"}
+                {"title":"B"}
+                {"title":"C"}
+                """;
+
+        // Act
+        TaskImportResponseDTO res = service.importForProject(10L, stream(body), Format.NDJSON);
+
+        // Assert
+        assertThat(res.rows()).isEqualTo(3);
+        assertThat(res.imported()).isEqualTo(2);
+        assertThat(res.failed()).isEqualTo(1);
+        assertThat(res.errors()).extracting(TaskImportErrorDTO::row, TaskImportErrorDTO::status)
+                .containsExactly(tuple(2L, 409));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskCreateForProjectRequestDTO>> batches = ArgumentCaptor.forClass(List.class);
+        verify(taskService, times(4)).createBatchForProject(eq(10L), batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(3, 1, 1, 1);
+        assertThat(batches.getAllValues().subList(1, 4)).extracting(items -> items.get(0).title())
+                .containsExactly("A", "B", "C");
+    }
+
+    /**
+     * Tests CSV import with a header line.
+     * Verifies that columns are bound by name and empty cells are null.
+     */
+    @Test
+    void shouldImportCsvWithHeader() {
+        // Arrange
+        when(projectRepo.existsById(10L)).thenReturn(true);
+        when(taskService.createBatchForProject(eq(10L), anyList())).thenAnswer(inv -> createdAll(inv.getArgument(1)));
+        String body = """
+                title,description,status,priority,dueDate
+                Write docs,"Intro, setup",DOING,HIGH,2030-01-15
+                Review,,,,
+                """;
+
+        // Act
+        TaskImportResponseDTO res = service.importForProject(10L, stream(body), Format.CSV);
+
+        // Assert
+        assertThat(res.rows()).isEqualTo(2);
+        assertThat(res.imported()).isEqualTo(2);
+        verify(taskService).createBatchForProject(10L, List.of(
+                new TaskCreateForProjectRequestDTO("Write docs", "Intro, setup", TaskStatus.DOING, TaskPriority.HIGH,
+                        LocalDate.of(2030, 1, 15)),
+                new TaskCreateForProjectRequestDTO("Review", null, null, null, null)));
+    }
+
+    /**
+     * Tests NDJSON import of malformed content.
+     * Verifies that the rows read before the error are imported and the
+     * import stops at the malformed row.
+     */
+    @Test
+    void shouldStopAtMalformedContent() {
+        // Arrange
+        when(projectRepo.existsById(10L)).thenReturn(true);
+        when(taskService.createBatchForProject(eq(10L), anyList())).thenAnswer(inv -> createdAll(inv.getArgument(1)));
+        String body = """
+                {"title":"A"}
+                {"title":"B"]
+                {"title":"C"}
+                """;
+
+        // Act
+        TaskImportResponseDTO res = service.importForProject(10L, stream(body), Format.NDJSON);
+
+        // Assert
+        assertThat(res.imported()).isEqualTo(1);
+        assertThat(res.failed()).isEqualTo(1);
+        assertThat(res.errors()).singleElement()
+                .satisfies(e -> {
+                    assertThat(e.row()).isEqualTo(2L);
+                    assertThat(e.error()).startsWith("malformed content");
+                });
+        verify(taskService).createBatchForProject(10L,
+                List.of(new TaskCreateForProjectRequestDTO("A", null, null, null, null)));
+    }
+
+    /**
+     * Tests import into a missing project.
+     * Verifies that NotFoundException is thrown before the upload is read.
+     */
+    @Test
+    void shouldThrowNotFound_whenProjectMissing() {
+        // Arrange
+        when(projectRepo.existsById(99L)).thenReturn(false);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.importForProject(99L, stream("{\"title\":\"A\"}"), Format.NDJSON))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Project not found");
+        verify(projectRepo).existsById(99L);
+        verifyNoInteractions(taskService);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TaskBatchResponseDTO createdAll(List<TaskCreateForProjectRequestDTO> items) {
+        return TaskBatchResponseDTO.of(IntStream.range(0, items.size())
+                .mapToObj(TaskImportServiceImplTest::created)
+                .toList());
+    }
+
+    private static TaskBatchItemResultDTO created(int index) {
+        return TaskBatchItemResultDTO.created(index,
+                TaskResponseDTO.of(index + 1L, "T", null, TaskStatus.TODO, TaskPriority.MEDIUM, null, null, null));
+    }
+}
@@ -0,0 +1,156 @@
+package com.jbk.taskboard.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
+import com.jbk.taskboard.dto.task.TaskResponseDTO;
+import com.jbk.taskboard.dto.user.AppUserResponseDTO;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for TaskJsonCache.
+ * Counts the loader calls to check when a task is read and encoded again,
+ * and decodes the cached bytes to check the JSON and gzip forms.
+ */
+class TaskJsonCacheTest {
+
+    private final ObjectMapper om = JsonMapper.builder().findAndAddModules().build();
+    private SimpleMeterRegistry registry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * Should encode a task once and serve the same bytes while the version is
+     * unchanged, counting the miss and the hit.
+     */
+    @Test
+    void shouldEncodeOnce_whileVersionUnchanged() throws IOException {
+        // Arrange
+        TaskJsonCache cache = cache(false);
+
+        // Act
+        var first = cache.get(5L, "1.0.0", loader("X", "1.0.0"));
+        var second = cache.get(5L, "1.0.0", loader("X", "1.0.0"));
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(second.value().json()).isSameAs(first.value().json());
+        assertThat(second.version()).isEqualTo("1.0.0");
+        assertThat(om.readValue(second.value().json(), TaskResponseDTO.class)).isEqualTo(task("X"));
+        assertThat(second.value().gzip()).isNull();
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    /**
+     * Should read the task again when the current version differs from the
+     * cached one (e.g. the project was renamed), counting a miss.
+     */
+    @Test
+    void shouldReload_whenVersionChanged() throws IOException {
+        // Arrange
+        TaskJsonCache cache = cache(false);
+        cache.get(5L, "1.0.0", loader("X", "1.0.0"));
+
+        // Act
+        var res = cache.get(5L, "1.1.0", loader("Y", "1.1.0"));
+
+        // Assert
+        assertThat(loads).hasValue(2);
+        assertThat(res.version()).isEqualTo("1.1.0");
+        assertThat(om.readValue(res.value().json(), TaskResponseDTO.class).title()).isEqualTo("Y");
+        assertThat(gets("hit")).isZero();
+        assertThat(gets("miss")).isEqualTo(2);
+    }
+
+    /**
+     * Should read the task again after it was evicted.
+     */
+    @Test
+    void shouldReload_whenEvicted() {
+        // Arrange
+        TaskJsonCache cache = cache(false);
+        cache.get(5L, "1.0.0", loader("X", "1.0.0"));
+
+        // Act
+        cache.evict(5L);
+        cache.get(5L, "1.0.0", loader("X", "1.0.0"));
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    /**
+     * Should keep a gzip form of large responses that decompresses to the
+     * JSON.
+     */
+    @Test
+    void shouldKeepGzipForm_whenEnabledAndLarge() throws IOException {
+        // Arrange
+        TaskJsonCache cache = cache(true);
+
+        // Act
+        EncodedJsonDTO res = cache.get(5L, "1.0.0", loader("X".repeat(300), "1.0.0")).value();
+        EncodedJsonDTO small = cache.get(6L, "1.0.0", loader("X", "1.0.0")).value();
+
+        // Assert
+        assertThat(res.gzip()).isNotNull();
+        assertThat(res.gzip().length).isLessThan(res.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(res.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(res.json());
+        }
+        assertThat(small.gzip()).isNull();
+    }
+
+    // Creates a cache of 1MB, with gzip for responses of 256 bytes or more
+    // when enabled.
+    private TaskJsonCache cache(boolean gzip) {
+        CacheProperties.TaskJson spec = new CacheProperties.TaskJson(DataSize.ofMegabytes(1), Duration.ofMinutes(10),
+                gzip, DataSize.ofBytes(256));
+        return new TaskJsonCache(om, new CacheProperties(null, null, null, spec, null, null, null), registry);
+    }
+
+    // Returns a loader of a task with the given title and version that counts
+    // its calls.
+    private Supplier<VersionedDTO<TaskResponseDTO>> loader(String title, String version) {
+        return () -> {
+            loads.incrementAndGet();
+            return VersionedDTO.of(task(title), version);
+        };
+    }
+
+    // Builds task 5 with the given title.
+    private static TaskResponseDTO task(String title) {
+        AppUserResponseDTO owner = AppUserResponseDTO.of(1L, "Carol", "carol@mail.com");
+        return TaskResponseDTO.of(5L, title, "d", TaskStatus.TODO, TaskPriority.HIGH,
+                Instant.parse("2024-01-01T00:00:00Z"), null, ProjectResponseDTO.of(10L, "Alpha", "A", owner));
+    }
+
+    // Returns the cache.gets count for a result (hit or miss).
+    private double gets(String result) {
+        return registry.get("cache.gets").tag("cache", "task-json").tag("result", result).functionCounter().count();
+    }
+}
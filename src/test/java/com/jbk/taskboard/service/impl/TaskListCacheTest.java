@@ -0,0 +1,155 @@
+package com.jbk.taskboard.service.impl;
+
+import com.jbk.taskboard.config.CacheProperties;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import com.jbk.taskboard.repository.TaskRow;
+import com.jbk.taskboard.service.impl.TaskListCache.Key;
+import com.jbk.taskboard.service.impl.TaskListCache.Listing;
+import com.jbk.taskboard.service.impl.TaskListCache.Paging;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for TaskListCache.
+ * Counts the loader calls to check when a listing or its rows are read
+ * again, and reads the taskboard.task.lists counters by filter shape.
+ */
+class TaskListCacheTest {
+
+    private static final Key DOING = new Key(10L, TaskStatus.DOING, null, Paging.PAGE, 0, 20);
+
+    private SimpleMeterRegistry registry;
+    private TaskListCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        cache = new TaskListCache(new CacheProperties(null, null, null, null, null,
+                new CacheProperties.TaskLists(true, 100, 100, Duration.ofMinutes(10)), null), registry);
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * Should read a listing once while the listing version of its project is
+     * unchanged, counting the miss and the hit under its shape.
+     */
+    @Test
+    void shouldReadListingOnce_whileVersionUnchanged() {
+        // Arrange
+        cache.get(DOING, "3.0.0", loader(List.of(5L, 4L), 2));
+
+        // Act
+        Listing res = cache.get(DOING, "3.0.0", loader(List.of(5L, 4L), 2));
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(res.ids()).containsExactly(5L, 4L);
+        assertThat(res.total()).isEqualTo(2);
+        assertThat(lists("project+status", "hit")).isEqualTo(1);
+        assertThat(lists("project+status", "miss")).isEqualTo(1);
+    }
+
+    /**
+     * Should read a listing again once a task of the project changed, and
+     * keep listings of other filters apart.
+     */
+    @Test
+    void shouldReadListingAgain_whenVersionChanged() {
+        // Arrange
+        Key todo = new Key(10L, TaskStatus.TODO, TaskPriority.HIGH, Paging.PAGE, 0, 20);
+        cache.get(DOING, "3.0.0", loader(List.of(5L, 4L), 2));
+        cache.get(todo, "3.0.0", loader(List.of(2L), 1));
+
+        // Act
+        Listing res = cache.get(DOING, "4.0.0", loader(List.of(6L, 5L, 4L), 3));
+
+        // Assert
+        assertThat(loads).hasValue(3);
+        assertThat(res.ids()).containsExactly(6L, 5L, 4L);
+        assertThat(lists("project+status", "miss")).isEqualTo(2);
+        assertThat(lists("project+status+priority", "miss")).isEqualTo(1);
+    }
+
+    /**
+     * Should read only the rows that are not cached at the current count, in
+     * one call.
+     */
+    @Test
+    void shouldReadMissingRowsOnly() {
+        // Arrange
+        List<List<Long>> reads = new ArrayList<>();
+        Function<List<Long>, List<TaskRow>> loader = ids -> {
+            reads.add(ids);
+            return ids.stream().map(TaskListCacheTest::row).toList();
+        };
+        cache.rows(10L, 3L, List.of(5L, 4L), loader);
+
+        // Act
+        List<TaskRow> same = cache.rows(10L, 3L, List.of(6L, 5L, 4L), loader);
+        List<TaskRow> changed = cache.rows(10L, 4L, List.of(5L), loader);
+
+        // Assert
+        assertThat(same).extracting(TaskRow::id).containsExactlyInAnyOrder(6L, 5L, 4L);
+        assertThat(changed).extracting(TaskRow::id).containsExactly(5L);
+        assertThat(reads).containsExactly(List.of(5L, 4L), List.of(6L), List.of(5L));
+    }
+
+    /**
+     * Should peek at the last listing and rows whatever their version, and
+     * at nothing when a row is missing.
+     */
+    @Test
+    void shouldPeekLastListingAndRows() {
+        // Arrange
+        cache.get(DOING, "3.0.0", loader(List.of(5L, 4L), 2));
+        cache.rows(10L, 3L, List.of(5L, 4L), ids -> ids.stream().map(TaskListCacheTest::row).toList());
+
+        // Act
+        var listing = cache.peek(DOING);
+        var rows = cache.peekRows(10L, List.of(5L, 4L));
+        var missing = cache.peekRows(10L, List.of(6L, 5L));
+
+        // Assert
+        assertThat(listing).hasValueSatisfying(l -> {
+            assertThat(l.value().ids()).containsExactly(5L, 4L);
+            assertThat(l.version()).isEqualTo("3.0.0");
+        });
+        assertThat(rows).hasValueSatisfying(r -> assertThat(r).extracting(TaskRow::id).containsExactly(5L, 4L));
+        assertThat(missing).isEmpty();
+        assertThat(cache.peek(new Key(11L, null, null, Paging.PAGE, 0, 20))).isEmpty();
+    }
+
+    // Returns a loader of a listing that counts its calls.
+    private Supplier<Listing> loader(List<Long> ids, long total) {
+        return () -> {
+            loads.incrementAndGet();
+            return new Listing(ids, total);
+        };
+    }
+
+    // Builds the row of a task of project 10.
+    private static TaskRow row(long id) {
+        return new TaskRow(id, "T" + id, "d", TaskStatus.DOING, TaskPriority.LOW,
+                Instant.parse("2024-01-01T00:00:00Z"), null, 10L);
+    }
+
+    // Returns the taskboard.task.lists count of a shape and result (page
+    // listings).
+    private double lists(String shape, String result) {
+        return registry.get("taskboard.task.lists").tag("shape", shape).tag("paging", "page")
+                .tag("result", result).counter().count();
+    }
+}
@@ -1,5 +1,9 @@
 package com.jbk.taskboard.service.impl;
 
+import com.jbk.taskboard.config.CoalescingProperties;
+import com.jbk.taskboard.dto.common.EncodedJsonDTO;
+import com.jbk.taskboard.dto.common.VersionedDTO;
+import com.jbk.taskboard.dto.project.ProjectResponseDTO;
 import com.jbk.taskboard.dto.task.*;
 import com.jbk.taskboard.entity.AppUser;
 import com.jbk.taskboard.entity.Project;
@@ -8,24 +12,36 @@ import com.jbk.taskboard.entity.TaskPriority;
 import com.jbk.taskboard.entity.TaskStatus;
 import com.jbk.taskboard.exception.BusinessRuleException;
 import com.jbk.taskboard.exception.NotFoundException;
+import com.jbk.taskboard.exception.PreconditionFailedException;
+import com.jbk.taskboard.mapper.AppUserMapper;
+import com.jbk.taskboard.mapper.TaskMapper;
 import com.jbk.taskboard.repository.ProjectRepository;
 import com.jbk.taskboard.repository.TaskRepository;
+import com.jbk.taskboard.repository.TaskRow;
 import com.jbk.taskboard.testutil.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -51,23 +67,37 @@ class TaskServiceImplTest {
     @Mock
     private ProjectRepository projectRepo;
 
+    @Mock
+    private DtoCaches caches;
+
+    @Mock
+    private TaskJsonCache jsonCache;
+
+    @Mock
+    private TaskListCache listCache;
+
+    @Mock
+    private LastPageCache lastPages;
+
     @InjectMocks
     private TaskServiceImpl service;
 
-    private Validator validator;
+    // Real validator, spied so that it is also injected into the service.
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
-    @BeforeEach
-    void init() {
-        validator = Validation.buildDefaultValidatorFactory().getValidator();
-    }
+    // Real coalescing (every read of a test runs alone), spied so that it is
+    // also injected into the service.
+    @Spy
+    private SingleFlight flights = new SingleFlight(new CoalescingProperties(true, Duration.ofSeconds(1)),
+            new SimpleMeterRegistry());
 
     // --- CREATE ---
 
     /**
      * Should create task when project exists and title is unique.
-     * Verifies that the repository's findById,
-     * existsByProject_IdAndTitleIgnoreCase,
-     * and save methods are called.
+     * Verifies that the repository's findById and saveAndFlush methods are
+     * called (no separate duplicate check).
      * Asserts that the returned DTO has the expected values.
      * 
      * @throws NotFoundException     if project is not found (not expected in this
@@ -81,12 +111,11 @@ class TaskServiceImplTest {
         // Arrange
         AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
         Project project = TestDataFactory.projectEntity(10L, "Alpha", "P", owner);
-        when(projectRepo.findById(10L)).thenReturn(Optional.of(project));
-        when(taskRepo.existsByProject_IdAndTitleIgnoreCase(10L, "T1")).thenReturn(false);
+        when(projectRepo.getReferenceById(10L)).thenReturn(project);
 
         Task saved = TestDataFactory.taskEntity(100L, "T1", "desc", TaskStatus.TODO, TaskPriority.MEDIUM,
                 LocalDate.of(2024, 5, 1), project);
-        when(taskRepo.save(any(Task.class))).thenReturn(saved);
+        when(taskRepo.saveAndFlush(any(Task.class))).thenReturn(saved);
 
         TaskCreateRequestDTO req = TestDataFactory.taskCreateReq("T1", "desc", null, null, LocalDate.of(2024, 5, 1),
                 10L);
@@ -100,15 +129,43 @@ class TaskServiceImplTest {
         assertThat(res.status()).isEqualTo(TaskStatus.TODO);
         assertThat(res.priority()).isEqualTo(TaskPriority.MEDIUM);
         assertThat(res.project().id()).isEqualTo(10L);
-        verify(projectRepo).findById(10L);
-        verify(taskRepo).existsByProject_IdAndTitleIgnoreCase(10L, "T1");
-        verify(taskRepo).save(any(Task.class));
+        verify(projectRepo).getReferenceById(10L);
+        verify(taskRepo).saveAndFlush(any(Task.class));
+        verify(projectRepo).incrementTaskChangeCount(List.of(10L));
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should create task and return only its ID for a minimal create.
+     * Verifies that the project is bound by reference and that no response is
+     * read.
+     */
+    @Test
+    void shouldReturnId_whenCreateMinimal() {
+        // Arrange
+        Project project = TestDataFactory.projectEntity(10L, "Alpha", "P", null);
+        when(projectRepo.getReferenceById(10L)).thenReturn(project);
+        when(taskRepo.saveAndFlush(any(Task.class))).thenAnswer(inv -> {
+            Task t = inv.getArgument(0);
+            t.setId(102L);
+            return t;
+        });
+        TaskCreateRequestDTO req = TestDataFactory.taskCreateReq("T1", null, null, null, null, 10L);
+
+        // Act
+        long id = service.createMinimal(req);
+
+        // Assert
+        assertThat(id).isEqualTo(102L);
+        verify(projectRepo).getReferenceById(10L);
+        verify(taskRepo).saveAndFlush(argThat((Task t) -> t.getProject() == project && "T1".equals(t.getTitle())));
+        verify(projectRepo).incrementTaskChangeCount(List.of(10L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
     /**
      * Should throw NotFoundException when creating task with missing project.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the foreign key violation raised by saveAndFlush is translated.
      * 
      * @throws NotFoundException     if project is not found.
      * @throws BusinessRuleException if task title already exists in project.
@@ -116,22 +173,25 @@ class TaskServiceImplTest {
     @Test
     void shouldThrowNotFound_whenCreateProjectMissing() {
         // Arrange
-        when(projectRepo.findById(999L)).thenReturn(Optional.empty());
+        when(projectRepo.getReferenceById(999L)).thenReturn(TestDataFactory.projectEntity(999L, null, null, null));
+        when(taskRepo.saveAndFlush(any(Task.class))).thenThrow(TestDataFactory.constraintViolation(Task.FK_PROJECT));
         TaskCreateRequestDTO req = TestDataFactory.taskCreateReq("T1", "d", null, null, null, 999L);
 
         // Act + Assert
         assertThatThrownBy(() -> service.create(req))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Project not found");
-        verify(projectRepo).findById(999L);
+        verify(projectRepo).getReferenceById(999L);
+        verify(taskRepo).saveAndFlush(any(Task.class));
+        verify(projectRepo).incrementTaskChangeCount(List.of(999L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
     /**
      * Should throw BusinessRuleException when creating task with duplicate title in
      * project.
-     * Verifies that the repository's findById and
-     * existsByProject_IdAndTitleIgnoreCase methods are called.
+     * Verifies that the unique key violation raised by saveAndFlush is
+     * translated.
      * 
      * @throws NotFoundException     if project is not found (not expected in this
      *                               test).
@@ -143,8 +203,8 @@ class TaskServiceImplTest {
         // Arrange
         AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
         Project project = TestDataFactory.projectEntity(10L, "Alpha", "P", owner);
-        when(projectRepo.findById(10L)).thenReturn(Optional.of(project));
-        when(taskRepo.existsByProject_IdAndTitleIgnoreCase(10L, "T1")).thenReturn(true);
+        when(projectRepo.getReferenceById(10L)).thenReturn(project);
+        when(taskRepo.saveAndFlush(any(Task.class))).thenThrow(TestDataFactory.constraintViolation(Task.UK_PROJECT_TITLE));
 
         TaskCreateRequestDTO req = TestDataFactory.taskCreateReq("T1", "d", null, null, null, 10L);
 
@@ -152,17 +212,38 @@ class TaskServiceImplTest {
         assertThatThrownBy(() -> service.create(req))
                 .isInstanceOf(BusinessRuleException.class)
                 .hasMessageContaining("Task title already exists");
-        verify(projectRepo).findById(10L);
-        verify(taskRepo).existsByProject_IdAndTitleIgnoreCase(10L, "T1");
+        verify(projectRepo).getReferenceById(10L);
+        verify(taskRepo).saveAndFlush(any(Task.class));
+        verify(projectRepo).incrementTaskChangeCount(List.of(10L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
+    /**
+     * Should rethrow integrity violations other than the title key.
+     * Verifies that only the per-project title key is translated to a
+     * BusinessRuleException.
+     */
+    @Test
+    void shouldRethrow_whenCreateViolatesOtherConstraint() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
+        Project project = TestDataFactory.projectEntity(10L, "Alpha", "P", owner);
+        when(projectRepo.getReferenceById(10L)).thenReturn(project);
+        when(taskRepo.saveAndFlush(any(Task.class))).thenThrow(TestDataFactory.constraintViolation("uk_other"));
+
+        TaskCreateRequestDTO req = TestDataFactory.taskCreateReq("T1", "d", null, null, null, 10L);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.create(req))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     // --- CREATE FOR PROJECT ---
 
     /**
      * Should create task for project when project exists and title is unique.
-     * Verifies that the repository's findById,
-     * existsByProject_IdAndTitleIgnoreCase, and save methods are called.
+     * Verifies that the repository's findById and saveAndFlush methods are
+     * called.
      * 
      * @param projectId
      * @param req
@@ -178,12 +259,10 @@ class TaskServiceImplTest {
         // Arrange
         AppUser owner = TestDataFactory.userEntity(2L, "Bob", "bob@mail.com");
         Project project = TestDataFactory.projectEntity(20L, "Beta", "B", owner);
-        when(projectRepo.findById(20L)).thenReturn(Optional.of(project));
-        when(taskRepo.existsByProject_IdAndTitleIgnoreCase(20L, "T2")).thenReturn(false);
-
+        when(projectRepo.getReferenceById(20L)).thenReturn(project);
         Task saved = TestDataFactory.taskEntity(101L, "T2", "d2", TaskStatus.TODO, TaskPriority.MEDIUM,
                 LocalDate.of(2024, 6, 1), project);
-        when(taskRepo.save(any(Task.class))).thenReturn(saved);
+        when(taskRepo.saveAndFlush(any(Task.class))).thenReturn(saved);
 
         TaskCreateForProjectRequestDTO req = TestDataFactory.taskCreateForProjectReq("T2", "d2", null, null,
                 LocalDate.of(2024, 6, 1));
@@ -195,17 +274,17 @@ class TaskServiceImplTest {
         assertThat(res.id()).isEqualTo(101L);
         assertThat(res.title()).isEqualTo("T2");
         assertThat(res.project().id()).isEqualTo(20L);
-        verify(projectRepo).findById(20L);
-        verify(taskRepo).existsByProject_IdAndTitleIgnoreCase(20L, "T2");
-        verify(taskRepo).save(any(Task.class));
+        verify(projectRepo).getReferenceById(20L);
+        verify(taskRepo).saveAndFlush(any(Task.class));
+        verify(projectRepo).incrementTaskChangeCount(List.of(20L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
     /**
      * Should throw BusinessRuleException when creating task for project with
      * duplicate title.
-     * Verifies that the repository's findById and
-     * existsByProject_IdAndTitleIgnoreCase methods are called.
+     * Verifies that the unique key violation raised by saveAndFlush is
+     * translated.
      * 
      * @param projectId
      * @param req
@@ -220,8 +299,8 @@ class TaskServiceImplTest {
         // Arrange
         AppUser owner = TestDataFactory.userEntity(2L, "Bob", "bob@mail.com");
         Project project = TestDataFactory.projectEntity(20L, "Beta", "B", owner);
-        when(projectRepo.findById(20L)).thenReturn(Optional.of(project));
-        when(taskRepo.existsByProject_IdAndTitleIgnoreCase(20L, "T2")).thenReturn(true);
+        when(projectRepo.getReferenceById(20L)).thenReturn(project);
+        when(taskRepo.saveAndFlush(any(Task.class))).thenThrow(TestDataFactory.constraintViolation(Task.UK_PROJECT_TITLE));
 
         TaskCreateForProjectRequestDTO req = TestDataFactory.taskCreateForProjectReq("T2", "d2", null, null, null);
 
@@ -229,15 +308,16 @@ class TaskServiceImplTest {
         assertThatThrownBy(() -> service.createForProject(20L, req))
                 .isInstanceOf(BusinessRuleException.class)
                 .hasMessageContaining("Task title already exists");
-        verify(projectRepo).findById(20L);
-        verify(taskRepo).existsByProject_IdAndTitleIgnoreCase(20L, "T2");
+        verify(projectRepo).getReferenceById(20L);
+        verify(taskRepo).saveAndFlush(any(Task.class));
+        verify(projectRepo).incrementTaskChangeCount(List.of(20L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
     /**
      * Should throw NotFoundException when creating task for project with missing
      * project.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the foreign key violation raised by saveAndFlush is translated.
      * 
      * @param projectId
      * @param req
@@ -248,17 +328,273 @@ class TaskServiceImplTest {
     @Test
     void shouldThrowNotFound_whenCreateForProjectProjectMissing() {
         // Arrange
-        when(projectRepo.findById(123L)).thenReturn(Optional.empty());
+        when(projectRepo.getReferenceById(123L)).thenReturn(TestDataFactory.projectEntity(123L, null, null, null));
+        when(taskRepo.saveAndFlush(any(Task.class))).thenThrow(TestDataFactory.constraintViolation(Task.FK_PROJECT));
         TaskCreateForProjectRequestDTO req = TestDataFactory.taskCreateForProjectReq("T", "d", null, null, null);
 
         // Act + Assert
         assertThatThrownBy(() -> service.createForProject(123L, req))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Project not found");
-        verify(projectRepo).findById(123L);
+        verify(projectRepo).getReferenceById(123L);
+        verify(taskRepo).saveAndFlush(any(Task.class));
+        verify(projectRepo).incrementTaskChangeCount(List.of(123L));
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    // --- CREATE BATCH ---
+
+    /**
+     * Should create the valid items of a batch and report the others.
+     * Verifies that the project is resolved once, that title duplicates are
+     * checked with a single query and that the new tasks are saved together.
+     */
+    @SuppressWarnings("null")
+    @Test
+    void shouldCreateBatch_andReportInvalidAndDuplicateItems() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
+        Project project = TestDataFactory.projectEntity(10L, "Alpha", "A", owner);
+        when(projectRepo.findById(10L)).thenReturn(Optional.of(project));
+        when(taskRepo.findExistingTitles(10L, Set.of("a", "b", "c"))).thenReturn(List.of("b"));
+        when(taskRepo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Task> tasks = inv.getArgument(0);
+            long id = 100L;
+            for (Task t : tasks) {
+                t.setId(id++);
+            }
+            return tasks;
+        });
+        List<TaskCreateForProjectRequestDTO> items = List.of(
+                TestDataFactory.taskCreateForProjectReq("A", null, null, null, null),
+                TestDataFactory.taskCreateForProjectReq(" ", null, null, null, null),
+                TestDataFactory.taskCreateForProjectReq("a", null, null, null, null),
+                TestDataFactory.taskCreateForProjectReq("B", null, null, null, null),
+                TestDataFactory.taskCreateForProjectReq("C", null, TaskStatus.DOING, TaskPriority.HIGH, null));
+
+        // Act
+        TaskBatchResponseDTO res = service.createBatchForProject(10L, items);
+
+        // Assert
+        assertThat(res.created()).isEqualTo(2);
+        assertThat(res.failed()).isEqualTo(3);
+        assertThat(res.results()).extracting(TaskBatchItemResultDTO::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(res.results()).extracting(TaskBatchItemResultDTO::status).containsExactly(201, 400, 409, 409, 201);
+        assertThat(res.results().get(1).error()).isEqualTo("title is required");
+        assertThat(res.results().get(2).error()).contains("duplicated in this batch");
+        assertThat(res.results().get(3).error()).contains("already exists");
+        assertThat(res.results().get(0).task().id()).isEqualTo(100L);
+        assertThat(res.results().get(4).task().id()).isEqualTo(101L);
+        assertThat(res.results().get(4).task().status()).isEqualTo(TaskStatus.DOING);
+        verify(projectRepo).findById(10L);
+        verify(taskRepo).findExistingTitles(10L, Set.of("a", "b", "c"));
+        verify(taskRepo).saveAll(argThat((List<Task> tasks) -> tasks.size() == 2));
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(10L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
+    /**
+     * Should create titles that differ only by an accent as two tasks, as the
+     * unique key does (only case is ignored).
+     * Verifies that both titles are looked up and inserted.
+     */
+    @Test
+    void shouldCreateBatch_withTitlesDifferingByAccent() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
+        Project project = TestDataFactory.projectEntity(10L, "Alpha", "A", owner);
+        when(projectRepo.findById(10L)).thenReturn(Optional.of(project));
+        when(taskRepo.findExistingTitles(10L, Set.of("café", "cafe"))).thenReturn(List.of());
+        when(taskRepo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Task> tasks = inv.getArgument(0);
+            long id = 100L;
+            for (Task t : tasks) {
+                t.setId(id++);
+            }
+            return tasks;
+        });
+        List<TaskCreateForProjectRequestDTO> items = List.of(
+                TestDataFactory.taskCreateForProjectReq("Café", null, null, null, null),
+                TestDataFactory.taskCreateForProjectReq("cafe", null, null, null, null),
+                TestDataFactory.taskCreateForProjectReq("CAFÉ", null, null, null, null));
+
+        // Act
+        TaskBatchResponseDTO res = service.createBatchForProject(10L, items);
+
+        // Assert
+        assertThat(res.results()).extracting(TaskBatchItemResultDTO::status).containsExactly(201, 201, 409);
+        assertThat(res.results().get(2).error()).contains("duplicated in this batch");
+        verify(taskRepo).findExistingTitles(10L, Set.of("café", "cafe"));
+        verify(taskRepo).saveAll(argThat((List<Task> tasks) -> tasks.size() == 2));
+    }
+
+    /**
+     * Should reject the whole batch when a concurrent write takes one of its
+     * titles between the duplicate check and the insert.
+     * Verifies that the unique key violation raised by flush is translated.
+     */
+    @Test
+    void shouldThrowBusinessRule_whenBatchTitleTakenConcurrently() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(1L, "Alice", "alice@mail.com");
+        Project project = TestDataFactory.projectEntity(10L, "Alpha", "A", owner);
+        when(projectRepo.findById(10L)).thenReturn(Optional.of(project));
+        when(taskRepo.findExistingTitles(10L, Set.of("a"))).thenReturn(List.of());
+        when(taskRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(TestDataFactory.constraintViolation(Task.UK_PROJECT_TITLE)).when(taskRepo).flush();
+        List<TaskCreateForProjectRequestDTO> items = List.of(
+                TestDataFactory.taskCreateForProjectReq("A", null, null, null, null));
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.createBatchForProject(10L, items))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("Task title already exists");
+    }
+
+    /**
+     * Should throw NotFoundException when the batch project does not exist.
+     * Verifies that no task query is issued.
+     */
+    @Test
+    void shouldThrowNotFound_whenBatchProjectMissing() {
+        // Arrange
+        when(projectRepo.findById(99L)).thenReturn(Optional.empty());
+        List<TaskCreateForProjectRequestDTO> items = List.of(
+                TestDataFactory.taskCreateForProjectReq("A", null, null, null, null));
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.createBatchForProject(99L, items))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Project not found");
+        verify(projectRepo).findById(99L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Tests export.
+     * Verifies that every streamed task reaches the sink, in order, and that
+     * the stream is closed.
+     */
+    @Test
+    void shouldExportTasksToSink() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(1L, "Ann", "ann@mail.com");
+        Project project = TestDataFactory.projectEntity(10L, "Alpha", "A", owner);
+        TaskResponseDTO t1 = TaskMapper.toResponse(
+                TestDataFactory.taskEntity(1L, "A", "a", TaskStatus.TODO, TaskPriority.LOW, null, project));
+        TaskResponseDTO t2 = TaskMapper.toResponse(
+                TestDataFactory.taskEntity(2L, "B", "b", TaskStatus.TODO, TaskPriority.HIGH, null, project));
+        boolean[] closed = { false };
+        when(taskRepo.streamResponses(ArgumentMatchers.<Specification<Task>>any()))
+                .thenReturn(Stream.of(t1, t2).onClose(() -> closed[0] = true));
+        List<TaskResponseDTO> exported = new ArrayList<>();
+
+        // Act
+        long count = service.export(TaskStatus.TODO, null, 10L, exported::add);
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(t1, t2);
+        assertThat(closed[0]).isTrue();
+        verify(taskRepo).streamResponses(ArgumentMatchers.<Specification<Task>>any());
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Tests export for a missing project.
+     * Verifies that NotFoundException is thrown before any task is read.
+     */
+    @Test
+    void shouldThrowNotFound_whenExportProjectMissing() {
+        // Arrange
+        when(projectRepo.existsById(99L)).thenReturn(false);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.exportForProject(99L, null, null, t -> {
+        }))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Project not found");
+        verify(projectRepo).existsById(99L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Tests bulk update by filter.
+     * Verifies that a single set-based update is issued and its count returned.
+     */
+    @Test
+    void shouldBulkUpdateByFilter() {
+        // Arrange
+        var req = new TaskBulkUpdateRequestDTO(null, new TaskFilterDTO(TaskStatus.DOING, null, 2L),
+                TaskStatus.DONE, null);
+        when(taskRepo.updateStatusAndPriority(ArgumentMatchers.<Specification<Task>>any(), eq(TaskStatus.DONE),
+                isNull())).thenReturn(37);
+
+        // Act
+        TaskBulkUpdateResponseDTO res = service.bulkUpdate(req);
+
+        // Assert
+        assertThat(res.updated()).isEqualTo(37);
+        verify(taskRepo).updateStatusAndPriority(ArgumentMatchers.<Specification<Task>>any(), eq(TaskStatus.DONE),
+                isNull());
+        verify(taskRepo).incrementProjectTaskChangeCounts(ArgumentMatchers.<Specification<Task>>any());
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Tests bulk update by IDs.
+     * Verifies that the tasks are not loaded before the update.
+     */
+    @Test
+    void shouldBulkUpdateByIds() {
+        // Arrange
+        var req = new TaskBulkUpdateRequestDTO(List.of(1L, 2L, 3L), null, null, TaskPriority.HIGH);
+        when(taskRepo.updateStatusAndPriority(ArgumentMatchers.<Specification<Task>>any(), isNull(),
+                eq(TaskPriority.HIGH))).thenReturn(2);
+
+        // Act
+        TaskBulkUpdateResponseDTO res = service.bulkUpdate(req);
+
+        // Assert
+        assertThat(res.updated()).isEqualTo(2);
+        verify(taskRepo).updateStatusAndPriority(ArgumentMatchers.<Specification<Task>>any(), isNull(),
+                eq(TaskPriority.HIGH));
+        verify(taskRepo).incrementProjectTaskChangeCounts(ArgumentMatchers.<Specification<Task>>any());
+        verify(jsonCache).evictAll(List.of(1L, 2L, 3L));
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Tests bulk update with invalid selections or values.
+     * Verifies that IllegalArgumentException is thrown and nothing is updated.
+     */
+    @Test
+    void shouldRejectBulkUpdate_whenRequestInvalid() {
+        // Arrange
+        var noValues = new TaskBulkUpdateRequestDTO(List.of(1L), null, null, null);
+        var bothSelections = new TaskBulkUpdateRequestDTO(List.of(1L), new TaskFilterDTO(null, null, 2L),
+                TaskStatus.DONE, null);
+        var noSelection = new TaskBulkUpdateRequestDTO(null, null, TaskStatus.DONE, null);
+        var emptyFilter = new TaskBulkUpdateRequestDTO(null, new TaskFilterDTO(null, null, null),
+                TaskStatus.DONE, null);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.bulkUpdate(noValues))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("status or priority is required");
+        assertThatThrownBy(() -> service.bulkUpdate(bothSelections))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("exactly one of ids or filter is required");
+        assertThatThrownBy(() -> service.bulkUpdate(noSelection))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("exactly one of ids or filter is required");
+        assertThatThrownBy(() -> service.bulkUpdate(emptyFilter))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("filter must have at least one criterion");
+        verifyNoInteractions(taskRepo, projectRepo);
+    }
+
     // --- GET BY ID ---
 
     /**
@@ -277,7 +613,7 @@ class TaskServiceImplTest {
         when(taskRepo.findById(200L)).thenReturn(Optional.of(entity));
 
         // Act
-        TaskResponseDTO res = service.getById(200L);
+        TaskResponseDTO res = service.getById(200L).value();
 
         // Assert
         assertThat(res.id()).isEqualTo(200L);
@@ -308,13 +644,61 @@ class TaskServiceImplTest {
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
+    /**
+     * Should read the current version and pass it to the encoded response
+     * cache, which reads the task only on a miss.
+     */
+    @Test
+    void shouldGetJsonById_withCurrentVersion() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(3L, "Carol", "carol@mail.com");
+        Project project = TestDataFactory.projectEntity(30L, "Gamma", "G", owner);
+        Task entity = TestDataFactory.taskEntity(201L, "T3", "g", TaskStatus.DOING, TaskPriority.HIGH, null, project);
+        EncodedJsonDTO json = EncodedJsonDTO.of(new byte[] { '{', '}' }, null);
+        when(taskRepo.findVersionById(201L)).thenReturn(Optional.of("0.0.0"));
+        when(taskRepo.findById(201L)).thenReturn(Optional.of(entity));
+        when(jsonCache.get(eq(201L), eq("0.0.0"), any())).thenAnswer(inv -> {
+            Supplier<VersionedDTO<TaskResponseDTO>> loader = inv.getArgument(2);
+            assertThat(loader.get().value().title()).isEqualTo("T3");
+            return VersionedDTO.of(json, "0.0.0");
+        });
+
+        // Act
+        var res = service.getJsonById(201L);
+
+        // Assert
+        assertThat(res.value()).isSameAs(json);
+        assertThat(res.version()).isEqualTo("0.0.0");
+        verify(taskRepo).findVersionById(201L);
+        verify(taskRepo).findById(201L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should throw NotFoundException without touching the encoded response
+     * cache when the task is missing.
+     */
+    @Test
+    void shouldThrowNotFound_whenGetJsonByIdMissing() {
+        // Arrange
+        when(taskRepo.findVersionById(404L)).thenReturn(Optional.empty());
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.getJsonById(404L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Task not found");
+        verifyNoInteractions(jsonCache);
+    }
+
     // --- LIST (WITH FILTERS) ---
 
     /**
      * Should list tasks with filters and pagination.
-     * Verifies that the repository's findAll method is called with correct
-     * parameters.
-     * Asserts that the returned page has the expected content and total elements.
+     * Verifies that the repository's findIdPage (IDs and total in one query)
+     * and findRowsByIdIn methods are called with correct parameters, and that
+     * project and owner are taken from the caches.
+     * Asserts that the returned page keeps the order of the IDs and has the
+     * expected total elements.
      * 
      * @param page
      * @param size
@@ -335,27 +719,264 @@ class TaskServiceImplTest {
         AppUser owner = TestDataFactory.userEntity(4L, "Dan", "dan@mail.com");
         Project project = TestDataFactory.projectEntity(40L, "Delta", "D", owner);
         List<Task> content = List.of(
-                TestDataFactory.taskEntity(3L, "A", "a", TaskStatus.DONE, TaskPriority.LOW, null, project),
-                TestDataFactory.taskEntity(1L, "B", "b", TaskStatus.DONE, TaskPriority.LOW, null, project));
-        Page<Task> page = new PageImpl<>(content, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")), 2);
-        when(taskRepo.findAll(ArgumentMatchers.<Specification<Task>>any(), any(Pageable.class))).thenReturn(page);
+                TestDataFactory.taskEntity(1L, "B", "b", TaskStatus.DONE, TaskPriority.LOW, null, project),
+                TestDataFactory.taskEntity(3L, "A", "a", TaskStatus.DONE, TaskPriority.LOW, null, project));
+        PageRequest pr = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        when(taskRepo.findIdPage(ArgumentMatchers.<Specification<Task>>any(), eq(pr)))
+                .thenReturn(new PageImpl<>(List.of(3L, 1L), pr, 5));
+        when(taskRepo.findRowsByIdIn(List.of(3L, 1L))).thenReturn(toRows(content));
+        when(projectRepo.findTaskListVersionById(40L)).thenReturn(Optional.of("7.0.0"));
+        when(caches.taskProjects(40L, "0.0")).thenReturn(taskProjects(project));
 
         // Act
         var res = service.list(0, 2, TaskStatus.DONE, TaskPriority.LOW, 40L);
 
         // Assert
-        assertThat(res.getTotalElements()).isEqualTo(2);
+        assertThat(res.getTotalElements()).isEqualTo(5);
         assertThat(res.getContent()).extracting(TaskResponseDTO::id).containsExactly(3L, 1L);
-        verify(taskRepo).findAll(ArgumentMatchers.<Specification<Task>>any(), any(Pageable.class));
+        verify(taskRepo).findIdPage(ArgumentMatchers.<Specification<Task>>any(), eq(pr));
+        verify(taskRepo).findRowsByIdIn(List.of(3L, 1L));
+        verify(projectRepo).findTaskListVersionById(40L);
+        verify(caches).taskProjects(40L, "0.0");
+        verifyNoMoreInteractions(taskRepo, projectRepo, caches);
+    }
+
+    /**
+     * Should skip the tasks whose project was deleted between the ID and the
+     * project reads.
+     */
+    @Test
+    void shouldSkipTasks_whenProjectMissingFromCaches() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(4L, "Dan", "dan@mail.com");
+        Project kept = TestDataFactory.projectEntity(40L, "Delta", "D", owner);
+        Project deleted = TestDataFactory.projectEntity(41L, "Epsilon", "E", owner);
+        List<Task> content = List.of(
+                TestDataFactory.taskEntity(3L, "A", "a", TaskStatus.DONE, TaskPriority.LOW, null, deleted),
+                TestDataFactory.taskEntity(1L, "B", "b", TaskStatus.DONE, TaskPriority.LOW, null, kept));
+        when(taskRepo.findIds(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(0L), eq(3)))
+                .thenReturn(List.of(3L, 1L));
+        when(taskRepo.findRowsByIdIn(List.of(3L, 1L))).thenReturn(toRows(content));
+        when(caches.taskProjects(Set.of(40L, 41L))).thenReturn(taskProjects(kept));
+
+        // Act
+        var res = service.listSlice(0, 2, null, null, null);
+
+        // Assert
+        assertThat(res.getContent()).extracting(TaskResponseDTO::id).containsExactly(1L);
+        assertThat(res.getContent().get(0).project().owner().email()).isEqualTo("dan@mail.com");
+    }
+
+    /**
+     * Should list tasks as a slice without counting.
+     * Verifies that size + 1 IDs are read and that no count query is issued.
+     */
+    @Test
+    void shouldListTasksSlice_withoutCount() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(4L, "Dan", "dan@mail.com");
+        Project project = TestDataFactory.projectEntity(40L, "Delta", "D", owner);
+        List<Task> content = List.of(
+                TestDataFactory.taskEntity(3L, "A", "a", TaskStatus.DONE, TaskPriority.LOW, null, project));
+        when(taskRepo.findIds(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(1L), eq(2)))
+                .thenReturn(List.of(3L, 2L));
+        when(taskRepo.findRowsByIdIn(List.of(3L))).thenReturn(toRows(content));
+        when(projectRepo.findTaskListVersionById(40L)).thenReturn(Optional.of("7.0.0"));
+        when(caches.taskProjects(40L, "0.0")).thenReturn(taskProjects(project));
+
+        // Act
+        var res = service.listSlice(1, 1, TaskStatus.DONE, null, 40L);
+
+        // Assert
+        assertThat(res.hasNext()).isTrue();
+        assertThat(res.getContent()).extracting(TaskResponseDTO::id).containsExactly(3L);
+        verify(taskRepo).findIds(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(1L), eq(2));
+        verify(taskRepo).findRowsByIdIn(List.of(3L));
+        verify(projectRepo).findTaskListVersionById(40L);
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
+    /**
+     * Should list tasks after a cursor using keyset pagination.
+     * Verifies that the repository's findIds method is called (no count query)
+     * and that the next cursor points to the last returned task.
+     */
+    @Test
+    void shouldListTasksAfterCursor_andReturnNextCursor() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(4L, "Dan", "dan@mail.com");
+        Project project = TestDataFactory.projectEntity(40L, "Delta", "D", owner);
+        List<Task> content = List.of(
+                TestDataFactory.taskEntity(9L, "A", "a", TaskStatus.DOING, TaskPriority.HIGH, null, project),
+                TestDataFactory.taskEntity(7L, "B", "b", TaskStatus.DOING, TaskPriority.HIGH, null, project));
+        when(taskRepo.findIds(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(0L), eq(3)))
+                .thenReturn(List.of(9L, 7L, 5L));
+        when(taskRepo.findRowsByIdIn(List.of(9L, 7L))).thenReturn(toRows(content));
+        when(projectRepo.findTaskListVersionById(40L)).thenReturn(Optional.of("7.0.0"));
+        when(caches.taskProjects(40L, "0.0")).thenReturn(taskProjects(project));
+        String after = TaskCursor.encode(10L);
+
+        // Act
+        var res = service.listAfter(after, 2, TaskStatus.DOING, TaskPriority.HIGH, 40L);
+
+        // Assert
+        assertThat(res.content()).extracting(TaskResponseDTO::id).containsExactly(9L, 7L);
+        assertThat(res.hasNext()).isTrue();
+        assertThat(TaskCursor.decode(res.nextCursor())).isEqualTo(7L);
+        verify(taskRepo).findIds(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(0L), eq(3));
+        verify(taskRepo).findRowsByIdIn(List.of(9L, 7L));
+        verify(projectRepo).findTaskListVersionById(40L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should not return a next cursor when the last page is reached.
+     */
+    @Test
+    void shouldListTasksAfterCursor_withoutNextCursorOnLastPage() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(4L, "Dan", "dan@mail.com");
+        Project project = TestDataFactory.projectEntity(40L, "Delta", "D", owner);
+        List<Task> content = List.of(
+                TestDataFactory.taskEntity(1L, "A", "a", TaskStatus.TODO, TaskPriority.LOW, null, project));
+        when(taskRepo.findIds(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(0L), eq(3)))
+                .thenReturn(List.of(1L));
+        when(taskRepo.findRowsByIdIn(List.of(1L))).thenReturn(toRows(content));
+        when(caches.taskProjects(Set.of(40L))).thenReturn(taskProjects(project));
+
+        // Act
+        var res = service.listAfter("", 2, null, null, null);
+
+        // Assert
+        assertThat(res.content()).extracting(TaskResponseDTO::id).containsExactly(1L);
+        assertThat(res.hasNext()).isFalse();
+        assertThat(res.nextCursor()).isNull();
+    }
+
+    /**
+     * Should serve the listing of a project from the list cache.
+     * Verifies that the listing version of the project is read, that the
+     * listing is looked up under its normalized key at that version,
+     * that the rows are taken through the cache (no ID or count query) and
+     * the project checked against its version.
+     */
+    @Test
+    void shouldListProjectTasks_throughListCache() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(4L, "Dan", "dan@mail.com");
+        Project project = TestDataFactory.projectEntity(40L, "Delta", "D", owner);
+        List<Task> content = List.of(
+                TestDataFactory.taskEntity(3L, "A", "a", TaskStatus.DOING, TaskPriority.LOW, null, project),
+                TestDataFactory.taskEntity(1L, "B", "b", TaskStatus.DOING, TaskPriority.LOW, null, project));
+        TaskListCache.Key key = new TaskListCache.Key(40L, TaskStatus.DOING, null, TaskListCache.Paging.PAGE, 0, 2);
+        when(listCache.enabled()).thenReturn(true);
+        when(projectRepo.findTaskListVersionById(40L)).thenReturn(Optional.of("7.0.0"));
+        when(listCache.get(eq(key), eq("7.0.0"), any())).thenReturn(new TaskListCache.Listing(List.of(3L, 1L), 5));
+        when(listCache.rows(eq(40L), eq(7L), eq(List.of(3L, 1L)), any())).thenReturn(toRows(content));
+        when(caches.taskProjects(40L, "0.0")).thenReturn(taskProjects(project));
+
+        // Act
+        var res = service.list(0, 2, TaskStatus.DOING, null, 40L);
+
+        // Assert
+        assertThat(res.getTotalElements()).isEqualTo(5);
+        assertThat(res.getContent()).extracting(TaskResponseDTO::id).containsExactly(3L, 1L);
+        verify(projectRepo).findTaskListVersionById(40L);
+        verify(caches).taskProjects(40L, "0.0");
+        verify(listCache).get(eq(key), eq("7.0.0"), any());
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should read listings across all projects without the list cache.
+     */
+    @Test
+    void shouldListAllTasks_withoutListCache() {
+        // Arrange
+        when(taskRepo.findIds(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(0L), eq(3)))
+                .thenReturn(List.of());
+
+        // Act
+        var res = service.listSlice(0, 2, TaskStatus.DOING, null, null);
+
+        // Assert
+        assertThat(res.getContent()).isEmpty();
+        verify(listCache, never()).get(any(), anyString(), any());
+        verify(lastPages).remember(new LastPageCache.Key("tasks?status=DOING&priority=null", true, 0, 2), res);
+        verifyNoInteractions(projectRepo);
+    }
+
+    /**
+     * Should serve the last page read of a listing across projects without
+     * accessing the database, without version.
+     */
+    @Test
+    void shouldListCachedAllTasks_fromLastPage() {
+        // Arrange
+        Page<TaskResponseDTO> page = new PageImpl<>(List.of(), PageRequest.of(0, 2), 0);
+        LastPageCache.Key key = new LastPageCache.Key("tasks?status=null&priority=HIGH", false, 0, 2);
+        when(lastPages.<Page<TaskResponseDTO>>peek(key)).thenReturn(Optional.of(page));
+
+        // Act
+        var res = service.listCached(0, 2, null, TaskPriority.HIGH, null);
+
+        // Assert
+        assertThat(res).isPresent();
+        assertThat(res.get().value()).isSameAs(page);
+        assertThat(res.get().version()).isNull();
+        verifyNoInteractions(taskRepo, projectRepo, listCache);
+    }
+
+    /**
+     * Should serve the last cached listing of a project without accessing the
+     * database.
+     * Verifies that the listing, its rows and the project are only peeked at,
+     * and that the page carries the version the listing was read at.
+     */
+    @Test
+    void shouldListCachedProjectTasks_withoutDatabase() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(4L, "Dan", "dan@mail.com");
+        Project project = TestDataFactory.projectEntity(40L, "Delta", "D", owner);
+        List<Task> content = List.of(
+                TestDataFactory.taskEntity(3L, "A", "a", TaskStatus.DOING, TaskPriority.LOW, null, project));
+        TaskListCache.Key key = new TaskListCache.Key(40L, TaskStatus.DOING, null, TaskListCache.Paging.PAGE, 0, 2);
+        when(listCache.enabled()).thenReturn(true);
+        when(listCache.peek(key))
+                .thenReturn(Optional.of(VersionedDTO.of(new TaskListCache.Listing(List.of(3L), 1), "7.0.0")));
+        when(listCache.peekRows(40L, List.of(3L))).thenReturn(Optional.of(toRows(content)));
+        when(caches.cachedTaskProject(40L)).thenReturn(Optional.of(taskProjects(project).get(40L)));
+
+        // Act
+        var res = service.listCached(0, 2, TaskStatus.DOING, null, 40L);
+
+        // Assert
+        assertThat(res).isPresent();
+        assertThat(res.get().version()).isEqualTo("7.0.0");
+        assertThat(res.get().value().getTotalElements()).isEqualTo(1);
+        assertThat(res.get().value().getContent()).extracting(TaskResponseDTO::id).containsExactly(3L);
+        verify(listCache, never()).get(any(), anyString(), any());
+        verifyNoInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should reject a malformed cursor before querying the repository.
+     */
+    @Test
+    void shouldThrowIllegalArgument_whenCursorMalformed() {
+        // Act + Assert
+        assertThatThrownBy(() -> service.listAfter("not-a-cursor", 20, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        verifyNoInteractions(taskRepo, projectRepo);
+    }
+
     // --- UPDATE ---
 
     /**
      * Should update task when target project exists and title is unique.
-     * Verifies that the repository's findById, findById, and
-     * existsByProject_IdAndTitleIgnoreCaseAndIdNot methods are called.
+     * Verifies that the repository's findById, findById and flush methods are
+     * called.
      * Asserts that the returned DTO has the expected values.
      * 
      * @param id
@@ -374,14 +995,13 @@ class TaskServiceImplTest {
                 oldProject);
 
         when(taskRepo.findById(500L)).thenReturn(Optional.of(entity));
-        when(projectRepo.findById(51L)).thenReturn(Optional.of(newProject));
-        when(taskRepo.existsByProject_IdAndTitleIgnoreCaseAndIdNot(51L, "NewTitle", 500L)).thenReturn(false);
+        when(projectRepo.getReferenceById(51L)).thenReturn(newProject);
 
         TaskUpdateRequestDTO req = TestDataFactory.taskUpdateReq("NewTitle", "nd", TaskStatus.DOING, TaskPriority.HIGH,
                 LocalDate.of(2025, 1, 1), 51L);
 
         // Act
-        TaskResponseDTO res = service.update(500L, req);
+        TaskResponseDTO res = service.update(500L, req, null).value();
 
         // Assert
         assertThat(res.id()).isEqualTo(500L);
@@ -390,8 +1010,282 @@ class TaskServiceImplTest {
         assertThat(res.priority()).isEqualTo(TaskPriority.HIGH);
         assertThat(res.project().id()).isEqualTo(51L);
         verify(taskRepo).findById(500L);
-        verify(projectRepo).findById(51L);
-        verify(taskRepo).existsByProject_IdAndTitleIgnoreCaseAndIdNot(51L, "NewTitle", 500L);
+        verify(projectRepo).getReferenceById(51L);
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(50L, 51L));
+        verify(jsonCache).evict(500L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should update task without reading a response for a minimal update.
+     * Verifies that the changes are flushed and no response is read.
+     */
+    @Test
+    void shouldUpdateTask_whenUpdateMinimal() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(5L, "Eve", "eve@mail.com");
+        Project project = TestDataFactory.projectEntity(50L, "P", "p", owner);
+        Task entity = TestDataFactory.taskEntity(501L, "Old", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null,
+                project);
+        when(taskRepo.findById(501L)).thenReturn(Optional.of(entity));
+        when(projectRepo.getReferenceById(50L)).thenReturn(project);
+        TaskUpdateRequestDTO req = TestDataFactory.taskUpdateReq("New", "d", TaskStatus.DONE, TaskPriority.LOW, null,
+                50L);
+
+        // Act
+        service.updateMinimal(501L, req, null);
+
+        // Assert
+        assertThat(entity.getTitle()).isEqualTo("New");
+        assertThat(entity.getStatus()).isEqualTo(TaskStatus.DONE);
+        verify(taskRepo).findById(501L);
+        verify(projectRepo).getReferenceById(50L);
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(50L));
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should update task when its version is one of the expected ones.
+     * Verifies that the returned version joins the task, project and owner
+     * versions.
+     */
+    @Test
+    void shouldUpdateTask_whenVersionMatches() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(5L, "Eve", "eve@mail.com");
+        Project project = TestDataFactory.projectEntity(50L, "P", "p", owner);
+        Task entity = TestDataFactory.taskEntity(502L, "Old", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null,
+                project);
+        when(taskRepo.findById(502L)).thenReturn(Optional.of(entity));
+        when(projectRepo.getReferenceById(50L)).thenReturn(project);
+        TaskUpdateRequestDTO req = TestDataFactory.taskUpdateReq("New", "d", TaskStatus.DONE, TaskPriority.LOW, null,
+                50L);
+
+        // Act
+        String version = service.updateMinimal(502L, req, Set.of("9.9.9", "0.0.0"));
+
+        // Assert
+        assertThat(version).isEqualTo("0.0.0");
+        assertThat(entity.getTitle()).isEqualTo("New");
+        verify(taskRepo).flush();
+    }
+
+    /**
+     * Should throw PreconditionFailedException when the task version is not
+     * one of the expected ones.
+     * Verifies that nothing is changed or flushed.
+     */
+    @Test
+    void shouldThrowPreconditionFailed_whenUpdateVersionStale() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(5L, "Eve", "eve@mail.com");
+        Project project = TestDataFactory.projectEntity(50L, "P", "p", owner);
+        Task entity = TestDataFactory.taskEntity(503L, "Old", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null,
+                project);
+        when(taskRepo.findById(503L)).thenReturn(Optional.of(entity));
+        TaskUpdateRequestDTO req = TestDataFactory.taskUpdateReq("New", "d", TaskStatus.DONE, TaskPriority.LOW, null,
+                50L);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.update(503L, req, Set.of("1.0.0")))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("has been modified");
+        assertThat(entity.getTitle()).isEqualTo("Old");
+        verify(taskRepo).findById(503L);
+        verifyNoMoreInteractions(taskRepo, projectRepo, jsonCache);
+    }
+
+    // --- PATCH ---
+
+    /**
+     * Should patch only the supplied fields, keeping the project.
+     * Verifies that the project is neither looked up nor bound when the patch
+     * does not change it.
+     */
+    @Test
+    void shouldPatchSuppliedFieldsOnly_whenProjectUnchanged() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(5L, "Eve", "eve@mail.com");
+        Project project = TestDataFactory.projectEntity(50L, "P", "p", owner);
+        Task entity = TestDataFactory.taskEntity(510L, "Title", "d", TaskStatus.TODO, TaskPriority.MEDIUM,
+                LocalDate.of(2025, 1, 1), project);
+        when(taskRepo.findById(510L)).thenReturn(Optional.of(entity));
+        TaskPatchRequestDTO req = new TaskPatchRequestDTO(null, null, Optional.of(TaskStatus.DONE), null,
+                Optional.empty(), Optional.of(50L));
+
+        // Act
+        TaskResponseDTO res = service.patch(510L, req, null).value();
+
+        // Assert
+        assertThat(res.title()).isEqualTo("Title");
+        assertThat(res.description()).isEqualTo("d");
+        assertThat(res.status()).isEqualTo(TaskStatus.DONE);
+        assertThat(res.priority()).isEqualTo(TaskPriority.MEDIUM);
+        assertThat(res.dueDate()).isNull();
+        assertThat(res.project().id()).isEqualTo(50L);
+        verify(taskRepo).findById(510L);
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(50L));
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should bind the new project by reference when a patch moves the task.
+     * Verifies that a missing target project (foreign key violation on flush)
+     * is reported as NotFoundException.
+     */
+    @Test
+    void shouldThrowNotFound_whenPatchMovesTaskToMissingProject() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(5L, "Eve", "eve@mail.com");
+        Project project = TestDataFactory.projectEntity(50L, "P", "p", owner);
+        Task entity = TestDataFactory.taskEntity(511L, "Title", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null,
+                project);
+        when(taskRepo.findById(511L)).thenReturn(Optional.of(entity));
+        when(projectRepo.getReferenceById(99L)).thenReturn(TestDataFactory.projectEntity(99L, null, null, null));
+        doThrow(TestDataFactory.constraintViolation(Task.FK_PROJECT)).when(taskRepo).flush();
+        TaskPatchRequestDTO req = new TaskPatchRequestDTO(null, null, null, null, null, Optional.of(99L));
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.patch(511L, req, null))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Project not found: 99");
+        verify(taskRepo).findById(511L);
+        verify(projectRepo).getReferenceById(99L);
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(50L, 99L));
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should throw BusinessRuleException when a patched title is taken in the
+     * project.
+     * Verifies that the title key violation raised by flush is translated and
+     * that no response is read for a minimal patch.
+     */
+    @Test
+    void shouldThrowBusinessRule_whenPatchedTitleTaken() {
+        // Arrange
+        AppUser owner = TestDataFactory.userEntity(5L, "Eve", "eve@mail.com");
+        Project project = TestDataFactory.projectEntity(50L, "P", "p", owner);
+        Task entity = TestDataFactory.taskEntity(512L, "Title", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null,
+                project);
+        when(taskRepo.findById(512L)).thenReturn(Optional.of(entity));
+        doThrow(TestDataFactory.constraintViolation(Task.UK_PROJECT_TITLE)).when(taskRepo).flush();
+        TaskPatchRequestDTO req = new TaskPatchRequestDTO(Optional.of("Taken"), null, null, null, null, null);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.patchMinimal(512L, req, null))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("already exists");
+        verify(taskRepo).findById(512L);
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(50L));
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    // --- STATUS CHANGE ---
+
+    /**
+     * Should change the status with a single repository call.
+     * Verifies that the task is neither loaded nor read back.
+     */
+    @Test
+    void shouldChangeStatus_withSingleUpdate() {
+        // Arrange
+        when(taskRepo.updateStatus(520L, TaskStatus.DONE, TaskStatus.DOING)).thenReturn(1);
+
+        // Act
+        TaskStatusResponseDTO res = service.changeStatus(520L,
+                new TaskStatusChangeRequestDTO(TaskStatus.DONE, TaskStatus.DOING));
+
+        // Assert
+        assertThat(res).isEqualTo(TaskStatusResponseDTO.of(520L, TaskStatus.DONE));
+        verify(taskRepo).updateStatus(520L, TaskStatus.DONE, TaskStatus.DOING);
+        verify(projectRepo).incrementTaskChangeCountByTaskId(520L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Tests the version of the task listings of a project.
+     * Verifies that it is read with a single lookup on the project.
+     */
+    @Test
+    void shouldGetListVersion_fromProject() {
+        // Arrange
+        when(projectRepo.findTaskListVersionById(40L)).thenReturn(Optional.of("7.0.0"));
+
+        // Act
+        Optional<String> version = service.getListVersion(40L);
+
+        // Assert
+        assertThat(version).contains("7.0.0");
+        verify(projectRepo).findTaskListVersionById(40L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Tests that a status change counts as a change of the task listings.
+     * Verifies that the project counter is incremented before the task row is
+     * written (same lock order as every other write).
+     */
+    @Test
+    void shouldCountTaskChange_beforeChangingStatus() {
+        // Arrange
+        when(taskRepo.updateStatus(523L, TaskStatus.DONE, null)).thenReturn(1);
+
+        // Act
+        service.changeStatus(523L, new TaskStatusChangeRequestDTO(TaskStatus.DONE, null));
+
+        // Assert
+        var order = inOrder(projectRepo, taskRepo);
+        order.verify(projectRepo).incrementTaskChangeCountByTaskId(523L);
+        order.verify(taskRepo).updateStatus(523L, TaskStatus.DONE, null);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should throw BusinessRuleException when the task no longer has the
+     * expected status.
+     * Verifies that the current status is read only after the update matched
+     * nothing.
+     */
+    @Test
+    void shouldThrowBusinessRule_whenStatusNotExpected() {
+        // Arrange
+        when(taskRepo.updateStatus(521L, TaskStatus.DONE, TaskStatus.DOING)).thenReturn(0);
+        when(taskRepo.findStatusById(521L)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.changeStatus(521L,
+                new TaskStatusChangeRequestDTO(TaskStatus.DONE, TaskStatus.DOING)))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessage("Task status is TODO, expected DOING");
+        verify(taskRepo).updateStatus(521L, TaskStatus.DONE, TaskStatus.DOING);
+        verify(taskRepo).findStatusById(521L);
+        verify(projectRepo).incrementTaskChangeCountByTaskId(521L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should throw NotFoundException when changing the status of a missing
+     * task.
+     */
+    @Test
+    void shouldThrowNotFound_whenChangeStatusOfMissingTask() {
+        // Arrange
+        when(taskRepo.updateStatus(522L, TaskStatus.DONE, null)).thenReturn(0);
+        when(taskRepo.findStatusById(522L)).thenReturn(Optional.empty());
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.changeStatus(522L, new TaskStatusChangeRequestDTO(TaskStatus.DONE, null)))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Task not found");
+        verify(taskRepo).updateStatus(522L, TaskStatus.DONE, null);
+        verify(taskRepo).findStatusById(522L);
+        verify(projectRepo).incrementTaskChangeCountByTaskId(522L);
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
@@ -412,7 +1306,7 @@ class TaskServiceImplTest {
                 1L);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(600L, req))
+        assertThatThrownBy(() -> service.update(600L, req, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Task not found");
         verify(taskRepo).findById(600L);
@@ -422,7 +1316,7 @@ class TaskServiceImplTest {
     /**
      * Should throw NotFoundException when updating task with missing target
      * project.
-     * Verifies that the repository's findById method is called.
+     * Verifies that the foreign key violation raised by flush is translated.
      * 
      * @param id
      * @param req
@@ -437,25 +1331,27 @@ class TaskServiceImplTest {
         Task entity = TestDataFactory.taskEntity(700L, "Title", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null,
                 oldProject);
         when(taskRepo.findById(700L)).thenReturn(Optional.of(entity));
-        when(projectRepo.findById(999L)).thenReturn(Optional.empty());
+        when(projectRepo.getReferenceById(999L)).thenReturn(TestDataFactory.projectEntity(999L, null, null, null));
+        doThrow(TestDataFactory.constraintViolation(Task.FK_PROJECT)).when(taskRepo).flush();
 
         TaskUpdateRequestDTO req = TestDataFactory.taskUpdateReq("X", "d", TaskStatus.DONE, TaskPriority.LOW, null,
                 999L);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(700L, req))
+        assertThatThrownBy(() -> service.update(700L, req, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Project not found");
         verify(taskRepo).findById(700L);
-        verify(projectRepo).findById(999L);
+        verify(projectRepo).getReferenceById(999L);
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(70L, 999L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
     /**
      * Should throw BusinessRuleException when updating task with duplicate title in
      * target project.
-     * Verifies that the repository's findById and
-     * existsByProject_IdAndTitleIgnoreCaseAndIdNot methods are called.
+     * Verifies that the unique key violation raised by flush is translated.
      * 
      * @param id
      * @param req
@@ -469,19 +1365,20 @@ class TaskServiceImplTest {
         Project project = TestDataFactory.projectEntity(80L, "P", "p", owner);
         Task entity = TestDataFactory.taskEntity(800L, "Old", "d", TaskStatus.TODO, TaskPriority.MEDIUM, null, project);
         when(taskRepo.findById(800L)).thenReturn(Optional.of(entity));
-        when(projectRepo.findById(80L)).thenReturn(Optional.of(project));
-        when(taskRepo.existsByProject_IdAndTitleIgnoreCaseAndIdNot(80L, "Clash", 800L)).thenReturn(true);
+        when(projectRepo.getReferenceById(80L)).thenReturn(project);
+        doThrow(TestDataFactory.constraintViolation(Task.UK_PROJECT_TITLE)).when(taskRepo).flush();
 
         TaskUpdateRequestDTO req = TestDataFactory.taskUpdateReq("Clash", "d2", TaskStatus.DOING, TaskPriority.HIGH,
                 null, 80L);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.update(800L, req))
+        assertThatThrownBy(() -> service.update(800L, req, null))
                 .isInstanceOf(BusinessRuleException.class)
                 .hasMessageContaining("Task title already exists");
         verify(taskRepo).findById(800L);
-        verify(projectRepo).findById(80L);
-        verify(taskRepo).existsByProject_IdAndTitleIgnoreCaseAndIdNot(80L, "Clash", 800L);
+        verify(projectRepo).getReferenceById(80L);
+        verify(taskRepo).flush();
+        verify(projectRepo).incrementTaskChangeCount(List.of(80L));
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
@@ -489,7 +1386,8 @@ class TaskServiceImplTest {
 
     /**
      * Should delete task when it exists.
-     * Verifies that the repository's existsById and deleteById methods are called.
+     * Verifies that the task is deleted with a single repository call
+     * (deleteRowById).
      * 
      * @param id
      * @throws NotFoundException if task is not found (not expected in this test).
@@ -497,20 +1395,21 @@ class TaskServiceImplTest {
     @Test
     void shouldDelete_whenExists() {
         // Arrange
-        when(taskRepo.existsById(900L)).thenReturn(true);
+        when(taskRepo.deleteRowById(900L)).thenReturn(1);
 
         // Act
-        service.delete(900L);
+        service.delete(900L, null);
 
         // Assert
-        verify(taskRepo).existsById(900L);
-        verify(taskRepo).deleteById(900L);
+        verify(taskRepo).deleteRowById(900L);
+        verify(projectRepo).incrementTaskChangeCountByTaskId(900L);
+        verify(jsonCache).evict(900L);
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
     /**
      * Should throw NotFoundException when deleting missing task.
-     * Verifies that the repository's existsById method is called.
+     * Verifies that a zero row count from deleteRowById is reported as not found.
      * 
      * @param id
      * @throws NotFoundException when task is not found.
@@ -518,16 +1417,73 @@ class TaskServiceImplTest {
     @Test
     void shouldThrowNotFound_whenDeleteMissing() {
         // Arrange
-        when(taskRepo.existsById(901L)).thenReturn(false);
+        when(taskRepo.deleteRowById(901L)).thenReturn(0);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.delete(901L))
+        assertThatThrownBy(() -> service.delete(901L, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Task not found");
-        verify(taskRepo).existsById(901L);
+        verify(taskRepo).deleteRowById(901L);
+        verify(projectRepo).incrementTaskChangeCountByTaskId(901L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should delete task with a version-conditioned statement when expected
+     * versions are given.
+     * Verifies that the version is not read when the row is deleted.
+     */
+    @Test
+    void shouldDeleteByVersion_whenVersionMatches() {
+        // Arrange
+        when(taskRepo.deleteRowByIdAndVersionIn(902L, Set.of("1.0.0"))).thenReturn(1);
+
+        // Act
+        service.delete(902L, Set.of("1.0.0"));
+
+        // Assert
+        verify(taskRepo).deleteRowByIdAndVersionIn(902L, Set.of("1.0.0"));
+        verify(projectRepo).incrementTaskChangeCountByTaskId(902L);
         verifyNoMoreInteractions(taskRepo, projectRepo);
     }
 
+    /**
+     * Should throw PreconditionFailedException when the conditional delete
+     * matches nothing but the task exists.
+     * Verifies that the current version is read to tell 412 from 404.
+     */
+    @Test
+    void shouldThrowPreconditionFailed_whenDeleteVersionStale() {
+        // Arrange
+        when(taskRepo.deleteRowByIdAndVersionIn(903L, Set.of("1.0.0"))).thenReturn(0);
+        when(taskRepo.findVersionById(903L)).thenReturn(Optional.of("2.0.0"));
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.delete(903L, Set.of("1.0.0")))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("version 2.0.0");
+        verify(taskRepo).deleteRowByIdAndVersionIn(903L, Set.of("1.0.0"));
+        verify(taskRepo).findVersionById(903L);
+        verify(projectRepo).incrementTaskChangeCountByTaskId(903L);
+        verifyNoMoreInteractions(taskRepo, projectRepo);
+    }
+
+    /**
+     * Should throw NotFoundException when the conditional delete matches
+     * nothing and the task does not exist.
+     */
+    @Test
+    void shouldThrowNotFound_whenDeleteByVersionMissing() {
+        // Arrange
+        when(taskRepo.deleteRowByIdAndVersionIn(904L, Set.of("1.0.0"))).thenReturn(0);
+        when(taskRepo.findVersionById(904L)).thenReturn(Optional.empty());
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.delete(904L, Set.of("1.0.0")))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Task not found");
+    }
+
     // --- SIMPLE DTO VALIDATION ---
 
     /**
@@ -550,6 +1506,28 @@ class TaskServiceImplTest {
         assertThat(violations).anyMatch(v -> v.getPropertyPath().toString().equals("title"));
     }
 
+    /**
+     * Should validate only the fields supplied in a patch.
+     * Asserts that absent fields are not validated, while a cleared title and
+     * a cleared status are rejected.
+     */
+    @Test
+    void shouldValidateSuppliedFieldsOnly_whenPatch() {
+        // Arrange
+        TaskPatchRequestDTO empty = new TaskPatchRequestDTO(null, null, null, null, null, null);
+        TaskPatchRequestDTO cleared = new TaskPatchRequestDTO(Optional.empty(), Optional.empty(), Optional.empty(),
+                null, Optional.empty(), null);
+
+        // Act
+        var none = validator.validate(empty);
+        var violations = validator.validate(cleared);
+
+        // Assert
+        assertThat(none).isEmpty();
+        assertThat(violations).extracting(v -> v.getMessage())
+                .containsExactlyInAnyOrder("Title cannot be blank", "Status cannot be null");
+    }
+
     /**
      * Should fail validation when update status is null.
      * Asserts that the validation violations contain an entry for the status field.
@@ -588,4 +1566,18 @@ class TaskServiceImplTest {
         assertThat(violations).isNotEmpty();
         assertThat(violations).anyMatch(v -> v.getPropertyPath().toString().equals("priority"));
     }
+
+    // Maps task entities to the rows returned by findRowsByIdIn.
+    private static List<TaskRow> toRows(List<Task> tasks) {
+        return tasks.stream()
+                .map(t -> new TaskRow(t.getId(), t.getTitle(), t.getDescription(), t.getStatus(), t.getPriority(),
+                        t.getCreatedAt(), t.getDueDate(), t.getProject().getId()))
+                .toList();
+    }
+
+    // Returns the project as DtoCaches.taskProjects returns it.
+    private static Map<Long, ProjectResponseDTO> taskProjects(Project project) {
+        return Map.of(project.getId(), ProjectResponseDTO.of(project.getId(), project.getName(),
+                project.getDescription(), AppUserMapper.toResponse(project.getOwner())));
+    }
 }
@@ -0,0 +1,85 @@
+package com.jbk.taskboard.testutil;
+
+import com.jbk.taskboard.entity.AppUser;
+import com.jbk.taskboard.entity.Project;
+import com.jbk.taskboard.entity.Task;
+import com.jbk.taskboard.entity.TaskPriority;
+import com.jbk.taskboard.entity.TaskStatus;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+/**
+ * Persists owner → project → task graphs for the repository tests (unlike
+ * TestDataFactory, whose entities are never saved).
+ * The entities are persisted but not flushed; tasks get MEDIUM priority.
+ * This class should not be instantiated.
+ */
+public final class PersistedGraph {
+
+    // Private constructor to prevent instantiation
+    private PersistedGraph() {
+    }
+
+    /**
+     * Persists a user with the given name and email.
+     * 
+     * @param em
+     * @param name
+     * @param email
+     * @return
+     */
+    public static AppUser user(TestEntityManager em, String name, String email) {
+        AppUser u = new AppUser();
+        u.setName(name);
+        u.setEmail(email);
+        return em.persist(u);
+    }
+
+    /**
+     * Persists a project with the given name and owner.
+     * 
+     * @param em
+     * @param name
+     * @param owner
+     * @return
+     */
+    public static Project project(TestEntityManager em, String name, AppUser owner) {
+        Project p = new Project();
+        p.setName(name);
+        p.setOwner(owner);
+        return em.persist(p);
+    }
+
+    /**
+     * Persists a task with the given title and status in a project.
+     * 
+     * @param em
+     * @param title
+     * @param status
+     * @param project
+     * @return
+     */
+    public static Task task(TestEntityManager em, String title, TaskStatus status, Project project) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setStatus(status);
+        t.setPriority(TaskPriority.MEDIUM);
+        t.setProject(project);
+        return em.persist(t);
+    }
+
+    /**
+     * Persists a task with the given status, in a new project of a new
+     * owner, all named after the given label ("label", "label project",
+     * "label task"); the owner's email is the label in lower case with
+     * dashes, at test.com.
+     * 
+     * @param em
+     * @param label
+     * @param status
+     * @return The task; its project and owner are reachable from it.
+     */
+    public static Task ownedTask(TestEntityManager em, String label, TaskStatus status) {
+        AppUser owner = user(em, label, label.toLowerCase().replace(' ', '-') + "@test.com");
+        return task(em, label + " task", status, project(em, label + " project", owner));
+    }
+}
@@ -0,0 +1,37 @@
+package com.jbk.taskboard.testutil;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hibernate session listener that counts the JDBC statements executed.
+ * Register it on a test with the property
+ * spring.jpa.properties.hibernate.session.events.auto=com.jbk.taskboard.testutil.StatementCounter
+ * and reset it once the test data is written.
+ */
+public class StatementCounter implements SessionEventListener {
+
+    private static final AtomicInteger statements = new AtomicInteger();
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statements.incrementAndGet();
+    }
+
+    /**
+     * Resets the count to zero.
+     */
+    public static void reset() {
+        statements.set(0);
+    }
+
+    /**
+     * Returns the number of statements executed since the last reset.
+     * 
+     * @return
+     */
+    public static int count() {
+        return statements.get();
+    }
+}
@@ -7,6 +7,11 @@ import com.jbk.taskboard.dto.task.TaskCreateForProjectRequestDTO;
 import com.jbk.taskboard.dto.task.TaskUpdateRequestDTO;
 import com.jbk.taskboard.entity.*;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.Instant;
 import java.time.LocalDate;
 
@@ -157,4 +162,18 @@ public final class TestDataFactory {
         t.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
         return t;
     }
+
+    /**
+     * Creates the exception Spring reports when a write violates the given
+     * constraint (unique or foreign key).
+     * 
+     * @param constraint
+     * @return
+     */
+    public static DataIntegrityViolationException constraintViolation(String constraint) {
+        SQLException sqle = new SQLIntegrityConstraintViolationException(
+                "Constraint '" + constraint + "' violated", "23000");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqle, constraint));
+    }
 }